@@ -0,0 +1,68 @@
+package com.example.demo.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cost of the per-request rate limit check when every thread hits the same
+ * buckets (worst-case compare-and-set contention) and when each client has its
+ * own. The rates are high enough that every check is admitted.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args=AdmissionControlBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class AdmissionControlBenchmark {
+
+    private AdmissionControl admissionControl;
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private static final AtomicInteger clients = new AtomicInteger();
+
+        String user;
+        String ip;
+
+        @Setup
+        public void identify() {
+            int client = clients.incrementAndGet();
+            user = "user" + client + "@example.com";
+            ip = "10.0.0." + client;
+        }
+    }
+
+    @Setup
+    public void createBuckets() {
+        admissionControl = new AdmissionControl(new SimpleMeterRegistry(), true,
+                1e9, 1_000_000, 1e9, 1_000_000, 100, 1, 100, 1000, 0.8);
+    }
+
+    @Benchmark
+    public long sharedBuckets() {
+        return admissionControl.tryTakeToken("shared@example.com", "10.0.0.1", System.nanoTime());
+    }
+
+    @Benchmark
+    public long perClientBuckets(Client client) {
+        return admissionControl.tryTakeToken(client.user, client.ip, System.nanoTime());
+    }
+}
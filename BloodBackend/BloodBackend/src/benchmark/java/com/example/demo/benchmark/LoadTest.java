@@ -0,0 +1,121 @@
+package com.example.demo.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-model HTTP load test against a running instance: each client sends GETs
+ * to the given paths in turn and waits for the response before sending the next.
+ * Reports throughput, latency percentiles and responses by status for the measured
+ * period (after the warm-up), so that runs against different configurations (e.g.
+ * the default and the virtual profile) can be compared at the same load.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec@load-test \
+ *     "-Dload-test.args=--url=http://localhost:8081 --clients=200 --duration=60 --paths=/api/blood-inventory"
+ * </pre>
+ *
+ * Options: --url, --paths (comma-separated), --clients, --warm-up and --duration
+ * (seconds), --token (sent as Bearer token). Start the instance with
+ * bloodbank.admission.enabled=false, or the per-IP rate limit answers most requests.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    private record Sample(long nanos, int status) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new TreeMap<>(Map.of(
+                "url", "http://localhost:8081",
+                "paths", "/api/blood-inventory",
+                "clients", "50",
+                "warm-up", "10",
+                "duration", "30"));
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --option=value: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        List<URI> uris = Arrays.stream(options.get("paths").split(","))
+                .map(path -> URI.create(options.get("url") + path.trim()))
+                .toList();
+        int clients = Integer.parseInt(options.get("clients"));
+        long warmUpNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("warm-up")));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("duration")));
+        String token = options.get("token");
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        long measureFrom = System.nanoTime() + warmUpNanos;
+        long end = measureFrom + durationNanos;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<List<Sample>>> runs = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            int first = client;
+            runs.add(pool.submit(() -> {
+                List<Sample> samples = new ArrayList<>();
+                for (int i = first; System.nanoTime() < end; i++) {
+                    HttpRequest.Builder request = HttpRequest.newBuilder(uris.get(i % uris.size()))
+                            .timeout(Duration.ofSeconds(30));
+                    if (token != null) {
+                        request.header("Authorization", "Bearer " + token);
+                    }
+                    long started = System.nanoTime();
+                    int status;
+                    try {
+                        status = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    }
+                    if (started >= measureFrom) {
+                        samples.add(new Sample(System.nanoTime() - started, status));
+                    }
+                }
+                return samples;
+            }));
+        }
+
+        List<Sample> samples = new ArrayList<>();
+        for (Future<List<Sample>> run : runs) {
+            samples.addAll(run.get());
+        }
+        pool.shutdown();
+        report(options, samples, durationNanos);
+    }
+
+    private static void report(Map<String, String> options, List<Sample> samples, long durationNanos) {
+        long[] nanos = samples.stream().mapToLong(Sample::nanos).sorted().toArray();
+        Map<Integer, Integer> statuses = new TreeMap<>();
+        samples.forEach(sample -> statuses.merge(sample.status(), 1, Integer::sum));
+        System.out.printf("%s clients against %s%s for %s s%n", options.get("clients"), options.get("url"),
+                options.get("paths"), options.get("duration"));
+        if (nanos.length == 0) {
+            System.out.println("No responses in the measured period");
+            return;
+        }
+        System.out.printf("%d requests, %.1f requests/s%n", nanos.length, nanos.length * 1e9 / durationNanos);
+        System.out.printf("latency ms: p50 %.1f  p90 %.1f  p99 %.1f  max %.1f%n", percentile(nanos, 0.50),
+                percentile(nanos, 0.90), percentile(nanos, 0.99), nanos[nanos.length - 1] / 1e6);
+        System.out.println("responses by status (-1 = I/O error): " + statuses);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))] / 1e6;
+    }
+}
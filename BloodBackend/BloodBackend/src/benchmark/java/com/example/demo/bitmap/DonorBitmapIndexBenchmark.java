@@ -0,0 +1,93 @@
+package com.example.demo.bitmap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-criteria donor queries against the bitmap index: one operation counts the
+ * matches and reads the first page of 50, as the donor search endpoint does. Donors
+ * are generated with skewed blood groups and locations (a few big cities hold most
+ * of them).
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args=DonorBitmapIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DonorBitmapIndexBenchmark {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    private static final Map<String, DonorBitmapIndex.DonorFilter> FILTERS = Map.of(
+            "rare-group", new DonorBitmapIndex.DonorFilter(Set.of("O-"), true, true, null),
+            "four-groups-big-city", new DonorBitmapIndex.DonorFilter(Set.of("O-", "O+", "A-", "A+"), true, true, "City 3"),
+            "eligible", new DonorBitmapIndex.DonorFilter(null, null, true, null),
+            "rare-group-small-city", new DonorBitmapIndex.DonorFilter(Set.of("AB-"), true, true, "City 150"));
+
+    @Param("1000000")
+    public int donors;
+
+    private DonorBitmapIndex index;
+
+    @State(Scope.Benchmark)
+    public static class Query {
+
+        @Param({"rare-group", "four-groups-big-city", "eligible", "rare-group-small-city"})
+        public String criteria;
+    }
+
+    @Setup
+    public void indexDonors() {
+        String[] groups = {"O+", "O+", "O+", "A+", "A+", "B+", "O-", "A-", "AB+", "B-", "AB-"};
+        String[] cities = new String[200];
+        for (int i = 0; i < cities.length; i++) {
+            cities[i] = "City " + i;
+        }
+        Random random = new Random(9);
+        index = new DonorBitmapIndex(TODAY);
+        List<DonorBitmapIndex.DonorAttributes> batch = new ArrayList<>();
+        for (int id = 1; id <= donors; id++) {
+            LocalDate lastDonation = random.nextInt(4) == 0 ? null : TODAY.minusDays(random.nextInt(400));
+            String city = cities[Math.min(cities.length - 1, (int) Math.abs(random.nextGaussian() * 20))];
+            batch.add(new DonorBitmapIndex.DonorAttributes(id, groups[random.nextInt(groups.length)],
+                    random.nextInt(10) != 0, lastDonation, city));
+            if (batch.size() == 10_000) {
+                index.putAllIfAbsent(batch);
+                batch.clear();
+            }
+        }
+        index.putAllIfAbsent(batch);
+    }
+
+    @Benchmark
+    public List<Long> countAndFirstPage(Query query) {
+        DonorBitmapIndex.DonorFilter filter = FILTERS.get(query.criteria);
+        index.count(filter);
+        return index.find(filter, 0, 50);
+    }
+
+    @Benchmark
+    public Map<String, Object> summary() {
+        return index.summary();
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.BloodRequest;
+import com.example.demo.model.Donor;
+import com.example.demo.model.Hospital;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a list response: the same rows as entities, as views by
+ * reflection and as views with their prebuilt serializers. Add -prof gc to the
+ * JMH arguments to see the heap allocated per list.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args=ViewSerializerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViewSerializerBenchmark {
+
+    /**
+     * Discards the output, so that only serialization itself is measured
+     */
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    @Param("10000")
+    public int rows;
+
+    // Configured like the application's mapper: ISO date strings, java.time support
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    // The same mapper, serializing the views by reflection instead of their prebuilt serializers
+    private final ObjectMapper reflective = mapper.copy().setAnnotationIntrospector(new JacksonAnnotationIntrospector() {
+        @Override
+        public Object findSerializer(Annotated annotated) {
+            return null;
+        }
+    });
+
+    private List<Donor> donors;
+    private List<DonorView> donorViews;
+    private List<BloodRequest> requests;
+    private List<BloodRequestView> requestViews;
+
+    @Setup
+    public void setUp() {
+        Hospital hospital = hospital();
+        donors = new ArrayList<>(rows);
+        requests = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            donors.add(donor(id));
+            requests.add(request(id, hospital));
+        }
+        donorViews = donors.stream().map(DonorView::from).toList();
+        requestViews = requests.stream().map(BloodRequestView::from).toList();
+    }
+
+    private static Donor donor(long id) {
+        Donor donor = new Donor();
+        donor.setId(id);
+        donor.setName("Donor " + id);
+        donor.setLocation(id % 2 == 0 ? "Colombo" : "Kandy \"Central\"");
+        donor.setPhone("07700" + id);
+        donor.setBloodGroup("O+");
+        donor.setUsername("donor" + id);
+        donor.setPassword("$2a$10$secret-hash");
+        donor.setEmail("donor" + id + "@example.com");
+        donor.setLastDonation(id % 3 == 0 ? null : LocalDateTime.of(2026, 3, 1, 9, 30).plusMinutes(id));
+        donor.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0));
+        donor.setUpdatedAt(LocalDateTime.of(2026, 1, 2, 3, 4, 5, 600_000_000));
+        return donor;
+    }
+
+    private static BloodRequest request(long id, Hospital hospital) {
+        BloodRequest request = new BloodRequest();
+        request.setId(id);
+        request.setName("Patient " + id);
+        request.setBloodGroup("A-");
+        request.setPhone("07711" + id);
+        request.setEmail("patient" + id + "@example.com");
+        request.setLocation("Galle");
+        request.setReason("Surgery");
+        request.setUnitsNeeded(2);
+        request.setPriority(id % 10 == 0 ? "EMERGENCY" : "NORMAL");
+        request.setRequiredBy(id % 2 == 0 ? null : LocalDateTime.of(2026, 5, 1, 12, 0));
+        request.setHospital(id % 4 == 0 ? null : hospital);
+        request.setCreatedAt(LocalDateTime.of(2026, 4, 1, 8, 0, 1));
+        request.setUpdatedAt(LocalDateTime.of(2026, 4, 1, 8, 0, 1));
+        return request;
+    }
+
+    private static Hospital hospital() {
+        Hospital hospital = new Hospital();
+        hospital.setId(7L);
+        hospital.setName("General");
+        hospital.setAddress("1 Main St");
+        hospital.setContactPerson("Dr. Perera");
+        hospital.setEmail("general@example.com");
+        hospital.setPhone("0112");
+        hospital.setStatus("ACTIVE");
+        return hospital;
+    }
+
+    @Benchmark
+    public void donorsAsEntities() throws IOException {
+        mapper.writeValue(DISCARD, donors);
+    }
+
+    @Benchmark
+    public void donorsAsViewsByReflection() throws IOException {
+        reflective.writeValue(DISCARD, donorViews);
+    }
+
+    @Benchmark
+    public void donorsAsViewsPrebuilt() throws IOException {
+        mapper.writeValue(DISCARD, donorViews);
+    }
+
+    @Benchmark
+    public void requestsAsEntities() throws IOException {
+        mapper.writeValue(DISCARD, requests);
+    }
+
+    @Benchmark
+    public void requestsAsViewsByReflection() throws IOException {
+        reflective.writeValue(DISCARD, requestViews);
+    }
+
+    @Benchmark
+    public void requestsAsViewsPrebuilt() throws IOException {
+        mapper.writeValue(DISCARD, requestViews);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.forecast;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refit cost of the shortfall forecaster: fitting all demand and supply series
+ * (8 blood groups) over the refit window and over the full history, and folding
+ * one more day into a fitted model. The daily totals are what the database
+ * GROUP BY hands the forecaster, built here from synthetic requests.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args=HoltWintersModelBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HoltWintersModelBenchmark {
+
+    private static final double[] WEEKLY_PATTERN = {12, 10, 10, 11, 14, 6, 4};
+    private static final int HISTORY_DAYS = 730;
+    private static final int WINDOW_DAYS = 182;
+    private static final int GROUPS = 8;
+
+    @Param("3000000")
+    public int records;
+
+    private double[][] history;
+    private double[][] window;
+    private HoltWintersModel fitted;
+    private final Random random = new Random(7);
+
+    @Setup
+    public void aggregate() {
+        double[][] demand = new double[GROUPS][HISTORY_DAYS];
+        double[][] supply = new double[GROUPS][HISTORY_DAYS];
+        for (int i = 0; i < records; i++) {
+            int day = random.nextInt(HISTORY_DAYS);
+            int group = random.nextInt(GROUPS);
+            if (random.nextDouble() < WEEKLY_PATTERN[day % 7] / 14.0) {
+                demand[group][day] += 1 + random.nextInt(3);
+            } else {
+                supply[group][day] += 1;
+            }
+        }
+        history = new double[2 * GROUPS][];
+        window = new double[2 * GROUPS][];
+        for (int group = 0; group < GROUPS; group++) {
+            history[2 * group] = demand[group];
+            history[2 * group + 1] = supply[group];
+        }
+        for (int series = 0; series < history.length; series++) {
+            window[series] = new double[WINDOW_DAYS];
+            System.arraycopy(history[series], HISTORY_DAYS - WINDOW_DAYS, window[series], 0, WINDOW_DAYS);
+        }
+        fitted = HoltWintersModel.fit(window[0], 7);
+    }
+
+    @Benchmark
+    public HoltWintersModel[] refitWindow() {
+        return fitAll(window);
+    }
+
+    @Benchmark
+    public HoltWintersModel[] refitHistory() {
+        return fitAll(history);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double foldDay() {
+        fitted.update(random.nextInt(20));
+        return fitted.forecast(1);
+    }
+
+    private static HoltWintersModel[] fitAll(double[][] series) {
+        HoltWintersModel[] models = new HoltWintersModel[series.length];
+        for (int i = 0; i < series.length; i++) {
+            models[i] = HoltWintersModel.fit(series[i], 7);
+        }
+        return models;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.journal;
+
+import com.example.demo.model.InventoryEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replay throughput of the journal projections: one operation applies one event
+ * to the stock, expiring-soon and hospital holdings projections. Events come from
+ * a pool generated in memory, so this measures the apply cost, not reading the
+ * journal from the database.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args=InventoryProjectionsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryProjectionsBenchmark {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final InventoryEvent[] pool = new InventoryEvent[100_000];
+    private List<InventoryProjection> projections;
+    private int next;
+
+    @Setup
+    public void generateEvents() {
+        String[] groups = {"A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-"};
+        String[] statuses = {"AVAILABLE", "RESERVED", "USED", "EXPIRED"};
+        Random random = new Random(3);
+        for (int i = 0; i < pool.length; i++) {
+            String from = random.nextInt(5) == 0 ? null : statuses[random.nextInt(statuses.length)];
+            String to = statuses[random.nextInt(statuses.length)];
+            Long hospital = random.nextInt(4) == 0 ? null : (long) random.nextInt(200);
+            pool[i] = new InventoryEvent(InventoryEvent.STATUS_CHANGED, (long) i, null, groups[random.nextInt(groups.length)],
+                    hospital, NOW.plusHours(random.nextInt(42 * 24)), from, to, 1 + random.nextInt(4));
+        }
+        projections = List.of(new StockByGroupProjection(), new ExpiringSoonProjection(), new HospitalHoldingsProjection());
+    }
+
+    @Benchmark
+    public void applyEvent() {
+        InventoryEvent event = pool[next];
+        next = next + 1 == pool.length ? 0 : next + 1;
+        for (InventoryProjection projection : projections) {
+            projection.apply(event);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.model;
+
+import org.h2.tools.Server;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting rows with IDENTITY ids, one INSERT executed per persist, against
+ * pooled ids, where the inserts go out in JDBC batches at flush. The database is
+ * reached through H2's TCP server, so that every execution is a round trip as it
+ * is with MySQL. Scores are per row, for transactions of {@value #ROWS} rows.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args=PooledTableIdGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PooledTableIdGeneratorBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    private Server server;
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void startDatabase() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        String url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1";
+        sessionFactory = PooledTableIdGeneratorTest.sessionFactoryFor(url, "create-drop", Map.of());
+    }
+
+    @TearDown
+    public void stopDatabase() {
+        sessionFactory.close();
+        server.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Long> identityIds() {
+        return PooledTableIdGeneratorTest.persist(sessionFactory, ROWS, PooledTableIdGeneratorTest::identityItem,
+                item -> item.id);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Long> pooledIds() {
+        return PooledTableIdGeneratorTest.persist(sessionFactory, ROWS, PooledTableIdGeneratorTest::pooledItem,
+                item -> item.id);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.planning;
+
+import com.example.demo.util.BloodCompatibility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planning time for a network of hundreds of hospitals: three lots per hospital
+ * and blood group, and a need for about a third of the hospital/group pairs.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args=TransferPlannerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferPlannerBenchmark {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Param({"100", "500"})
+    public int hospitals;
+
+    private final List<TransferPlanner.Lot> lots = new ArrayList<>();
+    private final List<TransferPlanner.Need> needs = new ArrayList<>();
+
+    @Setup
+    public void buildNetwork() {
+        Random random = new Random(11);
+        long inventoryId = 0;
+        for (long hospital = 1; hospital <= hospitals; hospital++) {
+            for (String group : BloodCompatibility.BLOOD_GROUPS) {
+                for (int lot = 0; lot < 3; lot++) {
+                    lots.add(new TransferPlanner.Lot(++inventoryId, hospital, group,
+                            NOW.plusHours(random.nextInt(42 * 24)), random.nextInt(6)));
+                }
+                if (random.nextInt(3) == 0) {
+                    needs.add(new TransferPlanner.Need(hospital, group, 1 + random.nextInt(20), random.nextInt(4)));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public TransferPlanner.Plan plan() {
+        return TransferPlanner.plan(lots, needs, NOW);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query and update cost of the search index at production scale: 70% donors, 20%
+ * requests and 10% hospitals with realistic names and cities, queried with exact,
+ * prefix, multi-word and misspelt queries (fuzzy matching on).
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args=SearchIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SearchIndexBenchmark {
+
+    private static final String[] FIRST = {"james", "mary", "robert", "patricia", "john", "jennifer", "michael", "linda",
+            "david", "elizabeth", "william", "barbara", "richard", "susan", "joseph", "jessica", "thomas", "sarah",
+            "charles", "karen", "maria", "jose", "wei", "fatima", "ahmed", "olga", "hiroshi", "priya"};
+    private static final String[] LAST = {"smith", "johnson", "williams", "brown", "jones", "garcia", "miller", "davis",
+            "rodriguez", "martinez", "hernandez", "lopez", "gonzalez", "wilson", "anderson", "thomas", "taylor", "moore",
+            "jackson", "martin", "lee", "perez", "thompson", "white", "harris", "sanchez", "clark", "nguyen"};
+    private static final String[] CITIES = {"New York", "Los Angeles", "Chicago", "Houston", "Phoenix", "Philadelphia",
+            "San Antonio", "San Diego", "Dallas", "San Jose", "Austin", "Jacksonville", "Fort Worth", "Columbus",
+            "Charlotte", "Indianapolis", "Seattle", "Denver", "Boston", "Nashville", "Portland", "Las Vegas", "Detroit"};
+    private static final String[] REASONS = {"Emergency surgery", "Accident trauma", "Chemotherapy support",
+            "Childbirth complications", "Anemia treatment", "Cardiac surgery", "Organ transplant", "Burn treatment"};
+
+    @Param("1000000")
+    public int documents;
+
+    private SearchIndex index;
+    private int nextUpdate;
+
+    @State(Scope.Benchmark)
+    public static class Query {
+
+        @Param({"maria", "mari gonz", "jonhson", "new york", "san", "chicgo surgery", "elizabth", "555-123",
+                "hernandez seattle", "organ transplant boston", "garcia123", "wiliams"})
+        public String text;
+    }
+
+    @Setup
+    public void buildIndex() {
+        Random random = new Random(3);
+        index = new SearchIndex();
+        List<SearchDocument> batch = new ArrayList<>();
+        for (int i = 1; i <= documents; i++) {
+            String city = CITIES[random.nextInt(CITIES.length)];
+            if (i % 10 < 7) {
+                String firstName = FIRST[random.nextInt(FIRST.length)];
+                String lastName = LAST[random.nextInt(LAST.length)];
+                batch.add(SearchDocument.donor(i, firstName + " " + lastName, firstName + "." + lastName + i + "@example.com",
+                        String.format("555-%03d-%04d", random.nextInt(1000), random.nextInt(10000)), city, "O+"));
+            } else if (i % 10 < 9) {
+                batch.add(SearchDocument.request(i, "Patient " + i, "A+", city, REASONS[random.nextInt(REASONS.length)], "PENDING"));
+            } else {
+                batch.add(SearchDocument.hospital(i, city + " " + LAST[random.nextInt(LAST.length)] + " Hospital " + i,
+                        random.nextInt(9999) + " Main St, " + city));
+            }
+            if (batch.size() == 5000) {
+                index.putAllIfAbsent(batch);
+                batch.clear();
+            }
+        }
+        index.putAllIfAbsent(batch);
+    }
+
+    @Benchmark
+    public List<SearchHit> search(Query query) {
+        return index.search(query.text, null, null, 20, true);
+    }
+
+    /**
+     * Replaces a donor document, as a live edit does
+     */
+    @Benchmark
+    public void update() {
+        int id = 1 + nextUpdate++ % 10_000 * 10;
+        index.put(SearchDocument.donor(id, "Updated Donor", "updated" + id + "@example.com", "555-000-0000", "Boston", "O+"));
+    }
+}
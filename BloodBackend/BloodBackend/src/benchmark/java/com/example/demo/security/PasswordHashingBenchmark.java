@@ -0,0 +1,90 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password hashing cost: one BCrypt verification per strength, and a login storm
+ * through {@link PasswordHashingExecutor} (one hashing thread per core, the default
+ * queue and deadline) from 64 concurrent callers. The storm reports the latency per
+ * login, verified or rejected (answered with 429), and, as secondary results, how
+ * many of each there were.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args=PasswordHashingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+    private PasswordHashingExecutor hashing;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+
+        public long verified;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            verified = 0;
+            rejected = 0;
+        }
+    }
+
+    @Setup
+    public void hashPassword() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("password");
+        hashing = new PasswordHashingExecutor(encoder, new SimpleMeterRegistry(), 0, 64, 2000);
+    }
+
+    @TearDown
+    public void shutdown() {
+        hashing.shutdown();
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return encoder.matches("password", hash);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean loginStorm(Outcomes outcomes) {
+        try {
+            boolean matches = hashing.matches("password", hash, PasswordHashingExecutor.Priority.LOGIN);
+            outcomes.verified++;
+            return matches;
+        } catch (PasswordHashingRejectedException e) {
+            outcomes.rejected++;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.security;
+
+import com.example.demo.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the per-request revocation check in JwtAuthenticationFilter, for tokens
+ * that are not revoked (the common case, answered by the Bloom filter) and for
+ * revoked ones (confirmed in the exact map).
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args=TokenRevocationListBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenRevocationListBenchmark {
+
+    @Param("10000")
+    public int revokedTokens;
+
+    private TokenRevocationList revocations;
+    private String[] revoked;
+    private final String[] live = new String[4096];
+    private int next;
+
+    @Setup
+    public void revokeTokens() {
+        // Revocations are only saved here, never read back
+        RevokedTokenRepository repository = (RevokedTokenRepository) Proxy.newProxyInstance(
+                RevokedTokenRepository.class.getClassLoader(), new Class<?>[]{RevokedTokenRepository.class},
+                (proxy, method, args) -> args[0]);
+        revocations = new TokenRevocationList(repository, new SimpleMeterRegistry());
+        Date expiresAt = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        revoked = new String[revokedTokens];
+        for (int i = 0; i < revoked.length; i++) {
+            revoked[i] = UUID.randomUUID().toString();
+            revocations.revoke(revoked[i], expiresAt);
+        }
+        for (int i = 0; i < live.length; i++) {
+            live[i] = UUID.randomUUID().toString();
+        }
+    }
+
+    @Benchmark
+    public boolean checkLiveToken() {
+        return revocations.isRevoked(live[next++ & (live.length - 1)]);
+    }
+
+    @Benchmark
+    public boolean checkRevokedToken() {
+        next = next + 1 == revoked.length ? 0 : next + 1;
+        return revocations.isRevoked(revoked[next]);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.boot.task.ThreadPoolTaskExecutorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * {@code @Async} methods (journal and history updates after inventory writes, the
+ * outbox relay after commit) run on Spring Boot's applicationTaskExecutor, sized and
+ * named by the spring.task.execution.* properties: a bounded pool and queue of
+ * "async-" threads, or virtual threads with a concurrency limit in the virtual profile.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig implements AsyncConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+    /**
+     * When the queue is full the submitting thread runs the task itself: the work is
+     * not lost, and writers slow down instead of queueing without bound
+     */
+    @Bean
+    public ThreadPoolTaskExecutorCustomizer callerRunsWhenSaturated() {
+        return executor -> executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (e, method, params) -> logger.error("Async {}.{} failed",
+                method.getDeclaringClass().getSimpleName(), method.getName(), e);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.util.ClassUtils;
+
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Hints for the native image build (see the native profile in pom.xml) that
+ * Spring's AOT processing cannot infer. Beans, the JPA entity mappings and
+ * listeners, the repositories and Spring Security are covered by AOT itself;
+ * this adds:
+ *
+ *  - JSON binding for the entities, views and other response and request
+ *    types, since many endpoints declare ResponseEntity&lt;?&gt; and AOT only
+ *    sees declared return types,
+ *  - jjwt 0.11, which creates its implementation classes by name and finds its
+ *    Jackson serializer and compression codecs through ServiceLoader,
+ *  - the JDK proxies around JDBC connections (TelemetryDataSource and
+ *    LazyConnectionDataSourceProxy),
+ *  - the Caffeine JCache provider named in the Hibernate settings, and the
+ *    application.conf it reads its cache regions from.
+ *
+ * Hibernate needs no runtime proxies: the model has no lazy to-one
+ * associations and nothing uses getReference.
+ */
+public class BloodBackendRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<String> BINDING_PACKAGES = List.of(
+            "com.example.demo.model",
+            "com.example.demo.dto",
+            "com.example.demo.journal",
+            "com.example.demo.search",
+            "com.example.demo.outbox");
+
+    static final List<String> JJWT_CLASSES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.impl.crypto.MacProvider",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    static final String JCACHE_PROVIDER = "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        scanner.addIncludeFilter((reader, factory) -> true);
+        for (String basePackage : BINDING_PACKAGES) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                binding.registerReflectionHints(hints.reflection(),
+                        ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+            }
+        }
+
+        for (String className : JJWT_CLASSES) {
+            hints.reflection().registerType(TypeReference.of(className),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        hints.proxies().registerJdkProxy(Connection.class);
+        hints.proxies().registerJdkProxy(ConnectionProxy.class);
+
+        hints.reflection().registerType(TypeReference.of(JCACHE_PROVIDER), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.resources().registerPattern("application.conf");
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.demo.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides whether an API request may run: per-client token buckets first, then
+ * an adaptive limit on requests in flight.
+ *
+ * Authenticated clients get a bucket per user (the JWT subject), anonymous ones a
+ * larger bucket per IP address, which also covers sign-in attempts. Signed-in users
+ * are not limited per address, as a whole hospital may share one. Addresses are
+ * the ones reported by trusted proxies (see server.forward-headers-strategy).
+ *
+ * Bulk reads (GET) may only use {@code bloodbank.admission.read-share} of the
+ * concurrency limit, so writes still get in while dashboards are polling. Emergency
+ * blood requests and emergency notifications from authenticated users are rate
+ * limited like any other request but never shed.
+ */
+@Component
+public class AdmissionControl {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControl.class);
+
+    private final boolean enabled;
+    private final double userRate;
+    private final int userBurst;
+    private final double ipRate;
+    private final int ipBurst;
+    private final double readShare;
+    private final AimdConcurrencyLimiter limiter;
+    private final Map<String, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+
+    private final Counter rateLimited;
+    private final Counter shed;
+    private final Counter emergencyBypass;
+
+    public AdmissionControl(MeterRegistry meterRegistry,
+                            @Value("${bloodbank.admission.enabled:true}") boolean enabled,
+                            @Value("${bloodbank.admission.user-rate:20}") double userRate,
+                            @Value("${bloodbank.admission.user-burst:40}") int userBurst,
+                            @Value("${bloodbank.admission.ip-rate:50}") double ipRate,
+                            @Value("${bloodbank.admission.ip-burst:100}") int ipBurst,
+                            @Value("${bloodbank.admission.initial-limit:100}") int initialLimit,
+                            @Value("${bloodbank.admission.min-limit:10}") int minLimit,
+                            @Value("${bloodbank.admission.max-limit:200}") int maxLimit,
+                            @Value("${bloodbank.admission.latency-threshold-ms:1000}") long latencyThresholdMillis,
+                            @Value("${bloodbank.admission.read-share:0.8}") double readShare) {
+        this.enabled = enabled;
+        this.userRate = userRate;
+        this.userBurst = userBurst;
+        this.ipRate = ipRate;
+        this.ipBurst = ipBurst;
+        this.readShare = readShare;
+        this.limiter = new AimdConcurrencyLimiter(initialLimit, minLimit, maxLimit, 0.9, latencyThresholdMillis);
+
+        this.rateLimited = Counter.builder("bloodbank.admission.rejected")
+                .description("API requests rejected by admission control")
+                .tag("reason", "rate_limit")
+                .register(meterRegistry);
+        this.shed = Counter.builder("bloodbank.admission.rejected")
+                .description("API requests rejected by admission control")
+                .tag("reason", "overload")
+                .register(meterRegistry);
+        this.emergencyBypass = Counter.builder("bloodbank.admission.emergency")
+                .description("Emergency requests admitted past the concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("bloodbank.admission.limit", limiter, AimdConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit on API requests in flight")
+                .register(meterRegistry);
+        Gauge.builder("bloodbank.admission.in-flight", limiter, AimdConcurrencyLimiter::getInFlight)
+                .description("API requests in flight")
+                .register(meterRegistry);
+        Gauge.builder("bloodbank.admission.buckets", this, control -> control.userBuckets.size() + control.ipBuckets.size())
+                .description("Per-user and per-IP rate limit buckets held in memory")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Take a token from the client's buckets
+     *
+     * @param user Authenticated username, or null
+     * @param ip   Client address, only used for anonymous clients
+     * @return 0 if admitted, otherwise the nanoseconds until the client may retry
+     */
+    public long tryTakeToken(String user, String ip, long now) {
+        TokenBucket bucket = user != null
+                ? userBuckets.computeIfAbsent(user, key -> new TokenBucket(userRate, userBurst))
+                : ipBuckets.computeIfAbsent(ip, key -> new TokenBucket(ipRate, ipBurst));
+        long wait = bucket.tryAcquire(now);
+        if (wait > 0) {
+            rateLimited.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Admit a request under the concurrency limit
+     *
+     * @param read True for bulk reads, which only get part of the limit
+     * @return True if admitted; call {@link #complete} when it finishes
+     */
+    public boolean tryAdmit(boolean read) {
+        if (limiter.tryAcquire(read ? readShare : 1.0)) {
+            return true;
+        }
+        shed.increment();
+        return false;
+    }
+
+    /**
+     * Admit an emergency request whatever the concurrency limit (after its rate limit
+     * check); call {@link #complete} when it finishes
+     */
+    public void admitEmergency() {
+        emergencyBypass.increment();
+        limiter.acquire();
+    }
+
+    public void complete(long startedNanos) {
+        limiter.release(System.nanoTime() - startedNanos);
+    }
+
+    /**
+     * Drop buckets that have refilled completely; they are recreated full on the next request.
+     * A request racing the eviction may take its token from the dropped bucket, which
+     * at worst gives that client one extra burst.
+     */
+    @Scheduled(fixedDelayString = "${bloodbank.admission.bucket-eviction-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        int before = userBuckets.size() + ipBuckets.size();
+        userBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        ipBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        int evicted = before - userBuckets.size() - ipBuckets.size();
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link AdmissionControl} to API requests. Runs in the security chain
+ * right after {@link com.example.demo.security.JwtAuthenticationFilter}, so the
+ * authenticated user (the JWT subject) is known.
+ *
+ * Rate-limited clients get 429 with Retry-After; requests shed under overload
+ * get 503. Every request is rate limited. Creating an emergency notification or
+ * a blood request with EMERGENCY priority is exempt from shedding, but only for
+ * an authenticated user: the filter runs before authorization, so anonymous
+ * requests claiming an emergency would otherwise get in for free.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    // Blood request bodies larger than this (or of unknown length) are not inspected for their priority
+    private static final long MAX_INSPECTED_BODY = 64 * 1024;
+
+    private final AdmissionControl admissionControl;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public AdmissionControlFilter(AdmissionControl admissionControl, ObjectMapper objectMapper) {
+        this.admissionControl = admissionControl;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !admissionControl.isEnabled()
+                || "OPTIONS".equals(request.getMethod())
+                || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long started = System.nanoTime();
+        String user = currentUser();
+        long wait = admissionControl.tryTakeToken(user, request.getRemoteAddr(), started);
+        if (wait > 0) {
+            reject(response, 429, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999)),
+                    "Too many requests, please slow down");
+            return;
+        }
+
+        HttpServletRequest admitted = request;
+        boolean emergency = false;
+        if (user != null) {
+            emergency = isEmergencyNotificationCreation(request);
+            long length = request.getContentLengthLong();
+            // Only bodies of known, small length are read up front; chunked ones are not inspected
+            if (!emergency && isBloodRequestCreation(request) && length >= 0 && length <= MAX_INSPECTED_BODY) {
+                CachedBodyRequest cached = new CachedBodyRequest(request, (int) length);
+                emergency = hasEmergencyPriority(cached.getBody());
+                admitted = cached;
+            }
+        }
+
+        if (emergency) {
+            admissionControl.admitEmergency();
+        } else if (!admissionControl.tryAdmit("GET".equals(request.getMethod()))) {
+            logger.warn("Shedding {} {} under load", request.getMethod(), request.getRequestURI());
+            reject(response, 503, 1, "Server is busy, please retry shortly");
+            return;
+        }
+        try {
+            filterChain.doFilter(admitted, response);
+        } finally {
+            admissionControl.complete(started);
+        }
+    }
+
+    private static boolean isEmergencyNotificationCreation(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return "POST".equals(request.getMethod())
+                && (path.equals("/api/emergency-notifications") || path.startsWith("/api/emergency-notifications/hospital/"));
+    }
+
+    private static boolean isBloodRequestCreation(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return "POST".equals(request.getMethod())
+                && (path.equals("/api/blood-requests") || path.startsWith("/api/blood-requests/hospital/"));
+    }
+
+    private boolean hasEmergencyPriority(byte[] body) {
+        try {
+            return "EMERGENCY".equalsIgnoreCase(objectMapper.readTree(body).path("priority").asText());
+        } catch (IOException e) {
+            // Malformed bodies are admitted normally and rejected by the controller
+            return false;
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static void reject(HttpServletResponse response, int status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status);
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+}
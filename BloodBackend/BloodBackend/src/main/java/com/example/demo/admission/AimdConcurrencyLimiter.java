@@ -0,0 +1,87 @@
+package com.example.demo.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An adaptive limit on requests in flight, adjusted by additive increase and
+ * multiplicative decrease (AIMD) from observed latency.
+ *
+ * A request that completes within the latency threshold while the server is
+ * reasonably busy raises the limit by one; a slower one cuts it by the backoff
+ * ratio, at most once per threshold interval so that one burst of slow
+ * completions does not collapse the limit to its minimum. Once the limit is
+ * reached, further requests are shed instead of queueing behind the slow ones.
+ */
+public final class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                                  long latencyThresholdMillis) {
+        if (minLimit < 1 || minLimit > maxLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid concurrency limit settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+    }
+
+    /**
+     * Admit a request if fewer than {@code share} of the limit are in flight
+     *
+     * @param share Fraction of the limit this kind of request may use (1 for all of it)
+     * @return True if admitted; the caller must then call {@link #release}
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit.get() * share));
+        if (inFlight.incrementAndGet() > allowed) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Admit a request regardless of the limit (it still counts as in flight)
+     */
+    public void acquire() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Record a completed request and adjust the limit
+     *
+     * @param latencyNanos Time the request took
+     */
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        long now = System.nanoTime();
+        if (latencyNanos > latencyThresholdNanos) {
+            long last = lastDecrease.get();
+            if (now - last >= latencyThresholdNanos && lastDecrease.compareAndSet(last, now)) {
+                limit.updateAndGet(value -> Math.max(minLimit, (int) (value * backoffRatio)));
+            }
+        } else if (current * 2 >= limit.get()) {
+            // Only grow while the limit is actually being used, or it drifts up unchecked
+            limit.updateAndGet(value -> Math.min(maxLimit, value + 1));
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket, implemented as the equivalent generic cell rate
+ * algorithm: the whole state is one "theoretical arrival time" in an
+ * {@link AtomicLong}, so taking a token is a read and a compare-and-set.
+ *
+ * The bucket holds {@code burst} tokens and refills at {@code ratePerSecond}.
+ * A full bucket is one whose arrival time is in the past.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong arrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.burstNanos = intervalNanos * burst;
+    }
+
+    /**
+     * Take a token if one is available
+     *
+     * @param now Current {@link System#nanoTime()}
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = arrival.get();
+            long start = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            long next = start + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket has refilled completely, so that dropping it loses nothing
+     */
+    public boolean isFull(long now) {
+        long current = arrival.get();
+        return current == Long.MIN_VALUE || current - now <= 0;
+    }
+}
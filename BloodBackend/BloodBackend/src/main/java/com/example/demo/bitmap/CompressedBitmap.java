@@ -0,0 +1,502 @@
+package com.example.demo.bitmap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative ints in the Roaring layout.
+ *
+ * Values are split by their high 16 bits into chunks of 65536. A chunk holding at
+ * most {@value #ARRAY_LIMIT} values is stored as a sorted {@code char[]} (2 bytes per
+ * value); a denser chunk becomes a fixed 8 KB bitmap. Set operations work chunk by
+ * chunk, merging sorted arrays or combining 64-bit words, so intersecting two large
+ * bitmaps costs a few thousand word operations per populated chunk.
+ *
+ * Not thread-safe; {@link DonorBitmapIndex} guards its bitmaps with a lock.
+ */
+public final class CompressedBitmap {
+
+    static final int ARRAY_LIMIT = 4096;
+    private static final int WORDS = 1024;
+
+    private char[] keys = new char[4];
+    private Object[] chunks = new Object[4];
+    private int[] cardinalities = new int[4];
+    private int size;
+
+    public static CompressedBitmap of(int... values) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    public boolean add(int value) {
+        checkValue(value);
+        char key = (char) (value >>> 16);
+        char low = (char) value;
+        int index = keyIndex(key);
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, key, new char[]{low}, 1);
+            return true;
+        }
+        if (chunks[index] instanceof long[] words) {
+            long mask = 1L << low;
+            if ((words[low >>> 6] & mask) != 0) {
+                return false;
+            }
+            words[low >>> 6] |= mask;
+            cardinalities[index]++;
+            return true;
+        }
+        char[] values = (char[]) chunks[index];
+        int cardinality = cardinalities[index];
+        int position = Arrays.binarySearch(values, 0, cardinality, low);
+        if (position >= 0) {
+            return false;
+        }
+        position = -position - 1;
+        if (cardinality == ARRAY_LIMIT) {
+            long[] words = toWords(values, cardinality);
+            words[low >>> 6] |= 1L << low;
+            chunks[index] = words;
+        } else {
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, cardinality * 2));
+                chunks[index] = values;
+            }
+            System.arraycopy(values, position, values, position + 1, cardinality - position);
+            values[position] = low;
+        }
+        cardinalities[index]++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = keyIndex((char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        if (chunks[index] instanceof long[] words) {
+            long mask = 1L << low;
+            if ((words[low >>> 6] & mask) == 0) {
+                return false;
+            }
+            words[low >>> 6] &= ~mask;
+            if (--cardinalities[index] == ARRAY_LIMIT) {
+                chunks[index] = toValues(words, ARRAY_LIMIT);
+            }
+            return true;
+        }
+        char[] values = (char[]) chunks[index];
+        int cardinality = cardinalities[index];
+        int position = Arrays.binarySearch(values, 0, cardinality, low);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(values, position + 1, values, position, cardinality - position - 1);
+        if (--cardinalities[index] == 0) {
+            removeChunk(index);
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = keyIndex((char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        if (chunks[index] instanceof long[] words) {
+            return (words[low >>> 6] & 1L << low) != 0;
+        }
+        return Arrays.binarySearch((char[]) chunks[index], 0, cardinalities[index], low) >= 0;
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += cardinalities[i];
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public CompressedBitmap copy() {
+        CompressedBitmap copy = new CompressedBitmap();
+        copy.keys = Arrays.copyOf(keys, Math.max(4, size));
+        copy.chunks = new Object[copy.keys.length];
+        copy.cardinalities = Arrays.copyOf(cardinalities, copy.keys.length);
+        copy.size = size;
+        for (int i = 0; i < size; i++) {
+            copy.chunks[i] = chunks[i] instanceof long[] words ? words.clone()
+                    : Arrays.copyOf((char[]) chunks[i], cardinalities[i]);
+        }
+        return copy;
+    }
+
+    /**
+     * Values in ascending order
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            int high = keys[i] << 16;
+            if (chunks[i] instanceof long[] words) {
+                for (int w = 0; w < WORDS; w++) {
+                    long word = words[w];
+                    while (word != 0) {
+                        action.accept(high | w << 6 | Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] values = (char[]) chunks[i];
+                for (int v = 0; v < cardinalities[i]; v++) {
+                    action.accept(high | values[v]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Up to {@code limit} values in ascending order, skipping the first {@code offset};
+     * whole chunks before the offset are skipped by their cardinality
+     */
+    public int[] page(int offset, int limit) {
+        int[] page = new int[Math.max(0, Math.min(limit, cardinality() - offset))];
+        int skip = offset;
+        int filled = 0;
+        for (int i = 0; i < size && filled < page.length; i++) {
+            if (skip >= cardinalities[i]) {
+                skip -= cardinalities[i];
+                continue;
+            }
+            int high = keys[i] << 16;
+            if (chunks[i] instanceof long[] words) {
+                for (int w = 0; w < WORDS && filled < page.length; w++) {
+                    long word = words[w];
+                    int bits = Long.bitCount(word);
+                    if (skip >= bits) {
+                        skip -= bits;
+                        continue;
+                    }
+                    while (word != 0 && filled < page.length) {
+                        if (skip > 0) {
+                            skip--;
+                        } else {
+                            page[filled++] = high | w << 6 | Long.numberOfTrailingZeros(word);
+                        }
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] values = (char[]) chunks[i];
+                for (int v = skip; v < cardinalities[i] && filled < page.length; v++) {
+                    page[filled++] = high | values[v];
+                }
+                skip = 0;
+            }
+        }
+        return page;
+    }
+
+    public static CompressedBitmap and(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                if (a.chunks[i] instanceof char[] x && b.chunks[j] instanceof char[] y) {
+                    char[] out = new char[Math.min(a.cardinalities[i], b.cardinalities[j])];
+                    int count = intersect(x, a.cardinalities[i], y, b.cardinalities[j], out);
+                    result.appendValues(a.keys[i], out, count);
+                } else if (a.chunks[i] instanceof char[] x) {
+                    result.appendValues(a.keys[i], filter(x, a.cardinalities[i], (long[]) b.chunks[j], true), -1);
+                } else if (b.chunks[j] instanceof char[] y) {
+                    result.appendValues(a.keys[i], filter(y, b.cardinalities[j], (long[]) a.chunks[i], true), -1);
+                } else {
+                    long[] x = (long[]) a.chunks[i];
+                    long[] y = (long[]) b.chunks[j];
+                    long[] out = new long[WORDS];
+                    for (int w = 0; w < WORDS; w++) {
+                        out[w] = x[w] & y[w];
+                    }
+                    result.appendWords(a.keys[i], out);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public static CompressedBitmap or(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || i < a.size && a.keys[i] < b.keys[j]) {
+                result.appendCopy(a, i++);
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                result.appendCopy(b, j++);
+            } else {
+                if (a.chunks[i] instanceof char[] x && b.chunks[j] instanceof char[] y
+                        && a.cardinalities[i] + b.cardinalities[j] <= ARRAY_LIMIT) {
+                    char[] out = new char[a.cardinalities[i] + b.cardinalities[j]];
+                    int count = union(x, a.cardinalities[i], y, b.cardinalities[j], out);
+                    result.appendValues(a.keys[i], out, count);
+                } else {
+                    long[] out = a.words(i);
+                    long[] y = b.chunks[j] instanceof long[] words ? words : null;
+                    if (y != null) {
+                        for (int w = 0; w < WORDS; w++) {
+                            out[w] |= y[w];
+                        }
+                    } else {
+                        char[] values = (char[]) b.chunks[j];
+                        for (int v = 0; v < b.cardinalities[j]; v++) {
+                            out[values[v] >>> 6] |= 1L << values[v];
+                        }
+                    }
+                    result.appendWords(a.keys[i], out);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public static CompressedBitmap andNot(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) {
+                j++;
+            }
+            if (j == b.size || b.keys[j] != a.keys[i]) {
+                result.appendCopy(a, i);
+            } else if (a.chunks[i] instanceof char[] x) {
+                long[] exclude = b.words(j);
+                result.appendValues(a.keys[i], filter(x, a.cardinalities[i], exclude, false), -1);
+            } else {
+                long[] out = a.words(i);
+                if (b.chunks[j] instanceof long[] y) {
+                    for (int w = 0; w < WORDS; w++) {
+                        out[w] &= ~y[w];
+                    }
+                } else {
+                    char[] values = (char[]) b.chunks[j];
+                    for (int v = 0; v < b.cardinalities[j]; v++) {
+                        out[values[v] >>> 6] &= ~(1L << values[v]);
+                    }
+                }
+                result.appendWords(a.keys[i], out);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Size of the intersection without building it
+     */
+    public static int andCardinality(CompressedBitmap a, CompressedBitmap b) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                if (a.chunks[i] instanceof long[] x && b.chunks[j] instanceof long[] y) {
+                    for (int w = 0; w < WORDS; w++) {
+                        total += Long.bitCount(x[w] & y[w]);
+                    }
+                } else if (a.chunks[i] instanceof char[] x && b.chunks[j] instanceof char[] y) {
+                    total += intersect(x, a.cardinalities[i], y, b.cardinalities[j], null);
+                } else {
+                    boolean aIsArray = a.chunks[i] instanceof char[];
+                    char[] values = (char[]) (aIsArray ? a.chunks[i] : b.chunks[j]);
+                    long[] words = (long[]) (aIsArray ? b.chunks[j] : a.chunks[i]);
+                    int cardinality = aIsArray ? a.cardinalities[i] : b.cardinalities[j];
+                    for (int v = 0; v < cardinality; v++) {
+                        if ((words[values[v] >>> 6] & 1L << values[v]) != 0) {
+                            total++;
+                        }
+                    }
+                }
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    // ---- Chunk helpers ----
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Bitmap values must be non-negative: " + value);
+        }
+    }
+
+    private int keyIndex(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertChunk(int index, char key, Object chunk, int cardinality) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            chunks = Arrays.copyOf(chunks, size * 2);
+            cardinalities = Arrays.copyOf(cardinalities, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(chunks, index, chunks, index + 1, size - index);
+        System.arraycopy(cardinalities, index, cardinalities, index + 1, size - index);
+        keys[index] = key;
+        chunks[index] = chunk;
+        cardinalities[index] = cardinality;
+        size++;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(chunks, index + 1, chunks, index, size - index - 1);
+        System.arraycopy(cardinalities, index + 1, cardinalities, index, size - index - 1);
+        chunks[--size] = null;
+    }
+
+    /**
+     * Append a chunk of sorted values (results arrive in key order)
+     *
+     * @param count Number of values used, or -1 for the whole array
+     */
+    private void appendValues(char key, char[] values, int count) {
+        int cardinality = count < 0 ? values.length : count;
+        if (cardinality > 0) {
+            insertChunk(size, key, cardinality == values.length ? values : Arrays.copyOf(values, cardinality), cardinality);
+        }
+    }
+
+    private void appendWords(char key, long[] words) {
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        if (cardinality > ARRAY_LIMIT) {
+            insertChunk(size, key, words, cardinality);
+        } else if (cardinality > 0) {
+            insertChunk(size, key, toValues(words, cardinality), cardinality);
+        }
+    }
+
+    private void appendCopy(CompressedBitmap source, int index) {
+        Object chunk = source.chunks[index] instanceof long[] words ? words.clone()
+                : Arrays.copyOf((char[]) source.chunks[index], source.cardinalities[index]);
+        insertChunk(size, source.keys[index], chunk, source.cardinalities[index]);
+    }
+
+    /**
+     * A chunk as a fresh word array
+     */
+    private long[] words(int index) {
+        if (chunks[index] instanceof long[] words) {
+            return words.clone();
+        }
+        return toWords((char[]) chunks[index], cardinalities[index]);
+    }
+
+    private static long[] toWords(char[] values, int cardinality) {
+        long[] words = new long[WORDS];
+        for (int v = 0; v < cardinality; v++) {
+            words[values[v] >>> 6] |= 1L << values[v];
+        }
+        return words;
+    }
+
+    private static char[] toValues(long[] words, int cardinality) {
+        char[] values = new char[cardinality];
+        int filled = 0;
+        for (int w = 0; w < WORDS; w++) {
+            long word = words[w];
+            while (word != 0) {
+                values[filled++] = (char) (w << 6 | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Values that are ({@code keep}) or are not present in the word array
+     */
+    private static char[] filter(char[] values, int cardinality, long[] words, boolean keep) {
+        char[] out = new char[cardinality];
+        int count = 0;
+        for (int v = 0; v < cardinality; v++) {
+            if (((words[values[v] >>> 6] & 1L << values[v]) != 0) == keep) {
+                out[count++] = values[v];
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    /**
+     * Merge-intersect two sorted arrays into {@code out}, or only count when it is null
+     */
+    private static int intersect(char[] x, int xCount, char[] y, int yCount, char[] out) {
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < xCount && j < yCount) {
+            if (x[i] < y[j]) {
+                i++;
+            } else if (x[i] > y[j]) {
+                j++;
+            } else {
+                if (out != null) {
+                    out[count] = x[i];
+                }
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    private static int union(char[] x, int xCount, char[] y, int yCount, char[] out) {
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < xCount || j < yCount) {
+            if (j == yCount || i < xCount && x[i] < y[j]) {
+                out[count++] = x[i++];
+            } else if (i == xCount || x[i] > y[j]) {
+                out[count++] = y[j++];
+            } else {
+                out[count++] = x[i++];
+                j++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.demo.bitmap;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmaps of donor ids per blood group, availability, location and donation day,
+ * so that multi-criteria donor filters and counts are bitmap intersections.
+ *
+ * Eligibility is tracked at day granularity: a donor is deferred from the day of
+ * their last donation until {@value #DEFERRAL_DAYS} days later. Only donation days
+ * still inside that window keep a bitmap; {@link #rollForward} drops the days that
+ * have aged out of it and removes their donors from the deferred set, so the
+ * eligible set is simply all donors minus the deferred ones.
+ */
+public class DonorBitmapIndex {
+
+    public static final int DEFERRAL_DAYS = 56;
+
+    /**
+     * Indexed attributes of one donor
+     */
+    public record DonorAttributes(long id, String bloodGroup, boolean available, LocalDate lastDonation,
+                                  String location) {
+    }
+
+    /**
+     * A filter; null criteria match every donor
+     *
+     * @param bloodGroups Any of these groups
+     * @param location    Location, compared case- and accent-insensitively
+     */
+    public record DonorFilter(Set<String> bloodGroups, Boolean available, Boolean eligible, String location) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final CompressedBitmap all = new CompressedBitmap();
+    private final CompressedBitmap available = new CompressedBitmap();
+    private final CompressedBitmap deferred = new CompressedBitmap();
+    private final Map<String, CompressedBitmap> byGroup = new TreeMap<>();
+    private final Map<String, CompressedBitmap> byLocation = new HashMap<>();
+    private final Map<String, String> locationLabels = new HashMap<>();
+    private final TreeMap<LocalDate, CompressedBitmap> byDonationDay = new TreeMap<>();
+    private final Map<Integer, DonorAttributes> donors = new HashMap<>();
+    private LocalDate today;
+
+    // Ids removed while a bulk load is running, so the load does not re-add them
+    private Set<Integer> removedDuringLoad;
+
+    public DonorBitmapIndex(LocalDate today) {
+        this.today = today;
+    }
+
+    public void put(DonorAttributes donor) {
+        lock.writeLock().lock();
+        try {
+            int id = toInt(donor.id());
+            removeLocked(id);
+            addLocked(id, donor);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add donors from a bulk load, skipping any that a live update already indexed
+     * or removed since the load started
+     */
+    public void putAllIfAbsent(List<DonorAttributes> batch) {
+        lock.writeLock().lock();
+        try {
+            for (DonorAttributes donor : batch) {
+                int id = toInt(donor.id());
+                if (!donors.containsKey(id) && (removedDuringLoad == null || !removedDuringLoad.contains(id))) {
+                    addLocked(id, donor);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long donorId) {
+        lock.writeLock().lock();
+        try {
+            int id = toInt(donorId);
+            removeLocked(id);
+            if (removedDuringLoad != null) {
+                removedDuringLoad.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            removedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endLoad() {
+        lock.writeLock().lock();
+        try {
+            removedDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Advance the index to a new day: donation days that have left the deferral
+     * window stop deferring their donors
+     *
+     * @return Number of donors that became eligible
+     */
+    public int rollForward(LocalDate newToday) {
+        lock.writeLock().lock();
+        try {
+            if (!newToday.isAfter(today)) {
+                return 0;
+            }
+            today = newToday;
+            int released = 0;
+            NavigableMap<LocalDate, CompressedBitmap> expired = byDonationDay.headMap(deferralStart(), false);
+            for (CompressedBitmap day : expired.values()) {
+                day.forEach(deferred::remove);
+                released += day.cardinality();
+            }
+            expired.clear();
+            return released;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public LocalDate today() {
+        lock.readLock().lock();
+        try {
+            return today;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count(DonorFilter filter) {
+        lock.readLock().lock();
+        try {
+            return select(filter).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of matching donors in ascending order
+     */
+    public List<Long> find(DonorFilter filter, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int[] page = select(filter).page(offset, limit);
+            return Arrays.stream(page).mapToObj(id -> (long) id).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Totals for the donor statistics, all from bitmap cardinalities
+     */
+    public Map<String, Object> summary() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            int total = all.cardinality();
+            int availableCount = available.cardinality();
+            summary.put("totalDonors", total);
+            summary.put("activeDonors", availableCount);
+            summary.put("inactiveDonors", total - availableCount);
+            summary.put("eligibleDonors", total - deferred.cardinality());
+            summary.put("eligibleAvailableDonors", availableCount - CompressedBitmap.andCardinality(available, deferred));
+
+            // Donation days in the last 30 days are all still inside the deferral window
+            int recent = 0;
+            for (CompressedBitmap day : byDonationDay.tailMap(today.minusDays(30), true).values()) {
+                recent += day.cardinality();
+            }
+            summary.put("recentDonors", recent);
+            return summary;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Integer> countByBloodGroup() {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            byGroup.forEach((group, bitmap) -> counts.put(group, bitmap.cardinality()));
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Donors per location, keyed by the first spelling seen for each location
+     */
+    public Map<String, Integer> countByLocation() {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> counts = new HashMap<>();
+            byLocation.forEach((key, bitmap) -> counts.put(locationLabels.get(key), bitmap.cardinality()));
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return donors.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalizeLocation(String location) {
+        if (location == null) {
+            return "";
+        }
+        return Normalizer.normalize(location, Normalizer.Form.NFD).replaceAll("\\p{M}+", "")
+                .trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static int toInt(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Donor id out of bitmap range: " + id);
+        }
+        return (int) id;
+    }
+
+    /**
+     * First donation day that still defers a donor today
+     */
+    private LocalDate deferralStart() {
+        return today.minusDays(DEFERRAL_DAYS - 1);
+    }
+
+    // ---- Read lock held ----
+
+    private CompressedBitmap select(DonorFilter filter) {
+        CompressedBitmap result = all;
+        if (filter.bloodGroups() != null) {
+            CompressedBitmap groups = new CompressedBitmap();
+            for (String group : filter.bloodGroups()) {
+                CompressedBitmap bitmap = byGroup.get(group);
+                if (bitmap != null) {
+                    groups = CompressedBitmap.or(groups, bitmap);
+                }
+            }
+            result = groups;
+        }
+        if (filter.location() != null) {
+            result = CompressedBitmap.and(result,
+                    byLocation.getOrDefault(normalizeLocation(filter.location()), new CompressedBitmap()));
+        }
+        if (filter.available() != null) {
+            result = filter.available() ? CompressedBitmap.and(result, available) : CompressedBitmap.andNot(result, available);
+        }
+        if (filter.eligible() != null) {
+            result = filter.eligible() ? CompressedBitmap.andNot(result, deferred) : CompressedBitmap.and(result, deferred);
+        }
+        return result;
+    }
+
+    // ---- Write lock held ----
+
+    private void addLocked(int id, DonorAttributes donor) {
+        donors.put(id, donor);
+        all.add(id);
+        if (donor.available()) {
+            available.add(id);
+        }
+        byGroup.computeIfAbsent(donor.bloodGroup(), group -> new CompressedBitmap()).add(id);
+        String location = normalizeLocation(donor.location());
+        byLocation.computeIfAbsent(location, key -> new CompressedBitmap()).add(id);
+        locationLabels.putIfAbsent(location, donor.location());
+        if (donor.lastDonation() != null && !donor.lastDonation().isBefore(deferralStart())) {
+            byDonationDay.computeIfAbsent(donor.lastDonation(), day -> new CompressedBitmap()).add(id);
+            deferred.add(id);
+        }
+    }
+
+    private void removeLocked(int id) {
+        DonorAttributes donor = donors.remove(id);
+        if (donor == null) {
+            return;
+        }
+        all.remove(id);
+        available.remove(id);
+        deferred.remove(id);
+        removeFrom(byGroup, donor.bloodGroup(), id);
+        String location = normalizeLocation(donor.location());
+        if (removeFrom(byLocation, location, id)) {
+            locationLabels.remove(location);
+        }
+        if (donor.lastDonation() != null) {
+            removeFrom(byDonationDay, donor.lastDonation(), id);
+        }
+    }
+
+    /**
+     * @return True if the key's bitmap became empty and was dropped
+     */
+    private static <K> boolean removeFrom(Map<K, CompressedBitmap> bitmaps, K key, int id) {
+        CompressedBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null && bitmap.remove(id) && bitmap.isEmpty()) {
+            bitmaps.remove(key);
+            return true;
+        }
+        return false;
+    }
+}
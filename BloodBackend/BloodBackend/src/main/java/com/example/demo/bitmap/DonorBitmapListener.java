@@ -0,0 +1,53 @@
+package com.example.demo.bitmap;
+
+import com.example.demo.model.Donor;
+import com.example.demo.service.DonorIndexService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that applies committed donor saves and deletes to the donor
+ * bitmap index
+ */
+@Component
+public class DonorBitmapListener {
+
+    private final ObjectProvider<DonorIndexService> donorIndexService;
+
+    public DonorBitmapListener(ObjectProvider<DonorIndexService> donorIndexService) {
+        this.donorIndexService = donorIndexService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Donor donor) {
+        DonorBitmapIndex.DonorAttributes attributes = new DonorBitmapIndex.DonorAttributes(donor.getId(),
+                donor.getBloodGroup(), donor.isAvailable(),
+                donor.getLastDonation() != null ? donor.getLastDonation().toLocalDate() : null, donor.getLocation());
+        afterCommit(() -> donorIndexService.getObject().index(attributes));
+    }
+
+    @PostRemove
+    public void onRemove(Donor donor) {
+        long id = donor.getId();
+        afterCommit(() -> donorIndexService.getObject().remove(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
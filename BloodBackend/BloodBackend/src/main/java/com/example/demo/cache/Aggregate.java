@@ -0,0 +1,14 @@
+package com.example.demo.cache;
+
+/**
+ * Groups of entities whose changes invalidate cached HTTP responses.
+ */
+public enum Aggregate {
+    DONORS,
+    DONATIONS,
+    INVENTORY,
+    REQUESTS,
+    HOSPITALS,
+    APPOINTMENTS,
+    NOTIFICATIONS
+}
@@ -0,0 +1,48 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.BloodDonation;
+import com.example.demo.model.BloodInventory;
+import com.example.demo.model.BloodRequest;
+import com.example.demo.model.DonationAppointment;
+import com.example.demo.model.Donor;
+import com.example.demo.model.EmergencyNotification;
+import com.example.demo.model.Hospital;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * JPA entity listener that bumps the version of the owning {@link Aggregate}
+ * whenever an entity is inserted, updated or deleted.
+ */
+@Component
+public class AggregateChangeListener {
+
+    private static final Map<Class<?>, Aggregate> AGGREGATES = Map.of(
+            Donor.class, Aggregate.DONORS,
+            BloodDonation.class, Aggregate.DONATIONS,
+            BloodInventory.class, Aggregate.INVENTORY,
+            BloodRequest.class, Aggregate.REQUESTS,
+            Hospital.class, Aggregate.HOSPITALS,
+            DonationAppointment.class, Aggregate.APPOINTMENTS,
+            EmergencyNotification.class, Aggregate.NOTIFICATIONS);
+
+    private final AggregateVersions aggregateVersions;
+
+    public AggregateChangeListener(AggregateVersions aggregateVersions) {
+        this.aggregateVersions = aggregateVersions;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Aggregate aggregate = AGGREGATES.get(entity.getClass());
+        if (aggregate != null) {
+            aggregateVersions.changed(aggregate);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.demo.cache;
+
+import java.util.Set;
+
+/**
+ * Published after a transaction that changed the given aggregates has committed
+ */
+public record AggregateChangedEvent(Set<Aggregate> aggregates) {
+}
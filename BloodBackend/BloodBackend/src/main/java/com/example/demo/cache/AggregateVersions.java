@@ -0,0 +1,112 @@
+package com.example.demo.cache;
+
+import com.example.demo.datasource.ReplicaLagMonitor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-aggregate change counters used to build ETags.
+ *
+ * A counter is bumped after the transaction that changed the aggregate commits,
+ * so a reader that sees the new version also sees the new data. When read-only
+ * transactions go to a separate replica, the counter is bumped a second time
+ * once the replica is guaranteed to have caught up, so a response built from
+ * stale replica data is not cached under the new version.
+ *
+ * Every commit that changed aggregates is also published as an
+ * {@link AggregateChangedEvent}.
+ *
+ * Counters live in memory and start over on restart; the random epoch in every
+ * ETag keeps tags from different runs (or instances) from ever matching.
+ */
+@Component
+public class AggregateVersions {
+
+    private final String epoch = Long.toString(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE, 36);
+    private final Map<Aggregate, AtomicLong> versions = new EnumMap<>(Aggregate.class);
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final TaskScheduler taskScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public AggregateVersions(ReplicaLagMonitor replicaLagMonitor, TaskScheduler taskScheduler,
+                             ApplicationEventPublisher eventPublisher) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.taskScheduler = taskScheduler;
+        this.eventPublisher = eventPublisher;
+        for (Aggregate aggregate : Aggregate.values()) {
+            versions.put(aggregate, new AtomicLong());
+        }
+    }
+
+    /**
+     * Record that an aggregate changed. Inside a transaction the bump is deferred
+     * until commit, and several changes to the same aggregate count once.
+     */
+    public void changed(Aggregate aggregate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(EnumSet.of(aggregate));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Aggregate> pending = (Set<Aggregate>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Aggregate> changed = EnumSet.noneOf(Aggregate.class);
+            TransactionSynchronizationManager.bindResource(this, changed);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AggregateVersions.this);
+                    if (status == STATUS_COMMITTED) {
+                        bump(changed);
+                    }
+                }
+            });
+            pending = changed;
+        }
+        pending.add(aggregate);
+    }
+
+    public long version(Aggregate aggregate) {
+        return versions.get(aggregate).get();
+    }
+
+    /**
+     * Build a weak ETag from the current versions of the given aggregates.
+     *
+     * @param timeBucket For responses that also depend on the clock (e.g. "expiring in
+     *                   7 days"), the tag changes at least once per bucket; null otherwise
+     */
+    public String etag(Duration timeBucket, Aggregate... aggregates) {
+        StringBuilder tag = new StringBuilder("W/\"").append(epoch);
+        for (Aggregate aggregate : aggregates) {
+            tag.append('-').append(Long.toString(version(aggregate), 36));
+        }
+        if (timeBucket != null) {
+            tag.append('-').append(Long.toString(System.currentTimeMillis() / timeBucket.toMillis(), 36));
+        }
+        return tag.append('"').toString();
+    }
+
+    private void bump(Set<Aggregate> aggregates) {
+        aggregates.forEach(aggregate -> versions.get(aggregate).incrementAndGet());
+        if (replicaLagMonitor.isSeparateReplica()) {
+            Set<Aggregate> copy = EnumSet.copyOf(aggregates);
+            taskScheduler.schedule(
+                    () -> copy.forEach(aggregate -> versions.get(aggregate).incrementAndGet()),
+                    Instant.now().plusSeconds(replicaLagMonitor.getMaxLagSeconds() + 1));
+        }
+        eventPublisher.publishEvent(new AggregateChangedEvent(EnumSet.copyOf(aggregates)));
+    }
+}
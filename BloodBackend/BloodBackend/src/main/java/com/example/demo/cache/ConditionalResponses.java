@@ -0,0 +1,79 @@
+package com.example.demo.cache;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Builds version-based conditional GET responses. When the client's
+ * {@code If-None-Match} matches the current aggregate versions, a 304 is
+ * returned without computing or serializing the body.
+ */
+@Component
+public class ConditionalResponses {
+
+    private final AggregateVersions aggregateVersions;
+
+    public ConditionalResponses(AggregateVersions aggregateVersions) {
+        this.aggregateVersions = aggregateVersions;
+    }
+
+    public <T> ResponseEntity<T> ok(WebRequest request, CacheControl cacheControl,
+                                    Supplier<T> body, Aggregate... aggregates) {
+        return ok(request, cacheControl, null, body, aggregates);
+    }
+
+    /**
+     * @param timeBucket See {@link AggregateVersions#etag(Duration, Aggregate...)}
+     */
+    public <T> ResponseEntity<T> ok(WebRequest request, CacheControl cacheControl, Duration timeBucket,
+                                    Supplier<T> body, Aggregate... aggregates) {
+        return ok(request, cacheControl, timeBucket, body, value -> true, aggregates);
+    }
+
+    /**
+     * For bodies that can come back incomplete (e.g. some queries timed out). An
+     * incomplete body is sent without an ETag and with {@code no-store}, so that no
+     * client or cache keeps it and revalidates it as if it were the full one.
+     *
+     * @param timeBucket See {@link AggregateVersions#etag(Duration, Aggregate...)}
+     * @param complete Whether a body is complete
+     */
+    public <T> ResponseEntity<T> ok(WebRequest request, CacheControl cacheControl, Duration timeBucket,
+                                    Supplier<T> body, Predicate<? super T> complete, Aggregate... aggregates) {
+        // Take the tag before reading so a concurrent commit can only make it older than the body
+        String etag = aggregateVersions.etag(timeBucket, aggregates);
+        if (isNotModified(request, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        T value = body.get();
+        if (!complete.test(value)) {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .body(value);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(value);
+    }
+
+    private static boolean isNotModified(WebRequest request, String etag) {
+        // Checked without the servlet response, on which the check would also set the
+        // ETag header; the header is set from the ResponseEntity, only for complete bodies
+        if (request instanceof ServletWebRequest servletRequest) {
+            return new ServletWebRequest(servletRequest.getRequest()).checkNotModified(etag);
+        }
+        return request.checkNotModified(etag);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries {@link RetryOnConflict} methods on {@link ConcurrencyFailureException}
+ * with jittered exponential backoff.
+ *
+ * Ordered ahead of the transaction interceptor so that every attempt runs in a
+ * fresh transaction and persistence context; retrying inside the failed
+ * transaction would only see the same stale state again.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ConflictRetryAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConflictRetryAspect.class);
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    @Autowired
+    public ConflictRetryAspect(MeterRegistry meterRegistry,
+                               @Value("${bloodbank.retry.max-attempts:5}") int maxAttempts,
+                               @Value("${bloodbank.retry.initial-backoff-ms:5}") long initialBackoffMillis,
+                               @Value("${bloodbank.retry.max-backoff-ms:200}") long maxBackoffMillis) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.retries = Counter.builder("bloodbank.conflict.retries").register(meterRegistry);
+        this.exhausted = Counter.builder("bloodbank.conflict.exhausted").register(meterRegistry);
+    }
+
+    @Around("@annotation(com.example.demo.concurrency.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Part of a larger unit of work; let the outermost caller decide
+            return joinPoint.proceed();
+        }
+
+        long backoff = initialBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    logger.warn("{} still conflicting after {} attempts: {}",
+                            joinPoint.getSignature().toShortString(), attempt, e.getMessage());
+                    throw e;
+                }
+                retries.increment();
+                logger.debug("{} conflicted (attempt {}), retrying: {}",
+                        joinPoint.getSignature().toShortString(), attempt, e.getMessage());
+                Thread.sleep(ThreadLocalRandom.current().nextLong(backoff + 1));
+                backoff = Math.min(maxBackoffMillis, backoff * 2);
+            }
+        }
+    }
+}
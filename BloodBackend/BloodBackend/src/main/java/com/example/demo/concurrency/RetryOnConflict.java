@@ -0,0 +1,21 @@
+package com.example.demo.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-run a transactional service method when it loses a race with a concurrent
+ * writer (optimistic lock failure, conditional update that matched no row,
+ * deadlock). Only the outermost call retries; inside an existing transaction the
+ * conflict propagates so the caller's transaction can be retried as a whole.
+ *
+ * @see ConflictRetryAspect
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
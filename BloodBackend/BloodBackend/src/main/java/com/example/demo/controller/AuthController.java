@@ -1,13 +1,15 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.AuthTokens;
 import com.example.demo.dto.LoginRequest;
 import com.example.demo.model.User;
-import com.example.demo.security.JwtUtils;
+import com.example.demo.security.PasswordHashingExecutor;
+import com.example.demo.security.PasswordHashingRejectedException;
+import com.example.demo.service.AuthTokenService;
 import com.example.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -21,10 +23,10 @@ public class AuthController {
     private UserService userService;
     
     @Autowired
-    private JwtUtils jwtUtils;
+    private AuthTokenService authTokenService;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingExecutor passwordHashing;
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
@@ -32,28 +34,17 @@ public class AuthController {
             // Find user by email
             User user = userService.findByUsername(loginRequest.getUsername());
             
-            // For existing users without encoded passwords during transition
-            boolean passwordMatch = false;
-            if (user != null) {
-                if (user.getPassword().startsWith("$2a$")) {
-                    // Password is already encoded
-                    passwordMatch = passwordEncoder.matches(loginRequest.getPassword(), user.getPassword());
-                } else {
-                    // Legacy password comparison - for transition period
-                    passwordMatch = user.getPassword().equals(loginRequest.getPassword());
-                    
-                    // Update to encoded password for future logins
-                    user.setPassword(passwordEncoder.encode(loginRequest.getPassword()));
-                    userService.saveUser(user);
-                }
-            }
+            // Verified on the password hashing pool; legacy plaintext passwords are rehashed in the background
+            boolean passwordMatch = user != null
+                    && userService.verifyPassword(user, loginRequest.getPassword(), PasswordHashingExecutor.Priority.LOGIN);
             
             if (user != null && passwordMatch) {
                 // Generate JWT token
-                String token = jwtUtils.generateJwtToken(user.getEmail(), user.getId(), user.getRole());
+                // Short-lived access token plus a rotating refresh token
+                AuthTokens tokens = authTokenService.issueTokens(user);
                 
                 Map<String, Object> response = new HashMap<>();
-                response.put("token", token);
+                putTokens(response, tokens);
                 response.put("userId", user.getId());
                 response.put("name", user.getName());
                 response.put("email", user.getEmail());
@@ -63,6 +54,8 @@ public class AuthController {
             } else {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid username or password");
             }
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error during login: " + e.getMessage());
         }
@@ -79,26 +72,17 @@ public class AuthController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid admin credentials");
             }
             
-            // Verify password
-            boolean passwordMatch = false;
-            if (user.getPassword().startsWith("$2a$")) {
-                // Password is already encoded
-                passwordMatch = passwordEncoder.matches(loginRequest.getPassword(), user.getPassword());
-            } else {
-                // Legacy password comparison - for transition period
-                passwordMatch = user.getPassword().equals(loginRequest.getPassword());
-                
-                // Update to encoded password for future logins
-                user.setPassword(passwordEncoder.encode(loginRequest.getPassword()));
-                userService.saveUser(user);
-            }
+            // Verify password; admin logins are hashed ahead of everything else
+            boolean passwordMatch = userService.verifyPassword(user, loginRequest.getPassword(),
+                    PasswordHashingExecutor.Priority.ADMIN_LOGIN);
             
             if (passwordMatch) {
                 // Generate JWT token
-                String token = jwtUtils.generateJwtToken(user.getEmail(), user.getId(), user.getRole());
+                // Short-lived access token plus a rotating refresh token
+                AuthTokens tokens = authTokenService.issueTokens(user);
                 
                 Map<String, Object> response = new HashMap<>();
-                response.put("token", token);
+                putTokens(response, tokens);
                 response.put("userId", user.getId());
                 response.put("name", user.getName());
                 response.put("email", user.getEmail());
@@ -108,6 +92,8 @@ public class AuthController {
             } else {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid admin credentials");
             }
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error during admin login: " + e.getMessage());
         }
@@ -126,16 +112,16 @@ public class AuthController {
             user.setRole("USER");
             
             // Encode password
-            user.setPassword(passwordEncoder.encode(user.getPassword()));
+            user.setPassword(passwordHashing.encode(user.getPassword(), PasswordHashingExecutor.Priority.REGISTRATION));
             
             // Save user
             User savedUser = userService.saveUser(user);
             
             // Generate JWT token
-            String token = jwtUtils.generateJwtToken(savedUser.getEmail(), savedUser.getId(), savedUser.getRole());
+            AuthTokens tokens = authTokenService.issueTokens(savedUser);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("token", token);
+            putTokens(response, tokens);
             response.put("userId", savedUser.getId());
             response.put("name", savedUser.getName());
             response.put("email", savedUser.getEmail());
@@ -143,6 +129,8 @@ public class AuthController {
             response.put("message", "User registered successfully");
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error during registration: " + e.getMessage());
         }
@@ -203,18 +191,18 @@ public class AuthController {
             user.setRole("ADMIN");
             
             // Encode password
-            user.setPassword(passwordEncoder.encode(user.getPassword()));
+            user.setPassword(passwordHashing.encode(user.getPassword(), PasswordHashingExecutor.Priority.REGISTRATION));
             
             // Save admin user
             User savedUser = userService.saveUser(user);
             System.out.println("Admin user saved successfully: " + savedUser.getId() + ", " + savedUser.getName() + ", " + savedUser.getEmail() + ", role: " + savedUser.getRole());
             
             // Generate JWT token
-            String token = jwtUtils.generateJwtToken(savedUser.getEmail(), savedUser.getId(), savedUser.getRole());
+            AuthTokens tokens = authTokenService.issueTokens(savedUser);
             System.out.println("JWT token generated successfully");
             
             Map<String, Object> response = new HashMap<>();
-            response.put("token", token);
+            putTokens(response, tokens);
             response.put("userId", savedUser.getId());
             response.put("name", savedUser.getName());
             response.put("email", savedUser.getEmail());
@@ -223,6 +211,8 @@ public class AuthController {
             
             System.out.println("Returning success response for admin registration");
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests();
         } catch (Exception e) {
             e.printStackTrace(); // Log the full stack trace for debugging
             Map<String, Object> errorResponse = new HashMap<>();
@@ -231,4 +221,60 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Exchange a refresh token for a new access token and refresh token. The old
+     * refresh token stops working; presenting it again ends the whole sign-in.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody(required = false) Map<String, String> requestBody) {
+        String refreshToken = requestBody == null ? null : requestBody.get("refreshToken");
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Refresh token is required"));
+        }
+        try {
+            return authTokenService.refresh(refreshToken)
+                    .<ResponseEntity<?>>map(tokens -> {
+                        Map<String, Object> response = new HashMap<>();
+                        putTokens(response, tokens);
+                        return ResponseEntity.ok(response);
+                    })
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                            .body(Map.of("error", "Refresh token is invalid or expired")));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Error refreshing token: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Revoke the caller's access token (Authorization header) and the refresh tokens
+     * of the same sign-in; a refresh token in the body is revoked as well
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                    @RequestBody(required = false) Map<String, String> requestBody) {
+        String accessToken = authorization != null && authorization.regionMatches(true, 0, "Bearer ", 0, 7)
+                ? authorization.substring(7).trim() : null;
+        String refreshToken = requestBody == null ? null : requestBody.get("refreshToken");
+        try {
+            authTokenService.logout(accessToken, refreshToken);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Error during logout: " + e.getMessage()));
+        }
+    }
+
+    private static void putTokens(Map<String, Object> response, AuthTokens tokens) {
+        response.put("token", tokens.token());
+        response.put("refreshToken", tokens.refreshToken());
+        response.put("expiresIn", tokens.expiresIn());
+    }
+
+    /**
+     * The password hashing pool is saturated (e.g. a login storm); ask the client to retry shortly
+     */
+    private ResponseEntity<?> tooManyRequests() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1")
+                .body(Map.of("error", "Too many sign-ins in progress, please retry shortly"));
+    }
+}
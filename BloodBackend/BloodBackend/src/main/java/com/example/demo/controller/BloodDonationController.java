@@ -1,5 +1,6 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.BloodDonationView;
 import com.example.demo.model.BloodDonation;
 import com.example.demo.model.Donor;
 import com.example.demo.service.BloodDonationService;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -48,7 +50,7 @@ public class BloodDonationController {
         
         // Save the donation
         BloodDonation savedDonation = bloodDonationService.saveBloodDonation(bloodDonation);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedDonation);
+        return ResponseEntity.status(HttpStatus.CREATED).body(BloodDonationView.from(savedDonation));
     }
 
     @PostMapping("/record")
@@ -66,18 +68,18 @@ public class BloodDonationController {
         BloodDonation donation = bloodDonationService.recordDonation(
                 donorOpt.get(), quantityMl, healthStatus, notes);
         
-        return ResponseEntity.status(HttpStatus.CREATED).body(donation);
+        return ResponseEntity.status(HttpStatus.CREATED).body(BloodDonationView.from(donation));
     }
 
     @GetMapping
-    public ResponseEntity<List<BloodDonation>> getAllBloodDonations() {
-        List<BloodDonation> donations = bloodDonationService.getAllBloodDonations();
+    public ResponseEntity<List<BloodDonationView>> getAllBloodDonations() {
+        List<BloodDonationView> donations = bloodDonationService.getAllBloodDonationViews();
         return ResponseEntity.ok(donations);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getBloodDonationById(@PathVariable Long id) {
-        Optional<BloodDonation> donation = bloodDonationService.getBloodDonationById(id);
+        Optional<BloodDonationView> donation = bloodDonationService.getBloodDonationViewById(id);
         
         if (donation.isPresent()) {
             return ResponseEntity.ok(donation.get());
@@ -86,30 +88,44 @@ public class BloodDonationController {
         }
     }
 
+    /**
+     * Donor profile history: the donor's totals plus one page of donations, newest first
+     */
     @GetMapping("/donor/{donorId}")
-    public ResponseEntity<List<BloodDonation>> getBloodDonationsByDonorId(@PathVariable Long donorId) {
-        List<BloodDonation> donations = bloodDonationService.getBloodDonationsByDonorId(donorId);
-        return ResponseEntity.ok(donations);
+    public ResponseEntity<?> getBloodDonationsByDonorId(
+            @PathVariable Long donorId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > 200) {
+            return ResponseEntity.badRequest().body(Map.of("error", "page must be >= 0 and size between 1 and 200"));
+        }
+        
+        Optional<Map<String, Object>> history = bloodDonationService.getDonationHistory(donorId, page, size);
+        if (history.isPresent()) {
+            return ResponseEntity.ok(history.get());
+        } else {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @GetMapping("/blood-group/{bloodGroup}")
-    public ResponseEntity<List<BloodDonation>> getBloodDonationsByBloodGroup(@PathVariable String bloodGroup) {
-        List<BloodDonation> donations = bloodDonationService.getBloodDonationsByBloodGroup(bloodGroup);
+    public ResponseEntity<List<BloodDonationView>> getBloodDonationsByBloodGroup(@PathVariable String bloodGroup) {
+        List<BloodDonationView> donations = bloodDonationService.getBloodDonationsByBloodGroup(bloodGroup);
         return ResponseEntity.ok(donations);
     }
 
     @GetMapping("/date-range")
-    public ResponseEntity<List<BloodDonation>> getBloodDonationsInDateRange(
+    public ResponseEntity<List<BloodDonationView>> getBloodDonationsInDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         
-        List<BloodDonation> donations = bloodDonationService.getBloodDonationsInDateRange(startDate, endDate);
+        List<BloodDonationView> donations = bloodDonationService.getBloodDonationsInDateRange(startDate, endDate);
         return ResponseEntity.ok(donations);
     }
 
     @GetMapping("/donor/{donorId}/latest")
     public ResponseEntity<?> getLatestDonationByDonorId(@PathVariable Long donorId) {
-        Optional<BloodDonation> donation = bloodDonationService.getLatestDonationByDonorId(donorId);
+        Optional<BloodDonationView> donation = bloodDonationService.getLatestDonationByDonorId(donorId);
         
         if (donation.isPresent()) {
             return ResponseEntity.ok(donation.get());
@@ -131,7 +147,7 @@ public class BloodDonationController {
         if (existingDonation.isPresent()) {
             bloodDonation.setId(id);
             BloodDonation updatedDonation = bloodDonationService.saveBloodDonation(bloodDonation);
-            return ResponseEntity.ok(updatedDonation);
+            return ResponseEntity.ok(BloodDonationView.from(updatedDonation));
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -1,13 +1,25 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.Aggregate;
+import com.example.demo.cache.ConditionalResponses;
 import com.example.demo.model.BloodInventory;
+import com.example.demo.partition.InventoryScatterGather;
 import com.example.demo.service.BloodInventoryService;
+import com.example.demo.service.DemandForecastService;
+import com.example.demo.service.InventoryJournalService;
+import com.example.demo.service.InventoryHistoryService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -16,11 +28,32 @@ import java.util.Optional;
 @RequestMapping("/api/blood-inventory")
 public class BloodInventoryController {
 
+    // Stock is public and polled by dashboards; summary also depends on the clock (expiring units)
+    private static final CacheControl STOCK_CACHE = CacheControl.maxAge(Duration.ofSeconds(10)).cachePublic();
+    private static final CacheControl SUMMARY_CACHE = CacheControl.maxAge(Duration.ofSeconds(10)).cachePrivate();
+    private static final CacheControl HISTORY_CACHE = CacheControl.maxAge(Duration.ofSeconds(60)).cachePrivate();
+    private static final CacheControl FORECAST_CACHE = CacheControl.maxAge(Duration.ofSeconds(60)).cachePrivate();
+
     private final BloodInventoryService bloodInventoryService;
+    private final InventoryHistoryService inventoryHistoryService;
+    private final DemandForecastService demandForecastService;
+    private final InventoryJournalService inventoryJournalService;
+    private final ConditionalResponses conditionalResponses;
+    private final InventoryScatterGather inventoryScatterGather;
 
     @Autowired
-    public BloodInventoryController(BloodInventoryService bloodInventoryService) {
+    public BloodInventoryController(BloodInventoryService bloodInventoryService,
+                                    InventoryHistoryService inventoryHistoryService,
+                                    DemandForecastService demandForecastService,
+                                    InventoryJournalService inventoryJournalService,
+                                    ConditionalResponses conditionalResponses,
+                                    InventoryScatterGather inventoryScatterGather) {
         this.bloodInventoryService = bloodInventoryService;
+        this.inventoryHistoryService = inventoryHistoryService;
+        this.demandForecastService = demandForecastService;
+        this.inventoryJournalService = inventoryJournalService;
+        this.conditionalResponses = conditionalResponses;
+        this.inventoryScatterGather = inventoryScatterGather;
     }
 
     @PostMapping
@@ -65,9 +98,20 @@ public class BloodInventoryController {
     }
 
     @GetMapping("/stock")
-    public ResponseEntity<Map<String, Integer>> getBloodStock() {
-        Map<String, Integer> bloodStock = bloodInventoryService.getAvailableBloodStock();
-        return ResponseEntity.ok(bloodStock);
+    public ResponseEntity<Map<String, Integer>> getBloodStock(WebRequest request) {
+        return conditionalResponses.ok(request, STOCK_CACHE,
+                bloodInventoryService::getAvailableBloodStock, Aggregate.INVENTORY);
+    }
+
+    /**
+     * Available units per hospital and blood group, gathered from all inventory
+     * partitions in parallel. A view missing partitions that timed out is not cached.
+     */
+    @GetMapping("/hospitals")
+    public ResponseEntity<Map<String, Object>> getStockByHospital(WebRequest request) {
+        return conditionalResponses.ok(request, SUMMARY_CACHE, null,
+                () -> inventoryScatterGather.unitsByHospital("AVAILABLE"), InventoryScatterGather::isComplete,
+                Aggregate.INVENTORY);
     }
 
     @PutMapping("/{id}/status")
@@ -96,7 +140,12 @@ public class BloodInventoryController {
 
     @PostMapping("/allocate")
     public ResponseEntity<?> allocateBlood(@RequestParam String bloodGroup, @RequestParam int units) {
-        boolean allocated = bloodInventoryService.allocateBlood(bloodGroup, units);
+        boolean allocated;
+        try {
+            allocated = bloodInventoryService.allocateBlood(bloodGroup, units);
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Inventory is busy, please retry the allocation.");
+        }
         
         if (allocated) {
             return ResponseEntity.ok().body("Successfully allocated " + units + " units of " + bloodGroup + " blood");
@@ -118,9 +167,72 @@ public class BloodInventoryController {
     }
     
     @GetMapping("/summary")
-    public ResponseEntity<Map<String, Object>> getBloodInventorySummary() {
-        Map<String, Object> summary = bloodInventoryService.getBloodInventorySummary();
-        return ResponseEntity.ok(summary);
+    public ResponseEntity<Map<String, Object>> getBloodInventorySummary(WebRequest request) {
+        return conditionalResponses.ok(request, SUMMARY_CACHE, Duration.ofMinutes(1),
+                bloodInventoryService::getBloodInventorySummary, Aggregate.INVENTORY);
+    }
+    
+    /**
+     * Available-units time series of one blood group, e.g. the last 90 days of O-.
+     * Either pass days, or from/to; granularity is raw, hour, day or auto.
+     */
+    @GetMapping("/history")
+    public ResponseEntity<?> getInventoryHistory(
+            @RequestParam String bloodGroup,
+            @RequestParam(required = false) Integer days,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false, defaultValue = "auto") String granularity,
+            WebRequest request) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(days != null ? days : 30);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "'from' must not be after 'to'"));
+        }
+        if (!List.of("auto", "raw", "hour", "day").contains(granularity.toLowerCase())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "granularity must be auto, raw, hour or day"));
+        }
+        return conditionalResponses.ok(request, HISTORY_CACHE, Duration.ofMinutes(1),
+                () -> inventoryHistoryService.getInventoryHistory(bloodGroup, start, end, granularity),
+                Aggregate.INVENTORY);
+    }
+    
+    /**
+     * Predicted days until each blood group's available stock runs short, from
+     * forecast demand and supply. Forecasts are refreshed in the background.
+     */
+    @GetMapping("/forecast")
+    public ResponseEntity<Map<String, Object>> getShortfallForecast(WebRequest request) {
+        return conditionalResponses.ok(request, FORECAST_CACHE, Duration.ofMinutes(1),
+                demandForecastService::getForecastReport, Aggregate.INVENTORY);
+    }
+    
+    /**
+     * The inventory event journal in order, for auditing and external consumers
+     */
+    @GetMapping("/journal")
+    public ResponseEntity<?> getInventoryJournal(
+            @RequestParam(required = false, defaultValue = "0") long afterId,
+            @RequestParam(required = false, defaultValue = "100") int limit) {
+        if (limit < 1 || limit > 1000) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and 1000"));
+        }
+        return ResponseEntity.ok(inventoryJournalService.getEvents(afterId, limit));
+    }
+    
+    @GetMapping("/{id}/journal")
+    public ResponseEntity<?> getInventoryTrail(@PathVariable Long id) {
+        return ResponseEntity.ok(inventoryJournalService.getTrail(id));
+    }
+    
+    /**
+     * Read models built from the journal: stock by group and status, AVAILABLE
+     * units expiring soon, and units held per hospital
+     */
+    @GetMapping("/projections")
+    public ResponseEntity<Map<String, Object>> getInventoryProjections(
+            @RequestParam(required = false, defaultValue = "7") int expiringWithinDays) {
+        return ResponseEntity.ok(inventoryJournalService.getProjections(expiringWithinDays));
     }
     
     @PostMapping("/transfer")
@@ -128,7 +240,12 @@ public class BloodInventoryController {
             @RequestParam Long sourceId, 
             @RequestParam Long targetId, 
             @RequestParam int units) {
-        boolean transferred = bloodInventoryService.transferBloodUnits(sourceId, targetId, units);
+        boolean transferred;
+        try {
+            transferred = bloodInventoryService.transferBloodUnits(sourceId, targetId, units);
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Inventory is busy, please retry the transfer.");
+        }
         
         if (transferred) {
             return ResponseEntity.ok().body("Successfully transferred " + units + " units");
@@ -1,5 +1,6 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.BloodRequestView;
 import com.example.demo.model.BloodRequest;
 import com.example.demo.model.Hospital;
 import com.example.demo.service.BloodRequestService;
@@ -28,7 +29,7 @@ public class BloodRequestController {
     }
 
     @PostMapping
-    public ResponseEntity<BloodRequest> createBloodRequest(@RequestBody BloodRequest bloodRequest) {
+    public ResponseEntity<BloodRequestView> createBloodRequest(@RequestBody BloodRequest bloodRequest) {
         // Log incoming request data
         System.out.println("Received blood request: " + bloodRequest);
         
@@ -50,7 +51,7 @@ public class BloodRequestController {
         try {
             BloodRequest savedRequest = bloodRequestService.saveBloodRequest(bloodRequest);
             System.out.println("Successfully saved blood request: " + savedRequest);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedRequest);
+            return ResponseEntity.status(HttpStatus.CREATED).body(BloodRequestView.from(savedRequest));
         } catch (Exception e) {
             System.err.println("Error saving blood request: " + e.getMessage());
             e.printStackTrace();
@@ -59,14 +60,14 @@ public class BloodRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<List<BloodRequest>> getAllBloodRequests() {
-        List<BloodRequest> requests = bloodRequestService.getAllBloodRequests();
+    public ResponseEntity<List<BloodRequestView>> getAllBloodRequests() {
+        List<BloodRequestView> requests = bloodRequestService.getAllBloodRequestViews();
         return ResponseEntity.ok(requests);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getBloodRequestById(@PathVariable Long id) {
-        Optional<BloodRequest> request = bloodRequestService.getBloodRequestById(id);
+        Optional<BloodRequestView> request = bloodRequestService.getBloodRequestViewById(id);
         
         if (request.isPresent()) {
             return ResponseEntity.ok(request.get());
@@ -76,26 +77,26 @@ public class BloodRequestController {
     }
 
     @GetMapping("/bloodGroup/{bloodGroup}")
-    public ResponseEntity<List<BloodRequest>> getBloodRequestsByBloodGroup(@PathVariable String bloodGroup) {
-        List<BloodRequest> requests = bloodRequestService.getBloodRequestsByBloodGroup(bloodGroup);
+    public ResponseEntity<List<BloodRequestView>> getBloodRequestsByBloodGroup(@PathVariable String bloodGroup) {
+        List<BloodRequestView> requests = bloodRequestService.getBloodRequestsByBloodGroup(bloodGroup);
         return ResponseEntity.ok(requests);
     }
 
     @GetMapping("/location/{location}")
-    public ResponseEntity<List<BloodRequest>> getBloodRequestsByLocation(@PathVariable String location) {
-        List<BloodRequest> requests = bloodRequestService.getBloodRequestsByLocation(location);
+    public ResponseEntity<List<BloodRequestView>> getBloodRequestsByLocation(@PathVariable String location) {
+        List<BloodRequestView> requests = bloodRequestService.getBloodRequestsByLocation(location);
         return ResponseEntity.ok(requests);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<BloodRequest>> getBloodRequestsByStatus(@PathVariable String status) {
-        List<BloodRequest> requests = bloodRequestService.getBloodRequestsByStatus(status);
+    public ResponseEntity<List<BloodRequestView>> getBloodRequestsByStatus(@PathVariable String status) {
+        List<BloodRequestView> requests = bloodRequestService.getBloodRequestsByStatus(status);
         return ResponseEntity.ok(requests);
     }
 
     @GetMapping("/email/{email}")
-    public ResponseEntity<List<BloodRequest>> getBloodRequestsByEmail(@PathVariable String email) {
-        List<BloodRequest> requests = bloodRequestService.getBloodRequestsByEmail(email);
+    public ResponseEntity<List<BloodRequestView>> getBloodRequestsByEmail(@PathVariable String email) {
+        List<BloodRequestView> requests = bloodRequestService.getBloodRequestsByEmail(email);
         return ResponseEntity.ok(requests);
     }
 
@@ -108,7 +109,7 @@ public class BloodRequestController {
             bloodRequest.setId(id);
             
             BloodRequest updatedRequest = bloodRequestService.saveBloodRequest(bloodRequest);
-            return ResponseEntity.ok(updatedRequest);
+            return ResponseEntity.ok(BloodRequestView.from(updatedRequest));
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -119,7 +120,7 @@ public class BloodRequestController {
         Optional<BloodRequest> updatedRequest = bloodRequestService.updateBloodRequestStatus(id, status);
         
         if (updatedRequest.isPresent()) {
-            return ResponseEntity.ok(updatedRequest.get());
+            return ResponseEntity.ok(BloodRequestView.from(updatedRequest.get()));
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -138,14 +139,14 @@ public class BloodRequestController {
     }
     
     @GetMapping("/hospital/{hospitalId}")
-    public ResponseEntity<List<BloodRequest>> getBloodRequestsByHospital(@PathVariable Long hospitalId) {
-        List<BloodRequest> requests = bloodRequestService.getBloodRequestsByHospital(hospitalId);
+    public ResponseEntity<List<BloodRequestView>> getBloodRequestsByHospital(@PathVariable Long hospitalId) {
+        List<BloodRequestView> requests = bloodRequestService.getBloodRequestsByHospital(hospitalId);
         return ResponseEntity.ok(requests);
     }
     
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<BloodRequest>> getBloodRequestsByPriority(@PathVariable String priority) {
-        List<BloodRequest> requests = bloodRequestService.getBloodRequestsByPriority(priority);
+    public ResponseEntity<List<BloodRequestView>> getBloodRequestsByPriority(@PathVariable String priority) {
+        List<BloodRequestView> requests = bloodRequestService.getBloodRequestsByPriority(priority);
         return ResponseEntity.ok(requests);
     }
     
@@ -154,7 +155,7 @@ public class BloodRequestController {
         Optional<BloodRequest> updatedRequest = bloodRequestService.updateUnitsProvided(id, unitsProvided);
         
         if (updatedRequest.isPresent()) {
-            return ResponseEntity.ok(updatedRequest.get());
+            return ResponseEntity.ok(BloodRequestView.from(updatedRequest.get()));
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -166,7 +167,7 @@ public class BloodRequestController {
         
         if (hospital.isPresent()) {
             BloodRequest createdRequest = bloodRequestService.createHospitalRequest(bloodRequest, hospital.get());
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdRequest);
+            return ResponseEntity.status(HttpStatus.CREATED).body(BloodRequestView.from(createdRequest));
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -0,0 +1,40 @@
+package com.example.demo.controller;
+
+import com.example.demo.outbox.DomainEvent;
+import com.example.demo.outbox.RecentEventsFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Feed of recent domain events (donations recorded, requests created, critical
+ * stock, emergency notifications) delivered through the outbox
+ */
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class DomainEventController {
+
+    private final RecentEventsFeed recentEventsFeed;
+
+    @Autowired
+    public DomainEventController(RecentEventsFeed recentEventsFeed) {
+        this.recentEventsFeed = recentEventsFeed;
+    }
+
+    /**
+     * Poll with the id of the last event seen to get only newer ones. Only events
+     * delivered on the instance that answers are included (see {@link RecentEventsFeed}).
+     */
+    @GetMapping("/recent")
+    public ResponseEntity<List<DomainEvent>> getRecentEvents(
+            @RequestParam(required = false, defaultValue = "0") long afterId) {
+        return ResponseEntity.ok(recentEventsFeed.getEventsAfter(afterId));
+    }
+}
@@ -1,26 +1,36 @@
 package com.example.demo.controller;
 
+import com.example.demo.bitmap.DonorBitmapIndex;
+import com.example.demo.dto.DonorView;
 import com.example.demo.dto.LoginRequest;
 import com.example.demo.model.Donor;
+import com.example.demo.search.SearchType;
 import com.example.demo.service.DonorService;
+import com.example.demo.service.SearchService;
+import com.example.demo.util.BloodCompatibility;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/donors")
 public class DonorController {
 
     private final DonorService donorService;
+    private final SearchService searchService;
 
     @Autowired
-    public DonorController(DonorService donorService) {
+    public DonorController(DonorService donorService, SearchService searchService) {
         this.donorService = donorService;
+        this.searchService = searchService;
     }
 
     @PostMapping
@@ -37,10 +47,7 @@ public class DonorController {
         // Save the donor
         Donor savedDonor = donorService.saveDonor(donor);
         
-        // Remove password from the response
-        savedDonor.setPassword(null);
-        
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedDonor);
+        return ResponseEntity.status(HttpStatus.CREATED).body(DonorView.from(savedDonor));
     }
 
     @PostMapping("/login")
@@ -48,61 +55,89 @@ public class DonorController {
         Optional<Donor> donor = donorService.authenticateDonor(loginRequest.getUsername(), loginRequest.getPassword());
         
         if (donor.isPresent()) {
-            // Remove password from the response
-            Donor authenticatedDonor = donor.get();
-            authenticatedDonor.setPassword(null);
-            
-            return ResponseEntity.ok(authenticatedDonor);
+            return ResponseEntity.ok(DonorView.from(donor.get()));
         } else {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid username or password");
         }
     }
 
     @GetMapping
-    public ResponseEntity<List<Donor>> getAllDonors() {
-        List<Donor> donors = donorService.getAllDonors();
-        
-        // Remove passwords from response
-        donors.forEach(donor -> donor.setPassword(null));
-        
+    public ResponseEntity<List<DonorView>> getAllDonors() {
+        List<DonorView> donors = donorService.getAllDonorViews();
         return ResponseEntity.ok(donors);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getDonorById(@PathVariable Long id) {
-        Optional<Donor> donor = donorService.getDonorById(id);
+        Optional<DonorView> donor = donorService.getDonorViewById(id);
         
         if (donor.isPresent()) {
-            // Remove password from response
-            Donor foundDonor = donor.get();
-            foundDonor.setPassword(null);
-            
-            return ResponseEntity.ok(foundDonor);
+            return ResponseEntity.ok(donor.get());
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
     @GetMapping("/bloodGroup/{bloodGroup}")
-    public ResponseEntity<List<Donor>> getDonorsByBloodGroup(@PathVariable String bloodGroup) {
-        List<Donor> donors = donorService.getDonorsByBloodGroup(bloodGroup);
-        
-        // Remove passwords from response
-        donors.forEach(donor -> donor.setPassword(null));
-        
+    public ResponseEntity<List<DonorView>> getDonorsByBloodGroup(@PathVariable String bloodGroup) {
+        List<DonorView> donors = donorService.getDonorsByBloodGroup(bloodGroup);
         return ResponseEntity.ok(donors);
     }
 
     @GetMapping("/location/{location}")
-    public ResponseEntity<List<Donor>> getDonorsByLocation(@PathVariable String location) {
-        List<Donor> donors = donorService.getDonorsByLocation(location);
-        
-        // Remove passwords from response
-        donors.forEach(donor -> donor.setPassword(null));
-        
+    public ResponseEntity<List<DonorView>> getDonorsByLocation(@PathVariable String location) {
+        List<DonorView> donors = donorService.getDonorsByLocation(location);
         return ResponseEntity.ok(donors);
     }
 
+    /**
+     * Donors matching all given criteria, served from the donor bitmap index
+     *
+     * @param bloodGroup     One or more donor blood groups
+     * @param compatibleWith Recipient blood group; keeps donors whose blood it can receive
+     * @param eligible       Whether the 56-day deferral since the last donation has ended
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<?> filterDonors(@RequestParam(required = false) List<String> bloodGroup,
+                                          @RequestParam(required = false) String compatibleWith,
+                                          @RequestParam(required = false) Boolean available,
+                                          @RequestParam(required = false) Boolean eligible,
+                                          @RequestParam(required = false) String location,
+                                          @RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(defaultValue = "50") int size) {
+        Set<String> groups = null;
+        if (bloodGroup != null) {
+            groups = new LinkedHashSet<>(bloodGroup);
+        }
+        if (compatibleWith != null) {
+            if (!BloodCompatibility.BLOOD_GROUPS.contains(compatibleWith)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Unknown blood group: " + compatibleWith));
+            }
+            Set<String> compatible = new LinkedHashSet<>();
+            for (String group : BloodCompatibility.BLOOD_GROUPS) {
+                if (BloodCompatibility.isCompatible(compatibleWith, group) && (groups == null || groups.contains(group))) {
+                    compatible.add(group);
+                }
+            }
+            groups = compatible;
+        }
+        if (groups != null && !BloodCompatibility.BLOOD_GROUPS.containsAll(groups)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown blood group in " + groups));
+        }
+        if (page < 0 || size < 1 || size > 500) {
+            return ResponseEntity.badRequest().body(Map.of("error", "page must be >= 0 and size between 1 and 500"));
+        }
+
+        try {
+            Map<String, Object> result = donorService.filterDonors(
+                    new DonorBitmapIndex.DonorFilter(groups, available, eligible, location), page, size);
+            return ResponseEntity.ok(result);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5")
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateDonor(@PathVariable Long id, @RequestBody Donor donor) {
         Optional<Donor> existingDonor = donorService.getDonorById(id);
@@ -113,10 +148,7 @@ public class DonorController {
             
             Donor updatedDonor = donorService.saveDonor(donor);
             
-            // Remove password from response
-            updatedDonor.setPassword(null);
-            
-            return ResponseEntity.ok(updatedDonor);
+            return ResponseEntity.ok(DonorView.from(updatedDonor));
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -127,10 +159,7 @@ public class DonorController {
         Optional<Donor> updatedDonor = donorService.updateDonorAvailability(id, available);
         
         if (updatedDonor.isPresent()) {
-            // Remove password from response
-            updatedDonor.get().setPassword(null);
-            
-            return ResponseEntity.ok(updatedDonor.get());
+            return ResponseEntity.ok(DonorView.from(updatedDonor.get()));
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -148,16 +177,24 @@ public class DonorController {
         }
     }
     
+    /**
+     * Exact lookup by email, or with {@code q} a ranked, typo-tolerant search over
+     * donor name, email, phone and location
+     */
     @GetMapping("/search")
-    public ResponseEntity<?> searchDonorByEmail(@RequestParam String email) {
+    public ResponseEntity<?> searchDonorByEmail(@RequestParam(required = false) String email,
+                                                @RequestParam(required = false) String q,
+                                                @RequestParam(defaultValue = "20") int limit) {
+        if (q != null) {
+            return ResponseEntity.ok(searchService.search(q, Set.of(SearchType.DONOR), Math.max(1, Math.min(limit, 100)), true));
+        }
+        if (email == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "email or q is required"));
+        }
         Optional<Donor> donor = donorService.getDonorByEmail(email);
         
         if (donor.isPresent()) {
-            // Remove password from response
-            Donor foundDonor = donor.get();
-            foundDonor.setPassword(null);
-            
-            return ResponseEntity.ok(foundDonor);
+            return ResponseEntity.ok(DonorView.from(donor.get()));
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -1,11 +1,16 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.Aggregate;
+import com.example.demo.cache.ConditionalResponses;
+import com.example.demo.dto.HospitalView;
 import com.example.demo.model.Hospital;
 import com.example.demo.service.HospitalService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -17,28 +22,34 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class HospitalController {
 
+    // Always revalidate; unchanged lists come back as an empty 304
+    private static final CacheControl ACTIVE_HOSPITALS_CACHE = CacheControl.noCache().cachePrivate();
+
     private final HospitalService hospitalService;
+    private final ConditionalResponses conditionalResponses;
 
     @Autowired
-    public HospitalController(HospitalService hospitalService) {
+    public HospitalController(HospitalService hospitalService, ConditionalResponses conditionalResponses) {
         this.hospitalService = hospitalService;
+        this.conditionalResponses = conditionalResponses;
     }
 
     @GetMapping
-    public ResponseEntity<List<Hospital>> getAllHospitals() {
-        List<Hospital> hospitals = hospitalService.getAllHospitals();
+    public ResponseEntity<List<HospitalView>> getAllHospitals() {
+        List<HospitalView> hospitals = hospitalService.getAllHospitals();
         return new ResponseEntity<>(hospitals, HttpStatus.OK);
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<Hospital>> getActiveHospitals() {
-        List<Hospital> hospitals = hospitalService.getActiveHospitals();
-        return new ResponseEntity<>(hospitals, HttpStatus.OK);
+    public ResponseEntity<List<HospitalView>> getActiveHospitals(WebRequest request) {
+        // The views carry no blood requests, so only hospital writes change the list
+        return conditionalResponses.ok(request, ACTIVE_HOSPITALS_CACHE,
+                hospitalService::getActiveHospitals, Aggregate.HOSPITALS);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getHospitalById(@PathVariable Long id) {
-        Optional<Hospital> hospital = hospitalService.getHospitalById(id);
+        Optional<HospitalView> hospital = hospitalService.getHospitalViewById(id);
         
         if (hospital.isPresent()) {
             return new ResponseEntity<>(hospital.get(), HttpStatus.OK);
@@ -71,7 +82,7 @@ public class HospitalController {
             }
             
             Hospital savedHospital = hospitalService.saveHospital(hospital);
-            return new ResponseEntity<>(savedHospital, HttpStatus.CREATED);
+            return new ResponseEntity<>(HospitalView.from(savedHospital), HttpStatus.CREATED);
         } catch (Exception e) {
             Map<String, String> response = new HashMap<>();
             response.put("message", "Error creating hospital: " + e.getMessage());
@@ -122,7 +133,7 @@ public class HospitalController {
             }
             
             Hospital updatedHospital = hospitalService.saveHospital(hospital);
-            return new ResponseEntity<>(updatedHospital, HttpStatus.OK);
+            return new ResponseEntity<>(HospitalView.from(updatedHospital), HttpStatus.OK);
         } catch (Exception e) {
             Map<String, String> response = new HashMap<>();
             response.put("message", "Error updating hospital: " + e.getMessage());
@@ -154,8 +165,8 @@ public class HospitalController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Hospital>> searchHospitals(@RequestParam String query) {
-        List<Hospital> hospitals = hospitalService.searchHospitals(query);
+    public ResponseEntity<List<HospitalView>> searchHospitals(@RequestParam String query) {
+        List<HospitalView> hospitals = hospitalService.searchHospitals(query);
         return new ResponseEntity<>(hospitals, HttpStatus.OK);
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.example.demo.controller;
+
+import com.example.demo.cache.Aggregate;
+import com.example.demo.cache.ConditionalResponses;
+import com.example.demo.model.BloodInventory;
+import com.example.demo.service.BloodInventoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inventory of a single hospital. Every query here is restricted to the hospital's
+ * own rows; cross-hospital views are under /api/blood-inventory/hospitals.
+ */
+@RestController
+@RequestMapping("/api/hospitals/{hospitalId}/inventory")
+public class HospitalInventoryController {
+
+    private static final CacheControl STOCK_CACHE = CacheControl.maxAge(Duration.ofSeconds(10)).cachePrivate();
+
+    private final BloodInventoryService bloodInventoryService;
+    private final ConditionalResponses conditionalResponses;
+
+    @Autowired
+    public HospitalInventoryController(BloodInventoryService bloodInventoryService,
+                                       ConditionalResponses conditionalResponses) {
+        this.bloodInventoryService = bloodInventoryService;
+        this.conditionalResponses = conditionalResponses;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BloodInventory>> getHospitalInventory(@PathVariable Long hospitalId) {
+        return ResponseEntity.ok(bloodInventoryService.getHospitalInventory(hospitalId));
+    }
+
+    @GetMapping("/stock")
+    public ResponseEntity<Map<String, Integer>> getHospitalStock(@PathVariable Long hospitalId, WebRequest request) {
+        return conditionalResponses.ok(request, STOCK_CACHE,
+                () -> bloodInventoryService.getHospitalStock(hospitalId), Aggregate.INVENTORY);
+    }
+
+    @GetMapping("/expiring")
+    public ResponseEntity<List<BloodInventory>> getHospitalExpiringInventory(
+            @PathVariable Long hospitalId, @RequestParam(defaultValue = "7") int days) {
+        return ResponseEntity.ok(bloodInventoryService.getHospitalExpiringInventory(hospitalId, days));
+    }
+
+    @PostMapping("/allocate")
+    public ResponseEntity<?> allocateHospitalBlood(@PathVariable Long hospitalId,
+                                                   @RequestParam String bloodGroup,
+                                                   @RequestParam int units) {
+        boolean allocated;
+        try {
+            allocated = bloodInventoryService.allocateHospitalBlood(hospitalId, bloodGroup, units);
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Inventory is busy, please retry the allocation.");
+        }
+        
+        if (allocated) {
+            return ResponseEntity.ok().body("Successfully allocated " + units + " units of " + bloodGroup
+                    + " blood from hospital " + hospitalId);
+        } else {
+            return ResponseEntity.badRequest().body("Unable to allocate blood. Insufficient inventory at hospital " + hospitalId + ".");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.controller;
+
+import com.example.demo.search.SearchType;
+import com.example.demo.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Search across donors, hospitals and blood requests, served from the in-memory index
+ */
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final SearchService searchService;
+
+    @Autowired
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * @param q     Words to find; the last may be incomplete and any may contain a typo
+     * @param type  DONOR, HOSPITAL and/or REQUEST (default: all)
+     * @param fuzzy Set to false to disable typo tolerance
+     */
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam String q,
+                                    @RequestParam(required = false) List<String> type,
+                                    @RequestParam(defaultValue = "20") int limit,
+                                    @RequestParam(defaultValue = "true") boolean fuzzy) {
+        Set<SearchType> types = EnumSet.noneOf(SearchType.class);
+        if (type != null) {
+            for (String name : type) {
+                try {
+                    types.add(SearchType.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().body(Map.of("error", "Unknown search type: " + name));
+                }
+            }
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and " + MAX_LIMIT));
+        }
+        return ResponseEntity.ok(searchService.search(q, types, limit, fuzzy));
+    }
+
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<?> rebuild() {
+        return ResponseEntity.ok(Map.of("indexed", searchService.rebuild()));
+    }
+}
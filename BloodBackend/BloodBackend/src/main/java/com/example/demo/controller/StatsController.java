@@ -1,14 +1,23 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.Aggregate;
+import com.example.demo.cache.ConditionalResponses;
 import com.example.demo.dto.StatsResponseDto;
 import com.example.demo.service.DatabaseStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -19,21 +28,31 @@ import java.util.Map;
 @CrossOrigin(origins = "*", allowedHeaders = "*")
 public class StatsController {
 
+    // Stats are built from full table scans; let clients reuse them briefly and revalidate
+    // with If-None-Match afterwards. Most of them also depend on the clock ("last 30 days"),
+    // so their ETags roll over every minute even without writes.
+    private static final CacheControl STATS_CACHE = CacheControl.maxAge(Duration.ofSeconds(30)).cachePrivate();
+    private static final Duration STATS_TIME_BUCKET = Duration.ofMinutes(1);
+    
     private final DatabaseStatsService databaseStatsService;
+    private final ConditionalResponses conditionalResponses;
     
     @Autowired
-    public StatsController(DatabaseStatsService databaseStatsService) {
+    public StatsController(DatabaseStatsService databaseStatsService, ConditionalResponses conditionalResponses) {
         this.databaseStatsService = databaseStatsService;
+        this.conditionalResponses = conditionalResponses;
     }
     
     /**
-     * Get overall system statistics
+     * Get overall system statistics; not cached when some of its queries timed out
      * 
      * @return Map containing overall statistics
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getOverallStats() {
-        return ResponseEntity.ok(databaseStatsService.getOverallStats());
+    public ResponseEntity<Map<String, Object>> getOverallStats(WebRequest request) {
+        return conditionalResponses.ok(request, STATS_CACHE, STATS_TIME_BUCKET,
+                databaseStatsService::getOverallStats,
+                stats -> ((List<?>) stats.get("incompleteQueries")).isEmpty(), Aggregate.values());
     }
     
     /**
@@ -42,8 +61,9 @@ public class StatsController {
      * @return Map containing donor statistics
      */
     @GetMapping("/donors")
-    public ResponseEntity<Map<String, Object>> getDonorStats() {
-        return ResponseEntity.ok(databaseStatsService.getDonorStats());
+    public ResponseEntity<Map<String, Object>> getDonorStats(WebRequest request) {
+        return conditionalResponses.ok(request, STATS_CACHE, STATS_TIME_BUCKET,
+                databaseStatsService::getDonorStats, Aggregate.DONORS);
     }
     
     /**
@@ -52,8 +72,38 @@ public class StatsController {
      * @return Map containing donation statistics
      */
     @GetMapping("/donations")
-    public ResponseEntity<Map<String, Object>> getDonationStats() {
-        return ResponseEntity.ok(databaseStatsService.getDonationStats());
+    public ResponseEntity<Map<String, Object>> getDonationStats(WebRequest request) {
+        return conditionalResponses.ok(request, STATS_CACHE, STATS_TIME_BUCKET,
+                databaseStatsService::getDonationStats, Aggregate.DONATIONS);
+    }
+    
+    /**
+     * Get donation counts and volumes per day or month
+     * 
+     * @param from First day (inclusive), defaults to 30 days ago
+     * @param to Last day (inclusive), defaults to today
+     * @param granularity "day" (default) or "month"
+     * @param bloodGroup Optional blood group filter
+     * @return List of trend points in date order
+     */
+    @GetMapping("/donations/trends")
+    public ResponseEntity<?> getDonationTrends(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false, defaultValue = "day") String granularity,
+            @RequestParam(required = false) String bloodGroup,
+            WebRequest request) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(30);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "'from' must not be after 'to'"));
+        }
+        if (!"day".equalsIgnoreCase(granularity) && !"month".equalsIgnoreCase(granularity)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "granularity must be 'day' or 'month'"));
+        }
+        return conditionalResponses.ok(request, STATS_CACHE, STATS_TIME_BUCKET,
+                () -> databaseStatsService.getDonationTrends(start, end, granularity, bloodGroup),
+                Aggregate.DONATIONS);
     }
     
     /**
@@ -62,8 +112,9 @@ public class StatsController {
      * @return Map containing inventory statistics
      */
     @GetMapping("/inventory")
-    public ResponseEntity<Map<String, Object>> getInventoryStats() {
-        return ResponseEntity.ok(databaseStatsService.getInventoryStats());
+    public ResponseEntity<Map<String, Object>> getInventoryStats(WebRequest request) {
+        return conditionalResponses.ok(request, STATS_CACHE, STATS_TIME_BUCKET,
+                databaseStatsService::getInventoryStats, Aggregate.INVENTORY);
     }
     
     /**
@@ -72,8 +123,9 @@ public class StatsController {
      * @return Map containing blood request statistics
      */
     @GetMapping("/requests")
-    public ResponseEntity<Map<String, Object>> getRequestStats() {
-        return ResponseEntity.ok(databaseStatsService.getRequestStats());
+    public ResponseEntity<Map<String, Object>> getRequestStats(WebRequest request) {
+        return conditionalResponses.ok(request, STATS_CACHE, STATS_TIME_BUCKET,
+                databaseStatsService::getRequestStats, Aggregate.REQUESTS);
     }
     
     /**
@@ -82,8 +134,9 @@ public class StatsController {
      * @return Map containing blood group distribution
      */
     @GetMapping("/blood-groups")
-    public ResponseEntity<Map<String, Integer>> getBloodGroupDistribution() {
-        return ResponseEntity.ok(databaseStatsService.getBloodGroupDistribution());
+    public ResponseEntity<Map<String, Integer>> getBloodGroupDistribution(WebRequest request) {
+        return conditionalResponses.ok(request, STATS_CACHE,
+                databaseStatsService::getBloodGroupDistribution, Aggregate.DONORS);
     }
     
     /**
@@ -92,17 +145,21 @@ public class StatsController {
      * @return Map containing donor location distribution
      */
     @GetMapping("/donor-locations")
-    public ResponseEntity<Map<String, Integer>> getDonorLocationDistribution() {
-        return ResponseEntity.ok(databaseStatsService.getDonorLocationDistribution());
+    public ResponseEntity<Map<String, Integer>> getDonorLocationDistribution(WebRequest request) {
+        return conditionalResponses.ok(request, STATS_CACHE,
+                databaseStatsService::getDonorLocationDistribution, Aggregate.DONORS);
     }
     
     /**
-     * Get detailed system statistics with critical info
+     * Get detailed system statistics with critical info; not cached when some of
+     * its queries timed out
      * 
      * @return StatsResponseDto containing comprehensive system statistics
      */
     @GetMapping("/system")
-    public ResponseEntity<StatsResponseDto> getSystemStats() {
-        return ResponseEntity.ok(databaseStatsService.getSystemStats());
+    public ResponseEntity<StatsResponseDto> getSystemStats(WebRequest request) {
+        return conditionalResponses.ok(request, STATS_CACHE, STATS_TIME_BUCKET,
+                databaseStatsService::getSystemStats,
+                stats -> stats.getIncompleteQueries().isEmpty(), Aggregate.values());
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.LoginRequest;
 import com.example.demo.model.User;
+import com.example.demo.security.PasswordHashingRejectedException;
 import com.example.demo.service.UserService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -31,8 +33,13 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.CONFLICT).body("Email already registered");
         }
 
-        // Save the user
-        User savedUser = userService.saveUser(user);
+        // Save the user (hashes the password on the password hashing pool)
+        User savedUser;
+        try {
+            savedUser = userService.saveUser(user);
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests();
+        }
         
         // Remove password from the response
         savedUser.setPassword(null);
@@ -42,7 +49,12 @@ public class UserController {
 
     @PostMapping("/login")
     public ResponseEntity<?> loginUser(@RequestBody LoginRequest loginRequest) {
-        Optional<User> user = userService.authenticateUser(loginRequest.getEmail(), loginRequest.getPassword());
+        Optional<User> user;
+        try {
+            user = userService.authenticateUser(loginRequest.getEmail(), loginRequest.getPassword());
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests();
+        }
         
         if (user.isPresent()) {
             // Remove password from the response
@@ -110,4 +122,9 @@ public class UserController {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<?> tooManyRequests() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1")
+                .body(Map.of("error", "Too many sign-ins in progress, please retry shortly"));
+    }
+}
@@ -1,14 +1,16 @@
 package com.example.demo.controller.admin;
 
+import com.example.demo.dto.BloodDonationView;
 import com.example.demo.model.BloodDonation;
 import com.example.demo.service.BloodDonationService;
+import com.example.demo.service.DonationRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Controller for admin-only blood donation operations
@@ -19,10 +21,13 @@ import java.util.stream.Collectors;
 public class AdminBloodDonationController {
 
     private final BloodDonationService bloodDonationService;
+    private final DonationRollupService donationRollupService;
     
     @Autowired
-    public AdminBloodDonationController(BloodDonationService bloodDonationService) {
+    public AdminBloodDonationController(BloodDonationService bloodDonationService,
+                                        DonationRollupService donationRollupService) {
         this.bloodDonationService = bloodDonationService;
+        this.donationRollupService = donationRollupService;
     }
     
     /**
@@ -31,13 +36,8 @@ public class AdminBloodDonationController {
      */
     @GetMapping("/pending")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<List<BloodDonation>> getPendingDonations() {
-        // Get all donations and filter for pending status
-        List<BloodDonation> allDonations = bloodDonationService.getAllBloodDonations();
-        List<BloodDonation> pendingDonations = allDonations.stream()
-            .filter(donation -> "PENDING".equals(donation.getDonationStatus()))
-            .collect(Collectors.toList());
-            
+    public ResponseEntity<List<BloodDonationView>> getPendingDonations() {
+        List<BloodDonationView> pendingDonations = bloodDonationService.getBloodDonationsByStatus("PENDING");
         return ResponseEntity.ok(pendingDonations);
     }
     
@@ -51,7 +51,7 @@ public class AdminBloodDonationController {
             .map(donation -> {
                 donation.setDonationStatus("APPROVED");
                 BloodDonation updatedDonation = bloodDonationService.saveBloodDonation(donation);
-                return ResponseEntity.ok(updatedDonation);
+                return ResponseEntity.ok(BloodDonationView.from(updatedDonation));
             })
             .orElse(ResponseEntity.notFound().build());
     }
@@ -69,8 +69,18 @@ public class AdminBloodDonationController {
                     donation.setNotes(reason);
                 }
                 BloodDonation updatedDonation = bloodDonationService.saveBloodDonation(donation);
-                return ResponseEntity.ok(updatedDonation);
+                return ResponseEntity.ok(BloodDonationView.from(updatedDonation));
             })
             .orElse(ResponseEntity.notFound().build());
     }
+    
+    /**
+     * Rebuild the donation rollup tables from the donations table (admin only)
+     */
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<?> rebuildRollups() {
+        int rows = donationRollupService.rebuildRollups();
+        return ResponseEntity.ok(Map.of("message", "Donation rollups rebuilt", "rows", rows));
+    }
 }
\ No newline at end of file
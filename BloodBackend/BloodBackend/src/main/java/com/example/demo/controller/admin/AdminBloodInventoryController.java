@@ -1,15 +1,21 @@
 package com.example.demo.controller.admin;
 
-import com.example.demo.model.BloodInventory;
+import com.example.demo.dto.InventoryAdjustment;
+import com.example.demo.planning.TransferPlanner;
 import com.example.demo.service.BloodInventoryService;
+import com.example.demo.service.InventoryJournalService;
+import com.example.demo.service.TransferPlanningService;
+import com.example.demo.util.BloodCompatibility;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.Optional;
 
 /**
  * Controller for admin-only blood inventory operations
@@ -21,10 +27,16 @@ import java.util.Optional;
 public class AdminBloodInventoryController {
 
     private final BloodInventoryService bloodInventoryService;
+    private final InventoryJournalService inventoryJournalService;
+    private final TransferPlanningService transferPlanningService;
     
     @Autowired
-    public AdminBloodInventoryController(BloodInventoryService bloodInventoryService) {
+    public AdminBloodInventoryController(BloodInventoryService bloodInventoryService,
+                                         InventoryJournalService inventoryJournalService,
+                                         TransferPlanningService transferPlanningService) {
         this.bloodInventoryService = bloodInventoryService;
+        this.inventoryJournalService = inventoryJournalService;
+        this.transferPlanningService = transferPlanningService;
     }
     
     /**
@@ -53,21 +65,10 @@ public class AdminBloodInventoryController {
                 Integer quantity = entry.getValue();
                 
                 if (bloodGroup != null && quantity != null) {
-                    // Find existing inventory for this blood group or create new
-                    Optional<BloodInventory> inventoryOpt = bloodInventoryService.findLatestByBloodGroup(bloodGroup);
-                    
-                    if (inventoryOpt.isPresent()) {
-                        BloodInventory inventory = inventoryOpt.get();
-                        inventory.setUnits(quantity);
-                        bloodInventoryService.saveBloodInventory(inventory);
+                    // Updates the latest inventory entry for this blood group or creates one
+                    if (bloodInventoryService.setLatestUnits(bloodGroup, quantity)) {
                         result.put(bloodGroup, "Updated to " + quantity + " units");
                     } else {
-                        // Create new inventory entry if none exists
-                        BloodInventory newInventory = new BloodInventory();
-                        newInventory.setBloodGroup(bloodGroup);
-                        newInventory.setUnits(quantity);
-                        newInventory.setStatus("AVAILABLE");
-                        bloodInventoryService.saveBloodInventory(newInventory);
                         result.put(bloodGroup, "Created with " + quantity + " units");
                     }
                 } else {
@@ -89,4 +90,54 @@ public class AdminBloodInventoryController {
             return ResponseEntity.internalServerError().body("Error updating inventory: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Apply per-group, per-hospital unit deltas in a single transaction (admin only).
+     * Returns 400 if any adjustment is invalid and 409 if a row changed concurrently;
+     * in both cases nothing is applied.
+     */
+    @PostMapping("/adjustments")
+    public ResponseEntity<?> adjustBloodInventory(@RequestBody List<InventoryAdjustment> adjustments) {
+        try {
+            return ResponseEntity.ok(bloodInventoryService.adjustInventory(adjustments));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Inventory was modified concurrently, please retry"));
+        }
+    }
+    
+    /**
+     * Propose transfers covering the units still needed by open blood requests (admin only)
+     */
+    @GetMapping("/transfer-plan")
+    public ResponseEntity<Map<String, Object>> planTransfers() {
+        return ResponseEntity.ok(transferPlanningService.planForOpenRequests());
+    }
+    
+    /**
+     * Propose transfers covering the given needs (admin only); priority 0 is the most urgent
+     */
+    @PostMapping("/transfer-plan")
+    public ResponseEntity<?> planTransfers(@RequestBody List<TransferPlanner.Need> needs) {
+        for (TransferPlanner.Need need : needs) {
+            if (need == null || need.hospitalId() == null || !BloodCompatibility.BLOOD_GROUPS.contains(need.bloodGroup())) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Each need requires a hospitalId and a valid bloodGroup"));
+            }
+            if (need.units() <= 0 || need.priority() < 0) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Each need requires positive units and a priority of 0 or more"));
+            }
+        }
+        return ResponseEntity.ok(transferPlanningService.plan(needs));
+    }
+    
+    /**
+     * Rebuild the inventory projections by replaying the event journal (admin only)
+     */
+    @PostMapping("/journal/replay")
+    public ResponseEntity<?> replayInventoryJournal() {
+        int events = inventoryJournalService.replay();
+        return ResponseEntity.ok(Map.of("message", "Inventory projections rebuilt", "events", events));
+    }
+}
@@ -1,6 +1,6 @@
 package com.example.demo.controller.admin;
 
-import com.example.demo.model.BloodRequest;
+import com.example.demo.dto.BloodRequestView;
 import com.example.demo.service.BloodRequestService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -8,7 +8,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Controller for admin-only blood request operations
@@ -31,13 +30,8 @@ public class AdminBloodRequestController {
      */
     @GetMapping("/pending")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<List<BloodRequest>> getPendingRequests() {
-        // Get all requests and filter for pending status
-        List<BloodRequest> allRequests = bloodRequestService.getAllBloodRequests();
-        List<BloodRequest> pendingRequests = allRequests.stream()
-            .filter(request -> "PENDING".equals(request.getRequestStatus()))
-            .collect(Collectors.toList());
-            
+    public ResponseEntity<List<BloodRequestView>> getPendingRequests() {
+        List<BloodRequestView> pendingRequests = bloodRequestService.getBloodRequestsByStatus("PENDING");
         return ResponseEntity.ok(pendingRequests);
     }
     
@@ -48,7 +42,7 @@ public class AdminBloodRequestController {
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
     public ResponseEntity<?> approveRequest(@PathVariable Long id) {
         return bloodRequestService.updateBloodRequestStatus(id, "FULFILLED")
-            .map(updatedRequest -> ResponseEntity.ok(updatedRequest))
+            .map(updatedRequest -> ResponseEntity.ok(BloodRequestView.from(updatedRequest)))
             .orElse(ResponseEntity.notFound().build());
     }
     
@@ -59,7 +53,7 @@ public class AdminBloodRequestController {
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
     public ResponseEntity<?> rejectRequest(@PathVariable Long id) {
         return bloodRequestService.updateBloodRequestStatus(id, "CANCELLED")
-            .map(updatedRequest -> ResponseEntity.ok(updatedRequest))
+            .map(updatedRequest -> ResponseEntity.ok(BloodRequestView.from(updatedRequest)))
             .orElse(ResponseEntity.notFound().build());
     }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.example.demo.datasource;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Periodically resizes the Hikari pools within configured bounds.
+ *
+ * A pool grows when callers had to wait for a connection (or every connection was
+ * in use) while hold times stayed near their baseline, i.e. the database still has
+ * headroom. It shrinks after several consecutive windows in which less than half of
+ * the pool was used. Growth is suppressed when hold times rise, because adding
+ * connections to a database that is already slowing down only makes it slower.
+ *
+ * Enabled with {@code bloodbank.datasource.adaptive.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "bloodbank.datasource.adaptive.enabled", havingValue = "true")
+public class AdaptivePoolSizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    private final List<HikariDataSource> pools;
+    private final ConnectionUsageTelemetry telemetry;
+    private final Map<String, PoolState> states = new ConcurrentHashMap<>();
+
+    @Value("${bloodbank.datasource.adaptive.min-pool-size:4}")
+    private int minPoolSize;
+
+    @Value("${bloodbank.datasource.adaptive.max-pool-size:40}")
+    private int maxPoolSize;
+
+    @Value("${bloodbank.datasource.adaptive.wait-threshold-ms:5}")
+    private double waitThresholdMs;
+
+    @Value("${bloodbank.datasource.adaptive.latency-tolerance:1.5}")
+    private double latencyTolerance;
+
+    @Value("${bloodbank.datasource.adaptive.shrink-after-windows:3}")
+    private int shrinkAfterWindows;
+
+    public AdaptivePoolSizer(List<HikariDataSource> pools, ConnectionUsageTelemetry telemetry) {
+        this.pools = pools;
+        this.telemetry = telemetry;
+    }
+
+    @Scheduled(fixedDelayString = "${bloodbank.datasource.adaptive.interval-ms:10000}")
+    public void resizePools() {
+        for (HikariDataSource pool : pools) {
+            HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+            if (poolBean == null) {
+                // Pool has not been started yet
+                continue;
+            }
+            resize(pool.getPoolName(), pool.getHikariConfigMXBean(), poolBean);
+        }
+    }
+
+    private void resize(String poolName, HikariConfigMXBean config, HikariPoolMXBean poolBean) {
+        ConnectionUsageTelemetry.WindowSnapshot window = telemetry.snapshotAndReset(poolName);
+        PoolState state = states.computeIfAbsent(poolName, key -> new PoolState(config.getMinimumIdle()));
+
+        int current = config.getMaximumPoolSize();
+        int waiting = poolBean.getThreadsAwaitingConnection();
+        int step = Math.max(1, current / 4);
+
+        boolean saturated = waiting > 0
+                || window.peakInUse() >= current
+                || window.averageWaitMillis() > waitThresholdMs;
+        boolean databaseSlowing = state.baselineHoldMillis > 0
+                && window.averageHoldMillis() > state.baselineHoldMillis * latencyTolerance;
+
+        int target = current;
+        if (saturated) {
+            state.idleWindows = 0;
+            if (!databaseSlowing) {
+                target = Math.min(maxPoolSize, current + step);
+            }
+        } else if (window.peakInUse() < current / 2) {
+            state.idleWindows++;
+            if (state.idleWindows >= shrinkAfterWindows) {
+                target = Math.max(minPoolSize, Math.max(window.peakInUse() + 1, current - step));
+                state.idleWindows = 0;
+            }
+        } else {
+            state.idleWindows = 0;
+        }
+
+        if (window.acquisitions() > 0 && !databaseSlowing) {
+            state.baselineHoldMillis = state.baselineHoldMillis == 0
+                    ? window.averageHoldMillis()
+                    : 0.8 * state.baselineHoldMillis + 0.2 * window.averageHoldMillis();
+        }
+
+        if (target != current) {
+            config.setMaximumPoolSize(target);
+            config.setMinimumIdle(Math.min(state.configuredMinimumIdle, target));
+            logger.info("Resized pool '{}' from {} to {} (peakInUse={}, waiting={}, avgWaitMs={}, avgHoldMs={}, baselineHoldMs={})",
+                    poolName, current, target, window.peakInUse(), waiting,
+                    String.format("%.2f", window.averageWaitMillis()),
+                    String.format("%.2f", window.averageHoldMillis()),
+                    String.format("%.2f", state.baselineHoldMillis));
+        }
+    }
+
+    private static final class PoolState {
+        private final int configuredMinimumIdle;
+        private double baselineHoldMillis;
+        private int idleWindows;
+
+        PoolState(int configuredMinimumIdle) {
+            this.configuredMinimumIdle = configuredMinimumIdle;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long callers wait for a pooled connection and how long they hold it,
+ * tagged by pool and by the endpoint (HTTP method + route pattern) that asked for it.
+ *
+ * Timers are published as {@code bloodbank.db.connection.wait} and
+ * {@code bloodbank.db.connection.hold}. Per-pool window counters are also kept
+ * for {@link AdaptivePoolSizer}.
+ */
+@Component
+public class ConnectionUsageTelemetry {
+
+    static final String BACKGROUND = "background";
+    static final String UNMAPPED = "unmapped";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> waitTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> holdTimers = new ConcurrentHashMap<>();
+    private final Map<String, PoolWindow> windows = new ConcurrentHashMap<>();
+
+    public ConnectionUsageTelemetry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Resolve the endpoint the current thread is serving. Connections taken
+     * outside a request (scheduled jobs, startup) are reported as "background".
+     */
+    public String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return BACKGROUND;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : UNMAPPED);
+    }
+
+    void recordAcquire(String pool, String endpoint, long waitNanos) {
+        timer(waitTimers, "bloodbank.db.connection.wait", pool, endpoint)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+        window(pool).acquired(waitNanos);
+    }
+
+    void recordRelease(String pool, String endpoint, long holdNanos) {
+        timer(holdTimers, "bloodbank.db.connection.hold", pool, endpoint)
+                .record(holdNanos, TimeUnit.NANOSECONDS);
+        window(pool).released(holdNanos);
+    }
+
+    /**
+     * Return the usage observed for a pool since the previous call and start a new window.
+     */
+    public WindowSnapshot snapshotAndReset(String pool) {
+        return window(pool).snapshotAndReset();
+    }
+
+    private Timer timer(Map<String, Timer> cache, String name, String pool, String endpoint) {
+        return cache.computeIfAbsent(pool + '|' + endpoint, key -> Timer.builder(name)
+                .tag("pool", pool)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry));
+    }
+
+    private PoolWindow window(String pool) {
+        return windows.computeIfAbsent(pool, key -> new PoolWindow());
+    }
+
+    /**
+     * Usage of one pool over one sampling window.
+     */
+    public record WindowSnapshot(long acquisitions, double averageWaitMillis, double averageHoldMillis, int peakInUse) {
+    }
+
+    private static final class PoolWindow {
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder releases = new LongAdder();
+        private final LongAdder holdNanos = new LongAdder();
+        private final AtomicInteger inUse = new AtomicInteger();
+        private final AtomicInteger peakInUse = new AtomicInteger();
+
+        void acquired(long wait) {
+            acquisitions.increment();
+            waitNanos.add(wait);
+            peakInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+        }
+
+        void released(long hold) {
+            releases.increment();
+            holdNanos.add(hold);
+            inUse.decrementAndGet();
+        }
+
+        WindowSnapshot snapshotAndReset() {
+            long acquired = acquisitions.sumThenReset();
+            long waited = waitNanos.sumThenReset();
+            long released = releases.sumThenReset();
+            long held = holdNanos.sumThenReset();
+            int peak = peakInUse.getAndSet(inUse.get());
+            return new WindowSnapshot(
+                    acquired,
+                    acquired == 0 ? 0 : waited / 1_000_000.0 / acquired,
+                    released == 0 ? 0 : held / 1_000_000.0 / released,
+                    peak);
+        }
+    }
+}
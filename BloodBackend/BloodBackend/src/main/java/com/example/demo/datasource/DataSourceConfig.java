@@ -0,0 +1,83 @@
+package com.example.demo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DataSource setup with a read/write primary pool and a separate read-only pool.
+ *
+ * Transactions marked {@code @Transactional(readOnly = true)} are routed to the
+ * read-only pool so that stats, list and export endpoints do not compete with writes
+ * for primary connections. The read-only pool can point at a MySQL replica
+ * ({@code bloodbank.datasource.read-only.url}); {@link ReplicaLagMonitor} sends
+ * read-only work back to the primary while the replica is lagging.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("bloodbank.datasource.read-only.hikari")
+    public HikariDataSource readOnlyDataSource(
+            DataSourceProperties properties,
+            @Value("${bloodbank.datasource.read-only.url:}") String url,
+            @Value("${bloodbank.datasource.read-only.username:}") String username,
+            @Value("${bloodbank.datasource.read-only.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(StringUtils.hasText(url) ? url : properties.determineUrl())
+                .username(StringUtils.hasText(username) ? username : properties.determineUsername())
+                .password(StringUtils.hasText(password) ? password : properties.determinePassword())
+                .build();
+        dataSource.setPoolName("read-only");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * The DataSource used by JPA. The lazy proxy defers fetching a physical
+     * connection until the first statement, by which point the transaction's
+     * read-only flag is known and the routing DataSource can pick a pool.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 HikariDataSource readOnlyDataSource,
+                                 ConnectionUsageTelemetry telemetry,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadWriteRoutingDataSource.PRIMARY,
+                new TelemetryDataSource(primaryDataSource, "primary", telemetry));
+        targets.put(ReadWriteRoutingDataSource.READ_ONLY,
+                new TelemetryDataSource(readOnlyDataSource, "read-only", telemetry));
+
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(replicaLagMonitor);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(targets.get(ReadWriteRoutingDataSource.PRIMARY));
+        routingDataSource.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.demo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Tracks replication lag of the read-only DataSource and decides whether
+ * read-only transactions may use it.
+ *
+ * When the replica falls more than {@code bloodbank.datasource.replica.max-lag-seconds}
+ * behind, stops replicating, or cannot be reached, read-only work falls back to the
+ * primary until the replica catches up again. When the read-only pool points at the
+ * primary itself (the default), no lag check is done.
+ */
+@Component
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final HikariDataSource primaryDataSource;
+    private final HikariDataSource readOnlyDataSource;
+
+    @Value("${bloodbank.datasource.replica.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    private volatile boolean replicaUsable = true;
+    private volatile long lastLagSeconds = 0;
+
+    public ReplicaLagMonitor(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                             @Qualifier("readOnlyDataSource") HikariDataSource readOnlyDataSource,
+                             MeterRegistry meterRegistry) {
+        this.primaryDataSource = primaryDataSource;
+        this.readOnlyDataSource = readOnlyDataSource;
+        Gauge.builder("bloodbank.db.replica.lag.seconds", this, monitor -> monitor.lastLagSeconds)
+                .register(meterRegistry);
+        Gauge.builder("bloodbank.db.replica.usable", this, monitor -> monitor.replicaUsable ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return True if read-only transactions should be routed to the replica
+     */
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public long getLastLagSeconds() {
+        return lastLagSeconds;
+    }
+
+    public long getMaxLagSeconds() {
+        return maxLagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${bloodbank.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        if (!isSeparateReplica()) {
+            return;
+        }
+
+        boolean usable;
+        try (Connection connection = readOnlyDataSource.getConnection()) {
+            Long lag = readLagSeconds(connection);
+            if (lag == null) {
+                // Replication threads are stopped or broken
+                lastLagSeconds = -1;
+                usable = false;
+            } else {
+                lastLagSeconds = lag;
+                usable = lag <= maxLagSeconds;
+            }
+        } catch (SQLException e) {
+            if (replicaUsable) {
+                logger.warn("Replica lag check failed: {}", e.getMessage());
+            } else {
+                logger.debug("Replica lag check failed: {}", e.getMessage());
+            }
+            lastLagSeconds = -1;
+            usable = false;
+        }
+
+        if (usable != replicaUsable) {
+            if (usable) {
+                logger.info("Replica caught up (lag {}s), routing read-only transactions to it again", lastLagSeconds);
+            } else if (lastLagSeconds < 0) {
+                logger.warn("Replica unavailable or not replicating, routing read-only transactions to the primary");
+            } else {
+                logger.warn("Replica lag {}s exceeds {}s, routing read-only transactions to the primary",
+                        lastLagSeconds, maxLagSeconds);
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    /**
+     * @return True if the read-only pool points at a different server than the primary
+     */
+    public boolean isSeparateReplica() {
+        return readOnlyDataSource.getJdbcUrl() != null
+                && !readOnlyDataSource.getJdbcUrl().equals(primaryDataSource.getJdbcUrl());
+    }
+
+    /**
+     * Read Seconds_Behind_Source (MySQL 8.0.22+) or Seconds_Behind_Master (older servers).
+     * A server that is not configured as a replica returns no rows and is treated as lag 0.
+     */
+    private Long readLagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                return extractLag(rs, "Seconds_Behind_Source");
+            } catch (SQLException e) {
+                try (ResultSet rs = statement.executeQuery("SHOW SLAVE STATUS")) {
+                    return extractLag(rs, "Seconds_Behind_Master");
+                }
+            }
+        }
+    }
+
+    private Long extractLag(ResultSet rs, String column) throws SQLException {
+        if (!rs.next()) {
+            return 0L;
+        }
+        long lag = rs.getLong(column);
+        return rs.wasNull() ? null : lag;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Wraps a pool and reports connection wait and hold times to {@link ConnectionUsageTelemetry}.
+ */
+public class TelemetryDataSource extends DelegatingDataSource {
+
+    private final String poolName;
+    private final ConnectionUsageTelemetry telemetry;
+
+    public TelemetryDataSource(DataSource targetDataSource, String poolName, ConnectionUsageTelemetry telemetry) {
+        super(targetDataSource);
+        this.poolName = poolName;
+        this.telemetry = telemetry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        return track(super.getConnection(), start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        return track(super.getConnection(username, password), start);
+    }
+
+    private Connection track(Connection connection, long requestedAt) {
+        long acquiredAt = System.nanoTime();
+        String endpoint = telemetry.currentEndpoint();
+        telemetry.recordAcquire(poolName, endpoint, acquiredAt - requestedAt);
+
+        boolean[] closed = {false};
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            if (!closed[0]) {
+                                closed[0] = true;
+                                telemetry.recordRelease(poolName, endpoint, System.nanoTime() - acquiredAt);
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+/**
+ * A short-lived access token with the refresh token that renews it
+ *
+ * @param expiresIn Seconds until the access token expires
+ */
+public record AuthTokens(String token, String refreshToken, long expiresIn) {
+}
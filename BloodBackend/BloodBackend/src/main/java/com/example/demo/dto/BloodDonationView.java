@@ -0,0 +1,78 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.BloodDonation;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * A donation as returned by the API, with its donor flattened to the contact
+ * details the admin screens show (id, name, email and phone)
+ */
+@JsonSerialize(using = BloodDonationView.Serializer.class)
+public record BloodDonationView(Long id, Long donorId, String donorName, String donorEmail, String donorPhone,
+                                String bloodGroup, Integer quantityMl,
+                                LocalDateTime donationDate, String healthStatus, Double hemoglobinLevel,
+                                String bloodPressure, Integer pulseRate, Double temperature, String notes,
+                                String donationStatus, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    public static BloodDonationView from(BloodDonation donation) {
+        return new BloodDonationView(donation.getId(), donation.getDonor().getId(), donation.getDonor().getName(),
+                donation.getDonor().getEmail(), donation.getDonor().getPhone(), donation.getBloodGroup(),
+                donation.getQuantityMl(), donation.getDonationDate(),
+                donation.getHealthStatus(), donation.getHemoglobinLevel(), donation.getBloodPressure(),
+                donation.getPulseRate(), donation.getTemperature(), donation.getNotes(), donation.getDonationStatus(),
+                donation.getCreatedAt(), donation.getUpdatedAt());
+    }
+
+    static final class Serializer extends ViewSerializer<BloodDonationView> {
+
+        private static final SerializableString ID = name("id");
+        private static final SerializableString DONOR_ID = name("donorId");
+        private static final SerializableString DONOR_NAME = name("donorName");
+        private static final SerializableString DONOR_EMAIL = name("donorEmail");
+        private static final SerializableString DONOR_PHONE = name("donorPhone");
+        private static final SerializableString BLOOD_GROUP = name("bloodGroup");
+        private static final SerializableString QUANTITY_ML = name("quantityMl");
+        private static final SerializableString DONATION_DATE = name("donationDate");
+        private static final SerializableString HEALTH_STATUS = name("healthStatus");
+        private static final SerializableString HEMOGLOBIN_LEVEL = name("hemoglobinLevel");
+        private static final SerializableString BLOOD_PRESSURE = name("bloodPressure");
+        private static final SerializableString PULSE_RATE = name("pulseRate");
+        private static final SerializableString TEMPERATURE = name("temperature");
+        private static final SerializableString NOTES = name("notes");
+        private static final SerializableString DONATION_STATUS = name("donationStatus");
+        private static final SerializableString CREATED_AT = name("createdAt");
+        private static final SerializableString UPDATED_AT = name("updatedAt");
+
+        Serializer() {
+            super(BloodDonationView.class);
+        }
+
+        @Override
+        protected void writeFields(BloodDonationView donation, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            write(gen, ID, donation.id());
+            write(gen, DONOR_ID, donation.donorId());
+            write(gen, DONOR_NAME, donation.donorName());
+            write(gen, DONOR_EMAIL, donation.donorEmail());
+            write(gen, DONOR_PHONE, donation.donorPhone());
+            write(gen, BLOOD_GROUP, donation.bloodGroup());
+            write(gen, QUANTITY_ML, donation.quantityMl());
+            write(gen, provider, DONATION_DATE, donation.donationDate());
+            write(gen, HEALTH_STATUS, donation.healthStatus());
+            write(gen, HEMOGLOBIN_LEVEL, donation.hemoglobinLevel());
+            write(gen, BLOOD_PRESSURE, donation.bloodPressure());
+            write(gen, PULSE_RATE, donation.pulseRate());
+            write(gen, TEMPERATURE, donation.temperature());
+            write(gen, NOTES, donation.notes());
+            write(gen, DONATION_STATUS, donation.donationStatus());
+            write(gen, provider, CREATED_AT, donation.createdAt());
+            write(gen, provider, UPDATED_AT, donation.updatedAt());
+        }
+    }
+}
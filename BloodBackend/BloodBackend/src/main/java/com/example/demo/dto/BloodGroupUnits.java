@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+/**
+ * Units summed per blood group
+ */
+public record BloodGroupUnits(String bloodGroup, Long units) {
+}
@@ -0,0 +1,75 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.BloodRequest;
+import com.example.demo.model.Hospital;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * A blood request as returned by the API, with its hospital flattened to id and name
+ */
+@JsonSerialize(using = BloodRequestView.Serializer.class)
+public record BloodRequestView(Long id, String name, String bloodGroup, String phone, String email, String location,
+                               String reason, String requestStatus, Integer unitsNeeded, Integer unitsProvided,
+                               String priority, LocalDateTime requiredBy, Long hospitalId, String hospitalName,
+                               LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    public static BloodRequestView from(BloodRequest request) {
+        Hospital hospital = request.getHospital();
+        return new BloodRequestView(request.getId(), request.getName(), request.getBloodGroup(), request.getPhone(),
+                request.getEmail(), request.getLocation(), request.getReason(), request.getRequestStatus(),
+                request.getUnitsNeeded(), request.getUnitsProvided(), request.getPriority(), request.getRequiredBy(),
+                hospital == null ? null : hospital.getId(), hospital == null ? null : hospital.getName(),
+                request.getCreatedAt(), request.getUpdatedAt());
+    }
+
+    static final class Serializer extends ViewSerializer<BloodRequestView> {
+
+        private static final SerializableString ID = name("id");
+        private static final SerializableString NAME = name("name");
+        private static final SerializableString BLOOD_GROUP = name("bloodGroup");
+        private static final SerializableString PHONE = name("phone");
+        private static final SerializableString EMAIL = name("email");
+        private static final SerializableString LOCATION = name("location");
+        private static final SerializableString REASON = name("reason");
+        private static final SerializableString REQUEST_STATUS = name("requestStatus");
+        private static final SerializableString UNITS_NEEDED = name("unitsNeeded");
+        private static final SerializableString UNITS_PROVIDED = name("unitsProvided");
+        private static final SerializableString PRIORITY = name("priority");
+        private static final SerializableString REQUIRED_BY = name("requiredBy");
+        private static final SerializableString HOSPITAL_ID = name("hospitalId");
+        private static final SerializableString HOSPITAL_NAME = name("hospitalName");
+        private static final SerializableString CREATED_AT = name("createdAt");
+        private static final SerializableString UPDATED_AT = name("updatedAt");
+
+        Serializer() {
+            super(BloodRequestView.class);
+        }
+
+        @Override
+        protected void writeFields(BloodRequestView request, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            write(gen, ID, request.id());
+            write(gen, NAME, request.name());
+            write(gen, BLOOD_GROUP, request.bloodGroup());
+            write(gen, PHONE, request.phone());
+            write(gen, EMAIL, request.email());
+            write(gen, LOCATION, request.location());
+            write(gen, REASON, request.reason());
+            write(gen, REQUEST_STATUS, request.requestStatus());
+            write(gen, UNITS_NEEDED, request.unitsNeeded());
+            write(gen, UNITS_PROVIDED, request.unitsProvided());
+            write(gen, PRIORITY, request.priority());
+            write(gen, provider, REQUIRED_BY, request.requiredBy());
+            write(gen, HOSPITAL_ID, request.hospitalId());
+            write(gen, HOSPITAL_NAME, request.hospitalName());
+            write(gen, provider, CREATED_AT, request.createdAt());
+            write(gen, provider, UPDATED_AT, request.updatedAt());
+        }
+    }
+}
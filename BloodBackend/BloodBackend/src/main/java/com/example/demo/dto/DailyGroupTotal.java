@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+
+/**
+ * A quantity summed per day and blood group
+ */
+public record DailyGroupTotal(LocalDate day, String bloodGroup, Long total) {
+}
@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+/**
+ * Donation count and volume summed over one grouping key (blood group or health status)
+ */
+public record DonationRollupTotal(String key, Long donations, Long volumeMl) {
+}
@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Donation count and volume for one day, or for one month (period = first day of the month)
+ */
+public record DonationTrendPoint(LocalDate period, Long donations, Long volumeMl) {
+}
@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One donor's donation count, volume and latest donation date, counted from their donations
+ */
+public record DonorDonationTotals(Long donations, Long volumeMl, LocalDateTime lastDonation) {
+}
@@ -0,0 +1,65 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Donor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * A donor as returned by the API (never the password), selected directly by
+ * JPQL constructor expressions
+ */
+@JsonSerialize(using = DonorView.Serializer.class)
+public record DonorView(Long id, String name, String location, String phone, String bloodGroup, String username,
+                        String email, LocalDateTime lastDonation, int donationCount, long totalVolumeMl,
+                        boolean available, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    public static DonorView from(Donor donor) {
+        return new DonorView(donor.getId(), donor.getName(), donor.getLocation(), donor.getPhone(),
+                donor.getBloodGroup(), donor.getUsername(), donor.getEmail(), donor.getLastDonation(),
+                donor.getDonationCount(), donor.getTotalVolumeMl(), donor.isAvailable(), donor.getCreatedAt(),
+                donor.getUpdatedAt());
+    }
+
+    static final class Serializer extends ViewSerializer<DonorView> {
+
+        private static final SerializableString ID = name("id");
+        private static final SerializableString NAME = name("name");
+        private static final SerializableString LOCATION = name("location");
+        private static final SerializableString PHONE = name("phone");
+        private static final SerializableString BLOOD_GROUP = name("bloodGroup");
+        private static final SerializableString USERNAME = name("username");
+        private static final SerializableString EMAIL = name("email");
+        private static final SerializableString LAST_DONATION = name("lastDonation");
+        private static final SerializableString DONATION_COUNT = name("donationCount");
+        private static final SerializableString TOTAL_VOLUME_ML = name("totalVolumeMl");
+        private static final SerializableString AVAILABLE = name("available");
+        private static final SerializableString CREATED_AT = name("createdAt");
+        private static final SerializableString UPDATED_AT = name("updatedAt");
+
+        Serializer() {
+            super(DonorView.class);
+        }
+
+        @Override
+        protected void writeFields(DonorView donor, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            write(gen, ID, donor.id());
+            write(gen, NAME, donor.name());
+            write(gen, LOCATION, donor.location());
+            write(gen, PHONE, donor.phone());
+            write(gen, BLOOD_GROUP, donor.bloodGroup());
+            write(gen, USERNAME, donor.username());
+            write(gen, EMAIL, donor.email());
+            write(gen, provider, LAST_DONATION, donor.lastDonation());
+            write(gen, DONATION_COUNT, donor.donationCount());
+            write(gen, TOTAL_VOLUME_ML, donor.totalVolumeMl());
+            write(gen, AVAILABLE, donor.available());
+            write(gen, provider, CREATED_AT, donor.createdAt());
+            write(gen, provider, UPDATED_AT, donor.updatedAt());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+/**
+ * Units summed per hospital and blood group
+ */
+public record HospitalGroupUnits(Long hospitalId, String bloodGroup, Long units) {
+}
@@ -0,0 +1,60 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Hospital;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * A hospital as returned by the API, without its blood requests
+ * (those are listed by {@code /api/blood-requests/hospital/{id}})
+ */
+@JsonSerialize(using = HospitalView.Serializer.class)
+public record HospitalView(Long id, String name, String address, String contactPerson, String email, String phone,
+                           String registrationNumber, String status, LocalDateTime createdAt,
+                           LocalDateTime updatedAt) {
+
+    public static HospitalView from(Hospital hospital) {
+        return new HospitalView(hospital.getId(), hospital.getName(), hospital.getAddress(),
+                hospital.getContactPerson(), hospital.getEmail(), hospital.getPhone(),
+                hospital.getRegistrationNumber(), hospital.getStatus(), hospital.getCreatedAt(),
+                hospital.getUpdatedAt());
+    }
+
+    static final class Serializer extends ViewSerializer<HospitalView> {
+
+        private static final SerializableString ID = name("id");
+        private static final SerializableString NAME = name("name");
+        private static final SerializableString ADDRESS = name("address");
+        private static final SerializableString CONTACT_PERSON = name("contactPerson");
+        private static final SerializableString EMAIL = name("email");
+        private static final SerializableString PHONE = name("phone");
+        private static final SerializableString REGISTRATION_NUMBER = name("registrationNumber");
+        private static final SerializableString STATUS = name("status");
+        private static final SerializableString CREATED_AT = name("createdAt");
+        private static final SerializableString UPDATED_AT = name("updatedAt");
+
+        Serializer() {
+            super(HospitalView.class);
+        }
+
+        @Override
+        protected void writeFields(HospitalView hospital, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            write(gen, ID, hospital.id());
+            write(gen, NAME, hospital.name());
+            write(gen, ADDRESS, hospital.address());
+            write(gen, CONTACT_PERSON, hospital.contactPerson());
+            write(gen, EMAIL, hospital.email());
+            write(gen, PHONE, hospital.phone());
+            write(gen, REGISTRATION_NUMBER, hospital.registrationNumber());
+            write(gen, STATUS, hospital.status());
+            write(gen, provider, CREATED_AT, hospital.createdAt());
+            write(gen, provider, UPDATED_AT, hospital.updatedAt());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.dto;
+
+/**
+ * Change in available units of one blood group at one hospital
+ * (hospitalId null for the blood bank's own stock)
+ */
+public record InventoryAdjustment(String bloodGroup, Long hospitalId, int delta) {
+}
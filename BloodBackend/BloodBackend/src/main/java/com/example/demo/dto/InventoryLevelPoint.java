@@ -0,0 +1,10 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One point of an inventory level time series. For bucketed points, units is the
+ * level at the end of the bucket and min/max/average cover the whole bucket.
+ */
+public record InventoryLevelPoint(LocalDateTime timestamp, int units, int minUnits, int maxUnits, double averageUnits) {
+}
@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+/**
+ * Units still needed by open requests, per hospital, blood group and priority
+ */
+public record OpenDemand(Long hospitalId, String bloodGroup, String priority, Long units) {
+}
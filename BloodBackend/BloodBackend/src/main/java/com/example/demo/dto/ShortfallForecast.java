@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Predicted stock development of one blood group. daysUntilShortfall and
+ * shortfallDate are null when no shortfall is predicted within the horizon.
+ */
+public record ShortfallForecast(
+        String bloodGroup,
+        int currentUnits,
+        double expectedDailyDemand,
+        double expectedDailySupply,
+        Integer daysUntilShortfall,
+        LocalDate shortfallDate) {
+}
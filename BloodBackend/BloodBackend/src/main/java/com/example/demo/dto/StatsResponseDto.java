@@ -1,85 +1,90 @@
 package com.example.demo.dto;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Transfer Object for system statistics
  */
 public class StatsResponseDto {
-    private int totalDonors;
-    private int totalDonations;
-    private int totalBloodRequests;
-    private int totalInventory;
-    private int totalHospitals;
-    private int totalAppointments;
-    private int activeEmergencyNotifications;
-    private int upcomingAppointments;
+    // Counts and critical blood groups are null when their query timed out or failed
+    private Integer totalDonors;
+    private Integer totalDonations;
+    private Integer totalBloodRequests;
+    private Integer totalInventory;
+    private Integer totalHospitals;
+    private Integer totalAppointments;
+    private Integer activeEmergencyNotifications;
+    private Integer upcomingAppointments;
     private List<String> criticalBloodGroups;
+    // Per-query milliseconds, and the queries that timed out or failed
+    private Map<String, Long> queryTimingsMs;
+    private List<String> incompleteQueries;
 
     public StatsResponseDto() {
     }
 
-    public int getTotalDonors() {
+    public Integer getTotalDonors() {
         return totalDonors;
     }
 
-    public void setTotalDonors(int totalDonors) {
+    public void setTotalDonors(Integer totalDonors) {
         this.totalDonors = totalDonors;
     }
 
-    public int getTotalDonations() {
+    public Integer getTotalDonations() {
         return totalDonations;
     }
 
-    public void setTotalDonations(int totalDonations) {
+    public void setTotalDonations(Integer totalDonations) {
         this.totalDonations = totalDonations;
     }
 
-    public int getTotalBloodRequests() {
+    public Integer getTotalBloodRequests() {
         return totalBloodRequests;
     }
 
-    public void setTotalBloodRequests(int totalBloodRequests) {
+    public void setTotalBloodRequests(Integer totalBloodRequests) {
         this.totalBloodRequests = totalBloodRequests;
     }
 
-    public int getTotalInventory() {
+    public Integer getTotalInventory() {
         return totalInventory;
     }
 
-    public void setTotalInventory(int totalInventory) {
+    public void setTotalInventory(Integer totalInventory) {
         this.totalInventory = totalInventory;
     }
 
-    public int getTotalHospitals() {
+    public Integer getTotalHospitals() {
         return totalHospitals;
     }
 
-    public void setTotalHospitals(int totalHospitals) {
+    public void setTotalHospitals(Integer totalHospitals) {
         this.totalHospitals = totalHospitals;
     }
 
-    public int getTotalAppointments() {
+    public Integer getTotalAppointments() {
         return totalAppointments;
     }
 
-    public void setTotalAppointments(int totalAppointments) {
+    public void setTotalAppointments(Integer totalAppointments) {
         this.totalAppointments = totalAppointments;
     }
 
-    public int getActiveEmergencyNotifications() {
+    public Integer getActiveEmergencyNotifications() {
         return activeEmergencyNotifications;
     }
 
-    public void setActiveEmergencyNotifications(int activeEmergencyNotifications) {
+    public void setActiveEmergencyNotifications(Integer activeEmergencyNotifications) {
         this.activeEmergencyNotifications = activeEmergencyNotifications;
     }
 
-    public int getUpcomingAppointments() {
+    public Integer getUpcomingAppointments() {
         return upcomingAppointments;
     }
 
-    public void setUpcomingAppointments(int upcomingAppointments) {
+    public void setUpcomingAppointments(Integer upcomingAppointments) {
         this.upcomingAppointments = upcomingAppointments;
     }
 
@@ -90,4 +95,20 @@ public class StatsResponseDto {
     public void setCriticalBloodGroups(List<String> criticalBloodGroups) {
         this.criticalBloodGroups = criticalBloodGroups;
     }
+
+    public Map<String, Long> getQueryTimingsMs() {
+        return queryTimingsMs;
+    }
+
+    public void setQueryTimingsMs(Map<String, Long> queryTimingsMs) {
+        this.queryTimingsMs = queryTimingsMs;
+    }
+
+    public List<String> getIncompleteQueries() {
+        return incompleteQueries;
+    }
+
+    public void setIncompleteQueries(List<String> incompleteQueries) {
+        this.incompleteQueries = incompleteQueries;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proposed move of units from one inventory row to a hospital that is short.
+ * fromHospitalId is null for the blood bank's own stock; it equals toHospitalId when
+ * a hospital covers a shortfall with its own stock of a compatible group.
+ */
+public record TransferProposal(Long sourceInventoryId, Long fromHospitalId, Long toHospitalId,
+                               String donorBloodGroup, String recipientBloodGroup,
+                               int units, LocalDateTime expiryDate) {
+}
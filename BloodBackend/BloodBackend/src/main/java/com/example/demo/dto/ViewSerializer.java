@@ -0,0 +1,89 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Base for the hand-written serializers of the read views. Field names are
+ * pre-encoded and values are written directly, so a list of views serializes
+ * without per-property reflection. Dates still go through the mapper's own
+ * {@link LocalDateTime} serializer, resolved once, so they follow the
+ * application's Jackson settings.
+ */
+abstract class ViewSerializer<T> extends StdSerializer<T> implements ResolvableSerializer {
+
+    private JsonSerializer<Object> dateTimeSerializer;
+
+    protected ViewSerializer(Class<T> type) {
+        super(type);
+    }
+
+    static SerializableString name(String fieldName) {
+        return new SerializedString(fieldName);
+    }
+
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+        dateTimeSerializer = provider.findValueSerializer(LocalDateTime.class);
+    }
+
+    @Override
+    public final void serialize(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        writeFields(value, gen, provider);
+        gen.writeEndObject();
+    }
+
+    protected abstract void writeFields(T value, JsonGenerator gen, SerializerProvider provider) throws IOException;
+
+    protected static void write(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    protected static void write(JsonGenerator gen, SerializableString name, Number value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else if (value instanceof Double number) {
+            gen.writeNumber(number);
+        } else if (value instanceof Integer number) {
+            gen.writeNumber(number);
+        } else {
+            gen.writeNumber(value.longValue());
+        }
+    }
+
+    protected static void write(JsonGenerator gen, SerializableString name, long value) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeNumber(value);
+    }
+
+    protected static void write(JsonGenerator gen, SerializableString name, boolean value) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeBoolean(value);
+    }
+
+    protected void write(JsonGenerator gen, SerializerProvider provider, SerializableString name, LocalDateTime value)
+            throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            dateTimeSerializer.serialize(value, gen, provider);
+        }
+    }
+}
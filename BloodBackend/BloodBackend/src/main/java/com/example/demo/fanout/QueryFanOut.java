@@ -0,0 +1,228 @@
+package com.example.demo.fanout;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent read queries behind one response concurrently, so that
+ * it takes about as long as its slowest query rather than the sum of them.
+ *
+ * Each query runs on a pool thread in its own read-only transaction, and so on
+ * its own connection (the replica's when one is configured), with the query
+ * timeout as JDBC statement timeout. A query that has not answered within the
+ * timeout, or that fails, is replaced by its fallback value and reported in
+ * {@link Report#incomplete()}; the pool is shared by all callers and bounds the
+ * connections that fan-outs hold at once.
+ *
+ * <pre>
+ * QueryFanOut.Fork fork = queryFanOut.fork();
+ * QueryFanOut.Part&lt;Long&gt; donors = fork.add("donors", donorRepository::count, null);
+ * QueryFanOut.Report report = fork.join();
+ * donors.get();
+ * </pre>
+ */
+@Component
+public class QueryFanOut {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryFanOut.class);
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final long timeoutMillis;
+
+    @Autowired
+    public QueryFanOut(PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${bloodbank.fan-out.threads:4}") int threads,
+                       @Value("${bloodbank.fan-out.query-timeout-ms:2000}") long timeoutMillis) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Statement timeout in whole seconds, rounded up
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, (timeoutMillis + 999) / 1000));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "query-fan-out-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.meterRegistry = meterRegistry;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start a set of queries; add them to the fork, then join it before reading the parts
+     */
+    public Fork fork() {
+        return new Fork();
+    }
+
+    /**
+     * How the queries of a fork went
+     *
+     * @param timingsMs Milliseconds each query took, in the order added; for queries
+     *                  left out, how long they were waited for
+     * @param incomplete Queries that timed out or failed and were replaced by their fallback
+     * @param elapsedMs Milliseconds from the first query to the end of the join
+     */
+    public record Report(Map<String, Long> timingsMs, List<String> incomplete, long elapsedMs) {
+
+        public boolean isComplete() {
+            return incomplete.isEmpty();
+        }
+    }
+
+    /**
+     * The result of one query, available once the fork is joined
+     */
+    public static final class Part<T> {
+
+        private final String name;
+        private final CompletableFuture<T> query;
+        private final T fallback;
+        private volatile long queryNanos = -1;
+        private T value;
+        private boolean joined;
+
+        private Part(String name, CompletableFuture<T> query, T fallback) {
+            this.name = name;
+            this.query = query;
+            this.fallback = fallback;
+        }
+
+        /**
+         * The query's result, or its fallback if it timed out or failed
+         */
+        public T get() {
+            if (!joined) {
+                throw new IllegalStateException("Fork not joined yet: " + name);
+            }
+            return value;
+        }
+    }
+
+    public final class Fork {
+
+        private final long started = System.nanoTime();
+        private final long deadline = started + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        private final List<Part<?>> parts = new ArrayList<>();
+        private boolean joined;
+
+        private Fork() {
+        }
+
+        /**
+         * Submit a read query
+         *
+         * @param name Name for the report and the bloodbank.fan-out.query meter
+         * @param query The query; runs in a read-only transaction on a pool thread
+         * @param fallback Value reported if the query times out or fails
+         */
+        public <T> Part<T> add(String name, Supplier<T> query, T fallback) {
+            if (joined) {
+                throw new IllegalStateException("Fork already joined");
+            }
+            CompletableFuture<T> future = new CompletableFuture<>();
+            Part<T> part = new Part<>(name, future, fallback);
+            executor.execute(() -> run(part, future, query));
+            parts.add(part);
+            return part;
+        }
+
+        private <T> void run(Part<T> part, CompletableFuture<T> future, Supplier<T> query) {
+            // Waited in the queue past the deadline: the caller has moved on without it
+            if (System.nanoTime() >= deadline) {
+                future.completeExceptionally(new TimeoutException("Not started before the deadline"));
+                return;
+            }
+            long queryStarted = System.nanoTime();
+            T result;
+            try {
+                result = readOnlyTransaction.execute(status -> query.get());
+            } catch (RuntimeException e) {
+                part.queryNanos = System.nanoTime() - queryStarted;
+                future.completeExceptionally(e);
+                return;
+            }
+            // Before completing, so that join sees the timing with the result
+            part.queryNanos = System.nanoTime() - queryStarted;
+            future.complete(result);
+        }
+
+        /**
+         * Wait for all queries, each until the fork's deadline at most
+         */
+        public Report join() {
+            joined = true;
+            Map<String, Long> timings = new LinkedHashMap<>();
+            List<String> incomplete = new ArrayList<>();
+            for (Part<?> part : parts) {
+                String outcome = await(part);
+                long nanos = part.queryNanos >= 0 ? part.queryNanos : System.nanoTime() - started;
+                timings.put(part.name, TimeUnit.NANOSECONDS.toMillis(nanos));
+                if (!"success".equals(outcome)) {
+                    incomplete.add(part.name);
+                }
+                Timer.builder("bloodbank.fan-out.query")
+                        .description("Time taken by the queries of parallel read fan-outs")
+                        .tag("query", part.name)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .record(nanos, TimeUnit.NANOSECONDS);
+            }
+            return new Report(timings, List.copyOf(incomplete), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+
+        private <T> String await(Part<T> part) {
+            String outcome;
+            T value = part.fallback;
+            try {
+                value = part.query.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                outcome = "success";
+            } catch (TimeoutException e) {
+                logger.warn("Query {} did not answer within {} ms", part.name, timeoutMillis);
+                outcome = "timeout";
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof TimeoutException) {
+                    logger.warn("Query {} was not started within {} ms", part.name, timeoutMillis);
+                    outcome = "timeout";
+                } else {
+                    logger.warn("Query {} failed: {}", part.name, e.getCause().getMessage());
+                    outcome = "error";
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                outcome = "interrupted";
+            }
+            part.value = value;
+            part.joined = true;
+            return outcome;
+        }
+    }
+}
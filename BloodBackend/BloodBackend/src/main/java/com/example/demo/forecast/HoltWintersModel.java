@@ -0,0 +1,175 @@
+package com.example.demo.forecast;
+
+/**
+ * Additive Holt-Winters (triple exponential smoothing) with a damped trend, for a
+ * daily series with a fixed season length (7 for weekly seasonality).
+ *
+ * The state is constant-size (level, trend and one component per season position),
+ * so the model is updated one observation at a time without keeping history. The
+ * first two seasons are buffered to initialize the state; until then forecasts
+ * are the mean of what has been seen.
+ */
+public final class HoltWintersModel {
+
+    public static final double DEFAULT_ALPHA = 0.3;
+    public static final double DEFAULT_BETA = 0.05;
+    public static final double DEFAULT_GAMMA = 0.2;
+
+    // Trend damping keeps long-horizon forecasts from running away on a short-lived trend
+    private static final double DAMPING = 0.95;
+
+    // Smoothing parameter grid searched by fit()
+    private static final double[] ALPHAS = {0.05, 0.1, 0.2, 0.3, 0.5, 0.7};
+    private static final double[] BETAS = {0.0, 0.01, 0.05, 0.1};
+    private static final double[] GAMMAS = {0.05, 0.1, 0.2, 0.4};
+
+    private final int seasonLength;
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final double[] seasonal;
+    private final double[] warmup;
+
+    private double level;
+    private double trend;
+    private long observations;
+    private double squaredErrorSum;
+    private long errorCount;
+
+    public HoltWintersModel(int seasonLength, double alpha, double beta, double gamma) {
+        if (seasonLength < 1) {
+            throw new IllegalArgumentException("seasonLength must be positive");
+        }
+        this.seasonLength = seasonLength;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.seasonal = new double[seasonLength];
+        this.warmup = new double[2 * seasonLength];
+    }
+
+    /**
+     * Fit a model to a series by grid-searching the smoothing parameters for the
+     * lowest one-step-ahead squared error, then return it with the whole series
+     * applied. Series too short to judge parameters get the defaults.
+     */
+    public static HoltWintersModel fit(double[] series, int seasonLength) {
+        if (series.length < 3 * seasonLength) {
+            HoltWintersModel model = new HoltWintersModel(seasonLength, DEFAULT_ALPHA, DEFAULT_BETA, DEFAULT_GAMMA);
+            for (double value : series) {
+                model.update(value);
+            }
+            return model;
+        }
+
+        HoltWintersModel best = null;
+        for (double alpha : ALPHAS) {
+            for (double beta : BETAS) {
+                for (double gamma : GAMMAS) {
+                    HoltWintersModel candidate = new HoltWintersModel(seasonLength, alpha, beta, gamma);
+                    for (double value : series) {
+                        candidate.update(value);
+                    }
+                    if (best == null || candidate.squaredErrorSum < best.squaredErrorSum) {
+                        best = candidate;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Apply the next observation of the series
+     */
+    public void update(double value) {
+        if (observations < warmup.length) {
+            warmup[(int) observations++] = value;
+            if (observations == warmup.length) {
+                initialize();
+            }
+            return;
+        }
+
+        int position = (int) (observations % seasonLength);
+        double error = value - (level + DAMPING * trend + seasonal[position]);
+        squaredErrorSum += error * error;
+        errorCount++;
+
+        double previousLevel = level;
+        level = alpha * (value - seasonal[position]) + (1 - alpha) * (level + DAMPING * trend);
+        trend = beta * (level - previousLevel) + (1 - beta) * DAMPING * trend;
+        seasonal[position] = gamma * (value - level) + (1 - gamma) * seasonal[position];
+        observations++;
+    }
+
+    private void initialize() {
+        double firstMean = mean(0, seasonLength);
+        double secondMean = mean(seasonLength, 2 * seasonLength);
+        trend = (secondMean - firstMean) / seasonLength;
+        // Season means sit in the middle of their season; move the level to its end
+        level = secondMean + trend * (seasonLength - 1) / 2.0;
+        // Seasonal components are the detrended deviations from each season's mean
+        for (int i = 0; i < seasonLength; i++) {
+            double offset = trend * (i - (seasonLength - 1) / 2.0);
+            seasonal[i] = ((warmup[i] - firstMean - offset) + (warmup[i + seasonLength] - secondMean - offset)) / 2;
+        }
+    }
+
+    private double mean(int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += warmup[i];
+        }
+        return to > from ? sum / (to - from) : 0;
+    }
+
+    /**
+     * Forecast the value a number of steps after the last observation, never below zero
+     *
+     * @param steps Steps ahead, 1 for the next observation
+     */
+    public double forecast(int steps) {
+        if (steps < 1) {
+            throw new IllegalArgumentException("steps must be at least 1");
+        }
+        if (!isInitialized()) {
+            return Math.max(0, mean(0, (int) observations));
+        }
+        double damping = 0;
+        double factor = 1;
+        for (int i = 0; i < steps; i++) {
+            factor *= DAMPING;
+            damping += factor;
+        }
+        int position = (int) ((observations + steps - 1) % seasonLength);
+        return Math.max(0, level + damping * trend + seasonal[position]);
+    }
+
+    public boolean isInitialized() {
+        return observations >= warmup.length;
+    }
+
+    public long getObservations() {
+        return observations;
+    }
+
+    /**
+     * @return Root mean squared one-step-ahead error since initialization, or NaN before any
+     */
+    public double getRmse() {
+        return errorCount == 0 ? Double.NaN : Math.sqrt(squaredErrorSum / errorCount);
+    }
+
+    public double getAlpha() {
+        return alpha;
+    }
+
+    public double getBeta() {
+        return beta;
+    }
+
+    public double getGamma() {
+        return gamma;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.journal;
+
+import com.example.demo.model.InventoryEvent;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * AVAILABLE units per expiry time and blood group, so the units expiring before
+ * any cutoff are a sum over the head of the map instead of a table scan
+ */
+public class ExpiringSoonProjection implements InventoryProjection {
+
+    private static final String AVAILABLE = "AVAILABLE";
+
+    private final NavigableMap<LocalDateTime, Map<String, Integer>> byExpiry = new TreeMap<>();
+
+    @Override
+    public synchronized void apply(InventoryEvent event) {
+        if (event.getExpiryDate() == null) {
+            return;
+        }
+        if (AVAILABLE.equals(event.getFromStatus())) {
+            add(event.getExpiryDate(), event.getBloodGroup(), -event.getUnits());
+        }
+        if (AVAILABLE.equals(event.getToStatus())) {
+            add(event.getExpiryDate(), event.getBloodGroup(), event.getUnits());
+        }
+    }
+
+    private void add(LocalDateTime expiry, String bloodGroup, int delta) {
+        Map<String, Integer> byGroup = byExpiry.computeIfAbsent(expiry, key -> new HashMap<>());
+        int total = byGroup.getOrDefault(bloodGroup, 0) + delta;
+        if (total == 0) {
+            byGroup.remove(bloodGroup);
+            if (byGroup.isEmpty()) {
+                byExpiry.remove(expiry);
+            }
+        } else {
+            byGroup.put(bloodGroup, total);
+        }
+    }
+
+    @Override
+    public synchronized void reset() {
+        byExpiry.clear();
+    }
+
+    /**
+     * @param cutoff Exclusive upper bound on the expiry time
+     * @return Blood group to AVAILABLE units expiring before the cutoff
+     */
+    public synchronized Map<String, Integer> unitsExpiringBefore(LocalDateTime cutoff) {
+        Map<String, Integer> result = new TreeMap<>();
+        for (Map<String, Integer> byGroup : byExpiry.headMap(cutoff, false).values()) {
+            byGroup.forEach((bloodGroup, units) -> result.merge(bloodGroup, units, Integer::sum));
+        }
+        return result;
+    }
+}
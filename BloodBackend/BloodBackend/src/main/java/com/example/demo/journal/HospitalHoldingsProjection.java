@@ -0,0 +1,59 @@
+package com.example.demo.journal;
+
+import com.example.demo.model.InventoryEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Units held (AVAILABLE or RESERVED) per hospital and blood group. Rows without a
+ * hospital are held by the blood bank itself.
+ */
+public class HospitalHoldingsProjection implements InventoryProjection {
+
+    public static final String BLOOD_BANK = "bloodBank";
+
+    private static final Set<String> HELD_STATUSES = Set.of("AVAILABLE", "RESERVED");
+
+    private final Map<String, Map<String, Integer>> holdings = new HashMap<>();
+
+    @Override
+    public synchronized void apply(InventoryEvent event) {
+        String holder = event.getHospitalId() != null ? event.getHospitalId().toString() : BLOOD_BANK;
+        if (event.getFromStatus() != null && HELD_STATUSES.contains(event.getFromStatus())) {
+            add(holder, event.getBloodGroup(), -event.getUnits());
+        }
+        if (event.getToStatus() != null && HELD_STATUSES.contains(event.getToStatus())) {
+            add(holder, event.getBloodGroup(), event.getUnits());
+        }
+    }
+
+    private void add(String holder, String bloodGroup, int delta) {
+        Map<String, Integer> byGroup = holdings.computeIfAbsent(holder, key -> new HashMap<>());
+        int total = byGroup.getOrDefault(bloodGroup, 0) + delta;
+        if (total == 0) {
+            byGroup.remove(bloodGroup);
+            if (byGroup.isEmpty()) {
+                holdings.remove(holder);
+            }
+        } else {
+            byGroup.put(bloodGroup, total);
+        }
+    }
+
+    @Override
+    public synchronized void reset() {
+        holdings.clear();
+    }
+
+    /**
+     * @return Hospital id (or {@value #BLOOD_BANK}) to blood group to units
+     */
+    public synchronized Map<String, Map<String, Integer>> snapshot() {
+        Map<String, Map<String, Integer>> copy = new TreeMap<>();
+        holdings.forEach((holder, byGroup) -> copy.put(holder, new TreeMap<>(byGroup)));
+        return copy;
+    }
+}
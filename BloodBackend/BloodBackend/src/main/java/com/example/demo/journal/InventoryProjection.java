@@ -0,0 +1,21 @@
+package com.example.demo.journal;
+
+import com.example.demo.model.InventoryEvent;
+
+/**
+ * Read model built incrementally from the inventory journal. Projections only see
+ * events, never blood_inventory, so they can be rebuilt at any time by resetting
+ * and replaying the journal from the start.
+ */
+public interface InventoryProjection {
+
+    /**
+     * Apply the next event of the journal
+     */
+    void apply(InventoryEvent event);
+
+    /**
+     * Discard all state before a replay
+     */
+    void reset();
+}
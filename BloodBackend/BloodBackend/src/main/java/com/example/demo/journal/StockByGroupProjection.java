@@ -0,0 +1,56 @@
+package com.example.demo.journal;
+
+import com.example.demo.model.InventoryEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Units per blood group and status
+ */
+public class StockByGroupProjection implements InventoryProjection {
+
+    private final Map<String, Map<String, Integer>> units = new HashMap<>();
+
+    @Override
+    public synchronized void apply(InventoryEvent event) {
+        if (event.getFromStatus() != null) {
+            add(event.getBloodGroup(), event.getFromStatus(), -event.getUnits());
+        }
+        if (event.getToStatus() != null) {
+            add(event.getBloodGroup(), event.getToStatus(), event.getUnits());
+        }
+    }
+
+    private void add(String bloodGroup, String status, int delta) {
+        Map<String, Integer> byStatus = units.computeIfAbsent(bloodGroup, key -> new HashMap<>());
+        int total = byStatus.getOrDefault(status, 0) + delta;
+        if (total == 0) {
+            byStatus.remove(status);
+            if (byStatus.isEmpty()) {
+                units.remove(bloodGroup);
+            }
+        } else {
+            byStatus.put(status, total);
+        }
+    }
+
+    @Override
+    public synchronized void reset() {
+        units.clear();
+    }
+
+    public synchronized int getUnits(String bloodGroup, String status) {
+        return units.getOrDefault(bloodGroup, Map.of()).getOrDefault(status, 0);
+    }
+
+    /**
+     * @return Blood group to status to units
+     */
+    public synchronized Map<String, Map<String, Integer>> snapshot() {
+        Map<String, Map<String, Integer>> copy = new TreeMap<>();
+        units.forEach((bloodGroup, byStatus) -> copy.put(bloodGroup, new TreeMap<>(byStatus)));
+        return copy;
+    }
+}
@@ -1,22 +1,32 @@
 package com.example.demo.model;
 
+import com.example.demo.cache.AggregateChangeListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "blood_donations")
+@Table(name = "blood_donations", indexes = {
+        // Donor history, newest first
+        @Index(name = "idx_blood_donations_donor_date", columnList = "donor_id, donation_date")
+})
+@EntityListeners(AggregateChangeListener.class)
 public class BloodDonation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId
     private Long id;
 
     @ManyToOne
@@ -59,6 +69,14 @@ public class BloodDonation {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Rollup bucket this donation is currently counted in (see DonationRollupService)
+    @Transient
+    private RollupContribution rolledUpContribution;
+
+    // Donation date as last loaded or written, which may have set the donor's last donation date
+    @Transient
+    private LocalDateTime storedDonationDate;
+
     // Default constructor
     public BloodDonation() {
         this.createdAt = LocalDateTime.now();
@@ -180,6 +198,44 @@ public class BloodDonation {
         this.updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * The day / blood group / health status bucket and volume this donation adds to the rollups
+     */
+    public record RollupContribution(LocalDate day, String bloodGroup, String healthStatus, int quantityMl) {
+    }
+
+    public RollupContribution currentRollupContribution() {
+        if (donationDate == null || bloodGroup == null || quantityMl == null) {
+            return null;
+        }
+        return new RollupContribution(donationDate.toLocalDate(), bloodGroup,
+                healthStatus != null ? healthStatus : "UNKNOWN", quantityMl);
+    }
+
+    public RollupContribution rolledUpContribution() {
+        return rolledUpContribution;
+    }
+
+    public void markRolledUp() {
+        this.rolledUpContribution = currentRollupContribution();
+    }
+
+    public LocalDateTime storedDonationDate() {
+        return storedDonationDate;
+    }
+
+    @PostLoad
+    void onLoad() {
+        markRolledUp();
+        this.storedDonationDate = donationDate;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void onStored() {
+        this.storedDonationDate = donationDate;
+    }
+
     @Override
     public String toString() {
         return "BloodDonation{" +
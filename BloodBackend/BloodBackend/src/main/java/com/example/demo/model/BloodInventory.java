@@ -1,20 +1,32 @@
 package com.example.demo.model;
 
+import com.example.demo.cache.AggregateChangeListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "blood_inventory")
+@Table(name = "blood_inventory", indexes = {
+        @Index(name = "idx_blood_inventory_group_status", columnList = "blood_group, status"),
+        @Index(name = "idx_blood_inventory_group_updated", columnList = "blood_group, updated_at"),
+        // Hospital-scoped stock, allocation and expiry queries stay within one hospital's range
+        @Index(name = "idx_blood_inventory_hospital_group_status", columnList = "hospital_id, blood_group, status"),
+        @Index(name = "idx_blood_inventory_hospital_status_expiry", columnList = "hospital_id, status, expiry_date")
+})
+@EntityListeners(AggregateChangeListener.class)
 public class BloodInventory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId
     private Long id;
 
     @Column(name = "blood_group", nullable = false)
@@ -44,6 +56,16 @@ public class BloodInventory {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic lock; existing rows start at 0 when the column is added
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // State as last written to the inventory journal
+    @Transient
+    private JournalState journaledState;
+
     // Default constructor
     public BloodInventory() {
         this.createdAt = LocalDateTime.now();
@@ -141,6 +163,40 @@ public class BloodInventory {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * The fields of a row that inventory events describe
+     */
+    public record JournalState(String bloodGroup, int units, String status, Long hospitalId, LocalDateTime expiryDate) {
+    }
+
+    public JournalState currentJournalState() {
+        if (bloodGroup == null || units == null) {
+            return null;
+        }
+        return new JournalState(bloodGroup, units, status != null ? status : "UNKNOWN", hospitalId, expiryDate);
+    }
+
+    public JournalState journaledState() {
+        return journaledState;
+    }
+
+    public void markJournaled() {
+        this.journaledState = currentJournalState();
+    }
+
+    @PostLoad
+    void onLoad() {
+        markJournaled();
+    }
+
     @Override
     public String toString() {
         return "BloodInventory{" +
@@ -1,10 +1,11 @@
 package com.example.demo.model;
 
+import com.example.demo.cache.AggregateChangeListener;
+import com.example.demo.search.SearchIndexListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -14,10 +15,11 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "blood_requests")
+@EntityListeners({AggregateChangeListener.class, SearchIndexListener.class})
 public class BloodRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,93 @@
+package com.example.demo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Donation count and volume per day, blood group and health status.
+ *
+ * Maintained incrementally by DonationRollupService in the same transaction as
+ * the donation itself, so stats and trends never have to scan blood_donations.
+ */
+@Entity
+@Table(name = "donation_daily_rollups")
+@IdClass(DonationDailyRollup.Key.class)
+public class DonationDailyRollup {
+
+    @Id
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Id
+    @Column(name = "blood_group", nullable = false)
+    private String bloodGroup;
+
+    @Id
+    @Column(name = "health_status", nullable = false)
+    private String healthStatus;
+
+    @Column(name = "donation_count", nullable = false)
+    private Long donationCount;
+
+    @Column(name = "total_volume_ml", nullable = false)
+    private Long totalVolumeMl;
+
+    public DonationDailyRollup() {
+    }
+
+    public LocalDate getRollupDate() {
+        return rollupDate;
+    }
+
+    public String getBloodGroup() {
+        return bloodGroup;
+    }
+
+    public String getHealthStatus() {
+        return healthStatus;
+    }
+
+    public Long getDonationCount() {
+        return donationCount;
+    }
+
+    public Long getTotalVolumeMl() {
+        return totalVolumeMl;
+    }
+
+    public static class Key implements Serializable {
+        private LocalDate rollupDate;
+        private String bloodGroup;
+        private String healthStatus;
+
+        public Key() {
+        }
+
+        public Key(LocalDate rollupDate, String bloodGroup, String healthStatus) {
+            this.rollupDate = rollupDate;
+            this.bloodGroup = bloodGroup;
+            this.healthStatus = healthStatus;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(rollupDate, key.rollupDate)
+                    && Objects.equals(bloodGroup, key.bloodGroup)
+                    && Objects.equals(healthStatus, key.healthStatus);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rollupDate, bloodGroup, healthStatus);
+        }
+    }
+}
@@ -1,20 +1,34 @@
 package com.example.demo.model;
 
+import com.example.demo.bitmap.DonorBitmapListener;
+import com.example.demo.cache.AggregateChangeListener;
+import com.example.demo.search.SearchIndexListener;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "donors")
+@EntityListeners({AggregateChangeListener.class, SearchIndexListener.class, DonorBitmapListener.class})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "donors")
+// Updates write only the changed columns, so a profile save never writes back
+// totals it read before a concurrent donation changed them
+@DynamicUpdate
 public class Donor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId
     private Long id;
 
     @Column(nullable = false)
@@ -32,6 +46,8 @@ public class Donor {
     @Column(nullable = false, unique = true)
     private String username;
 
+    // Accepted on registration, never written back out
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(nullable = false)
     private String password;
 
@@ -41,6 +57,16 @@ public class Donor {
     @Column(name = "last_donation")
     private LocalDateTime lastDonation;
 
+    // Donation totals, changed under a row lock when donations are recorded
+    // (see DonorService#recordDonationTotals), never set by clients
+    @ColumnDefault("0")
+    @Column(name = "donation_count", nullable = false, insertable = false)
+    private int donationCount;
+
+    @ColumnDefault("0")
+    @Column(name = "total_volume_ml", nullable = false, insertable = false)
+    private long totalVolumeMl;
+
     @Column(name = "is_available")
     private boolean isAvailable = true;
 
@@ -129,6 +155,66 @@ public class Donor {
         this.lastDonation = lastDonation;
     }
 
+    public int getDonationCount() {
+        return donationCount;
+    }
+
+    public long getTotalVolumeMl() {
+        return totalVolumeMl;
+    }
+
+    /**
+     * Count a new donation in the totals and the last donation date
+     *
+     * @param quantityMl The donated volume
+     * @param donationDate When the donation was made
+     */
+    public void addDonation(int quantityMl, LocalDateTime donationDate) {
+        this.donationCount++;
+        this.totalVolumeMl += quantityMl;
+        if (this.lastDonation == null || this.lastDonation.isBefore(donationDate)) {
+            this.lastDonation = donationDate;
+        }
+    }
+
+    /**
+     * Replace the totals with ones recounted from the donations after one of them was
+     * edited or deleted. The last donation date may also have been entered for a
+     * donation made elsewhere, so it only moves back if the changed donation is the
+     * one that set it, and is never cleared.
+     *
+     * @param donationCount The number of donations
+     * @param totalVolumeMl Their total volume
+     * @param latestDonation The date of the latest one, or null if there are none
+     * @param changedDonationDate The changed donation's date before the change, if known
+     */
+    public void recountDonations(int donationCount, long totalVolumeMl, LocalDateTime latestDonation,
+                                 LocalDateTime changedDonationDate) {
+        this.donationCount = donationCount;
+        this.totalVolumeMl = totalVolumeMl;
+        if (latestDonation == null) {
+            return;
+        }
+        if (this.lastDonation == null || this.lastDonation.isBefore(latestDonation)
+                || this.lastDonation.equals(changedDonationDate)) {
+            this.lastDonation = latestDonation;
+        }
+    }
+
+    /**
+     * Keep the totals recorded for a stored donor when saving an edited copy of it,
+     * so profile updates cannot overwrite them with stale or client-supplied values
+     *
+     * @param stored The donor as currently stored
+     */
+    public void keepDonationTotals(Donor stored) {
+        this.donationCount = stored.donationCount;
+        this.totalVolumeMl = stored.totalVolumeMl;
+        if (this.lastDonation == null) {
+            this.lastDonation = stored.lastDonation;
+        }
+    }
+
     public boolean isAvailable() {
         return isAvailable;
     }
@@ -1,9 +1,9 @@
 package com.example.demo.model;
 
+import com.example.demo.cache.AggregateChangeListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -13,10 +13,11 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "emergency_notifications")
+@EntityListeners(AggregateChangeListener.class)
 public class EmergencyNotification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId
     private Long id;
 
     @Column(nullable = false)
@@ -1,12 +1,17 @@
 package com.example.demo.model;
 
+import com.example.demo.cache.AggregateChangeListener;
+import com.example.demo.search.SearchIndexListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -14,10 +19,13 @@ import java.util.List;
 
 @Entity
 @Table(name = "hospitals")
+@EntityListeners({AggregateChangeListener.class, SearchIndexListener.class})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "hospitals")
 public class Hospital {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId
     private Long id;
 
     @Column(nullable = false)
@@ -41,6 +49,8 @@ public class Hospital {
     @Column
     private String status; // ACTIVE, INACTIVE, PENDING
 
+    // Never serialized: requests point back at their hospital
+    @JsonIgnore
     @OneToMany(mappedBy = "hospital")
     private List<BloodRequest> bloodRequests = new ArrayList<>();
 
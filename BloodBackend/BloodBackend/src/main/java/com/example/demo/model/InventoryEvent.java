@@ -0,0 +1,146 @@
+package com.example.demo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only journal entry for one change to one blood_inventory row.
+ *
+ * Every event moves {@code units} units of the row's blood group (at its hospital
+ * and expiry date) from the {@code fromStatus} bucket to the {@code toStatus}
+ * bucket. A null fromStatus means the units enter the inventory, a null toStatus
+ * that they leave it. Events carry everything projections need, so read models can
+ * be rebuilt by replaying the journal without looking at blood_inventory.
+ */
+@Entity
+@Table(name = "inventory_events", indexes = {
+        @Index(name = "idx_inventory_events_inventory", columnList = "inventory_id"),
+        @Index(name = "idx_inventory_events_related", columnList = "related_inventory_id")
+})
+public class InventoryEvent {
+
+    public static final String RECEIVED = "RECEIVED";
+    public static final String RESERVED = "RESERVED";
+    public static final String SPLIT = "SPLIT";
+    public static final String TRANSFERRED = "TRANSFERRED";
+    public static final String EXPIRED = "EXPIRED";
+    public static final String USED = "USED";
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+    public static final String ADJUSTED = "ADJUSTED";
+    public static final String REMOVED = "REMOVED";
+    // Opening balance written for rows that existed before the journal
+    public static final String IMPORTED = "IMPORTED";
+
+    // IDENTITY rather than @PooledTableId: the id order is the journal order that
+    // readers page through (afterId), which ids from per-instance blocks would not keep
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 20)
+    private String eventType;
+
+    @Column(name = "inventory_id", nullable = false)
+    private Long inventoryId;
+
+    // Other row involved: the source row of a SPLIT, the counterpart of a TRANSFERRED
+    @Column(name = "related_inventory_id")
+    private Long relatedInventoryId;
+
+    @Column(name = "blood_group", nullable = false, length = 3)
+    private String bloodGroup;
+
+    @Column(name = "hospital_id")
+    private Long hospitalId;
+
+    @Column(name = "expiry_date")
+    private LocalDateTime expiryDate;
+
+    @Column(name = "from_status", length = 20)
+    private String fromStatus;
+
+    @Column(name = "to_status", length = 20)
+    private String toStatus;
+
+    @Column(nullable = false)
+    private int units;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    public InventoryEvent() {
+    }
+
+    public InventoryEvent(String eventType, Long inventoryId, Long relatedInventoryId, String bloodGroup,
+                          Long hospitalId, LocalDateTime expiryDate, String fromStatus, String toStatus, int units) {
+        this.eventType = eventType;
+        this.inventoryId = inventoryId;
+        this.relatedInventoryId = relatedInventoryId;
+        this.bloodGroup = bloodGroup;
+        this.hospitalId = hospitalId;
+        this.expiryDate = expiryDate;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.units = units;
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public Long getInventoryId() {
+        return inventoryId;
+    }
+
+    public Long getRelatedInventoryId() {
+        return relatedInventoryId;
+    }
+
+    public String getBloodGroup() {
+        return bloodGroup;
+    }
+
+    public Long getHospitalId() {
+        return hospitalId;
+    }
+
+    public LocalDateTime getExpiryDate() {
+        return expiryDate;
+    }
+
+    public String getFromStatus() {
+        return fromStatus;
+    }
+
+    public String getToStatus() {
+        return toStatus;
+    }
+
+    public int getUnits() {
+        return units;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
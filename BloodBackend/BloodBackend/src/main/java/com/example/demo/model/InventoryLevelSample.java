@@ -0,0 +1,125 @@
+package com.example.demo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only sample of the available units of one blood group.
+ *
+ * RAW samples are taken periodically and whenever the level changes. Older RAW
+ * samples are downsampled into HOUR buckets and those into DAY buckets, which keep
+ * the min/max/average over the bucket and the level at its end.
+ */
+@Entity
+@Table(name = "inventory_level_samples", indexes = {
+        @Index(name = "idx_inventory_samples_group_time", columnList = "blood_group, sampled_at"),
+        @Index(name = "idx_inventory_samples_resolution_time", columnList = "resolution, sampled_at")
+})
+public class InventoryLevelSample {
+
+    public static final String RAW = "RAW";
+    public static final String HOUR = "HOUR";
+    public static final String DAY = "DAY";
+
+    @Id
+    @PooledTableId
+    private Long id;
+
+    @Column(name = "blood_group", nullable = false, length = 3)
+    private String bloodGroup;
+
+    // Sample time for RAW, bucket start for HOUR and DAY
+    @Column(name = "sampled_at", nullable = false)
+    private LocalDateTime sampledAt;
+
+    @Column(nullable = false, length = 4)
+    private String resolution; // RAW, HOUR, DAY
+
+    // True for RAW samples written because the level changed, false for periodic ones
+    @Column(name = "change_event", nullable = false)
+    private boolean changeEvent;
+
+    // Level at the sample time, or at the end of the bucket
+    @Column(nullable = false)
+    private int units;
+
+    @Column(name = "min_units", nullable = false)
+    private int minUnits;
+
+    @Column(name = "max_units", nullable = false)
+    private int maxUnits;
+
+    @Column(name = "avg_units", nullable = false)
+    private double avgUnits;
+
+    @Column(name = "sample_count", nullable = false)
+    private int sampleCount;
+
+    public InventoryLevelSample() {
+    }
+
+    /**
+     * Create a RAW sample
+     */
+    public InventoryLevelSample(String bloodGroup, LocalDateTime sampledAt, int units, boolean changeEvent) {
+        this(bloodGroup, sampledAt, RAW, units, units, units, units, 1);
+        this.changeEvent = changeEvent;
+    }
+
+    public InventoryLevelSample(String bloodGroup, LocalDateTime sampledAt, String resolution,
+                                int units, int minUnits, int maxUnits, double avgUnits, int sampleCount) {
+        this.bloodGroup = bloodGroup;
+        this.sampledAt = sampledAt;
+        this.resolution = resolution;
+        this.units = units;
+        this.minUnits = minUnits;
+        this.maxUnits = maxUnits;
+        this.avgUnits = avgUnits;
+        this.sampleCount = sampleCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getBloodGroup() {
+        return bloodGroup;
+    }
+
+    public LocalDateTime getSampledAt() {
+        return sampledAt;
+    }
+
+    public String getResolution() {
+        return resolution;
+    }
+
+    public boolean isChangeEvent() {
+        return changeEvent;
+    }
+
+    public int getUnits() {
+        return units;
+    }
+
+    public int getMinUnits() {
+        return minUnits;
+    }
+
+    public int getMaxUnits() {
+        return maxUnits;
+    }
+
+    public double getAvgUnits() {
+        return avgUnits;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.model;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Table-based ids for MySQL, which has no sequences: one row per entity table in
+ * {@value #TABLE}, holding the highest id reserved so far. Each instance reserves
+ * a block of ids with one short transaction on that row and assigns them in
+ * memory (the pooled-lo optimizer), so persisting an entity no longer executes its
+ * INSERT immediately and Hibernate can batch inserts (hibernate.jdbc.batch_size).
+ *
+ * Block sizes come from the Hibernate settings, per table or for all tables:
+ * {@value #ALLOCATION_SIZE_SETTING}[.table] (spring.jpa.properties.bloodbank.id...).
+ * A block always starts right after the stored value, so the size can be changed
+ * at any time, and ids left unused in a block when an instance stops are skipped.
+ *
+ * Rows for existing tables are seeded from MAX(id) by db/migration/R__id_generators.sql.
+ */
+public class PooledTableIdGenerator extends TableGenerator {
+
+    public static final String TABLE = "id_generators";
+    public static final String ALLOCATION_SIZE_SETTING = "bloodbank.id.allocation-size";
+    static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        String table = parameters.getProperty(PersistentIdentifierGenerator.TABLE);
+        Map<String, Object> settings = serviceRegistry.requireService(ConfigurationService.class).getSettings();
+        int allocationSize = ConfigurationHelper.getInt(ALLOCATION_SIZE_SETTING + "." + table, settings,
+                ConfigurationHelper.getInt(ALLOCATION_SIZE_SETTING, settings, DEFAULT_ALLOCATION_SIZE));
+
+        parameters.setProperty(TABLE_PARAM, TABLE);
+        parameters.setProperty(SEGMENT_COLUMN_PARAM, "sequence_name");
+        parameters.setProperty(SEGMENT_VALUE_PARAM, table);
+        parameters.setProperty(VALUE_COLUMN_PARAM, "last_id");
+        parameters.setProperty(INITIAL_PARAM, "1");
+        parameters.setProperty(INCREMENT_PARAM, Integer.toString(allocationSize));
+        parameters.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.outbox;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * A domain event as delivered to in-process listeners by the outbox relay.
+ *
+ * Delivery is at-least-once: after a failure or a relay crash the same event (same
+ * id) can be delivered again, so listeners must be idempotent, e.g. by remembering
+ * the ids they have handled.
+ */
+public record DomainEvent(long id, String type, Long aggregateId, Map<String, Object> payload, LocalDateTime occurredAt) {
+
+    public static final String DONATION_RECORDED = "DONATION_RECORDED";
+    public static final String REQUEST_CREATED = "REQUEST_CREATED";
+    public static final String STOCK_CRITICAL = "STOCK_CRITICAL";
+    public static final String NOTIFICATION_RAISED = "NOTIFICATION_RAISED";
+}
@@ -0,0 +1,62 @@
+package com.example.demo.outbox;
+
+import com.example.demo.model.OutboxMessage;
+import com.example.demo.repository.OutboxMessageRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+/**
+ * Records domain events in the outbox as part of the caller's transaction, so an
+ * event exists if and only if the change that caused it committed
+ */
+@Component
+public class OutboxPublisher {
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final OutboxRelay outboxRelay;
+    private final ObjectMapper objectMapper;
+
+    public OutboxPublisher(OutboxMessageRepository outboxMessageRepository, OutboxRelay outboxRelay,
+                           ObjectMapper objectMapper) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.outboxRelay = outboxRelay;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param type One of the {@link DomainEvent} types
+     * @param aggregateId Id of the entity the event is about
+     * @param payload Event data, serialized as JSON
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String type, Long aggregateId, Map<String, Object> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event payload is not serializable: " + type, e);
+        }
+        outboxMessageRepository.save(new OutboxMessage(type, aggregateId, json));
+
+        // Deliver right after commit instead of waiting for the next poll
+        if (TransactionSynchronizationManager.getResource(this) == null) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OutboxPublisher.this);
+                    if (status == STATUS_COMMITTED) {
+                        outboxRelay.relayAsync();
+                    }
+                }
+            });
+        }
+    }
+}
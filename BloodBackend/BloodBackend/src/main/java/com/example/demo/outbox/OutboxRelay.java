@@ -0,0 +1,218 @@
+package com.example.demo.outbox;
+
+import com.example.demo.model.OutboxMessage;
+import com.example.demo.repository.OutboxMessageRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Delivers outbox messages to in-process listeners ({@code @EventListener} methods
+ * taking a {@link DomainEvent}).
+ *
+ * Each batch is claimed in a short transaction that locks due rows with SKIP LOCKED
+ * and leases them by moving their due time forward. Listeners then run outside that
+ * transaction, and a second transaction marks the batch published or schedules
+ * retries with exponential backoff. A message whose delivery was interrupted (e.g.
+ * the instance died) becomes due again when its lease runs out, so delivery is
+ * at-least-once. The relay runs after every commit that wrote to the outbox and on a
+ * fixed poll.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock relayLock = new ReentrantLock();
+    private final AtomicBoolean rerunRequested = new AtomicBoolean();
+    private final Timer batchTimer;
+    private final Timer deliveryLag;
+
+    private final int batchSize;
+    private final long leaseSeconds;
+    private final int maxAttempts;
+    private final int retentionDays;
+
+    private volatile long pendingCount;
+    private volatile double oldestPendingSeconds;
+
+    public OutboxRelay(OutboxMessageRepository outboxMessageRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${bloodbank.outbox.batch-size:100}") int batchSize,
+                       @Value("${bloodbank.outbox.lease-seconds:60}") long leaseSeconds,
+                       @Value("${bloodbank.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${bloodbank.outbox.retention-days:7}") int retentionDays) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+        this.maxAttempts = maxAttempts;
+        this.retentionDays = retentionDays;
+        this.batchTimer = Timer.builder("bloodbank.outbox.relay.batch")
+                .description("Time to claim, deliver and complete one outbox batch")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("bloodbank.outbox.delivery.lag")
+                .description("Time from writing an outbox message to delivering it")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("bloodbank.outbox.pending", this, relay -> relay.pendingCount)
+                .register(meterRegistry);
+        Gauge.builder("bloodbank.outbox.oldest.pending.seconds", this, relay -> relay.oldestPendingSeconds)
+                .register(meterRegistry);
+    }
+
+    @Async
+    public void relayAsync() {
+        relayPending();
+    }
+
+    @Scheduled(fixedDelayString = "${bloodbank.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        relayPending();
+        updateBacklogGauges();
+    }
+
+    /**
+     * Deliver due messages until none are left
+     *
+     * @return The number of messages delivered
+     */
+    public int relayPending() {
+        if (!relayLock.tryLock()) {
+            // Another thread is relaying; have it go around once more
+            rerunRequested.set(true);
+            return 0;
+        }
+        try {
+            int delivered = 0;
+            int claimed;
+            do {
+                rerunRequested.set(false);
+                Timer.Sample sample = Timer.start(meterRegistry);
+                List<OutboxMessage> batch = claimBatch();
+                claimed = batch.size();
+                if (claimed > 0) {
+                    delivered += deliver(batch);
+                    sample.stop(batchTimer);
+                }
+            } while (claimed == batchSize || rerunRequested.get());
+            return delivered;
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    private List<OutboxMessage> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxMessage> batch = outboxMessageRepository.lockDueBatch(now, batchSize);
+            for (OutboxMessage message : batch) {
+                message.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+            }
+            return batch;
+        });
+    }
+
+    private int deliver(List<OutboxMessage> batch) {
+        List<Long> published = new ArrayList<>();
+        List<OutboxMessage> failed = new ArrayList<>();
+        for (OutboxMessage message : batch) {
+            try {
+                Map<String, Object> payload = objectMapper.readValue(message.getPayload(), PAYLOAD_TYPE);
+                eventPublisher.publishEvent(new DomainEvent(message.getId(), message.getEventType(),
+                        message.getAggregateId(), payload, message.getCreatedAt()));
+                published.add(message.getId());
+                deliveryLag.record(Duration.between(message.getCreatedAt(), LocalDateTime.now()));
+                count(message, "published");
+            } catch (Exception e) {
+                recordFailure(message, e);
+                failed.add(message);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!published.isEmpty()) {
+                outboxMessageRepository.markPublished(published, LocalDateTime.now());
+            }
+            outboxMessageRepository.saveAll(failed);
+        });
+        return published.size();
+    }
+
+    private void recordFailure(OutboxMessage message, Exception e) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        message.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+        if (attempts >= maxAttempts) {
+            message.setStatus(OutboxMessage.FAILED);
+            count(message, "failed");
+            logger.error("Giving up on outbox message {} ({}) after {} attempts: {}",
+                    message.getId(), message.getEventType(), attempts, error);
+        } else {
+            // 2s, 4s, 8s, ... capped at 10 minutes
+            long backoffSeconds = Math.min(600, 1L << attempts);
+            message.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds));
+            count(message, "retry");
+            logger.warn("Delivery of outbox message {} ({}) failed, retrying in {}s: {}",
+                    message.getId(), message.getEventType(), backoffSeconds, error);
+        }
+    }
+
+    private void count(OutboxMessage message, String outcome) {
+        Counter.builder("bloodbank.outbox.messages")
+                .tag("type", message.getEventType())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void updateBacklogGauges() {
+        pendingCount = outboxMessageRepository.countByStatus(OutboxMessage.PENDING);
+        LocalDateTime oldest = outboxMessageRepository.findOldestPendingCreatedAt();
+        oldestPendingSeconds = oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+
+    @Scheduled(cron = "${bloodbank.outbox.cleanup-cron:0 15 4 * * *}")
+    public void deletePublished() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxMessageRepository.deletePublishedBefore(LocalDateTime.now().minusDays(retentionDays)));
+        if (deleted != null && deleted > 0) {
+            logger.info("Deleted {} published outbox messages older than {} days", deleted, retentionDays);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent domain events in memory for clients that poll for a live
+ * feed. Events are kept in id order and redeliveries are ignored.
+ *
+ * The feed is per instance: it holds the events this instance's relay delivered.
+ * With several instances, relays claim disjoint batches, so each feed has gaps,
+ * and a restart empties it. It is a best-effort live view; code that must see
+ * every event should be a {@link DomainEvent} listener of its own.
+ */
+@Component
+public class RecentEventsFeed {
+
+    private final Deque<DomainEvent> events = new ArrayDeque<>();
+
+    @Value("${bloodbank.outbox.feed-size:200}")
+    private int feedSize;
+
+    @EventListener
+    public synchronized void onDomainEvent(DomainEvent event) {
+        if (events.stream().anyMatch(existing -> existing.id() == event.id())) {
+            return;
+        }
+        events.addLast(event);
+        while (events.size() > feedSize) {
+            events.removeFirst();
+        }
+    }
+
+    /**
+     * @param afterId Only return events with a larger id, 0 for all
+     * @return Events in id order
+     */
+    public synchronized List<DomainEvent> getEventsAfter(long afterId) {
+        List<DomainEvent> result = new ArrayList<>();
+        for (DomainEvent event : events) {
+            if (event.id() > afterId) {
+                result.add(event);
+            }
+        }
+        result.sort((a, b) -> Long.compare(a.id(), b.id()));
+        return result;
+    }
+}
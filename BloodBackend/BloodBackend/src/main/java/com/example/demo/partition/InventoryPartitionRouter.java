@@ -0,0 +1,58 @@
+package com.example.demo.partition;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps hospitals to logical inventory partitions.
+ *
+ * A partition is a fixed set of hospitals (hospital id modulo the partition count).
+ * Hospital-scoped queries only read their hospital's range of the hospital_id
+ * indexes; cross-hospital views query each partition separately and in parallel
+ * (see {@link InventoryScatterGather}). The blood bank's own stock (no hospital)
+ * is kept apart from the numbered partitions.
+ */
+@Component
+public class InventoryPartitionRouter {
+
+    private final int partitions;
+
+    public InventoryPartitionRouter(@Value("${bloodbank.inventory.partitions:8}") int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("bloodbank.inventory.partitions must be at least 1");
+        }
+        this.partitions = partitions;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * @param hospitalId The hospital ID
+     * @return The partition holding the hospital's inventory
+     */
+    public int partitionOf(long hospitalId) {
+        return (int) Math.floorMod(hospitalId, (long) partitions);
+    }
+
+    /**
+     * Group hospitals by partition
+     *
+     * @param hospitalIds The hospitals to route
+     * @return Partition number to the hospitals it holds, only for non-empty partitions
+     */
+    public Map<Integer, List<Long>> route(Collection<Long> hospitalIds) {
+        Map<Integer, List<Long>> routed = new TreeMap<>();
+        for (Long hospitalId : hospitalIds) {
+            routed.computeIfAbsent(partitionOf(hospitalId), partition -> new ArrayList<>()).add(hospitalId);
+        }
+        return routed;
+    }
+}
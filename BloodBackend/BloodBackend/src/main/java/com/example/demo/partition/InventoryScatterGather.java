@@ -0,0 +1,197 @@
+package com.example.demo.partition;
+
+import com.example.demo.dto.BloodGroupUnits;
+import com.example.demo.dto.HospitalGroupUnits;
+import com.example.demo.journal.HospitalHoldingsProjection;
+import com.example.demo.repository.BloodInventoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Builds cross-hospital inventory views by querying every partition in parallel
+ * and merging the results.
+ *
+ * Each partition query runs in its own read-only transaction, so it is served by
+ * the replica when one is configured. A partition that does not answer within
+ * {@code bloodbank.inventory.partition-timeout-ms} is left out and reported, rather
+ * than holding up the whole view. The transactions carry the same limit (rounded up
+ * to whole seconds), which Hibernate passes to the JDBC driver as a query timeout,
+ * so a slow query is also cancelled on the database and frees its thread and
+ * connection.
+ *
+ * At most {@code bloodbank.inventory.partition-parallelism} queries run at once,
+ * fewer than the read-only pool's connections (and the adaptive sizer's minimum),
+ * so a view never drains the pool and leaves other reads waiting for connections.
+ * The pool's connection timeout is far longer than the deadline, so queries still
+ * queued when the deadline passes are not started at all.
+ */
+@Component
+public class InventoryScatterGather {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryScatterGather.class);
+
+    private final BloodInventoryRepository bloodInventoryRepository;
+    private final InventoryPartitionRouter router;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+    private final Timer gatherTimer;
+    private final long partitionTimeoutMillis;
+
+    public InventoryScatterGather(BloodInventoryRepository bloodInventoryRepository,
+                                  InventoryPartitionRouter router,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${bloodbank.inventory.partition-timeout-ms:2000}") long partitionTimeoutMillis,
+                                  @Value("${bloodbank.inventory.partition-parallelism:3}") int parallelism) {
+        this.bloodInventoryRepository = bloodInventoryRepository;
+        this.router = router;
+        this.partitionTimeoutMillis = partitionTimeoutMillis;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // cancel(true) on a future does not stop a running JDBC call, a statement timeout does
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, (partitionTimeoutMillis + 999) / 1000));
+        AtomicInteger threadCount = new AtomicInteger();
+        // The partitions and the blood bank, but never more than the parallelism
+        int threads = Math.max(1, Math.min(parallelism, router.getPartitions() + 1));
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "inventory-partition-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.gatherTimer = Timer.builder("bloodbank.inventory.scatter.gather")
+                .description("Time to query all inventory partitions and merge the results")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Units of a status per holder (hospital id or {@value HospitalHoldingsProjection#BLOOD_BANK})
+     * and blood group, gathered from all partitions
+     *
+     * @param status The status to count, typically AVAILABLE
+     * @return A map with per-holder units, per-group totals and any partitions that timed out
+     */
+    public Map<String, Object> unitsByHospital(String status) {
+        return gatherTimer.record(() -> gather(status));
+    }
+
+    private Map<String, Object> gather(String status) {
+        List<Long> hospitalIds = readOnly(bloodInventoryRepository::findDistinctHospitalIds);
+        Map<Integer, List<Long>> partitions = router.route(hospitalIds);
+
+        // All partitions share one deadline
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(partitionTimeoutMillis);
+
+        // Scatter: the blood bank's own stock, plus one query per non-empty partition
+        CompletableFuture<List<BloodGroupUnits>> bloodBankQuery = CompletableFuture.supplyAsync(
+                () -> beforeDeadline(deadline, () -> bloodInventoryRepository.sumBloodBankUnitsByBloodGroup(status)),
+                executor);
+        Map<Integer, CompletableFuture<List<HospitalGroupUnits>>> partitionQueries = new TreeMap<>();
+        partitions.forEach((partition, hospitals) -> partitionQueries.put(partition, CompletableFuture.supplyAsync(
+                () -> beforeDeadline(deadline,
+                        () -> bloodInventoryRepository.sumUnitsByHospitalAndBloodGroup(hospitals, status)),
+                executor)));
+
+        // Gather
+        Map<String, Map<String, Integer>> holders = new TreeMap<>();
+        Map<String, Integer> totals = new TreeMap<>();
+        List<Object> incomplete = new ArrayList<>();
+
+        List<BloodGroupUnits> bloodBank = await(bloodBankQuery, deadline, HospitalHoldingsProjection.BLOOD_BANK);
+        if (bloodBank == null) {
+            incomplete.add(HospitalHoldingsProjection.BLOOD_BANK);
+        } else {
+            for (BloodGroupUnits row : bloodBank) {
+                add(holders, totals, HospitalHoldingsProjection.BLOOD_BANK, row.bloodGroup(), row.units());
+            }
+        }
+        partitionQueries.forEach((partition, query) -> {
+            List<HospitalGroupUnits> rows = await(query, deadline, partition);
+            if (rows == null) {
+                incomplete.add(partition);
+                return;
+            }
+            for (HospitalGroupUnits row : rows) {
+                add(holders, totals, String.valueOf(row.hospitalId()), row.bloodGroup(), row.units());
+            }
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", status);
+        result.put("partitions", router.getPartitions());
+        result.put("hospitals", holders);
+        result.put("totals", totals);
+        result.put("incompletePartitions", incomplete);
+        return result;
+    }
+
+    /**
+     * Whether every partition answered, so the result may be cached
+     *
+     * @param result A result of {@link #unitsByHospital(String)}
+     */
+    public static boolean isComplete(Map<String, Object> result) {
+        return ((List<?>) result.get("incompletePartitions")).isEmpty();
+    }
+
+    private static void add(Map<String, Map<String, Integer>> holders, Map<String, Integer> totals,
+                            String holder, String bloodGroup, Long units) {
+        int value = units != null ? units.intValue() : 0;
+        holders.computeIfAbsent(holder, key -> new TreeMap<>()).merge(bloodGroup, value, Integer::sum);
+        totals.merge(bloodGroup, value, Integer::sum);
+    }
+
+    private <T> T await(CompletableFuture<T> query, long deadline, Object partition) {
+        try {
+            return query.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            query.cancel(true);
+            logger.warn("Inventory partition {} did not answer within {} ms", partition, partitionTimeoutMillis);
+        } catch (ExecutionException e) {
+            logger.warn("Inventory partition {} query failed: {}", partition, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Run a partition query unless it waited in the queue past the deadline, in
+     * which case its result would be dropped anyway
+     */
+    private <T> T beforeDeadline(long deadline, Supplier<T> query) {
+        if (System.nanoTime() - deadline >= 0) {
+            throw new IllegalStateException("deadline passed before the query started");
+        }
+        return readOnly(query);
+    }
+
+    private <T> T readOnly(Supplier<T> query) {
+        return readOnlyTransaction.execute(status -> query.get());
+    }
+}
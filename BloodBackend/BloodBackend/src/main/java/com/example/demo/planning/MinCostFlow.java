@@ -0,0 +1,233 @@
+package com.example.demo.planning;
+
+import java.util.Arrays;
+
+/**
+ * Min-cost max-flow by the primal-dual method: successive shortest paths with
+ * Johnson potentials.
+ *
+ * Edge costs must be non-negative. Each round runs Dijkstra on reduced costs, then
+ * pushes flow along every edge left with zero reduced cost (all of them lie on a
+ * cheapest path) until none can take more, so the number of rounds is bounded by
+ * the number of distinct path costs rather than by units or paths. Storage is
+ * flat arrays (forward edge {@code 2k}, its residual twin {@code 2k + 1}).
+ */
+public final class MinCostFlow {
+
+    private static final long INFINITE = Long.MAX_VALUE / 4;
+
+    private final int nodeCount;
+    private final int[] head;
+    private int[] next = new int[16];
+    private int[] to = new int[16];
+    private int[] capacity = new int[16];
+    private int[] originalCapacity = new int[16];
+    private long[] cost = new long[16];
+    private int edgeCount;
+
+    // Search state for the current solve
+    private long[] potential;
+    private int[] currentEdge;
+    private boolean[] onPath;
+    private long pushedCost;
+
+    public MinCostFlow(int nodeCount) {
+        this.nodeCount = nodeCount;
+        this.head = new int[nodeCount];
+        Arrays.fill(head, -1);
+    }
+
+    /**
+     * @return The edge handle, for reading its flow after {@link #solve}
+     */
+    public int addEdge(int from, int toNode, int edgeCapacity, long edgeCost) {
+        if (edgeCost < 0) {
+            throw new IllegalArgumentException("Edge costs must be non-negative");
+        }
+        int edge = edgeCount;
+        append(from, toNode, edgeCapacity, edgeCost);
+        append(toNode, from, 0, -edgeCost);
+        return edge;
+    }
+
+    private void append(int from, int toNode, int edgeCapacity, long edgeCost) {
+        if (edgeCount == to.length) {
+            int size = edgeCount * 2;
+            next = Arrays.copyOf(next, size);
+            to = Arrays.copyOf(to, size);
+            capacity = Arrays.copyOf(capacity, size);
+            originalCapacity = Arrays.copyOf(originalCapacity, size);
+            cost = Arrays.copyOf(cost, size);
+        }
+        to[edgeCount] = toNode;
+        capacity[edgeCount] = edgeCapacity;
+        originalCapacity[edgeCount] = edgeCapacity;
+        cost[edgeCount] = edgeCost;
+        next[edgeCount] = head[from];
+        head[from] = edgeCount++;
+    }
+
+    /**
+     * @return Units sent along the edge by the last solve
+     */
+    public int flow(int edge) {
+        return originalCapacity[edge] - capacity[edge];
+    }
+
+    /**
+     * Send as much flow as possible from source to sink at minimum total cost
+     *
+     * @return {total flow, total cost}
+     */
+    public long[] solve(int source, int sink) {
+        potential = new long[nodeCount];
+        long[] distance = new long[nodeCount];
+        currentEdge = new int[nodeCount];
+        onPath = new boolean[nodeCount];
+        Heap heap = new Heap(nodeCount);
+        long totalFlow = 0;
+        long totalCost = 0;
+
+        while (true) {
+            Arrays.fill(distance, INFINITE);
+            distance[source] = 0;
+            heap.push(0, source);
+            while (!heap.isEmpty()) {
+                long d = heap.peekKey();
+                int node = heap.pop();
+                if (d > distance[node]) {
+                    continue;
+                }
+                for (int edge = head[node]; edge != -1; edge = next[edge]) {
+                    if (capacity[edge] == 0) {
+                        continue;
+                    }
+                    int target = to[edge];
+                    long candidate = d + cost[edge] + potential[node] - potential[target];
+                    if (candidate < distance[target]) {
+                        distance[target] = candidate;
+                        heap.push(candidate, target);
+                    }
+                }
+            }
+            if (distance[sink] == INFINITE) {
+                break;
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                if (distance[node] < INFINITE) {
+                    potential[node] += distance[node];
+                }
+            }
+
+            // Push as much as possible along all edges that lie on a shortest path
+            // (zero reduced cost) before running Dijkstra again
+            System.arraycopy(head, 0, currentEdge, 0, nodeCount);
+            Arrays.fill(onPath, false);
+            int pushed;
+            while ((pushed = augment(source, sink, Integer.MAX_VALUE)) > 0) {
+                totalFlow += pushed;
+                totalCost += pushedCost;
+                pushedCost = 0;
+            }
+        }
+        return new long[]{totalFlow, totalCost};
+    }
+
+    /**
+     * Depth-first search for flow along zero-reduced-cost edges, remembering per node
+     * which edges are used up for this phase
+     */
+    private int augment(int node, int sink, int limit) {
+        if (node == sink) {
+            return limit;
+        }
+        onPath[node] = true;
+        int sent = 0;
+        for (; currentEdge[node] != -1; currentEdge[node] = next[currentEdge[node]]) {
+            int edge = currentEdge[node];
+            int target = to[edge];
+            if (capacity[edge] == 0 || onPath[target]
+                    || cost[edge] + potential[node] - potential[target] != 0) {
+                continue;
+            }
+            int pushed = augment(target, sink, Math.min(limit - sent, capacity[edge]));
+            if (pushed > 0) {
+                capacity[edge] -= pushed;
+                capacity[edge ^ 1] += pushed;
+                pushedCost += (long) pushed * cost[edge];
+                sent += pushed;
+                if (sent == limit) {
+                    break;
+                }
+            }
+        }
+        onPath[node] = false;
+        return sent;
+    }
+
+    /**
+     * Binary min-heap of (key, node) pairs with lazy deletion
+     */
+    private static final class Heap {
+        private long[] keys;
+        private int[] nodes;
+        private int size;
+
+        Heap(int capacity) {
+            keys = new long[Math.max(16, capacity)];
+            nodes = new int[keys.length];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long peekKey() {
+            return keys[0];
+        }
+
+        void push(long key, int node) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                nodes[i] = nodes[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            long key = keys[--size];
+            int node = nodes[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[i] = keys[child];
+                nodes[i] = nodes[child];
+                i = child;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.demo.planning;
+
+import com.example.demo.dto.TransferProposal;
+import com.example.demo.util.BloodCompatibility;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans transfers of available units to hospitals that are short, as a min-cost flow.
+ *
+ * Each hospital first covers its needs from its own stock of the same group,
+ * earliest expiry first. What is left is solved on the network
+ * source → donor group → need → sink, where:
+ * <ul>
+ * <li>source → group edges are one per day-to-expiry bucket, costing the days left,
+ * so units that would otherwise be wasted move first;</li>
+ * <li>group → need edges exist only for compatible groups and cost more for a
+ * substitute group, most for O- (the universal donor, kept for where only it will do);</li>
+ * <li>need → sink edges cost more for lower priorities, so when supply is short the
+ * most urgent needs are covered.</li>
+ * </ul>
+ * Transfer cost does not depend on which hospitals are involved, so lots only enter
+ * the network through their group and expiry bucket. That keeps the network at a few
+ * hundred edges plus a handful per need, whatever the number of lots. The flow is
+ * split back onto lots afterwards, preferring the receiving hospital's own lots.
+ */
+public final class TransferPlanner {
+
+    static final int EXPIRY_HORIZON_DAYS = 42;
+    static final long SUBSTITUTION_COST = 50;
+    static final long UNIVERSAL_DONOR_COST = 100;
+    // Larger than any lot + substitution cost, so priority always wins
+    static final long PRIORITY_STEP_COST = 200;
+
+    /**
+     * Available units of one inventory row; holderId null is the blood bank
+     */
+    public record Lot(Long inventoryId, Long holderId, String bloodGroup, LocalDateTime expiryDate, int units) {
+    }
+
+    /**
+     * Units a hospital needs; priority 0 is the most urgent
+     */
+    public record Need(Long hospitalId, String bloodGroup, int units, int priority) {
+    }
+
+    /**
+     * @param transfers Proposed moves (and own-stock substitutions)
+     * @param unmet Needs that could not be covered, with the missing units
+     * @param coveredLocally Units covered by the hospitals' own stock of the same group
+     * @param unitsPlanned Units covered by the proposals
+     * @param cost Total flow cost of the plan
+     */
+    public record Plan(List<TransferProposal> transfers, List<Need> unmet, int coveredLocally,
+                       int unitsPlanned, long cost) {
+    }
+
+    private record HolderGroup(Long holderId, String bloodGroup) {
+    }
+
+    private TransferPlanner() {
+    }
+
+    public static Plan plan(List<Lot> lots, List<Need> needs, LocalDateTime now) {
+        List<String> groups = BloodCompatibility.BLOOD_GROUPS;
+
+        // Usable lots, earliest expiry first; remaining[i] is what is left of usable.get(i)
+        List<Lot> usable = lots.stream()
+                .filter(lot -> lot.units() > 0 && groups.contains(lot.bloodGroup())
+                        && (lot.expiryDate() == null || lot.expiryDate().isAfter(now)))
+                .sorted(Comparator.comparing(Lot::expiryDate, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        int[] remaining = usable.stream().mapToInt(Lot::units).toArray();
+        Map<HolderGroup, List<Integer>> byHolder = new HashMap<>();
+        for (int i = 0; i < usable.size(); i++) {
+            Lot lot = usable.get(i);
+            byHolder.computeIfAbsent(new HolderGroup(lot.holderId(), lot.bloodGroup()), key -> new ArrayList<>()).add(i);
+        }
+
+        // Local cover: each hospital uses its own same-group stock, most urgent need first
+        List<Need> open = new ArrayList<>();
+        int coveredLocally = 0;
+        List<Need> byPriority = needs.stream()
+                .filter(need -> need.units() > 0)
+                .sorted(Comparator.comparingInt(Need::priority))
+                .toList();
+        for (Need need : byPriority) {
+            int missing = need.units();
+            for (int i : byHolder.getOrDefault(new HolderGroup(need.hospitalId(), need.bloodGroup()), List.of())) {
+                int taken = Math.min(remaining[i], missing);
+                remaining[i] -= taken;
+                missing -= taken;
+                coveredLocally += taken;
+                if (missing == 0) {
+                    break;
+                }
+            }
+            if (missing > 0) {
+                open.add(new Need(need.hospitalId(), need.bloodGroup(), missing, need.priority()));
+            }
+        }
+        if (open.isEmpty()) {
+            return new Plan(List.of(), List.of(), coveredLocally, 0, 0);
+        }
+
+        // Network: 0 source, 1 sink, then one node per blood group, then needs
+        int groupBase = 2;
+        int needBase = groupBase + groups.size();
+        MinCostFlow network = new MinCostFlow(needBase + open.size());
+
+        int[][] bucketUnits = new int[groups.size()][EXPIRY_HORIZON_DAYS + 1];
+        for (int i = 0; i < usable.size(); i++) {
+            bucketUnits[groups.indexOf(usable.get(i).bloodGroup())][expiryCost(usable.get(i), now)] += remaining[i];
+        }
+        int[][] bucketEdges = new int[groups.size()][EXPIRY_HORIZON_DAYS + 1];
+        for (int g = 0; g < groups.size(); g++) {
+            for (int days = 0; days <= EXPIRY_HORIZON_DAYS; days++) {
+                bucketEdges[g][days] = bucketUnits[g][days] > 0
+                        ? network.addEdge(0, groupBase + g, bucketUnits[g][days], days)
+                        : -1;
+            }
+        }
+        int[][] groupEdges = new int[open.size()][groups.size()];
+        for (int n = 0; n < open.size(); n++) {
+            Need need = open.get(n);
+            for (int g = 0; g < groups.size(); g++) {
+                String donor = groups.get(g);
+                groupEdges[n][g] = BloodCompatibility.isCompatible(need.bloodGroup(), donor)
+                        ? network.addEdge(groupBase + g, needBase + n, need.units(), substitutionCost(donor, need.bloodGroup()))
+                        : -1;
+            }
+            network.addEdge(needBase + n, 1, need.units(), (long) need.priority() * PRIORITY_STEP_COST);
+        }
+        long cost = network.solve(0, 1)[1];
+
+        // Units each lot gives: its bucket's flow, shared out in expiry order
+        int[][] bucketFlow = new int[groups.size()][EXPIRY_HORIZON_DAYS + 1];
+        for (int g = 0; g < groups.size(); g++) {
+            for (int days = 0; days <= EXPIRY_HORIZON_DAYS; days++) {
+                bucketFlow[g][days] = bucketEdges[g][days] >= 0 ? network.flow(bucketEdges[g][days]) : 0;
+            }
+        }
+        int[] lotFlow = new int[usable.size()];
+        List<List<Integer>> groupLots = new ArrayList<>();
+        groups.forEach(group -> groupLots.add(new ArrayList<>()));
+        for (int i = 0; i < usable.size(); i++) {
+            int g = groups.indexOf(usable.get(i).bloodGroup());
+            int days = (int) expiryCost(usable.get(i), now);
+            lotFlow[i] = Math.min(remaining[i], bucketFlow[g][days]);
+            bucketFlow[g][days] -= lotFlow[i];
+            if (lotFlow[i] > 0) {
+                groupLots.get(g).add(i);
+            }
+        }
+
+        // Hand each need's flow out of those lots: the receiving hospital's own lots
+        // first (no transport), then the rest by expiry
+        List<TransferProposal> transfers = new ArrayList<>();
+        int[] received = new int[open.size()];
+        int[] cursor = new int[groups.size()];
+        for (int g = 0; g < groups.size(); g++) {
+            List<Integer> candidates = groupLots.get(g);
+            for (int n = 0; n < open.size(); n++) {
+                int units = groupEdges[n][g] >= 0 ? network.flow(groupEdges[n][g]) : 0;
+                if (units == 0) {
+                    continue;
+                }
+                received[n] += units;
+                Need need = open.get(n);
+                for (int i : byHolder.getOrDefault(new HolderGroup(need.hospitalId(), groups.get(g)), List.of())) {
+                    units -= take(usable.get(i), i, lotFlow, units, need, transfers);
+                    if (units == 0) {
+                        break;
+                    }
+                }
+                while (units > 0) {
+                    int i = candidates.get(cursor[g]);
+                    units -= take(usable.get(i), i, lotFlow, units, need, transfers);
+                    if (lotFlow[i] == 0) {
+                        cursor[g]++;
+                    }
+                }
+            }
+        }
+
+        List<Need> unmet = new ArrayList<>();
+        int unitsPlanned = 0;
+        for (int n = 0; n < open.size(); n++) {
+            Need need = open.get(n);
+            unitsPlanned += received[n];
+            if (received[n] < need.units()) {
+                unmet.add(new Need(need.hospitalId(), need.bloodGroup(), need.units() - received[n], need.priority()));
+            }
+        }
+        return new Plan(merge(transfers), unmet, coveredLocally, unitsPlanned, cost);
+    }
+
+    private static int take(Lot lot, int index, int[] lotFlow, int units, Need need, List<TransferProposal> transfers) {
+        int taken = Math.min(lotFlow[index], units);
+        if (taken > 0) {
+            lotFlow[index] -= taken;
+            transfers.add(new TransferProposal(lot.inventoryId(), lot.holderId(), need.hospitalId(),
+                    lot.bloodGroup(), need.bloodGroup(), taken, lot.expiryDate()));
+        }
+        return taken;
+    }
+
+    private static int expiryCost(Lot lot, LocalDateTime now) {
+        if (lot.expiryDate() == null) {
+            return EXPIRY_HORIZON_DAYS;
+        }
+        long days = Duration.between(now, lot.expiryDate()).toDays();
+        return (int) Math.max(0, Math.min(EXPIRY_HORIZON_DAYS, days));
+    }
+
+    private static long substitutionCost(String donor, String recipient) {
+        if (donor.equals(recipient)) {
+            return 0;
+        }
+        return "O-".equals(donor) ? SUBSTITUTION_COST + UNIVERSAL_DONOR_COST : SUBSTITUTION_COST;
+    }
+
+    /**
+     * Combine proposals for the same lot, destination and recipient group (a hospital
+     * may have several needs of one group at different priorities)
+     */
+    private static List<TransferProposal> merge(List<TransferProposal> transfers) {
+        Map<List<Object>, TransferProposal> merged = new LinkedHashMap<>();
+        for (TransferProposal transfer : transfers) {
+            List<Object> key = Arrays.asList(transfer.sourceInventoryId(), transfer.toHospitalId(),
+                    transfer.recipientBloodGroup());
+            merged.merge(key, transfer, (a, b) -> new TransferProposal(a.sourceInventoryId(), a.fromHospitalId(),
+                    a.toHospitalId(), a.donorBloodGroup(), a.recipientBloodGroup(), a.units() + b.units(), a.expiryDate()));
+        }
+        return new ArrayList<>(merged.values());
+    }
+}
@@ -1,12 +1,15 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.BloodDonationView;
 import com.example.demo.model.BloodDonation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BloodDonationRepository extends JpaRepository<BloodDonation, Long> {
@@ -20,13 +23,26 @@ public interface BloodDonationRepository extends JpaRepository<BloodDonation, Lo
     @Query("SELECT bd FROM BloodDonation bd WHERE bd.donor.id = ?1")
     List<BloodDonation> findByDonorId(Long donorId);
     
+    // Reads select only the columns the API returns, without managed entities
+    String SELECT_VIEW = "SELECT new com.example.demo.dto.BloodDonationView(bd.id, d.id, d.name, d.email, d.phone, " +
+            "bd.bloodGroup, bd.quantityMl, bd.donationDate, bd.healthStatus, bd.hemoglobinLevel, bd.bloodPressure, bd.pulseRate, " +
+            "bd.temperature, bd.notes, bd.donationStatus, bd.createdAt, bd.updatedAt) " +
+            "FROM BloodDonation bd JOIN bd.donor d ";
+    
+    @Query(SELECT_VIEW + "ORDER BY bd.id")
+    List<BloodDonationView> findAllViews();
+    
+    @Query(SELECT_VIEW + "WHERE bd.id = ?1")
+    Optional<BloodDonationView> findViewById(Long id);
+    
     /**
      * Find blood donations by blood group
      * 
      * @param bloodGroup The blood group to search for
      * @return A list of blood donations of the given blood group
      */
-    List<BloodDonation> findByBloodGroup(String bloodGroup);
+    @Query(SELECT_VIEW + "WHERE bd.bloodGroup = ?1")
+    List<BloodDonationView> findViewsByBloodGroup(String bloodGroup);
     
     /**
      * Find blood donations within a date range
@@ -35,7 +51,11 @@ public interface BloodDonationRepository extends JpaRepository<BloodDonation, Lo
      * @param endDate The end date of the range
      * @return A list of blood donations within the given date range
      */
-    List<BloodDonation> findByDonationDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+    @Query(SELECT_VIEW + "WHERE bd.donationDate BETWEEN ?1 AND ?2")
+    List<BloodDonationView> findViewsByDonationDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+    
+    @Query(SELECT_VIEW + "WHERE bd.donationStatus = ?1")
+    List<BloodDonationView> findViewsByDonationStatus(String donationStatus);
     
     /**
      * Find blood donations by health status
@@ -46,20 +66,13 @@ public interface BloodDonationRepository extends JpaRepository<BloodDonation, Lo
     List<BloodDonation> findByHealthStatus(String healthStatus);
     
     /**
-     * Count the total donations for a given donor
-     * 
-     * @param donorId The donor ID to count donations for
-     * @return The total number of donations for the donor
-     */
-    @Query("SELECT COUNT(bd) FROM BloodDonation bd WHERE bd.donor.id = ?1")
-    Long countByDonorId(Long donorId);
-    
-    /**
-     * Get the latest donation for a donor
+     * Get a page of a donor's donations, newest first. Served by the
+     * (donor_id, donation_date) index.
      * 
      * @param donorId The donor ID to search for
-     * @return The most recent blood donation for the donor
+     * @param pageable The page to return
+     * @return The donations on the requested page
      */
-    @Query("SELECT bd FROM BloodDonation bd WHERE bd.donor.id = ?1 ORDER BY bd.donationDate DESC")
-    List<BloodDonation> findLatestDonationByDonorId(Long donorId);
+    @Query(SELECT_VIEW + "WHERE d.id = ?1 ORDER BY bd.donationDate DESC, bd.id DESC")
+    List<BloodDonationView> findPageByDonorId(Long donorId, Pageable pageable);
 }
\ No newline at end of file
@@ -1,12 +1,18 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.BloodGroupUnits;
+import com.example.demo.dto.HospitalGroupUnits;
 import com.example.demo.model.BloodInventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BloodInventoryRepository extends JpaRepository<BloodInventory, Long> {
@@ -58,8 +64,127 @@ public interface BloodInventoryRepository extends JpaRepository<BloodInventory,
      * Find the latest blood inventory item for a specific blood group
      * 
      * @param bloodGroup The blood group to search for
-     * @return The latest inventory item for the given blood group
+     * @return The most recently updated inventory item for the given blood group
      */
-    @Query("SELECT b FROM BloodInventory b WHERE b.bloodGroup = ?1 ORDER BY b.updatedAt DESC")
-    List<BloodInventory> findLatestByBloodGroup(String bloodGroup);
-}
\ No newline at end of file
+    Optional<BloodInventory> findFirstByBloodGroupOrderByUpdatedAtDesc(String bloodGroup);
+    
+    /**
+     * Find blood inventory items with a status for several blood groups in one query
+     * 
+     * @param status The status to filter by
+     * @param bloodGroups The blood groups to include
+     * @return Matching inventory items
+     */
+    List<BloodInventory> findByStatusAndBloodGroupIn(String status, Collection<String> bloodGroups);
+    
+    @Query("SELECT new com.example.demo.dto.BloodGroupUnits(b.bloodGroup, SUM(b.units)) FROM BloodInventory b WHERE b.status = ?1 GROUP BY b.bloodGroup")
+    List<BloodGroupUnits> sumUnitsByBloodGroup(String status);
+    
+    /**
+     * Find the inventory items held by a hospital
+     * 
+     * @param hospitalId The hospital ID
+     * @return The hospital's inventory items
+     */
+    List<BloodInventory> findByHospitalId(Long hospitalId);
+    
+    /**
+     * Find a hospital's items of a blood group and status, earliest expiry first
+     * 
+     * @param hospitalId The hospital ID
+     * @param bloodGroup The blood group to search for
+     * @param status The status to filter by
+     * @return Matching inventory items ordered by expiry date
+     */
+    List<BloodInventory> findByHospitalIdAndBloodGroupAndStatusOrderByExpiryDateAsc(Long hospitalId, String bloodGroup, String status);
+    
+    /**
+     * Find a hospital's items with a status that expire before a date
+     * 
+     * @param hospitalId The hospital ID
+     * @param status The status to filter by
+     * @param date The date to compare against
+     * @return Matching inventory items ordered by expiry date
+     */
+    List<BloodInventory> findByHospitalIdAndStatusAndExpiryDateBeforeOrderByExpiryDateAsc(Long hospitalId, String status, LocalDateTime date);
+    
+    /**
+     * Get a hospital's total units per blood group
+     * 
+     * @param hospitalId The hospital ID
+     * @param status The status to filter by
+     * @return Units per blood group at the hospital
+     */
+    @Query("SELECT new com.example.demo.dto.BloodGroupUnits(b.bloodGroup, SUM(b.units)) FROM BloodInventory b " +
+           "WHERE b.hospitalId = ?1 AND b.status = ?2 GROUP BY b.bloodGroup")
+    List<BloodGroupUnits> sumUnitsByBloodGroupForHospital(Long hospitalId, String status);
+    
+    /**
+     * Get total units per hospital and blood group for a set of hospitals (one partition)
+     * 
+     * @param hospitalIds The hospitals in the partition
+     * @param status The status to filter by
+     * @return Units per hospital and blood group
+     */
+    @Query("SELECT new com.example.demo.dto.HospitalGroupUnits(b.hospitalId, b.bloodGroup, SUM(b.units)) FROM BloodInventory b " +
+           "WHERE b.hospitalId IN ?1 AND b.status = ?2 GROUP BY b.hospitalId, b.bloodGroup")
+    List<HospitalGroupUnits> sumUnitsByHospitalAndBloodGroup(Collection<Long> hospitalIds, String status);
+    
+    /**
+     * Get total units per blood group of the blood bank's own stock (no hospital)
+     * 
+     * @param status The status to filter by
+     * @return Units per blood group
+     */
+    @Query("SELECT new com.example.demo.dto.BloodGroupUnits(b.bloodGroup, SUM(b.units)) FROM BloodInventory b " +
+           "WHERE b.hospitalId IS NULL AND b.status = ?1 GROUP BY b.bloodGroup")
+    List<BloodGroupUnits> sumBloodBankUnitsByBloodGroup(String status);
+    
+    /**
+     * @return The IDs of all hospitals that hold inventory
+     */
+    @Query("SELECT DISTINCT b.hospitalId FROM BloodInventory b WHERE b.hospitalId IS NOT NULL")
+    List<Long> findDistinctHospitalIds();
+    
+    /**
+     * Atomically remove units from a row, only if it still holds at least that many.
+     * Bypasses the persistence context, which is flushed before and cleared after.
+     * 
+     * @param id The inventory item ID
+     * @param units The number of units to remove
+     * @param now The update timestamp
+     * @return 1 if the units were removed, 0 if the row is missing or holds fewer units
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BloodInventory b SET b.units = b.units - :units, b.version = b.version + 1, " +
+           "b.updatedAt = :now, b.lastUpdated = :now WHERE b.id = :id AND b.units >= :units")
+    int takeUnits(@Param("id") Long id, @Param("units") int units, @Param("now") LocalDateTime now);
+    
+    /**
+     * Atomically add units to a row
+     * 
+     * @param id The inventory item ID
+     * @param units The number of units to add
+     * @param now The update timestamp
+     * @return 1 if the units were added, 0 if the row is missing
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BloodInventory b SET b.units = b.units + :units, b.version = b.version + 1, " +
+           "b.updatedAt = :now, b.lastUpdated = :now WHERE b.id = :id")
+    int addUnits(@Param("id") Long id, @Param("units") int units, @Param("now") LocalDateTime now);
+    
+    /**
+     * Change the status of a row only if it is still at the version that was read (compare-and-set)
+     * 
+     * @param id The inventory item ID
+     * @param version The version the caller read
+     * @param status The new status
+     * @param now The update timestamp
+     * @return 1 if the status was changed, 0 if the row was modified in the meantime
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BloodInventory b SET b.status = :status, b.version = b.version + 1, " +
+           "b.updatedAt = :now, b.lastUpdated = :now WHERE b.id = :id AND b.version = :version")
+    int updateStatusIfVersion(@Param("id") Long id, @Param("version") Long version,
+                              @Param("status") String status, @Param("now") LocalDateTime now);
+}
@@ -1,21 +1,44 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.BloodRequestView;
+import com.example.demo.dto.DailyGroupTotal;
+import com.example.demo.dto.OpenDemand;
 import com.example.demo.model.BloodRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BloodRequestRepository extends JpaRepository<BloodRequest, Long> {
     
+    // Reads select only the columns the API returns, without managed entities;
+    // the hospital is optional, hence the left join
+    String SELECT_VIEW = "SELECT new com.example.demo.dto.BloodRequestView(r.id, r.name, r.bloodGroup, r.phone, " +
+            "r.email, r.location, r.reason, r.requestStatus, r.unitsNeeded, r.unitsProvided, r.priority, " +
+            "r.requiredBy, h.id, h.name, r.createdAt, r.updatedAt) FROM BloodRequest r LEFT JOIN r.hospital h ";
+    
+    @Query(SELECT_VIEW + "ORDER BY r.id")
+    List<BloodRequestView> findAllViews();
+    
+    @Query(SELECT_VIEW + "WHERE r.id = ?1")
+    Optional<BloodRequestView> findViewById(Long id);
+    
+    @Query(SELECT_VIEW + "WHERE r.id IN ?1")
+    List<BloodRequestView> findViewsByIdIn(Collection<Long> ids);
+    
     /**
      * Find blood requests by blood group
      * 
      * @param bloodGroup The blood group to search for
      * @return A list of blood requests for the given blood group
      */
-    List<BloodRequest> findByBloodGroup(String bloodGroup);
+    @Query(SELECT_VIEW + "WHERE r.bloodGroup = ?1")
+    List<BloodRequestView> findViewsByBloodGroup(String bloodGroup);
     
     /**
      * Find blood requests by request status
@@ -23,7 +46,8 @@ public interface BloodRequestRepository extends JpaRepository<BloodRequest, Long
      * @param requestStatus The request status to search for
      * @return A list of blood requests with the given status
      */
-    List<BloodRequest> findByRequestStatus(String requestStatus);
+    @Query(SELECT_VIEW + "WHERE r.requestStatus = ?1")
+    List<BloodRequestView> findViewsByRequestStatus(String requestStatus);
     
     /**
      * Find blood requests by location
@@ -31,7 +55,8 @@ public interface BloodRequestRepository extends JpaRepository<BloodRequest, Long
      * @param location The location to search for
      * @return A list of blood requests from the given location
      */
-    List<BloodRequest> findByLocationContainingIgnoreCase(String location);
+    @Query(SELECT_VIEW + "WHERE LOWER(r.location) LIKE LOWER(CONCAT('%', ?1, '%'))")
+    List<BloodRequestView> findViewsByLocationContaining(String location);
     
     /**
      * Find blood requests by email
@@ -39,15 +64,17 @@ public interface BloodRequestRepository extends JpaRepository<BloodRequest, Long
      * @param email The email to search for
      * @return A list of blood requests from the given email
      */
-    List<BloodRequest> findByEmail(String email);
+    @Query(SELECT_VIEW + "WHERE r.email = ?1")
+    List<BloodRequestView> findViewsByEmail(String email);
     
     /**
      * Find blood requests by hospital
      * 
-     * @param hospital_id The hospital ID to filter by
+     * @param hospitalId The hospital ID to filter by
      * @return A list of blood requests for the specified hospital
      */
-    List<BloodRequest> findByHospital_Id(Long hospital_id);
+    @Query(SELECT_VIEW + "WHERE h.id = ?1")
+    List<BloodRequestView> findViewsByHospitalId(Long hospitalId);
     
     /**
      * Find blood requests by priority
@@ -55,5 +82,26 @@ public interface BloodRequestRepository extends JpaRepository<BloodRequest, Long
      * @param priority The priority to filter by
      * @return A list of blood requests with the specified priority
      */
-    List<BloodRequest> findByPriority(String priority);
-}
\ No newline at end of file
+    @Query(SELECT_VIEW + "WHERE r.priority = ?1")
+    List<BloodRequestView> findViewsByPriority(String priority);
+
+    /**
+     * Units requested per day and blood group, for requests created in [from, to)
+     */
+    @Query("SELECT new com.example.demo.dto.DailyGroupTotal(CAST(r.createdAt AS LocalDate), r.bloodGroup, SUM(r.unitsNeeded)) " +
+            "FROM BloodRequest r WHERE r.createdAt >= ?1 AND r.createdAt < ?2 " +
+            "GROUP BY CAST(r.createdAt AS LocalDate), r.bloodGroup")
+    List<DailyGroupTotal> sumUnitsNeededByDay(LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT MIN(r.createdAt) FROM BloodRequest r")
+    LocalDateTime findEarliestCreatedAt();
+
+    /**
+     * Units still needed per hospital, blood group and priority, over requests in the given statuses
+     */
+    @Query("SELECT new com.example.demo.dto.OpenDemand(r.hospital.id, r.bloodGroup, r.priority, " +
+            "SUM(r.unitsNeeded - COALESCE(r.unitsProvided, 0))) " +
+            "FROM BloodRequest r WHERE r.hospital IS NOT NULL AND r.requestStatus IN ?1 " +
+            "GROUP BY r.hospital.id, r.bloodGroup, r.priority")
+    List<OpenDemand> sumOpenDemand(Collection<String> statuses);
+}
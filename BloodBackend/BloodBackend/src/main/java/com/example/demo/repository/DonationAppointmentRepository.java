@@ -28,6 +28,15 @@ public interface DonationAppointmentRepository extends JpaRepository<DonationApp
      */
     List<DonationAppointment> findByStatus(String status);
     
+    /**
+     * Count appointments with a status dated before a given time
+     * 
+     * @param status The status to count
+     * @param before Exclusive upper bound of the appointment date
+     * @return The number of matching appointments
+     */
+    long countByStatusAndAppointmentDateBefore(String status, LocalDateTime before);
+    
     /**
      * Find appointments by location
      * 
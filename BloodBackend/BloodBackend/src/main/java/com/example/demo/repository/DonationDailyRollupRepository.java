@@ -0,0 +1,97 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.DailyGroupTotal;
+import com.example.demo.dto.DonationRollupTotal;
+import com.example.demo.dto.DonationTrendPoint;
+import com.example.demo.model.DonationDailyRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DonationDailyRollupRepository extends JpaRepository<DonationDailyRollup, DonationDailyRollup.Key> {
+
+    /**
+     * Add (or with negative deltas, subtract) donations to a rollup row, creating it if needed
+     * (VALUES(col) rather than the row alias form, which MariaDB and H2 do not accept)
+     *
+     * Native updates evict every second-level cache region unless they declare the
+     * tables they touch, so each one names donation_daily_rollups.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "donation_daily_rollups"))
+    @Query(value = "INSERT INTO donation_daily_rollups (rollup_date, blood_group, health_status, donation_count, total_volume_ml) " +
+            "VALUES (?1, ?2, ?3, ?4, ?5) " +
+            "ON DUPLICATE KEY UPDATE donation_count = donation_count + VALUES(donation_count), " +
+            "total_volume_ml = total_volume_ml + VALUES(total_volume_ml)",
+            nativeQuery = true)
+    void addToRollup(LocalDate rollupDate, String bloodGroup, String healthStatus, long donations, long volumeMl);
+
+    /**
+     * Remove a rollup row once its last donation has been subtracted
+     */
+    @Modifying
+    @Query("DELETE FROM DonationDailyRollup r WHERE r.rollupDate = ?1 AND r.bloodGroup = ?2 AND r.healthStatus = ?3 AND r.donationCount <= 0")
+    void deleteIfEmpty(LocalDate rollupDate, String bloodGroup, String healthStatus);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "donation_daily_rollups"))
+    @Query(value = "DELETE FROM donation_daily_rollups", nativeQuery = true)
+    void deleteAllRollups();
+
+    /**
+     * Rebuild every rollup row from blood_donations
+     *
+     * @return The number of rollup rows written
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "donation_daily_rollups"))
+    @Query(value = "INSERT INTO donation_daily_rollups (rollup_date, blood_group, health_status, donation_count, total_volume_ml) " +
+            "SELECT CAST(donation_date AS DATE), blood_group, COALESCE(health_status, 'UNKNOWN'), COUNT(*), SUM(quantity_ml) " +
+            "FROM blood_donations " +
+            "GROUP BY CAST(donation_date AS DATE), blood_group, COALESCE(health_status, 'UNKNOWN')",
+            nativeQuery = true)
+    int backfillFromDonations();
+
+    @Query("SELECT new com.example.demo.dto.DonationRollupTotal(r.bloodGroup, SUM(r.donationCount), SUM(r.totalVolumeMl)) " +
+            "FROM DonationDailyRollup r GROUP BY r.bloodGroup")
+    List<DonationRollupTotal> sumByBloodGroup();
+
+    @Query("SELECT new com.example.demo.dto.DonationRollupTotal(r.healthStatus, SUM(r.donationCount), SUM(r.totalVolumeMl)) " +
+            "FROM DonationDailyRollup r GROUP BY r.healthStatus")
+    List<DonationRollupTotal> sumByHealthStatus();
+
+    /**
+     * Daily totals across all blood groups for an inclusive date range
+     */
+    @Query("SELECT new com.example.demo.dto.DonationTrendPoint(r.rollupDate, SUM(r.donationCount), SUM(r.totalVolumeMl)) " +
+            "FROM DonationDailyRollup r WHERE r.rollupDate BETWEEN ?1 AND ?2 " +
+            "GROUP BY r.rollupDate ORDER BY r.rollupDate")
+    List<DonationTrendPoint> findDailyTrend(LocalDate from, LocalDate to);
+
+    /**
+     * Daily totals for one blood group for an inclusive date range
+     */
+    @Query("SELECT new com.example.demo.dto.DonationTrendPoint(r.rollupDate, SUM(r.donationCount), SUM(r.totalVolumeMl)) " +
+            "FROM DonationDailyRollup r WHERE r.rollupDate BETWEEN ?1 AND ?2 AND r.bloodGroup = ?3 " +
+            "GROUP BY r.rollupDate ORDER BY r.rollupDate")
+    List<DonationTrendPoint> findDailyTrendByBloodGroup(LocalDate from, LocalDate to, String bloodGroup);
+
+    /**
+     * Donated volume per day and blood group for one health status and an inclusive date range
+     */
+    @Query("SELECT new com.example.demo.dto.DailyGroupTotal(r.rollupDate, r.bloodGroup, SUM(r.totalVolumeMl)) " +
+            "FROM DonationDailyRollup r WHERE r.healthStatus = ?1 AND r.rollupDate BETWEEN ?2 AND ?3 " +
+            "GROUP BY r.rollupDate, r.bloodGroup")
+    List<DailyGroupTotal> sumVolumeByDay(String healthStatus, LocalDate from, LocalDate to);
+
+    @Query("SELECT MIN(r.rollupDate) FROM DonationDailyRollup r")
+    LocalDate findEarliestRollupDate();
+}
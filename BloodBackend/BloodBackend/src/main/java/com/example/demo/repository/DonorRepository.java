@@ -1,9 +1,18 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.DonorDonationTotals;
+import com.example.demo.dto.DonorView;
 import com.example.demo.model.Donor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +25,7 @@ public interface DonorRepository extends JpaRepository<Donor, Long> {
      * @param username The username to search for
      * @return An Optional containing the donor if found
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Donor> findByUsername(String username);
     
     /**
@@ -24,15 +34,31 @@ public interface DonorRepository extends JpaRepository<Donor, Long> {
      * @param email The email to search for
      * @return An Optional containing the donor if found
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Donor> findByEmail(String email);
     
+    // Reads select only the columns the API returns, without managed entities
+    String SELECT_VIEW = "SELECT new com.example.demo.dto.DonorView(d.id, d.name, d.location, d.phone, " +
+            "d.bloodGroup, d.username, d.email, d.lastDonation, d.donationCount, d.totalVolumeMl, d.isAvailable, " +
+            "d.createdAt, d.updatedAt) FROM Donor d ";
+    
+    @Query(SELECT_VIEW + "ORDER BY d.id")
+    List<DonorView> findAllViews();
+    
+    @Query(SELECT_VIEW + "WHERE d.id = ?1")
+    Optional<DonorView> findViewById(Long id);
+    
+    @Query(SELECT_VIEW + "WHERE d.id IN ?1")
+    List<DonorView> findViewsByIdIn(Collection<Long> ids);
+    
     /**
      * Find donors by blood group
      * 
      * @param bloodGroup The blood group to search for
      * @return A list of donors with the given blood group
      */
-    List<Donor> findByBloodGroup(String bloodGroup);
+    @Query(SELECT_VIEW + "WHERE d.bloodGroup = ?1")
+    List<DonorView> findViewsByBloodGroup(String bloodGroup);
     
     /**
      * Find donors by location
@@ -40,7 +66,8 @@ public interface DonorRepository extends JpaRepository<Donor, Long> {
      * @param location The location to search for
      * @return A list of donors in the given location
      */
-    List<Donor> findByLocationContainingIgnoreCase(String location);
+    @Query(SELECT_VIEW + "WHERE LOWER(d.location) LIKE LOWER(CONCAT('%', ?1, '%'))")
+    List<DonorView> findViewsByLocationContaining(String location);
     
     /**
      * Find donors by availability status
@@ -65,4 +92,34 @@ public interface DonorRepository extends JpaRepository<Donor, Long> {
      * @return True if a donor with the email exists, false otherwise
      */
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+    
+    /**
+     * Count one donor's donations (after an edit or delete)
+     * 
+     * @param id The donor ID
+     * @return The donor's totals; zero donations and no date if they have none
+     */
+    @Query("SELECT new com.example.demo.dto.DonorDonationTotals(COUNT(bd), COALESCE(SUM(bd.quantityMl), 0), " +
+           "MAX(bd.donationDate)) FROM BloodDonation bd WHERE bd.donor.id = :id")
+    DonorDonationTotals countDonationTotals(@Param("id") Long id);
+    
+    /**
+     * Recount every donor's totals from blood_donations. A bulk update, so it
+     * invalidates the whole donors cache region.
+     * 
+     * @return The number of donors updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Donor d SET " +
+           "d.donationCount = (SELECT COUNT(bd) FROM BloodDonation bd WHERE bd.donor.id = d.id), " +
+           "d.totalVolumeMl = (SELECT COALESCE(SUM(bd.quantityMl), 0) FROM BloodDonation bd WHERE bd.donor.id = d.id)")
+    int recalculateAllDonationTotals();
+    
+    /**
+     * Count donors whose totals have not been filled in yet although they have donations
+     * (rows that existed before the totals columns were added)
+     */
+    @Query("SELECT COUNT(d) FROM Donor d WHERE d.donationCount = 0 " +
+           "AND EXISTS (SELECT bd.id FROM BloodDonation bd WHERE bd.donor.id = d.id)")
+    long countDonorsMissingDonationTotals();
+}
@@ -19,6 +19,9 @@ public interface EmergencyNotificationRepository extends JpaRepository<Emergency
     
     @Query("SELECT e FROM EmergencyNotification e WHERE e.status = 'ACTIVE' AND e.expiryDate > ?1")
     List<EmergencyNotification> findActiveNotifications(LocalDateTime now);
+
+    @Query("SELECT COUNT(e) FROM EmergencyNotification e WHERE e.status = 'ACTIVE' AND e.expiryDate > ?1")
+    long countActiveNotifications(LocalDateTime now);
     
     @Query("SELECT e FROM EmergencyNotification e WHERE e.status = 'ACTIVE' AND e.expiryDate > ?1 AND e.bloodType = ?2")
     List<EmergencyNotification> findActiveNotificationsByBloodType(LocalDateTime now, String bloodType);
@@ -1,20 +1,48 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.HospitalView;
 import com.example.demo.model.Hospital;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface HospitalRepository extends JpaRepository<Hospital, Long> {
     
-    List<Hospital> findByStatus(String status);
+    // The finders below use the Hibernate query cache; results are invalidated
+    // whenever the hospitals table is written through JPA
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Hospital> findByEmail(String email);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Hospital> findByRegistrationNumber(String registrationNumber);
     
-    List<Hospital> findByNameContainingIgnoreCase(String name);
+    // Reads select only the columns the API returns, without managed entities
+    String SELECT_VIEW = "SELECT new com.example.demo.dto.HospitalView(h.id, h.name, h.address, h.contactPerson, " +
+            "h.email, h.phone, h.registrationNumber, h.status, h.createdAt, h.updatedAt) FROM Hospital h ";
+    
+    @Query(SELECT_VIEW + "ORDER BY h.id")
+    List<HospitalView> findAllViews();
+    
+    @Query(SELECT_VIEW + "WHERE h.id = ?1")
+    Optional<HospitalView> findViewById(Long id);
+    
+    @Query(SELECT_VIEW + "WHERE h.id IN ?1")
+    List<HospitalView> findViewsByIdIn(Collection<Long> ids);
+    
+    // Query-cached like the finders above
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_VIEW + "WHERE h.status = ?1 ORDER BY h.id")
+    List<HospitalView> findViewsByStatus(String status);
+    
+    @Query(SELECT_VIEW + "WHERE LOWER(h.name) LIKE LOWER(CONCAT('%', ?1, '%'))")
+    List<HospitalView> findViewsByNameContaining(String name);
 }
\ No newline at end of file
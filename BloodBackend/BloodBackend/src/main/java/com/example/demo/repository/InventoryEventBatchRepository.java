@@ -0,0 +1,17 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.InventoryEvent;
+
+import java.util.List;
+
+/**
+ * Batched journal writes. Journal ids are IDENTITY (their order is the journal
+ * order), which keeps Hibernate from batching the inserts itself.
+ */
+public interface InventoryEventBatchRepository {
+
+    /**
+     * Insert events with one JDBC batch, in list order
+     */
+    void appendAll(List<InventoryEvent> events);
+}
@@ -0,0 +1,38 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.InventoryEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+class InventoryEventBatchRepositoryImpl implements InventoryEventBatchRepository {
+
+    private static final String INSERT = "INSERT INTO inventory_events " +
+            "(event_type, inventory_id, related_inventory_id, blood_group, hospital_id, expiry_date, " +
+            "from_status, to_status, units, occurred_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    InventoryEventBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void appendAll(List<InventoryEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, events, events.size(), (statement, event) -> {
+            statement.setString(1, event.getEventType());
+            statement.setObject(2, event.getInventoryId());
+            statement.setObject(3, event.getRelatedInventoryId());
+            statement.setString(4, event.getBloodGroup());
+            statement.setObject(5, event.getHospitalId());
+            statement.setObject(6, event.getExpiryDate());
+            statement.setString(7, event.getFromStatus());
+            statement.setString(8, event.getToStatus());
+            statement.setInt(9, event.getUnits());
+            statement.setObject(10, event.getOccurredAt());
+        });
+    }
+}
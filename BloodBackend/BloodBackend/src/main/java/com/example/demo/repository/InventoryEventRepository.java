@@ -0,0 +1,42 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.InventoryEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InventoryEventRepository extends JpaRepository<InventoryEvent, Long>, InventoryEventBatchRepository {
+
+    /**
+     * Read the journal in order, starting after a given event
+     *
+     * @param afterId Last event already read, 0 to start at the beginning
+     * @param limit Maximum number of events to return
+     * @return Events in journal order
+     */
+    List<InventoryEvent> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Audit trail of one inventory row, including events where it was the other side
+     * of a split or transfer
+     */
+    @Query("SELECT e FROM InventoryEvent e WHERE e.inventoryId = ?1 OR e.relatedInventoryId = ?1 ORDER BY e.id")
+    List<InventoryEvent> findTrail(Long inventoryId);
+
+    /**
+     * Write an IMPORTED opening balance for every existing blood_inventory row
+     *
+     * @return The number of events written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO inventory_events (event_type, inventory_id, blood_group, hospital_id, expiry_date, to_status, units, occurred_at) " +
+            "SELECT 'IMPORTED', id, blood_group, hospital_id, expiry_date, status, units, CURRENT_TIMESTAMP " +
+            "FROM blood_inventory ORDER BY id",
+            nativeQuery = true)
+    int importExistingInventory();
+}
@@ -0,0 +1,35 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.InventoryLevelSample;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InventoryLevelSampleRepository extends JpaRepository<InventoryLevelSample, Long> {
+
+    /**
+     * Find all samples (any resolution) of a blood group within a time range
+     *
+     * @param bloodGroup The blood group
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (inclusive)
+     * @return Samples in time order
+     */
+    @Query("SELECT s FROM InventoryLevelSample s WHERE s.bloodGroup = ?1 AND s.sampledAt BETWEEN ?2 AND ?3 ORDER BY s.sampledAt")
+    List<InventoryLevelSample> findRange(String bloodGroup, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Find samples of one resolution older than a cutoff, for downsampling
+     */
+    @Query("SELECT s FROM InventoryLevelSample s WHERE s.resolution = ?1 AND s.sampledAt < ?2 ORDER BY s.bloodGroup, s.sampledAt")
+    List<InventoryLevelSample> findOlderThan(String resolution, LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM InventoryLevelSample s WHERE s.resolution = ?1 AND s.sampledAt < ?2")
+    int deleteOlderThan(String resolution, LocalDateTime cutoff);
+}
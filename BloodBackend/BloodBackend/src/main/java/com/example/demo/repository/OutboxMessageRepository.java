@@ -0,0 +1,36 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Lock the oldest due PENDING messages. Rows locked by another relay instance are
+     * skipped rather than waited for, so instances work on disjoint batches.
+     */
+    @Query(value = "SELECT * FROM outbox_messages WHERE status = 'PENDING' AND next_attempt_at <= ?1 " +
+            "ORDER BY id LIMIT ?2 FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxMessage> lockDueBatch(LocalDateTime now, int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = 'PUBLISHED', m.publishedAt = ?2 WHERE m.id IN ?1")
+    int markPublished(List<Long> ids, LocalDateTime publishedAt);
+
+    long countByStatus(String status);
+
+    @Query("SELECT MIN(m.createdAt) FROM OutboxMessage m WHERE m.status = 'PENDING'")
+    LocalDateTime findOldestPendingCreatedAt();
+
+    @Modifying
+    @Query("DELETE FROM OutboxMessage m WHERE m.status = 'PUBLISHED' AND m.publishedAt < ?1")
+    int deletePublishedBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,51 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    Optional<RefreshToken> findByAccessTokenId(String accessTokenId);
+
+    /**
+     * Tokens of a sign-in whose access token has not expired yet
+     */
+    List<RefreshToken> findByFamilyIdAndAccessExpiresAtAfter(String familyId, LocalDateTime now);
+
+    /**
+     * Re-read a token with a locking read, which sees the latest committed use or
+     * revocation rather than the snapshot the transaction started with
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM RefreshToken t WHERE t.id = ?1")
+    Optional<RefreshToken> findCurrent(Long id);
+
+    /**
+     * Mark a refresh token used, only if nobody used it first (compare-and-set)
+     *
+     * @return 1 if this caller used the token, 0 if it was already used or revoked
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshToken t SET t.usedAt = ?2 WHERE t.id = ?1 AND t.usedAt IS NULL AND t.revokedAt IS NULL")
+    int markUsed(Long id, LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshToken t SET t.revokedAt = ?2 WHERE t.familyId = ?1 AND t.revokedAt IS NULL")
+    int revokeFamily(String familyId, LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt <= ?1")
+    int deleteExpired(LocalDateTime now);
+}
@@ -1,9 +1,17 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -15,6 +23,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param email The email to search for
      * @return An Optional containing the user if found
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
     
     /**
@@ -24,4 +33,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return True if a user with the email exists, false otherwise
      */
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+    
+    /**
+     * Replace a stored password only if it has not changed since it was read (compare-and-set).
+     * Runs in its own transaction when called from a background rehash.
+     * 
+     * @param id The user ID
+     * @param expected The stored password the caller verified against
+     * @param replacement The new stored password
+     * @param now The update timestamp
+     * @return 1 if the password was replaced, 0 if it changed in the meantime
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.password = :replacement, u.updatedAt = :now WHERE u.id = :id AND u.password = :expected")
+    int replacePasswordIfUnchanged(@Param("id") Long id, @Param("expected") String expected,
+                                   @Param("replacement") String replacement, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,110 @@
+package com.example.demo.search;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from non-negative int keys to doubles, used to accumulate
+ * per-document scores and per-term gram counts during a query.
+ */
+final class IntDoubleMap {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private double[] values;
+    private int size;
+    private int mask;
+    private int shift;
+
+    IntDoubleMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new double[capacity];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+        Arrays.fill(keys, EMPTY);
+    }
+
+    boolean containsKey(int key) {
+        return keys[slot(key)] == key;
+    }
+
+    double get(int key) {
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    void add(int key, double delta) {
+        int slot = claim(key);
+        values[slot] += delta;
+    }
+
+    void putMax(int key, double value) {
+        int slot = claim(key);
+        if (value > values[slot]) {
+            values[slot] = value;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Slots are iterated with {@code 0 <= slot < capacity()}; empty slots have key -1
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    int keyAt(int slot) {
+        return keys[slot];
+    }
+
+    double valueAt(int slot) {
+        return values[slot];
+    }
+
+    private int claim(int key) {
+        int slot = slot(key);
+        if (keys[slot] != key) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                slot = slot(key);
+            }
+            keys[slot] = key;
+            values[slot] = 0;
+            size++;
+        }
+        return slot;
+    }
+
+    private int slot(int key) {
+        int slot = (key * 0x9E3779B9) >>> shift;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new double[oldKeys.length * 2];
+        mask = keys.length - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.search;
+
+import com.example.demo.model.BloodRequest;
+import com.example.demo.model.Donor;
+import com.example.demo.model.Hospital;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Snapshot of the searchable fields of one entity. The label and detail are what a
+ * hit displays, so results never need the entity itself (and never expose a
+ * donor's password).
+ */
+public record SearchDocument(SearchType type, long id, String label, String detail, Map<SearchField, String> fields) {
+
+    public static SearchDocument donor(long id, String name, String email, String phone, String location,
+                                       String bloodGroup) {
+        Map<SearchField, String> fields = new EnumMap<>(SearchField.class);
+        fields.put(SearchField.NAME, name);
+        fields.put(SearchField.EMAIL, email);
+        fields.put(SearchField.PHONE, phone);
+        fields.put(SearchField.LOCATION, location);
+        return new SearchDocument(SearchType.DONOR, id, name, join(bloodGroup, location), fields);
+    }
+
+    public static SearchDocument hospital(long id, String name, String address) {
+        Map<SearchField, String> fields = new EnumMap<>(SearchField.class);
+        fields.put(SearchField.NAME, name);
+        fields.put(SearchField.ADDRESS, address);
+        return new SearchDocument(SearchType.HOSPITAL, id, name, address, fields);
+    }
+
+    public static SearchDocument request(long id, String patientName, String bloodGroup, String location,
+                                         String reason, String status) {
+        Map<SearchField, String> fields = new EnumMap<>(SearchField.class);
+        fields.put(SearchField.LOCATION, location);
+        fields.put(SearchField.REASON, reason);
+        return new SearchDocument(SearchType.REQUEST, id, patientName, join(join(bloodGroup, location), status), fields);
+    }
+
+    public static SearchDocument of(Donor donor) {
+        return donor(donor.getId(), donor.getName(), donor.getEmail(), donor.getPhone(), donor.getLocation(),
+                donor.getBloodGroup());
+    }
+
+    public static SearchDocument of(Hospital hospital) {
+        return hospital(hospital.getId(), hospital.getName(), hospital.getAddress());
+    }
+
+    public static SearchDocument of(BloodRequest request) {
+        return request(request.getId(), request.getName(), request.getBloodGroup(), request.getLocation(),
+                request.getReason(), request.getRequestStatus());
+    }
+
+    private static String join(String first, String second) {
+        if (first == null || first.isEmpty()) {
+            return second;
+        }
+        return second == null || second.isEmpty() ? first : first + ", " + second;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.search;
+
+/**
+ * Indexed fields with the weight a match in each one contributes to the score
+ */
+public enum SearchField {
+    NAME(3.0),
+    EMAIL(2.0),
+    PHONE(2.0),
+    LOCATION(1.5),
+    ADDRESS(1.0),
+    REASON(1.0);
+
+    private final double weight;
+
+    SearchField(double weight) {
+        this.weight = weight;
+    }
+
+    public double weight() {
+        return weight;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.search;
+
+/**
+ * One ranked search result
+ */
+public record SearchHit(SearchType type, long id, double score, String label, String detail) {
+}
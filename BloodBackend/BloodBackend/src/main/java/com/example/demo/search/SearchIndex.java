@@ -0,0 +1,578 @@
+package com.example.demo.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index with prefix and typo-tolerant matching.
+ *
+ * Field values are split into lowercase, accent-free tokens, with letters and digits
+ * in separate tokens ("smith42@x.org" gives smith, 42, x, org). Each distinct token
+ * (term) has a posting list of {@code document << 3 | field} entries, and every
+ * word term is also indexed by its trigrams (with two leading pad characters) so
+ * that misspelled query words can find candidate terms without scanning the whole
+ * dictionary. A query matches a document when every query token matches one of its
+ * terms exactly or as a prefix. If that finds fewer hits than requested, words of
+ * four or more letters may also match within one edit (two for eight or more) of a
+ * prefix of a term; numbers never match with typos. Scores add up per token: match
+ * quality × field weight × inverse document frequency.
+ *
+ * Updates append a new document number and tombstone the old one, so posting lists
+ * stay sorted and are never edited in place; once tombstones outnumber a quarter of
+ * the documents the index is compacted. Reads share a read lock, writes take the
+ * write lock.
+ */
+public class SearchIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final SearchField[] FIELDS = SearchField.values();
+    private static final int FIELD_BITS = 3;
+    private static final int FIELD_MASK = (1 << FIELD_BITS) - 1;
+    private static final int MAX_TOKEN_LENGTH = 32;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int TWO_EDIT_LENGTH = 8;
+    private static final int MAX_EXPANSIONS = 64;
+    private static final int MAX_PREFIX_SCAN = 2048;
+    private static final int MIN_COMPACT_TOMBSTONES = 16_384;
+    private static final String PAD = "$$";
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Term dictionary
+    private TreeMap<String, Integer> termIds = new TreeMap<>();
+    private List<String> terms = new ArrayList<>();
+    private List<IntList> postings = new ArrayList<>();
+    private Map<String, IntList> gramTerms = new HashMap<>();
+
+    // Documents
+    private SearchType[] docTypes = new SearchType[1024];
+    private long[] docIds = new long[1024];
+    private String[] labels = new String[1024];
+    private String[] details = new String[1024];
+    private int[][] docEntries = new int[1024][];
+    private BitSet deleted = new BitSet();
+    private int docCount;
+    private int deletedCount;
+    private final Map<Long, Integer> docByKey = new HashMap<>();
+
+    // Keys removed while a bulk load is running, so the load does not re-add them
+    private Set<Long> removedDuringLoad;
+
+    private record Expansion(int term, double quality) {
+    }
+
+    /**
+     * Add a document, replacing any earlier version of the same entity
+     */
+    public void put(SearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key(document.type(), document.id()));
+            addLocked(document);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a batch of documents from a bulk load. Entities that are already indexed
+     * (a live update got there first) or were removed since the load started are
+     * skipped, since the loaded copy may be older.
+     */
+    public void putAllIfAbsent(List<SearchDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            for (SearchDocument document : documents) {
+                long key = key(document.type(), document.id());
+                if (!docByKey.containsKey(key) && (removedDuringLoad == null || !removedDuringLoad.contains(key))) {
+                    addLocked(document);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(SearchType type, long id) {
+        lock.writeLock().lock();
+        try {
+            long key = key(type, id);
+            removeLocked(key);
+            if (removedDuringLoad != null) {
+                removedDuringLoad.add(key);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Start remembering removals so that {@link #putAllIfAbsent} does not resurrect them
+     */
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            removedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endLoad() {
+        lock.writeLock().lock();
+        try {
+            removedDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked search.
+     *
+     * @param types  Entity kinds to return, or null for all
+     * @param fields Fields a token may match in, or null for all
+     * @param fuzzy  Whether query tokens may match with typos
+     */
+    public List<SearchHit> search(String query, Set<SearchType> types, Set<SearchField> fields, int limit, boolean fuzzy) {
+        List<String> queryTokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            IntDoubleMap scores = match(queryTokens, types, fields, false);
+            // Typo candidates are only worth their cost when exact and prefix matches run short
+            if (fuzzy && scores.size() < limit) {
+                scores = match(queryTokens, types, fields, true);
+            }
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of every entity of one type that matches all query tokens, best matches first
+     *
+     * @param fields Fields a token may match in, or null for all
+     */
+    public List<Long> matchingIds(SearchType type, Set<SearchField> fields, String query, boolean fuzzy) {
+        List<SearchHit> hits = search(query, Set.of(type), fields, Integer.MAX_VALUE, fuzzy);
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            ids.add(hit.id());
+        }
+        return ids;
+    }
+
+    /**
+     * Lowercase, accent-free tokens of a text
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String part : SEPARATORS.split(normalized)) {
+            int start = 0;
+            for (int i = 1; i <= part.length(); i++) {
+                if (i == part.length() || Character.isDigit(part.charAt(i)) != Character.isDigit(part.charAt(i - 1))) {
+                    if (i > start) {
+                        tokens.add(part.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH)));
+                    }
+                    start = i;
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isWord(String token) {
+        return !Character.isDigit(token.charAt(0));
+    }
+
+    /**
+     * Edit distance (with adjacent transpositions) between {@code query} and the closest
+     * prefix of {@code term}, or {@code maxEdits + 1} if every prefix is further away
+     */
+    static int prefixDistance(String query, String term, int maxEdits) {
+        int m = query.length();
+        int n = Math.min(term.length(), m + maxEdits);
+        int[] beforePrevious = new int[n + 1];
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= m; i++) {
+            current[0] = i;
+            int rowMin = i;
+            char q = query.charAt(i - 1);
+            for (int j = 1; j <= n; j++) {
+                char t = term.charAt(j - 1);
+                int value = Math.min(Math.min(previous[j], current[j - 1]) + 1, previous[j - 1] + (q == t ? 0 : 1));
+                if (i > 1 && j > 1 && q == term.charAt(j - 2) && query.charAt(i - 2) == t) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        int best = maxEdits + 1;
+        for (int j = Math.max(0, m - maxEdits); j <= n; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    private static long key(SearchType type, long id) {
+        return id * SearchType.values().length + type.ordinal();
+    }
+
+    // ---- Writes (write lock held) ----
+
+    private void addLocked(SearchDocument document) {
+        int[] entries = new int[8];
+        int count = 0;
+        for (Map.Entry<SearchField, String> field : document.fields().entrySet()) {
+            List<String> tokens = tokenize(field.getValue());
+            if (field.getKey() == SearchField.PHONE && tokens.size() > 1) {
+                // Also match the number typed without separators
+                tokens = new ArrayList<>(tokens);
+                tokens.add(String.join("", tokens));
+            }
+            for (String token : tokens) {
+                if (count == entries.length) {
+                    entries = Arrays.copyOf(entries, count * 2);
+                }
+                entries[count++] = termId(token) << FIELD_BITS | field.getKey().ordinal();
+            }
+        }
+        appendDocument(document.type(), document.id(), document.label(), document.detail(),
+                Arrays.stream(entries, 0, count).sorted().distinct().toArray());
+    }
+
+    private void appendDocument(SearchType type, long id, String label, String detail, int[] entries) {
+        if (docCount == docIds.length) {
+            int capacity = docCount + (docCount >> 1);
+            docTypes = Arrays.copyOf(docTypes, capacity);
+            docIds = Arrays.copyOf(docIds, capacity);
+            labels = Arrays.copyOf(labels, capacity);
+            details = Arrays.copyOf(details, capacity);
+            docEntries = Arrays.copyOf(docEntries, capacity);
+        }
+        int doc = docCount++;
+        docTypes[doc] = type;
+        docIds[doc] = id;
+        labels[doc] = label;
+        details[doc] = detail;
+        docEntries[doc] = entries;
+        for (int entry : entries) {
+            postings.get(entry >>> FIELD_BITS).add(doc << FIELD_BITS | entry & FIELD_MASK);
+        }
+        docByKey.put(key(type, id), doc);
+    }
+
+    private void removeLocked(long key) {
+        Integer doc = docByKey.remove(key);
+        if (doc != null) {
+            deleted.set(doc);
+            deletedCount++;
+            labels[doc] = null;
+            details[doc] = null;
+            docEntries[doc] = null;
+        }
+    }
+
+    private int termId(String term) {
+        Integer id = termIds.get(term);
+        if (id != null) {
+            return id;
+        }
+        int newId = terms.size();
+        termIds.put(term, newId);
+        terms.add(term);
+        postings.add(new IntList(2));
+        if (isWord(term)) {
+            for (String gram : grams(term)) {
+                gramTerms.computeIfAbsent(gram, g -> new IntList()).add(newId);
+            }
+        }
+        return newId;
+    }
+
+    private static Set<String> grams(String token) {
+        String padded = PAD + token;
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Rebuild postings and the term dictionary from the live documents, dropping
+     * tombstones and terms no document uses any more
+     */
+    private void compactIfNeeded() {
+        if (deletedCount < MIN_COMPACT_TOMBSTONES || deletedCount * 4 < docCount) {
+            return;
+        }
+        List<String> oldTerms = terms;
+        SearchType[] oldTypes = docTypes;
+        long[] oldIds = docIds;
+        String[] oldLabels = labels;
+        String[] oldDetails = details;
+        int[][] oldEntries = docEntries;
+        BitSet oldDeleted = deleted;
+        int oldCount = docCount;
+
+        termIds = new TreeMap<>();
+        terms = new ArrayList<>();
+        postings = new ArrayList<>();
+        gramTerms = new HashMap<>();
+        int capacity = Math.max(1024, oldCount - deletedCount);
+        docTypes = new SearchType[capacity];
+        docIds = new long[capacity];
+        labels = new String[capacity];
+        details = new String[capacity];
+        docEntries = new int[capacity][];
+        deleted = new BitSet();
+        docCount = 0;
+        deletedCount = 0;
+        docByKey.clear();
+
+        int[] remap = new int[oldTerms.size()];
+        Arrays.fill(remap, -1);
+        for (int doc = 0; doc < oldCount; doc++) {
+            if (oldDeleted.get(doc)) {
+                continue;
+            }
+            int[] entries = oldEntries[doc];
+            for (int i = 0; i < entries.length; i++) {
+                int oldTerm = entries[i] >>> FIELD_BITS;
+                if (remap[oldTerm] < 0) {
+                    remap[oldTerm] = termId(oldTerms.get(oldTerm));
+                }
+                entries[i] = remap[oldTerm] << FIELD_BITS | entries[i] & FIELD_MASK;
+            }
+            Arrays.sort(entries);
+            appendDocument(oldTypes[doc], oldIds[doc], oldLabels[doc], oldDetails[doc], entries);
+        }
+    }
+
+    // ---- Reads (read lock held) ----
+
+    private IntDoubleMap match(List<String> queryTokens, Set<SearchType> types, Set<SearchField> fields, boolean fuzzy) {
+        List<List<Expansion>> expansions = new ArrayList<>();
+        long[] costs = new long[queryTokens.size()];
+        for (int i = 0; i < queryTokens.size(); i++) {
+            List<Expansion> tokenExpansions = expand(queryTokens.get(i), fuzzy);
+            if (tokenExpansions.isEmpty()) {
+                return new IntDoubleMap(0);
+            }
+            expansions.add(tokenExpansions);
+            for (Expansion expansion : tokenExpansions) {
+                costs[i] += postings.get(expansion.term()).size();
+            }
+        }
+
+        // Rarest token first: later tokens only need to look up its candidates
+        Integer[] order = new Integer[queryTokens.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> costs[i]));
+
+        double liveDocuments = docCount - deletedCount;
+        IntDoubleMap accumulated = null;
+        for (int index : order) {
+            IntDoubleMap matched = new IntDoubleMap(accumulated == null ? (int) Math.min(costs[index], 1 << 20)
+                    : accumulated.size());
+            for (Expansion expansion : expansions.get(index)) {
+                IntList list = postings.get(expansion.term());
+                double idf = Math.log(1 + liveDocuments / (1 + list.size()));
+                for (int i = 0; i < list.size(); i++) {
+                    int entry = list.get(i);
+                    int doc = entry >>> FIELD_BITS;
+                    if (accumulated != null && !accumulated.containsKey(doc)) {
+                        continue;
+                    }
+                    if (deleted.get(doc) || types != null && !types.contains(docTypes[doc])) {
+                        continue;
+                    }
+                    SearchField field = FIELDS[entry & FIELD_MASK];
+                    if (fields != null && !fields.contains(field)) {
+                        continue;
+                    }
+                    matched.putMax(doc, expansion.quality() * field.weight() * idf);
+                }
+            }
+            if (accumulated != null) {
+                for (int slot = 0; slot < matched.capacity(); slot++) {
+                    int doc = matched.keyAt(slot);
+                    if (doc >= 0) {
+                        matched.add(doc, accumulated.get(doc));
+                    }
+                }
+            }
+            accumulated = matched;
+            if (accumulated.isEmpty()) {
+                break;
+            }
+        }
+        return accumulated;
+    }
+
+    /**
+     * Terms a query token can match: itself (quality 1), completions (0.5-0.9, closer
+     * lengths first) and, when fuzzy, terms within the edit budget (0.45 for one edit,
+     * 0.3 for two)
+     */
+    private List<Expansion> expand(String token, boolean fuzzy) {
+        List<Expansion> expansions = new ArrayList<>();
+        Integer exact = termIds.get(token);
+        if (exact != null) {
+            expansions.add(new Expansion(exact, 1.0));
+        }
+
+        List<Integer> completions = new ArrayList<>();
+        for (Integer term : termIds.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+            completions.add(term);
+            if (completions.size() == MAX_PREFIX_SCAN) {
+                break;
+            }
+        }
+        if (completions.size() > MAX_EXPANSIONS) {
+            completions.sort(Comparator.comparingInt((Integer term) -> postings.get(term).size()).reversed());
+            completions = completions.subList(0, MAX_EXPANSIONS);
+        }
+        for (Integer term : completions) {
+            expansions.add(new Expansion(term, 0.5 + 0.4 * token.length() / terms.get(term).length()));
+        }
+
+        if (fuzzy && token.length() >= MIN_FUZZY_LENGTH && isWord(token)) {
+            expansions.addAll(fuzzyExpansions(token));
+        }
+        return expansions;
+    }
+
+    private List<Expansion> fuzzyExpansions(String token) {
+        int maxEdits = token.length() >= TWO_EDIT_LENGTH ? 2 : 1;
+        Set<String> queryGrams = grams(token);
+        // An edit changes at most three trigrams, a transposition four
+        int minShared = Math.max(1, queryGrams.size() - 4 * maxEdits);
+
+        IntDoubleMap shared = new IntDoubleMap(256);
+        for (String gram : queryGrams) {
+            IntList list = gramTerms.get(gram);
+            if (list != null) {
+                for (int i = 0; i < list.size(); i++) {
+                    shared.add(list.get(i), 1);
+                }
+            }
+        }
+
+        List<Expansion> expansions = new ArrayList<>();
+        for (int slot = 0; slot < shared.capacity(); slot++) {
+            int term = shared.keyAt(slot);
+            if (term < 0 || shared.valueAt(slot) < minShared) {
+                continue;
+            }
+            String candidate = terms.get(term);
+            if (candidate.startsWith(token) || postings.get(term).size() == 0) {
+                continue;
+            }
+            int distance = prefixDistance(token, candidate, maxEdits);
+            if (distance <= maxEdits) {
+                expansions.add(new Expansion(term, distance == 1 ? 0.45 : 0.3));
+            }
+        }
+        if (expansions.size() > MAX_EXPANSIONS) {
+            expansions.sort(Comparator.comparingDouble(Expansion::quality)
+                    .thenComparingInt(expansion -> postings.get(expansion.term()).size()).reversed());
+            return new ArrayList<>(expansions.subList(0, MAX_EXPANSIONS));
+        }
+        return expansions;
+    }
+
+    private List<SearchHit> top(IntDoubleMap scores, int limit) {
+        // Best score first, newer documents first on ties
+        Comparator<Integer> better = Comparator.<Integer>comparingDouble(scores::get).reversed()
+                .thenComparing(Comparator.reverseOrder());
+        List<Integer> docs;
+        if (limit >= scores.size()) {
+            docs = new ArrayList<>(scores.size());
+            for (int slot = 0; slot < scores.capacity(); slot++) {
+                if (scores.keyAt(slot) >= 0) {
+                    docs.add(scores.keyAt(slot));
+                }
+            }
+            docs.sort(better);
+        } else {
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, better.reversed());
+            for (int slot = 0; slot < scores.capacity(); slot++) {
+                int doc = scores.keyAt(slot);
+                if (doc >= 0) {
+                    heap.add(doc);
+                    if (heap.size() > limit) {
+                        heap.poll();
+                    }
+                }
+            }
+            docs = new ArrayList<>(heap);
+            docs.sort(better);
+        }
+        List<SearchHit> hits = new ArrayList<>(docs.size());
+        for (int doc : docs) {
+            hits.add(new SearchHit(docTypes[doc], docIds[doc], Math.round(scores.get(doc) * 1000) / 1000.0,
+                    labels[doc], details[doc]));
+        }
+        return hits;
+    }
+}
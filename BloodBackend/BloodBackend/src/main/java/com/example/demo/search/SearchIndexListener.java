@@ -0,0 +1,66 @@
+package com.example.demo.search;
+
+import com.example.demo.model.BloodRequest;
+import com.example.demo.model.Donor;
+import com.example.demo.model.Hospital;
+import com.example.demo.service.SearchService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that keeps the search index up to date. The document is
+ * captured when the change is flushed and applied once the transaction commits, so
+ * rolled-back changes never become searchable.
+ */
+@Component
+public class SearchIndexListener {
+
+    private final ObjectProvider<SearchService> searchService;
+
+    public SearchIndexListener(ObjectProvider<SearchService> searchService) {
+        this.searchService = searchService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        SearchDocument document = switch (entity) {
+            case Donor donor -> SearchDocument.of(donor);
+            case Hospital hospital -> SearchDocument.of(hospital);
+            case BloodRequest request -> SearchDocument.of(request);
+            default -> null;
+        };
+        if (document != null) {
+            afterCommit(() -> searchService.getObject().index(document));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        switch (entity) {
+            case Donor donor -> afterCommit(() -> searchService.getObject().remove(SearchType.DONOR, donor.getId()));
+            case Hospital hospital -> afterCommit(() -> searchService.getObject().remove(SearchType.HOSPITAL, hospital.getId()));
+            case BloodRequest request -> afterCommit(() -> searchService.getObject().remove(SearchType.REQUEST, request.getId()));
+            default -> {
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
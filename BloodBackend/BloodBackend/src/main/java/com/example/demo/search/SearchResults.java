@@ -0,0 +1,40 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Loads the entities behind a ranked id list
+ */
+public final class SearchResults {
+
+    // Keeps IN lists well below MySQL's placeholder limit
+    private static final int CHUNK_SIZE = 1000;
+
+    private SearchResults() {
+    }
+
+    /**
+     * Load entities by id in chunks and return them in the order of {@code ids};
+     * ids with no row (deleted meanwhile) are skipped
+     */
+    public static <T> List<T> loadInOrder(List<Long> ids, Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            for (T entity : loader.apply(ids.subList(from, Math.min(ids.size(), from + CHUNK_SIZE)))) {
+                byId.put(idOf.apply(entity), entity);
+            }
+        }
+        List<T> ordered = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return ordered;
+    }
+}
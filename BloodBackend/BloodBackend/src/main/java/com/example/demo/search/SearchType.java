@@ -0,0 +1,10 @@
+package com.example.demo.search;
+
+/**
+ * Entity kinds held in the search index
+ */
+public enum SearchType {
+    DONOR,
+    HOSPITAL,
+    REQUEST
+}
@@ -0,0 +1,104 @@
+package com.example.demo.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size Bloom filter over strings. {@link #mightContain} never returns a
+ * false negative; false positives occur at no more than the rate the filter was
+ * sized for while it holds no more than its expected number of entries (the bit
+ * array is rounded up to a power of two).
+ *
+ * Lookups are lock-free and allocation-free: one 64-bit hash of the string,
+ * from which the k bit positions are derived by double hashing
+ * (Kirsch and Mitzenmacher, with an odd step). Concurrent {@link #put} calls are safe.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final long bitMask;
+    private final int hashCount;
+    private final int expectedInsertions;
+
+    private BloomFilter(long bitCount, int hashCount, int expectedInsertions) {
+        // A power of two, so that a bit index is a mask rather than a division
+        int wordCount = Integer.highestOneBit((int) Math.max(1, (bitCount + 63) >>> 6) * 2 - 1);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+        this.bitMask = this.bitCount - 1;
+        this.hashCount = hashCount;
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * Size a filter for a number of entries and a target false-positive probability
+     */
+    public static BloomFilter create(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * ln2));
+        return new BloomFilter(bits, hashes, expectedInsertions);
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        long step = Long.rotateLeft(hash, 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = (hash + i * step) & bitMask;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = words.get(word)) & mask) == 0) {
+                if (words.compareAndSet(word, current, current | mask)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long step = Long.rotateLeft(hash, 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = (hash + i * step) & bitMask;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int expectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Spread {@link String#hashCode} (vectorised by the JIT, and cached on the string
+     * for the exact lookup that follows a hit) over 64 bits with the MurmurHash3
+     * finaliser. Distinct strings with equal hash codes add about n / 2^32 to the
+     * false-positive rate, which is negligible for random token ids.
+     */
+    static long hash(String value) {
+        long hash = value.hashCode() ^ 0x9e3779b97f4a7c15L;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
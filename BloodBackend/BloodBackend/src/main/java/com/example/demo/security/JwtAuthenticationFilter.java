@@ -1,6 +1,7 @@
 package com.example.demo.security;
 
 import com.example.demo.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,6 +30,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenRevocationList revocationList;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -68,10 +72,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             if (jwt != null) {
                 logger.info("JWT token found in request, length: {}", jwt.length());
                 
-                if (jwtUtils.validateJwtToken(jwt)) {
-                    String username = jwtUtils.getUsernameFromJwtToken(jwt);
-                    String role = jwtUtils.getRoleFromJwtToken(jwt);
-                    Long userId = jwtUtils.getUserIdFromJwtToken(jwt);
+                // One parse verifies the signature and expiry and yields every claim
+                Claims claims = jwtUtils.parseValidClaims(jwt);
+                if (claims != null && revocationList.isRevoked(claims.getId())) {
+                    logger.warn("Revoked JWT token for request: {} {}", method, requestPath);
+                } else if (claims != null) {
+                    String username = claims.getSubject();
+                    String role = claims.get("role", String.class);
+                    Long userId = claims.get("userId", Long.class);
                     
                     logger.info("JWT token validated for user: {}, role: {}, userId: {}", username, role, userId);
 
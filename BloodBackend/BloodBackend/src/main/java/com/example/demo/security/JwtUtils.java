@@ -1,12 +1,15 @@
 package com.example.demo.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
 
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,6 +19,7 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
@@ -24,88 +28,87 @@ public class JwtUtils {
     @Value("${jwt.secret:defaultSecretKey012345678901234567890123456789}")
     private String jwtSecret;
 
-    @Value("${jwt.expirationMs:86400000}") // 24 hours
+    @Value("${jwt.expirationMs:900000}") // 15 minutes; clients renew through /api/auth/refresh
     private int jwtExpirationMs;
 
-    // Generate a secure key for HS256 algorithm
-    private Key getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    // The key and parser are immutable and thread-safe, so they are built once
+    private Key signingKey;
+    private JwtParser parser;
+
+    /**
+     * A signed access token and its id (jti), which is what gets revoked
+     */
+    public record AccessToken(String token, String id, Date expiresAt) {
     }
 
-    public String generateJwtToken(String username, Long userId, String role) {
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
+    public long getExpirationMs() {
+        return jwtExpirationMs;
+    }
+
+    public AccessToken issueAccessToken(String username, Long userId, String role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("role", role);
-        
-        return Jwts.builder()
+
+        String id = UUID.randomUUID().toString();
+        Date issuedAt = new Date();
+        Date expiresAt = new Date(issuedAt.getTime() + jwtExpirationMs);
+        String token = Jwts.builder()
                 .setClaims(claims)
+                .setId(id)
                 .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(issuedAt)
+                .setExpiration(expiresAt)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
+        return new AccessToken(token, id, expiresAt);
+    }
+
+    public String generateJwtToken(String username, Long userId, String role) {
+        return issueAccessToken(username, userId, role).token();
     }
 
     public String getUsernameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public Long getUserIdFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("userId", Long.class);
+        return parser.parseClaimsJws(token).getBody().get("userId", Long.class);
     }
 
     public String getRoleFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("role", String.class);
+        return parser.parseClaimsJws(token).getBody().get("role", String.class);
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseValidClaims(authToken) != null;
+    }
+
+    /**
+     * Verify the signature and expiry and return the claims, parsing the token once
+     *
+     * @return The claims, or null if the token is invalid or expired
+     */
+    public Claims parseValidClaims(String authToken) {
         try {
             if (authToken == null || authToken.trim().isEmpty()) {
                 logger.error("JWT token is null or empty");
-                return false;
-            }
-            
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-                
-            // Check token expiration
-            Date expiration = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken)
-                .getBody()
-                .getExpiration();
-                
-            if (expiration != null && expiration.before(new Date())) {
-                logger.error("JWT token is expired. Expiration: {}, Current time: {}", 
-                    expiration, new Date());
-                return false;
+                return null;
             }
-            
-            return true;
+
+            // The parser rejects expired tokens with ExpiredJwtException
+            return parser.parseClaimsJws(authToken).getBody();
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
             logger.error("JWT token is expired: {}, token prefix: {}", e.getMessage(), 
-                authToken != null && authToken.length() > 10 ? authToken.substring(0, 10) + "..." : "null");
+                authToken.length() > 10 ? authToken.substring(0, 10) + "..." : "null");
         } catch (UnsupportedJwtException e) {
             logger.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
@@ -114,6 +117,6 @@ public class JwtUtils {
             logger.error("JWT validation error: {}", e.getMessage(), e);
         }
 
-        return false;
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,221 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs BCrypt hashing and verification on a small dedicated pool instead of the
+ * request threads, so that a burst of logins cannot take every core away from
+ * the rest of the API.
+ *
+ * The pool has one thread per core by default and a bounded priority queue:
+ * admin logins go first, then logins, registrations and finally background
+ * rehashes. Work that cannot be queued, or that has not started within
+ * {@code bloodbank.password.max-wait-ms}, fails fast with a
+ * {@link PasswordHashingRejectedException} rather than piling up. Background
+ * rehashes only use the first half of the queue and are simply dropped beyond
+ * that; they are retried on the user's next login.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    /**
+     * Scheduling priority, highest first
+     */
+    public enum Priority {
+        ADMIN_LOGIN, LOGIN, REGISTRATION, UPGRADE
+    }
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long maxWaitMillis;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Priority, Timer> hashTimers = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejections = new EnumMap<>(Priority.class);
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${bloodbank.password.threads:0}") int threads,
+                                   @Value("${bloodbank.password.queue-capacity:64}") int queueCapacity,
+                                   @Value("${bloodbank.password.max-wait-ms:2000}") long maxWaitMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.queueCapacity = queueCapacity;
+        this.maxWaitMillis = maxWaitMillis;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Priority priority : Priority.values()) {
+            hashTimers.put(priority, Timer.builder("bloodbank.password.hash")
+                    .description("Time spent hashing or verifying a password on the hashing pool")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry));
+            rejections.put(priority, Counter.builder("bloodbank.password.rejected")
+                    .description("Password operations rejected because the hashing queue was full or too slow")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("bloodbank.password.queue", queued, AtomicInteger::get)
+                .description("Password operations waiting for a hashing thread")
+                .register(meterRegistry);
+        logger.info("Password hashing pool: {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Check a raw password against a stored BCrypt hash, waiting for a hashing thread
+     *
+     * @throws PasswordHashingRejectedException if the pool is saturated
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword, Priority priority) {
+        return await(submit(() -> passwordEncoder.matches(rawPassword, encodedPassword), priority));
+    }
+
+    /**
+     * Hash a raw password, waiting for a hashing thread
+     *
+     * @throws PasswordHashingRejectedException if the pool is saturated
+     */
+    public String encode(CharSequence rawPassword, Priority priority) {
+        return await(submit(() -> passwordEncoder.encode(rawPassword), priority));
+    }
+
+    /**
+     * Hash a raw password in the background at {@link Priority#UPGRADE} and hand the
+     * hash to {@code store}. Dropped without error when the pool is busy.
+     */
+    public void encodeLater(CharSequence rawPassword, Consumer<String> store) {
+        try {
+            submit(() -> {
+                store.accept(passwordEncoder.encode(rawPassword));
+                return null;
+            }, Priority.UPGRADE);
+        } catch (PasswordHashingRejectedException e) {
+            logger.debug("Skipped background password rehash: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Whether a stored hash was made with a lower cost than the one configured now
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Whether a stored password is a BCrypt hash rather than a legacy plaintext value
+     */
+    public static boolean isBcryptHash(String storedPassword) {
+        return storedPassword != null && storedPassword.length() == 60
+                && (storedPassword.startsWith("$2a$") || storedPassword.startsWith("$2b$") || storedPassword.startsWith("$2y$"));
+    }
+
+    private <T> HashTask<T> submit(Callable<T> work, Priority priority) {
+        // Background rehashes only get the first half of the queue, so they never crowd out logins
+        int limit = priority == Priority.UPGRADE ? queueCapacity / 2 : queueCapacity;
+        if (queued.incrementAndGet() > limit) {
+            queued.decrementAndGet();
+            rejections.get(priority).increment();
+            throw new PasswordHashingRejectedException("Password hashing queue is full");
+        }
+        HashTask<T> task = new HashTask<>(work, priority);
+        try {
+            executor.execute(task);
+        } catch (RuntimeException e) {
+            queued.decrementAndGet();
+            rejections.get(priority).increment();
+            throw new PasswordHashingRejectedException("Password hashing pool is shut down");
+        }
+        return task;
+    }
+
+    private <T> T await(HashTask<T> task) {
+        try {
+            // The deadline to start, then as long again to finish the hash
+            return task.get(2 * maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | CancellationException e) {
+            task.cancel(false);
+            rejections.get(task.priority).increment();
+            throw new PasswordHashingRejectedException("Password hashing did not start in time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.cancel(false);
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Queued hashing work, ordered by priority and then first come, first served.
+     * Work that waited longer than the deadline is cancelled instead of run, since
+     * its caller has already given up.
+     */
+    private final class HashTask<T> extends FutureTask<T> implements Comparable<HashTask<?>> {
+
+        private final Priority priority;
+        private final long order = sequence.incrementAndGet();
+        private final long queuedAt = System.nanoTime();
+
+        HashTask(Callable<T> work, Priority priority) {
+            super(work);
+            this.priority = priority;
+        }
+
+        @Override
+        public void run() {
+            queued.decrementAndGet();
+            if (priority != Priority.UPGRADE
+                    && System.nanoTime() - queuedAt > TimeUnit.MILLISECONDS.toNanos(maxWaitMillis)) {
+                cancel(false);
+                return;
+            }
+            long started = System.nanoTime();
+            super.run();
+            hashTimers.get(priority).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(HashTask<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+}
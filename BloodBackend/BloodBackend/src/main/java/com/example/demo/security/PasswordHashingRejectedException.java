@@ -0,0 +1,13 @@
+package com.example.demo.security;
+
+/**
+ * Thrown when a password hash or verification cannot be scheduled because the
+ * hashing queue is full, or did not start before its deadline. Callers answer
+ * 429 Too Many Requests.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
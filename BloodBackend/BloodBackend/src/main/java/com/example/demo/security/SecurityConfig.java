@@ -1,5 +1,6 @@
 package com.example.demo.security;
 
+import com.example.demo.admission.AdmissionControlFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,6 +28,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -44,6 +48,8 @@ public class SecurityConfig {
                 
                 // Admin-only endpoints
                 .requestMatchers("/api/admin/**").hasAuthority("ROLE_ADMIN")
+                .requestMatchers("/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
                 .requestMatchers("/api/blood-donations/pending").hasAuthority("ROLE_ADMIN")
                 .requestMatchers("/api/blood-requests/pending").hasAuthority("ROLE_ADMIN") 
                 .requestMatchers("/api/blood-donations/*/approve").hasAuthority("ROLE_ADMIN")
@@ -68,6 +74,8 @@ public class SecurityConfig {
             );
         
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // Rate limiting and load shedding need the user the JWT filter authenticated
+        http.addFilterAfter(admissionControlFilter, JwtAuthenticationFilter.class);
         
         return http.build();
     }
@@ -91,7 +99,8 @@ public class SecurityConfig {
             "Origin", 
             "Access-Control-Request-Method", 
             "Access-Control-Request-Headers",
-            "Cache-Control"
+            "Cache-Control",
+            "If-None-Match"
         ));
         
         // Expose headers to the client
@@ -100,7 +109,8 @@ public class SecurityConfig {
             "Content-Type", 
             "Access-Control-Allow-Origin",
             "Access-Control-Allow-Credentials",
-            "Cache-Control"
+            "Cache-Control",
+            "ETag"
         ));
         
         // Important: maxAge determines how long the preflight response can be cached
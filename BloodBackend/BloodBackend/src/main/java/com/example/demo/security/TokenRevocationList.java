@@ -0,0 +1,131 @@
+package com.example.demo.security;
+
+import com.example.demo.model.RevokedToken;
+import com.example.demo.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens (by jti) revoked before they expire, checked on every authenticated request.
+ *
+ * The exact set is small, since entries only live until the token would have expired
+ * anyway, and it sits behind a Bloom filter: almost every token is not revoked, and
+ * for those the check is a handful of bit probes with no hashing of the set and no
+ * allocation. Only a Bloom filter hit looks at the exact set.
+ *
+ * Revocations are stored in {@code revoked_tokens}; each instance loads them at
+ * startup and polls for new ones every {@code bloodbank.auth.revocation-sync-ms}.
+ * The class is deliberately not transactional, so {@link #isRevoked} is a plain call.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    static final double FALSE_POSITIVE_RATE = 0.001;
+    private static final int MIN_CAPACITY = 1024;
+    // Re-read revocations this far back on each sync, covering rows committed late by other instances
+    private static final long SYNC_OVERLAP_MINUTES = 1;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter = BloomFilter.create(MIN_CAPACITY, FALSE_POSITIVE_RATE);
+    private volatile LocalDateTime lastSync;
+
+    @Autowired
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository, MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        Gauge.builder("bloodbank.auth.revoked", revoked, Map::size)
+                .description("Revoked access tokens that have not expired yet")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a token id was revoked. Tokens without an id (issued before ids were
+     * added) cannot be revoked and simply expire.
+     */
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && filter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    /**
+     * Revoke an access token until it expires
+     */
+    public void revoke(String tokenId, Date expiresAt) {
+        LocalDateTime expiry = LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault());
+        if (!revoked.containsKey(tokenId)) {
+            revokedTokenRepository.save(new RevokedToken(tokenId, expiry));
+        }
+        add(tokenId, expiresAt.getTime());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        sync();
+        logger.info("Loaded {} revoked access tokens", revoked.size());
+    }
+
+    /**
+     * Pick up revocations made by other instances
+     */
+    @Scheduled(fixedDelayString = "${bloodbank.auth.revocation-sync-ms:10000}",
+            initialDelayString = "${bloodbank.auth.revocation-sync-ms:10000}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSync == null ? LocalDateTime.of(1970, 1, 1, 0, 0)
+                : lastSync.minusMinutes(SYNC_OVERLAP_MINUTES);
+        for (RevokedToken token : revokedTokenRepository.findRevokedSince(since, now)) {
+            add(token.getTokenId(), token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        lastSync = now;
+    }
+
+    /**
+     * Drop expired revocations from memory and the database, and rebuild the
+     * filter so it does not keep their bits. Runs in the caller's transaction.
+     */
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        synchronized (this) {
+            rebuild();
+        }
+        revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        return before - revoked.size();
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private synchronized void add(String tokenId, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis() || revoked.putIfAbsent(tokenId, expiresAt) != null) {
+            return;
+        }
+        // The exact set is written first, so a reader that sees the filter bits also sees the entry
+        filter.put(tokenId);
+        if (revoked.size() > filter.expectedInsertions()) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        BloomFilter rebuilt = BloomFilter.create(Math.max(MIN_CAPACITY, revoked.size() * 2), FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AuthTokens;
+import com.example.demo.model.User;
+
+import java.util.Optional;
+
+public interface AuthTokenService {
+
+    /**
+     * Issue an access token and a refresh token for a user who just signed in
+     */
+    AuthTokens issueTokens(User user);
+
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token.
+     * Each refresh token works once; presenting a used one again revokes every
+     * token issued from the same sign-in, unless it was used within the last
+     * {@code bloodbank.auth.refresh-reuse-grace-ms} (concurrent renewals from two
+     * tabs, or a retry), which get a new pair of the same sign-in instead.
+     *
+     * @param refreshToken The raw refresh token
+     * @return The new tokens, or empty if the refresh token is unknown, expired, reused or revoked
+     */
+    Optional<AuthTokens> refresh(String refreshToken);
+
+    /**
+     * Revoke an access token and the refresh tokens of its sign-in
+     *
+     * @param accessToken  The access token, may be null
+     * @param refreshToken The raw refresh token, may be null
+     * @return True if anything was revoked
+     */
+    boolean logout(String accessToken, String refreshToken);
+
+    /**
+     * Delete expired refresh tokens and revocations
+     */
+    void cleanupExpired();
+}
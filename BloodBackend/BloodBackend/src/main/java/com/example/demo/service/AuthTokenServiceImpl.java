@@ -0,0 +1,175 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AuthTokens;
+import com.example.demo.model.RefreshToken;
+import com.example.demo.model.User;
+import com.example.demo.repository.RefreshTokenRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.JwtUtils;
+import com.example.demo.security.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class AuthTokenServiceImpl implements AuthTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthTokenServiceImpl.class);
+
+    private final JwtUtils jwtUtils;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final TokenRevocationList revocationList;
+    private final long refreshExpirationMs;
+    private final long reuseGraceMs;
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    public AuthTokenServiceImpl(JwtUtils jwtUtils,
+                                RefreshTokenRepository refreshTokenRepository,
+                                UserRepository userRepository,
+                                TokenRevocationList revocationList,
+                                @Value("${jwt.refreshExpirationMs:1209600000}") long refreshExpirationMs,
+                                @Value("${bloodbank.auth.refresh-reuse-grace-ms:10000}") long reuseGraceMs) {
+        this.jwtUtils = jwtUtils;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.revocationList = revocationList;
+        this.refreshExpirationMs = refreshExpirationMs;
+        this.reuseGraceMs = reuseGraceMs;
+    }
+
+    @Override
+    @Transactional
+    public AuthTokens issueTokens(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    @Override
+    @Transactional
+    public Optional<AuthTokens> refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return Optional.empty();
+        }
+        Optional<RefreshToken> found = refreshTokenRepository.findByTokenHash(hash(refreshToken));
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        RefreshToken stored = found.get();
+        LocalDateTime now = LocalDateTime.now();
+        if (stored.getRevokedAt() != null || !stored.getExpiresAt().isAfter(now)) {
+            return Optional.empty();
+        }
+        String familyId = stored.getFamilyId();
+        if (stored.getUsedAt() == null) {
+            if (refreshTokenRepository.markUsed(stored.getId(), now) == 1) {
+                return userRepository.findById(stored.getUserId())
+                        .map(user -> issue(user, familyId));
+            }
+            // A concurrent refresh with the same token won; see what it left behind
+            Optional<RefreshToken> current = refreshTokenRepository.findCurrent(stored.getId());
+            if (current.isEmpty() || current.get().getRevokedAt() != null || current.get().getUsedAt() == null) {
+                return Optional.empty();
+            }
+            stored = current.get();
+        }
+        if (stored.getUsedAt().isAfter(now.minus(reuseGraceMs, ChronoUnit.MILLIS))) {
+            // Just used: two tabs or a retried request renewing at once, not a copied token
+            return userRepository.findById(stored.getUserId())
+                    .map(user -> issue(user, familyId));
+        }
+        // A used refresh token came back: it was copied, so end the whole sign-in
+        logger.warn("Refresh token reuse for user {}, revoking token family {}", stored.getUserId(), familyId);
+        revokeFamily(familyId, now);
+        return Optional.empty();
+    }
+
+    @Override
+    @Transactional
+    public boolean logout(String accessToken, String refreshToken) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean revoked = false;
+        Claims claims = accessToken == null ? null : jwtUtils.parseValidClaims(accessToken);
+        if (claims != null && claims.getId() != null) {
+            revocationList.revoke(claims.getId(), claims.getExpiration());
+            revoked = true;
+            Optional<RefreshToken> issuedWith = refreshTokenRepository.findByAccessTokenId(claims.getId());
+            if (issuedWith.isPresent()) {
+                revokeFamily(issuedWith.get().getFamilyId(), now);
+            }
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            Optional<RefreshToken> stored = refreshTokenRepository.findByTokenHash(hash(refreshToken));
+            if (stored.isPresent()) {
+                revokeFamily(stored.get().getFamilyId(), now);
+                revoked = true;
+            }
+        }
+        return revoked;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${bloodbank.auth.cleanup-cron:0 55 3 * * *}")
+    public void cleanupExpired() {
+        int refreshTokens = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        int revocations = revocationList.purgeExpired();
+        logger.info("Deleted {} expired refresh tokens and {} expired revocations", refreshTokens, revocations);
+    }
+
+    private AuthTokens issue(User user, String familyId) {
+        JwtUtils.AccessToken accessToken = jwtUtils.issueAccessToken(user.getEmail(), user.getId(), user.getRole());
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(refreshToken), user.getId(), familyId, accessToken.id(),
+                toLocalDateTime(accessToken.expiresAt().getTime()),
+                LocalDateTime.now().plus(refreshExpirationMs, ChronoUnit.MILLIS)));
+        return new AuthTokens(accessToken.token(), refreshToken, jwtUtils.getExpirationMs() / 1000);
+    }
+
+    /**
+     * Revoke every refresh token of a sign-in, and the access tokens issued with them that are still live
+     */
+    private void revokeFamily(String familyId, LocalDateTime now) {
+        for (RefreshToken token : refreshTokenRepository.findByFamilyIdAndAccessExpiresAtAfter(familyId, now)) {
+            revocationList.revoke(token.getAccessTokenId(), Timestamp.valueOf(token.getAccessExpiresAt()));
+        }
+        refreshTokenRepository.revokeFamily(familyId, now);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Refresh tokens are stored only as SHA-256 hashes; they are random, so no salt is needed
+     */
+    private static String hash(String refreshToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BloodDonationView;
 import com.example.demo.model.BloodDonation;
 import com.example.demo.model.Donor;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface BloodDonationService {
@@ -25,6 +27,14 @@ public interface BloodDonationService {
      */
     Optional<BloodDonation> getBloodDonationById(Long id);
     
+    /**
+     * Get the API view of a blood donation by ID, without loading the entity
+     * 
+     * @param id The ID of the blood donation to retrieve
+     * @return An Optional containing the blood donation view if found
+     */
+    Optional<BloodDonationView> getBloodDonationViewById(Long id);
+    
     /**
      * Get all blood donations
      * 
@@ -33,29 +43,46 @@ public interface BloodDonationService {
     List<BloodDonation> getAllBloodDonations();
     
     /**
-     * Get blood donations by donor ID
+     * Get the API views of all blood donations, ordered by ID
+     * 
+     * @return A list of all blood donation views
+     */
+    List<BloodDonationView> getAllBloodDonationViews();
+    
+    /**
+     * Get blood donations by approval status
+     * 
+     * @param donationStatus PENDING, APPROVED or REJECTED
+     * @return A list of blood donation views with the given status
+     */
+    List<BloodDonationView> getBloodDonationsByStatus(String donationStatus);
+    
+    /**
+     * Get a donor's donation totals and one page of their donations, newest first
      * 
      * @param donorId The donor ID to search for
-     * @return A list of blood donations from the given donor
+     * @param page Zero-based page number
+     * @param size Page size
+     * @return A map with the donor's totals and the donations on the page, or empty if the donor does not exist
      */
-    List<BloodDonation> getBloodDonationsByDonorId(Long donorId);
+    Optional<Map<String, Object>> getDonationHistory(Long donorId, int page, int size);
     
     /**
      * Get blood donations by blood group
      * 
      * @param bloodGroup The blood group to search for
-     * @return A list of blood donations of the given blood group
+     * @return A list of blood donation views of the given blood group
      */
-    List<BloodDonation> getBloodDonationsByBloodGroup(String bloodGroup);
+    List<BloodDonationView> getBloodDonationsByBloodGroup(String bloodGroup);
     
     /**
      * Get blood donations within a date range
      * 
      * @param startDate The start date of the range
      * @param endDate The end date of the range
-     * @return A list of blood donations within the given date range
+     * @return A list of blood donation views within the given date range
      */
-    List<BloodDonation> getBloodDonationsInDateRange(LocalDateTime startDate, LocalDateTime endDate);
+    List<BloodDonationView> getBloodDonationsInDateRange(LocalDateTime startDate, LocalDateTime endDate);
     
     /**
      * Record a new blood donation
@@ -72,9 +99,9 @@ public interface BloodDonationService {
      * Get the latest blood donation for a donor
      * 
      * @param donorId The donor ID to search for
-     * @return An Optional containing the latest blood donation if any
+     * @return An Optional containing the latest blood donation view if any
      */
-    Optional<BloodDonation> getLatestDonationByDonorId(Long donorId);
+    Optional<BloodDonationView> getLatestDonationByDonorId(Long donorId);
     
     /**
      * Get the count of donations by a donor
@@ -1,15 +1,21 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BloodDonationView;
 import com.example.demo.model.BloodDonation;
 import com.example.demo.model.BloodInventory;
 import com.example.demo.model.Donor;
+import com.example.demo.outbox.DomainEvent;
+import com.example.demo.outbox.OutboxPublisher;
 import com.example.demo.repository.BloodDonationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -18,26 +24,57 @@ public class BloodDonationServiceImpl implements BloodDonationService {
     private final BloodDonationRepository bloodDonationRepository;
     private final BloodInventoryService bloodInventoryService;
     private final DonorService donorService;
+    private final DonationRollupService donationRollupService;
+    private final OutboxPublisher outboxPublisher;
 
     @Autowired
     public BloodDonationServiceImpl(
             BloodDonationRepository bloodDonationRepository,
             BloodInventoryService bloodInventoryService,
-            DonorService donorService) {
+            DonorService donorService,
+            DonationRollupService donationRollupService,
+            OutboxPublisher outboxPublisher) {
         this.bloodDonationRepository = bloodDonationRepository;
         this.bloodInventoryService = bloodInventoryService;
         this.donorService = donorService;
+        this.donationRollupService = donationRollupService;
+        this.outboxPublisher = outboxPublisher;
     }
 
     @Override
+    @Transactional
     public BloodDonation saveBloodDonation(BloodDonation bloodDonation) {
+        boolean isNew = bloodDonation.getId() == null;
+        
         // Set creation and update timestamps
-        if (bloodDonation.getId() == null) {
+        if (isNew) {
             bloodDonation.setCreatedAt(LocalDateTime.now());
         }
         bloodDonation.setUpdatedAt(LocalDateTime.now());
         
-        return bloodDonationRepository.save(bloodDonation);
+        BloodDonation savedDonation = bloodDonationRepository.save(bloodDonation);
+        donationRollupService.recordDonationSaved(savedDonation);
+        
+        if (isNew) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("donationId", savedDonation.getId());
+            payload.put("donorId", savedDonation.getDonor() != null ? savedDonation.getDonor().getId() : null);
+            payload.put("bloodGroup", savedDonation.getBloodGroup());
+            payload.put("quantityMl", savedDonation.getQuantityMl());
+            payload.put("healthStatus", savedDonation.getHealthStatus());
+            payload.put("donationDate", savedDonation.getDonationDate());
+            outboxPublisher.publish(DomainEvent.DONATION_RECORDED, savedDonation.getId(), payload);
+        }
+        
+        if (savedDonation.getDonor() != null) {
+            Long donorId = savedDonation.getDonor().getId();
+            if (isNew && savedDonation.getQuantityMl() != null) {
+                donorService.recordDonationTotals(donorId, savedDonation.getQuantityMl(), savedDonation.getDonationDate());
+            } else {
+                donorService.recalculateDonationTotals(donorId, savedDonation.storedDonationDate());
+            }
+        }
+        return savedDonation;
     }
 
     @Override
@@ -46,23 +83,56 @@ public class BloodDonationServiceImpl implements BloodDonationService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Optional<BloodDonationView> getBloodDonationViewById(Long id) {
+        return bloodDonationRepository.findViewById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<BloodDonation> getAllBloodDonations() {
         return bloodDonationRepository.findAll();
     }
 
     @Override
-    public List<BloodDonation> getBloodDonationsByDonorId(Long donorId) {
-        return bloodDonationRepository.findByDonorId(donorId);
+    @Transactional(readOnly = true)
+    public List<BloodDonationView> getAllBloodDonationViews() {
+        return bloodDonationRepository.findAllViews();
     }
 
     @Override
-    public List<BloodDonation> getBloodDonationsByBloodGroup(String bloodGroup) {
-        return bloodDonationRepository.findByBloodGroup(bloodGroup);
+    @Transactional(readOnly = true)
+    public List<BloodDonationView> getBloodDonationsByStatus(String donationStatus) {
+        return bloodDonationRepository.findViewsByDonationStatus(donationStatus);
     }
 
     @Override
-    public List<BloodDonation> getBloodDonationsInDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return bloodDonationRepository.findByDonationDateBetween(startDate, endDate);
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getDonationHistory(Long donorId, int page, int size) {
+        return donorService.getDonorViewById(donorId).map(donor -> {
+            Map<String, Object> history = new LinkedHashMap<>();
+            history.put("donorId", donor.id());
+            history.put("donationCount", donor.donationCount());
+            history.put("totalVolumeMl", donor.totalVolumeMl());
+            history.put("lastDonation", donor.lastDonation());
+            history.put("page", page);
+            history.put("size", size);
+            history.put("totalPages", (donor.donationCount() + size - 1) / size);
+            history.put("donations", bloodDonationRepository.findPageByDonorId(donorId, PageRequest.of(page, size)));
+            return history;
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BloodDonationView> getBloodDonationsByBloodGroup(String bloodGroup) {
+        return bloodDonationRepository.findViewsByBloodGroup(bloodGroup);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BloodDonationView> getBloodDonationsInDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return bloodDonationRepository.findViewsByDonationDateBetween(startDate, endDate);
     }
 
     @Override
@@ -77,13 +147,9 @@ public class BloodDonationServiceImpl implements BloodDonationService {
         donation.setHealthStatus(healthStatus);
         donation.setNotes(notes);
         
-        // Save the donation
+        // Save the donation; this also updates the donor's totals and last donation date
         BloodDonation savedDonation = saveBloodDonation(donation);
         
-        // Update the donor's last donation date
-        donor.setLastDonation(LocalDateTime.now());
-        donorService.saveDonor(donor);
-        
         // If the donation is healthy, add it to inventory
         if ("NORMAL".equals(healthStatus)) {
             // Standard blood unit is about 450ml, calculate how many units this donation represents
@@ -106,18 +172,23 @@ public class BloodDonationServiceImpl implements BloodDonationService {
     }
 
     @Override
-    public Optional<BloodDonation> getLatestDonationByDonorId(Long donorId) {
-        List<BloodDonation> donations = bloodDonationRepository.findLatestDonationByDonorId(donorId);
-        return donations.isEmpty() ? Optional.empty() : Optional.of(donations.get(0));
+    @Transactional(readOnly = true)
+    public Optional<BloodDonationView> getLatestDonationByDonorId(Long donorId) {
+        return bloodDonationRepository.findPageByDonorId(donorId, PageRequest.of(0, 1)).stream().findFirst();
     }
 
     @Override
     public Long getDonationCountByDonorId(Long donorId) {
-        return bloodDonationRepository.countByDonorId(donorId);
+        return donorService.getDonorById(donorId).map(donor -> (long) donor.getDonationCount()).orElse(0L);
     }
 
     @Override
+    @Transactional
     public void deleteBloodDonation(Long id) {
-        bloodDonationRepository.deleteById(id);
+        bloodDonationRepository.findById(id).ifPresent(donation -> {
+            donationRollupService.recordDonationDeleted(donation);
+            bloodDonationRepository.delete(donation);
+            donorService.recalculateDonationTotals(donation.getDonor().getId(), donation.storedDonationDate());
+        });
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.InventoryAdjustment;
 import com.example.demo.model.BloodInventory;
 
 import java.util.List;
@@ -87,6 +88,16 @@ public interface BloodInventoryService {
      */
     boolean allocateBlood(String bloodGroup, int units);
     
+    /**
+     * Allocate blood units for a request from one hospital's own stock, earliest expiry first
+     * 
+     * @param hospitalId The hospital whose stock to allocate from
+     * @param bloodGroup The requested blood group
+     * @param units The number of units requested
+     * @return True if the allocation was successful, false if the hospital holds too few units
+     */
+    boolean allocateHospitalBlood(Long hospitalId, String bloodGroup, int units);
+    
     /**
      * Get a summary of blood inventory status
      * 
@@ -129,4 +140,50 @@ public interface BloodInventoryService {
      * @return An Optional containing the latest inventory item for the given blood group if found
      */
     Optional<BloodInventory> findLatestByBloodGroup(String bloodGroup);
-}
\ No newline at end of file
+    
+    /**
+     * Get the blood inventory items held by a hospital
+     * 
+     * @param hospitalId The hospital ID
+     * @return The hospital's inventory items
+     */
+    List<BloodInventory> getHospitalInventory(Long hospitalId);
+    
+    /**
+     * Get the available units of each blood group held by a hospital
+     * 
+     * @param hospitalId The hospital ID
+     * @return A map of blood group to available units at the hospital
+     */
+    Map<String, Integer> getHospitalStock(Long hospitalId);
+    
+    /**
+     * Get a hospital's available items expiring soon, earliest first
+     * 
+     * @param hospitalId The hospital ID
+     * @param days The number of days from now
+     * @return The hospital's items expiring within the given days
+     */
+    List<BloodInventory> getHospitalExpiringInventory(Long hospitalId, int days);
+    
+    /**
+     * Set the units of the latest inventory item for a blood group, creating an
+     * AVAILABLE item if the group has none. Retried if the item changes concurrently.
+     * 
+     * @param bloodGroup The blood group to update
+     * @param units The new number of units
+     * @return True if an existing item was updated, false if one was created
+     */
+    boolean setLatestUnits(String bloodGroup, int units);
+    
+    /**
+     * Apply available-unit deltas per blood group and hospital in one transaction.
+     * Increases go to the latest-expiring row (or a new row), decreases are taken
+     * from the earliest-expiring rows first. Nothing is applied if any adjustment fails.
+     * 
+     * @param adjustments The deltas to apply
+     * @return A map with the resulting levels per blood group and hospital, and stock per blood group
+     * @throws IllegalArgumentException If an adjustment is invalid or would take more units than are available
+     */
+    Map<String, Object> adjustInventory(List<InventoryAdjustment> adjustments);
+}
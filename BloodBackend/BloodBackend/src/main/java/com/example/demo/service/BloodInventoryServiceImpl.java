@@ -1,32 +1,86 @@
 package com.example.demo.service;
 
+import com.example.demo.cache.Aggregate;
+import com.example.demo.cache.AggregateVersions;
+import com.example.demo.concurrency.RetryOnConflict;
+import com.example.demo.dto.BloodGroupUnits;
+import com.example.demo.dto.InventoryAdjustment;
+import com.example.demo.dto.ShortfallForecast;
+import com.example.demo.journal.HospitalHoldingsProjection;
 import com.example.demo.model.BloodInventory;
+import com.example.demo.outbox.DomainEvent;
+import com.example.demo.outbox.OutboxPublisher;
 import com.example.demo.repository.BloodInventoryRepository;
+import com.example.demo.util.BloodCompatibility;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class BloodInventoryServiceImpl implements BloodInventoryService {
 
     private final BloodInventoryRepository bloodInventoryRepository;
+    private final DemandForecastService demandForecastService;
+    private final InventoryJournalService inventoryJournalService;
+    private final OutboxPublisher outboxPublisher;
+    private final AggregateVersions aggregateVersions;
     
     private static final String[] BLOOD_GROUPS = {"A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-"};
+    private static final int SHELF_LIFE_DAYS = 42;
+
+    @Value("${bloodbank.forecast.warning-days:14}")
+    private int shortfallWarningDays;
+
+    @Value("${bloodbank.stock.critical-units:5}")
+    private int criticalUnits;
 
     @Autowired
-    public BloodInventoryServiceImpl(BloodInventoryRepository bloodInventoryRepository) {
+    public BloodInventoryServiceImpl(BloodInventoryRepository bloodInventoryRepository,
+                                     DemandForecastService demandForecastService,
+                                     InventoryJournalService inventoryJournalService,
+                                     OutboxPublisher outboxPublisher,
+                                     AggregateVersions aggregateVersions) {
         this.bloodInventoryRepository = bloodInventoryRepository;
+        this.demandForecastService = demandForecastService;
+        this.inventoryJournalService = inventoryJournalService;
+        this.outboxPublisher = outboxPublisher;
+        this.aggregateVersions = aggregateVersions;
     }
 
     @Override
+    @Transactional
     public BloodInventory saveBloodInventory(BloodInventory bloodInventory) {
+        // State the journal last saw; rows bound from a request body have not been loaded
+        BloodInventory.JournalState before = null;
+        if (bloodInventory.getId() != null) {
+            if (bloodInventory.journaledState() != null) {
+                before = bloodInventory.journaledState();
+            } else {
+                Optional<BloodInventory> current = bloodInventoryRepository.findById(bloodInventory.getId());
+                before = current.map(BloodInventory::journaledState).orElse(null);
+                // Clients that do not send a version keep last-writer-wins semantics
+                if (bloodInventory.getVersion() == null) {
+                    current.ifPresent(row -> bloodInventory.setVersion(row.getVersion()));
+                }
+            }
+        }
+        
         // Set creation and update timestamps
         if (bloodInventory.getId() == null) {
             bloodInventory.setCreatedAt(LocalDateTime.now());
@@ -34,7 +88,10 @@ public class BloodInventoryServiceImpl implements BloodInventoryService {
         bloodInventory.setUpdatedAt(LocalDateTime.now());
         bloodInventory.setLastUpdated(LocalDateTime.now());
         
-        return bloodInventoryRepository.save(bloodInventory);
+        BloodInventory saved = bloodInventoryRepository.save(bloodInventory);
+        inventoryJournalService.recordChange(before, saved);
+        bloodInventory.markJournaled();
+        return saved;
     }
 
     @Override
@@ -43,47 +100,70 @@ public class BloodInventoryServiceImpl implements BloodInventoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BloodInventory> getAllBloodInventory() {
         return bloodInventoryRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BloodInventory> getBloodInventoryByBloodGroup(String bloodGroup) {
         return bloodInventoryRepository.findByBloodGroup(bloodGroup);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BloodInventory> getBloodInventoryByStatus(String status) {
         return bloodInventoryRepository.findByStatus(status);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BloodInventory> getExpiringBloodInventory(int days) {
         LocalDateTime expiryDate = LocalDateTime.now().plusDays(days);
         return bloodInventoryRepository.findByExpiryDateBeforeAndStatus(expiryDate, "AVAILABLE");
     }
 
     @Override
+    @RetryOnConflict
+    @Transactional
     public Optional<BloodInventory> updateBloodInventoryStatus(Long id, String status) {
         Optional<BloodInventory> inventoryOpt = bloodInventoryRepository.findById(id);
         
         if (inventoryOpt.isPresent()) {
             BloodInventory inventory = inventoryOpt.get();
+            BloodInventory.JournalState before = inventory.journaledState();
+            boolean leavesAvailable = "AVAILABLE".equals(inventory.getStatus()) && !"AVAILABLE".equals(status);
+            Integer availableBefore = leavesAvailable
+                    ? bloodInventoryRepository.getTotalUnitsByBloodGroupAndStatus(inventory.getBloodGroup(), "AVAILABLE")
+                    : null;
+            
             inventory.setStatus(status);
             inventory.setLastUpdated(LocalDateTime.now());
             inventory.setUpdatedAt(LocalDateTime.now());
-            return Optional.of(bloodInventoryRepository.save(inventory));
+            BloodInventory saved = bloodInventoryRepository.save(inventory);
+            inventoryJournalService.recordChange(before, saved);
+            
+            if (availableBefore != null) {
+                publishIfBecameCritical(saved.getBloodGroup(), availableBefore, availableBefore - saved.getUnits());
+            }
+            return Optional.of(saved);
         }
         
         return Optional.empty();
     }
 
     @Override
+    @Transactional
     public void deleteBloodInventory(Long id) {
-        bloodInventoryRepository.deleteById(id);
+        bloodInventoryRepository.findById(id).ifPresent(inventory -> {
+            inventoryJournalService.recordRemoval(inventory);
+            bloodInventoryRepository.delete(inventory);
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Integer> getAvailableBloodStock() {
         Map<String, Integer> bloodStock = new HashMap<>();
         
@@ -96,6 +176,7 @@ public class BloodInventoryServiceImpl implements BloodInventoryService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public boolean allocateBlood(String bloodGroup, int units) {
         // Check if we have enough units available
@@ -108,44 +189,103 @@ public class BloodInventoryServiceImpl implements BloodInventoryService {
         // Get available blood inventory items for the blood group
         List<BloodInventory> inventoryItems = bloodInventoryRepository.findByBloodGroupAndStatus(bloodGroup, "AVAILABLE");
         
+        allocateFrom(inventoryItems, units);
+        publishIfBecameCritical(bloodGroup, availableUnits, availableUnits - units);
+        return true;
+    }
+    
+    @Override
+    @RetryOnConflict
+    @Transactional
+    public boolean allocateHospitalBlood(Long hospitalId, String bloodGroup, int units) {
+        // Only the hospital's own rows, earliest expiry first
+        List<BloodInventory> inventoryItems = bloodInventoryRepository
+                .findByHospitalIdAndBloodGroupAndStatusOrderByExpiryDateAsc(hospitalId, bloodGroup, "AVAILABLE");
+        int hospitalUnits = inventoryItems.stream().mapToInt(BloodInventory::getUnits).sum();
+        
+        if (units <= 0 || hospitalUnits < units) {
+            return false;
+        }
+        
+        Integer availableUnits = bloodInventoryRepository.getTotalUnitsByBloodGroupAndStatus(bloodGroup, "AVAILABLE");
+        allocateFrom(inventoryItems, units);
+        if (availableUnits != null) {
+            publishIfBecameCritical(bloodGroup, availableUnits, availableUnits - units);
+        }
+        return true;
+    }
+    
+    /**
+     * Reserve units from the given AVAILABLE items in order, which must hold at least that many
+     */
+    private void allocateFrom(List<BloodInventory> inventoryItems, int units) {
         int remainingUnits = units;
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BloodInventory.JournalState> reservedBefore = new LinkedHashMap<>();
+        BloodInventory splitSource = null;
+        BloodInventory splitPart = null;
         
-        // Allocate from the inventory items
+        // Allocate from the inventory items with conditional updates; if another
+        // writer got to a row first, the whole allocation is retried
         for (BloodInventory item : inventoryItems) {
             if (remainingUnits <= 0) {
                 break;
             }
             
             if (item.getUnits() <= remainingUnits) {
-                // Use all units in this inventory item
-                item.setStatus("RESERVED");
+                // Reserve the whole item, provided nobody changed it since it was read
+                if (bloodInventoryRepository.updateStatusIfVersion(item.getId(), item.getVersion(), "RESERVED", now) == 0) {
+                    throw new OptimisticLockingFailureException("Blood inventory " + item.getId() + " changed during allocation");
+                }
+                reservedBefore.put(item.getId(), item.journaledState());
                 remainingUnits -= item.getUnits();
             } else {
                 // Split the inventory item
-                BloodInventory newItem = new BloodInventory();
-                newItem.setBloodGroup(item.getBloodGroup());
-                newItem.setUnits(remainingUnits);
-                newItem.setExpiryDate(item.getExpiryDate());
-                newItem.setStatus("RESERVED");
-                newItem.setHospitalId(item.getHospitalId());
-                newItem.setDonationId(item.getDonationId());
-                
-                // Update the original item
-                item.setUnits(item.getUnits() - remainingUnits);
-                
-                // Save the new item
-                bloodInventoryRepository.save(newItem);
+                if (bloodInventoryRepository.takeUnits(item.getId(), remainingUnits, now) == 0) {
+                    throw new OptimisticLockingFailureException("Blood inventory " + item.getId() + " changed during allocation");
+                }
+                splitSource = item;
+                splitPart = new BloodInventory();
+                splitPart.setBloodGroup(item.getBloodGroup());
+                splitPart.setUnits(remainingUnits);
+                splitPart.setExpiryDate(item.getExpiryDate());
+                splitPart.setStatus("RESERVED");
+                splitPart.setHospitalId(item.getHospitalId());
+                splitPart.setDonationId(item.getDonationId());
+                bloodInventoryRepository.save(splitPart);
                 
                 remainingUnits = 0;
             }
-            
-            // Update the item
-            item.setLastUpdated(LocalDateTime.now());
-            item.setUpdatedAt(LocalDateTime.now());
-            bloodInventoryRepository.save(item);
         }
         
-        return remainingUnits == 0;
+        if (remainingUnits > 0) {
+            // Stock shrank between counting and reading the rows
+            throw new OptimisticLockingFailureException("Blood inventory changed during allocation");
+        }
+        
+        // Journal from the rows as the conditional updates left them
+        for (BloodInventory item : bloodInventoryRepository.findAllById(reservedBefore.keySet())) {
+            inventoryJournalService.recordChange(reservedBefore.get(item.getId()), item);
+        }
+        if (splitSource != null) {
+            BloodInventory source = bloodInventoryRepository.findById(splitSource.getId()).orElse(splitSource);
+            inventoryJournalService.recordSplit(source, splitPart);
+        }
+        aggregateVersions.changed(Aggregate.INVENTORY);
+    }
+    
+    /**
+     * Publish a STOCK_CRITICAL event when available stock drops below the critical
+     * level, once per crossing rather than on every write below it
+     */
+    private void publishIfBecameCritical(String bloodGroup, int availableBefore, int availableAfter) {
+        if (availableBefore >= criticalUnits && availableAfter < criticalUnits) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("bloodGroup", bloodGroup);
+            payload.put("availableUnits", availableAfter);
+            payload.put("criticalUnits", criticalUnits);
+            outboxPublisher.publish(DomainEvent.STOCK_CRITICAL, null, payload);
+        }
     }
     
     /**
@@ -154,6 +294,7 @@ public class BloodInventoryServiceImpl implements BloodInventoryService {
      * @return A map containing blood inventory statistics
      */
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getBloodInventorySummary() {
         Map<String, Object> summary = new HashMap<>();
         
@@ -169,12 +310,21 @@ public class BloodInventoryServiceImpl implements BloodInventoryService {
         List<BloodInventory> expiringBlood = getExpiringBloodInventory(7);
         summary.put("expiringBloodCount", expiringBlood.size());
         
-        // Get critical levels (blood groups with less than 5 units)
+        // Get critical levels (blood groups below the critical number of units)
         Map<String, Integer> criticalLevels = availableBlood.entrySet().stream()
-            .filter(entry -> entry.getValue() < 5)
+            .filter(entry -> entry.getValue() < criticalUnits)
             .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
         summary.put("criticalLevels", criticalLevels);
         
+        // Blood groups predicted to run short soon, with days until the shortfall
+        Map<String, Integer> predictedShortfalls = new HashMap<>();
+        for (ShortfallForecast forecast : demandForecastService.getShortfallForecasts()) {
+            if (forecast.daysUntilShortfall() != null && forecast.daysUntilShortfall() <= shortfallWarningDays) {
+                predictedShortfalls.put(forecast.bloodGroup(), forecast.daysUntilShortfall());
+            }
+        }
+        summary.put("predictedShortfalls", predictedShortfalls);
+        
         return summary;
     }
     
@@ -187,42 +337,42 @@ public class BloodInventoryServiceImpl implements BloodInventoryService {
      * @return True if transfer was successful, false otherwise
      */
     @Override
+    @RetryOnConflict
     @Transactional
     public boolean transferBloodUnits(Long sourceId, Long targetId, int units) {
         Optional<BloodInventory> sourceOpt = bloodInventoryRepository.findById(sourceId);
         Optional<BloodInventory> targetOpt = bloodInventoryRepository.findById(targetId);
         
-        if (sourceOpt.isEmpty() || targetOpt.isEmpty()) {
-            return false;
-        }
-        
-        BloodInventory source = sourceOpt.get();
-        BloodInventory target = targetOpt.get();
-        
-        // Check if source has enough units
-        if (source.getUnits() < units) {
+        if (sourceOpt.isEmpty() || targetOpt.isEmpty() || sourceId.equals(targetId) || units <= 0) {
             return false;
         }
         
         // Check if blood groups match
-        if (!source.getBloodGroup().equals(target.getBloodGroup())) {
+        if (!sourceOpt.get().getBloodGroup().equals(targetOpt.get().getBloodGroup())) {
             return false;
         }
         
-        // Transfer units
-        source.setUnits(source.getUnits() - units);
-        target.setUnits(target.getUnits() + units);
-        
-        // Update timestamps
+        // Transfer units; the source update only applies if it still has enough units,
+        // so concurrent transfers cannot overdraw it or lose each other's updates.
+        // Rows are updated in id order so opposing transfers cannot deadlock.
         LocalDateTime now = LocalDateTime.now();
-        source.setUpdatedAt(now);
-        source.setLastUpdated(now);
-        target.setUpdatedAt(now);
-        target.setLastUpdated(now);
+        if (sourceId < targetId) {
+            if (bloodInventoryRepository.takeUnits(sourceId, units, now) == 0) {
+                return false;
+            }
+            bloodInventoryRepository.addUnits(targetId, units, now);
+        } else {
+            bloodInventoryRepository.addUnits(targetId, units, now);
+            if (bloodInventoryRepository.takeUnits(sourceId, units, now) == 0) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                return false;
+            }
+        }
         
-        // Save changes
-        bloodInventoryRepository.save(source);
-        bloodInventoryRepository.save(target);
+        BloodInventory source = bloodInventoryRepository.findById(sourceId).orElseThrow();
+        BloodInventory target = bloodInventoryRepository.findById(targetId).orElseThrow();
+        inventoryJournalService.recordTransfer(source, target, units);
+        aggregateVersions.changed(Aggregate.INVENTORY);
         
         return true;
     }
@@ -236,36 +386,7 @@ public class BloodInventoryServiceImpl implements BloodInventoryService {
      */
     @Override
     public boolean isCompatible(String recipientBloodGroup, String donorBloodGroup) {
-        // Blood compatibility chart
-        Map<String, List<String>> compatibilityChart = new HashMap<>();
-        
-        // O- can donate to anyone
-        compatibilityChart.put("O-", List.of("O+", "O-", "A+", "A-", "B+", "B-", "AB+", "AB-"));
-        
-        // O+ can donate to O+, A+, B+, AB+
-        compatibilityChart.put("O+", List.of("O+", "A+", "B+", "AB+"));
-        
-        // A- can donate to A+, A-, AB+, AB-
-        compatibilityChart.put("A-", List.of("A+", "A-", "AB+", "AB-"));
-        
-        // A+ can donate to A+, AB+
-        compatibilityChart.put("A+", List.of("A+", "AB+"));
-        
-        // B- can donate to B+, B-, AB+, AB-
-        compatibilityChart.put("B-", List.of("B+", "B-", "AB+", "AB-"));
-        
-        // B+ can donate to B+, AB+
-        compatibilityChart.put("B+", List.of("B+", "AB+"));
-        
-        // AB- can donate to AB+, AB-
-        compatibilityChart.put("AB-", List.of("AB+", "AB-"));
-        
-        // AB+ can donate only to AB+
-        compatibilityChart.put("AB+", List.of("AB+"));
-        
-        // Check compatibility
-        List<String> compatibleRecipients = compatibilityChart.get(donorBloodGroup);
-        return compatibleRecipients != null && compatibleRecipients.contains(recipientBloodGroup);
+        return BloodCompatibility.isCompatible(recipientBloodGroup, donorBloodGroup);
     }
     
     /**
@@ -299,7 +420,163 @@ public class BloodInventoryServiceImpl implements BloodInventoryService {
      */
     @Override
     public Optional<BloodInventory> findLatestByBloodGroup(String bloodGroup) {
-        List<BloodInventory> inventoryList = bloodInventoryRepository.findLatestByBloodGroup(bloodGroup);
-        return inventoryList.isEmpty() ? Optional.empty() : Optional.of(inventoryList.get(0));
+        return bloodInventoryRepository.findFirstByBloodGroupOrderByUpdatedAtDesc(bloodGroup);
+    }
+
+    @Override
+    public List<BloodInventory> getHospitalInventory(Long hospitalId) {
+        return bloodInventoryRepository.findByHospitalId(hospitalId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Integer> getHospitalStock(Long hospitalId) {
+        Map<String, Integer> bloodStock = new HashMap<>();
+        for (String bloodGroup : BLOOD_GROUPS) {
+            bloodStock.put(bloodGroup, 0);
+        }
+        for (BloodGroupUnits row : bloodInventoryRepository.sumUnitsByBloodGroupForHospital(hospitalId, "AVAILABLE")) {
+            bloodStock.put(row.bloodGroup(), row.units() != null ? row.units().intValue() : 0);
+        }
+        return bloodStock;
+    }
+    
+    @Override
+    public List<BloodInventory> getHospitalExpiringInventory(Long hospitalId, int days) {
+        LocalDateTime expiryDate = LocalDateTime.now().plusDays(days);
+        return bloodInventoryRepository.findByHospitalIdAndStatusAndExpiryDateBeforeOrderByExpiryDateAsc(
+                hospitalId, "AVAILABLE", expiryDate);
+    }
+    
+    @Override
+    @RetryOnConflict
+    @Transactional
+    public boolean setLatestUnits(String bloodGroup, int units) {
+        Optional<BloodInventory> latest = bloodInventoryRepository.findFirstByBloodGroupOrderByUpdatedAtDesc(bloodGroup);
+        BloodInventory inventory = latest.orElseGet(() -> {
+            BloodInventory created = new BloodInventory();
+            created.setBloodGroup(bloodGroup);
+            created.setStatus("AVAILABLE");
+            return created;
+        });
+        inventory.setUnits(units);
+        saveBloodInventory(inventory);
+        return latest.isPresent();
+    }
+
+    @Override
+    @RetryOnConflict
+    @Transactional
+    public Map<String, Object> adjustInventory(List<InventoryAdjustment> adjustments) {
+        // Merge repeated (group, hospital) pairs so each bucket is touched once
+        Map<AdjustmentKey, Integer> deltas = new LinkedHashMap<>();
+        for (InventoryAdjustment adjustment : adjustments) {
+            if (adjustment == null || !Arrays.asList(BLOOD_GROUPS).contains(adjustment.bloodGroup())) {
+                throw new IllegalArgumentException("Invalid blood group: "
+                        + (adjustment != null ? adjustment.bloodGroup() : null));
+            }
+            deltas.merge(new AdjustmentKey(adjustment.bloodGroup(), adjustment.hospitalId()),
+                    adjustment.delta(), Integer::sum);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+
+        // One read for every affected group, grouped into per-hospital buckets
+        Set<String> groups = deltas.keySet().stream().map(AdjustmentKey::bloodGroup)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        List<BloodInventory> available = groups.isEmpty()
+                ? List.of()
+                : bloodInventoryRepository.findByStatusAndBloodGroupIn("AVAILABLE", groups);
+        Map<String, Integer> stockBefore = new HashMap<>();
+        Map<AdjustmentKey, List<BloodInventory>> buckets = new HashMap<>();
+        for (BloodInventory item : available) {
+            stockBefore.merge(item.getBloodGroup(), item.getUnits(), Integer::sum);
+            buckets.computeIfAbsent(new AdjustmentKey(item.getBloodGroup(), item.getHospitalId()),
+                    key -> new ArrayList<>()).add(item);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Comparator<BloodInventory> byExpiry = Comparator.comparing(BloodInventory::getExpiryDate,
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        List<BloodInventory> changed = new ArrayList<>();
+        List<BloodInventory> created = new ArrayList<>();
+        for (Map.Entry<AdjustmentKey, Integer> entry : deltas.entrySet()) {
+            AdjustmentKey key = entry.getKey();
+            int delta = entry.getValue();
+            List<BloodInventory> rows = buckets.computeIfAbsent(key, k -> new ArrayList<>());
+            rows.sort(byExpiry);
+
+            if (delta > 0) {
+                BloodInventory target = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+                if (target == null) {
+                    target = new BloodInventory(key.bloodGroup(), 0, now.plusDays(SHELF_LIFE_DAYS));
+                    target.setHospitalId(key.hospitalId());
+                    target.setStatus("AVAILABLE");
+                    target.setCreatedAt(now);
+                    rows.add(target);
+                    created.add(target);
+                }
+                target.setUnits(target.getUnits() + delta);
+                target.setUpdatedAt(now);
+                target.setLastUpdated(now);
+                changed.add(target);
+                continue;
+            }
+
+            int remaining = -delta;
+            int bucketUnits = rows.stream().mapToInt(BloodInventory::getUnits).sum();
+            if (bucketUnits < remaining) {
+                throw new IllegalArgumentException("Only " + bucketUnits + " units of " + key.bloodGroup()
+                        + " available" + (key.hospitalId() != null ? " at hospital " + key.hospitalId() : "")
+                        + ", cannot remove " + remaining);
+            }
+            // Earliest expiry first, so the shortest-dated units leave stock first
+            for (BloodInventory item : rows) {
+                if (remaining == 0) {
+                    break;
+                }
+                int taken = Math.min(item.getUnits(), remaining);
+                if (taken == 0) {
+                    continue;
+                }
+                item.setUnits(item.getUnits() - taken);
+                item.setUpdatedAt(now);
+                item.setLastUpdated(now);
+                remaining -= taken;
+                changed.add(item);
+            }
+        }
+
+        // Ids of new rows come from the pooled generator, so the inserts and the
+        // updates to loaded rows go out as JDBC batches (with version checks) on flush
+        bloodInventoryRepository.saveAll(created);
+        bloodInventoryRepository.flush();
+        inventoryJournalService.recordChanges(changed.stream().distinct().toList());
+
+        Map<String, Integer> stock = new LinkedHashMap<>();
+        Map<String, Map<String, Integer>> levels = new LinkedHashMap<>();
+        for (String group : groups) {
+            stock.put(group, 0);
+            levels.put(group, new LinkedHashMap<>());
+        }
+        buckets.forEach((key, rows) -> {
+            int units = rows.stream().mapToInt(BloodInventory::getUnits).sum();
+            stock.merge(key.bloodGroup(), units, Integer::sum);
+            if (deltas.containsKey(key)) {
+                levels.get(key.bloodGroup()).put(
+                        key.hospitalId() != null ? String.valueOf(key.hospitalId()) : HospitalHoldingsProjection.BLOOD_BANK, units);
+            }
+        });
+        for (String group : groups) {
+            publishIfBecameCritical(group, stockBefore.getOrDefault(group, 0), stock.get(group));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("adjusted", deltas.size());
+        result.put("levels", levels);
+        result.put("stock", stock);
+        return result;
+    }
+
+    private record AdjustmentKey(String bloodGroup, Long hospitalId) {
     }
-}
\ No newline at end of file
+}
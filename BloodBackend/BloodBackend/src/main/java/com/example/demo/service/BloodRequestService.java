@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BloodRequestView;
 import com.example.demo.model.BloodRequest;
 import com.example.demo.model.Hospital;
 
@@ -24,6 +25,14 @@ public interface BloodRequestService {
      */
     Optional<BloodRequest> getBloodRequestById(Long id);
     
+    /**
+     * Get the API view of a blood request by ID, without loading the entity
+     * 
+     * @param id The ID of the blood request to retrieve
+     * @return An Optional containing the blood request view if found
+     */
+    Optional<BloodRequestView> getBloodRequestViewById(Long id);
+    
     /**
      * Get all blood requests
      * 
@@ -31,29 +40,36 @@ public interface BloodRequestService {
      */
     List<BloodRequest> getAllBloodRequests();
     
+    /**
+     * Get the API views of all blood requests, ordered by ID
+     * 
+     * @return A list of all blood request views
+     */
+    List<BloodRequestView> getAllBloodRequestViews();
+    
     /**
      * Get blood requests by blood group
      * 
      * @param bloodGroup The blood group to search for
-     * @return A list of blood requests for the given blood group
+     * @return A list of blood request views for the given blood group
      */
-    List<BloodRequest> getBloodRequestsByBloodGroup(String bloodGroup);
+    List<BloodRequestView> getBloodRequestsByBloodGroup(String bloodGroup);
     
     /**
      * Get blood requests by location
      * 
      * @param location The location to search for
-     * @return A list of blood requests from the given location
+     * @return A list of blood request views from the given location
      */
-    List<BloodRequest> getBloodRequestsByLocation(String location);
+    List<BloodRequestView> getBloodRequestsByLocation(String location);
     
     /**
      * Get blood requests by status
      * 
      * @param requestStatus The request status to search for
-     * @return A list of blood requests with the given status
+     * @return A list of blood request views with the given status
      */
-    List<BloodRequest> getBloodRequestsByStatus(String requestStatus);
+    List<BloodRequestView> getBloodRequestsByStatus(String requestStatus);
     
     /**
      * Update blood request status
@@ -75,25 +91,25 @@ public interface BloodRequestService {
      * Get blood requests by email
      * 
      * @param email The email to search for
-     * @return A list of blood requests from the given email
+     * @return A list of blood request views from the given email
      */
-    List<BloodRequest> getBloodRequestsByEmail(String email);
+    List<BloodRequestView> getBloodRequestsByEmail(String email);
     
     /**
      * Get blood requests by hospital
      * 
      * @param hospitalId The hospital ID to filter by
-     * @return A list of blood requests for the specified hospital
+     * @return A list of blood request views for the specified hospital
      */
-    List<BloodRequest> getBloodRequestsByHospital(Long hospitalId);
+    List<BloodRequestView> getBloodRequestsByHospital(Long hospitalId);
     
     /**
      * Get blood requests by priority
      * 
      * @param priority The priority to filter by
-     * @return A list of blood requests with the specified priority
+     * @return A list of blood request views with the specified priority
      */
-    List<BloodRequest> getBloodRequestsByPriority(String priority);
+    List<BloodRequestView> getBloodRequestsByPriority(String priority);
     
     /**
      * Update the units provided for a blood request
@@ -1,34 +1,64 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BloodRequestView;
 import com.example.demo.model.BloodRequest;
 import com.example.demo.model.Hospital;
+import com.example.demo.outbox.DomainEvent;
+import com.example.demo.outbox.OutboxPublisher;
 import com.example.demo.repository.BloodRequestRepository;
+import com.example.demo.search.SearchField;
+import com.example.demo.search.SearchResults;
+import com.example.demo.search.SearchType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class BloodRequestServiceImpl implements BloodRequestService {
 
     private final BloodRequestRepository bloodRequestRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final SearchService searchService;
 
     @Autowired
-    public BloodRequestServiceImpl(BloodRequestRepository bloodRequestRepository) {
+    public BloodRequestServiceImpl(BloodRequestRepository bloodRequestRepository, OutboxPublisher outboxPublisher,
+                                   SearchService searchService) {
         this.bloodRequestRepository = bloodRequestRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.searchService = searchService;
     }
 
     @Override
+    @Transactional
     public BloodRequest saveBloodRequest(BloodRequest bloodRequest) {
+        boolean isNew = bloodRequest.getId() == null;
+        
         // Set creation and update timestamps
-        if (bloodRequest.getId() == null) {
+        if (isNew) {
             bloodRequest.setCreatedAt(LocalDateTime.now());
         }
         bloodRequest.setUpdatedAt(LocalDateTime.now());
         
-        return bloodRequestRepository.save(bloodRequest);
+        BloodRequest savedRequest = bloodRequestRepository.save(bloodRequest);
+        
+        if (isNew) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("requestId", savedRequest.getId());
+            payload.put("bloodGroup", savedRequest.getBloodGroup());
+            payload.put("unitsNeeded", savedRequest.getUnitsNeeded());
+            payload.put("priority", savedRequest.getPriority());
+            payload.put("hospitalId", savedRequest.getHospital() != null ? savedRequest.getHospital().getId() : null);
+            payload.put("requiredBy", savedRequest.getRequiredBy());
+            outboxPublisher.publish(DomainEvent.REQUEST_CREATED, savedRequest.getId(), payload);
+        }
+        return savedRequest;
     }
 
     @Override
@@ -37,23 +67,41 @@ public class BloodRequestServiceImpl implements BloodRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Optional<BloodRequestView> getBloodRequestViewById(Long id) {
+        return bloodRequestRepository.findViewById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<BloodRequest> getAllBloodRequests() {
         return bloodRequestRepository.findAll();
     }
 
     @Override
-    public List<BloodRequest> getBloodRequestsByBloodGroup(String bloodGroup) {
-        return bloodRequestRepository.findByBloodGroup(bloodGroup);
+    @Transactional(readOnly = true)
+    public List<BloodRequestView> getAllBloodRequestViews() {
+        return bloodRequestRepository.findAllViews();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BloodRequestView> getBloodRequestsByBloodGroup(String bloodGroup) {
+        return bloodRequestRepository.findViewsByBloodGroup(bloodGroup);
     }
 
     @Override
-    public List<BloodRequest> getBloodRequestsByLocation(String location) {
-        return bloodRequestRepository.findByLocationContainingIgnoreCase(location);
+    @Transactional(readOnly = true)
+    public List<BloodRequestView> getBloodRequestsByLocation(String location) {
+        return searchService.matchingIds(SearchType.REQUEST, Set.of(SearchField.LOCATION), location, false)
+                .map(ids -> SearchResults.loadInOrder(ids, bloodRequestRepository::findViewsByIdIn, BloodRequestView::id))
+                .orElseGet(() -> bloodRequestRepository.findViewsByLocationContaining(location));
     }
 
     @Override
-    public List<BloodRequest> getBloodRequestsByStatus(String requestStatus) {
-        return bloodRequestRepository.findByRequestStatus(requestStatus);
+    @Transactional(readOnly = true)
+    public List<BloodRequestView> getBloodRequestsByStatus(String requestStatus) {
+        return bloodRequestRepository.findViewsByRequestStatus(requestStatus);
     }
 
     @Override
@@ -76,18 +124,21 @@ public class BloodRequestServiceImpl implements BloodRequestService {
     }
 
     @Override
-    public List<BloodRequest> getBloodRequestsByEmail(String email) {
-        return bloodRequestRepository.findByEmail(email);
+    @Transactional(readOnly = true)
+    public List<BloodRequestView> getBloodRequestsByEmail(String email) {
+        return bloodRequestRepository.findViewsByEmail(email);
     }
     
     @Override
-    public List<BloodRequest> getBloodRequestsByHospital(Long hospitalId) {
-        return bloodRequestRepository.findByHospital_Id(hospitalId);
+    @Transactional(readOnly = true)
+    public List<BloodRequestView> getBloodRequestsByHospital(Long hospitalId) {
+        return bloodRequestRepository.findViewsByHospitalId(hospitalId);
     }
     
     @Override
-    public List<BloodRequest> getBloodRequestsByPriority(String priority) {
-        return bloodRequestRepository.findByPriority(priority);
+    @Transactional(readOnly = true)
+    public List<BloodRequestView> getBloodRequestsByPriority(String priority) {
+        return bloodRequestRepository.findViewsByPriority(priority);
     }
     
     @Override
@@ -113,6 +164,7 @@ public class BloodRequestServiceImpl implements BloodRequestService {
     }
     
     @Override
+    @Transactional
     public BloodRequest createHospitalRequest(BloodRequest bloodRequest, Hospital hospital) {
         bloodRequest.setHospital(hospital);
         
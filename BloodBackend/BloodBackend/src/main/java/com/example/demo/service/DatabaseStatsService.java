@@ -1,6 +1,10 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.DonationTrendPoint;
 import com.example.demo.dto.StatsResponseDto;
+
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -22,6 +26,17 @@ public interface DatabaseStatsService {
      */
     Map<String, Object> getDonationStats();
     
+    /**
+     * Get donation counts and volumes over a date range, read from the daily rollups
+     * 
+     * @param from First day of the range (inclusive)
+     * @param to Last day of the range (inclusive)
+     * @param granularity "day" or "month"
+     * @param bloodGroup Blood group to restrict to, or null for all
+     * @return One point per day or month that had donations, in date order
+     */
+    List<DonationTrendPoint> getDonationTrends(LocalDate from, LocalDate to, String granularity, String bloodGroup);
+    
     /**
      * Get statistics about blood inventory
      * 
@@ -37,7 +52,8 @@ public interface DatabaseStatsService {
     Map<String, Object> getRequestStats();
     
     /**
-     * Get overall system statistics
+     * Get overall system statistics. Values whose query timed out or failed are
+     * null, and the queries are listed under incompleteQueries.
      * 
      * @return Map containing overall system statistics
      */
@@ -58,7 +74,8 @@ public interface DatabaseStatsService {
     Map<String, Integer> getDonorLocationDistribution();
     
     /**
-     * Get comprehensive system statistics in DTO format
+     * Get comprehensive system statistics in DTO format. Values whose query timed
+     * out or failed are null, and the queries are listed in incompleteQueries.
      *
      * @return StatsResponseDto containing detailed system statistics
      */
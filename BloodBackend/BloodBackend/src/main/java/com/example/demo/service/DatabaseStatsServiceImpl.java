@@ -1,13 +1,19 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BloodGroupUnits;
+import com.example.demo.dto.DonationRollupTotal;
+import com.example.demo.dto.DonationTrendPoint;
 import com.example.demo.dto.StatsResponseDto;
+import com.example.demo.fanout.QueryFanOut;
 import com.example.demo.model.*;
 import com.example.demo.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -15,6 +21,7 @@ import java.util.stream.Collectors;
  * Implementation of DatabaseStatsService
  */
 @Service
+@Transactional(readOnly = true)
 public class DatabaseStatsServiceImpl implements DatabaseStatsService {
 
     private final DonorRepository donorRepository;
@@ -24,6 +31,9 @@ public class DatabaseStatsServiceImpl implements DatabaseStatsService {
     private final DonationAppointmentRepository appointmentRepository;
     private final EmergencyNotificationRepository notificationRepository;
     private final HospitalRepository hospitalRepository;
+    private final DonationDailyRollupRepository rollupRepository;
+    private final DonorIndexService donorIndexService;
+    private final QueryFanOut queryFanOut;
     
     @Autowired
     public DatabaseStatsServiceImpl(
@@ -33,7 +43,10 @@ public class DatabaseStatsServiceImpl implements DatabaseStatsService {
             BloodRequestRepository requestRepository,
             DonationAppointmentRepository appointmentRepository,
             EmergencyNotificationRepository notificationRepository,
-            HospitalRepository hospitalRepository) {
+            HospitalRepository hospitalRepository,
+            DonationDailyRollupRepository rollupRepository,
+            DonorIndexService donorIndexService,
+            QueryFanOut queryFanOut) {
         this.donorRepository = donorRepository;
         this.donationRepository = donationRepository;
         this.inventoryRepository = inventoryRepository;
@@ -41,10 +54,21 @@ public class DatabaseStatsServiceImpl implements DatabaseStatsService {
         this.appointmentRepository = appointmentRepository;
         this.notificationRepository = notificationRepository;
         this.hospitalRepository = hospitalRepository;
+        this.rollupRepository = rollupRepository;
+        this.donorIndexService = donorIndexService;
+        this.queryFanOut = queryFanOut;
     }
     
     @Override
     public Map<String, Object> getDonorStats() {
+        if (donorIndexService.isReady()) {
+            // Counts are bitmap cardinalities; no donor rows are read
+            Map<String, Object> stats = new HashMap<>(donorIndexService.donorSummary());
+            stats.put("donorsByBloodGroup", donorIndexService.countByBloodGroup());
+            stats.put("donorsByLocation", donorIndexService.countByLocation());
+            return stats;
+        }
+        
         Map<String, Object> stats = new HashMap<>();
         List<Donor> donors = donorRepository.findAll();
         
@@ -78,61 +102,73 @@ public class DatabaseStatsServiceImpl implements DatabaseStatsService {
     @Override
     public Map<String, Object> getDonationStats() {
         Map<String, Object> stats = new HashMap<>();
-        List<BloodDonation> donations = donationRepository.findAll();
         
-        stats.put("totalDonations", donations.size());
+        // Read from the daily rollups instead of the donations table
+        List<DonationRollupTotal> byBloodGroup = rollupRepository.sumByBloodGroup();
+        long totalDonations = byBloodGroup.stream().mapToLong(DonationRollupTotal::donations).sum();
+        long totalVolume = byBloodGroup.stream().mapToLong(DonationRollupTotal::volumeMl).sum();
+        
+        stats.put("totalDonations", totalDonations);
         
         // Donations by blood group
-        Map<String, Long> donationsByBloodGroup = donations.stream()
-                .collect(Collectors.groupingBy(BloodDonation::getBloodGroup, Collectors.counting()));
+        Map<String, Long> donationsByBloodGroup = byBloodGroup.stream()
+                .collect(Collectors.toMap(DonationRollupTotal::key, DonationRollupTotal::donations));
         stats.put("donationsByBloodGroup", donationsByBloodGroup);
         
         // Donations by health status
-        Map<String, Long> donationsByHealthStatus = donations.stream()
-                .collect(Collectors.groupingBy(
-                    d -> d.getHealthStatus() != null ? d.getHealthStatus() : "UNKNOWN",
-                    Collectors.counting()
-                ));
+        Map<String, Long> donationsByHealthStatus = rollupRepository.sumByHealthStatus().stream()
+                .collect(Collectors.toMap(DonationRollupTotal::key, DonationRollupTotal::donations));
         stats.put("donationsByHealthStatus", donationsByHealthStatus);
         
-        // Recent donations (last 30 days)
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        long recentDonations = donations.stream()
-                .filter(d -> d.getDonationDate().isAfter(thirtyDaysAgo))
-                .count();
+        // Recent donations (last 30 days, at day granularity)
+        LocalDate today = LocalDate.now();
+        long recentDonations = rollupRepository.findDailyTrend(today.minusDays(30), today).stream()
+                .mapToLong(DonationTrendPoint::donations)
+                .sum();
         stats.put("recentDonations", recentDonations);
         
         // Total blood volume donated (in ml)
-        int totalVolume = donations.stream()
-                .mapToInt(BloodDonation::getQuantityMl)
-                .sum();
         stats.put("totalBloodVolumeMl", totalVolume);
         
         // Average donation volume
-        double avgVolume = donations.stream()
-                .mapToInt(BloodDonation::getQuantityMl)
-                .average()
-                .orElse(0);
+        double avgVolume = totalDonations > 0 ? (double) totalVolume / totalDonations : 0;
         stats.put("averageDonationVolumeMl", avgVolume);
         
         // Monthly donation trends (last 6 months)
+        LocalDate startOfFirstMonth = today.minusMonths(5).withDayOfMonth(1);
         Map<String, Long> monthlyTrends = new HashMap<>();
         for (int i = 5; i >= 0; i--) {
-            LocalDateTime startOfMonth = LocalDateTime.now().minusMonths(i).withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
-            LocalDateTime startOfNextMonth = startOfMonth.plusMonths(1);
-            
-            String monthYear = startOfMonth.getMonth() + " " + startOfMonth.getYear();
-            long count = donations.stream()
-                    .filter(d -> d.getDonationDate().isAfter(startOfMonth) && d.getDonationDate().isBefore(startOfNextMonth))
-                    .count();
-            
-            monthlyTrends.put(monthYear, count);
+            LocalDate startOfMonth = today.minusMonths(i).withDayOfMonth(1);
+            monthlyTrends.put(startOfMonth.getMonth() + " " + startOfMonth.getYear(), 0L);
+        }
+        for (DonationTrendPoint month : getDonationTrends(startOfFirstMonth, today, "month", null)) {
+            monthlyTrends.put(month.period().getMonth() + " " + month.period().getYear(), month.donations());
         }
         stats.put("monthlyTrends", monthlyTrends);
         
         return stats;
     }
     
+    @Override
+    public List<DonationTrendPoint> getDonationTrends(LocalDate from, LocalDate to, String granularity, String bloodGroup) {
+        List<DonationTrendPoint> daily = bloodGroup == null
+                ? rollupRepository.findDailyTrend(from, to)
+                : rollupRepository.findDailyTrendByBloodGroup(from, to, bloodGroup);
+        if (!"month".equalsIgnoreCase(granularity)) {
+            return daily;
+        }
+        
+        Map<LocalDate, long[]> months = new TreeMap<>();
+        for (DonationTrendPoint day : daily) {
+            long[] totals = months.computeIfAbsent(day.period().withDayOfMonth(1), month -> new long[2]);
+            totals[0] += day.donations();
+            totals[1] += day.volumeMl();
+        }
+        return months.entrySet().stream()
+                .map(month -> new DonationTrendPoint(month.getKey(), month.getValue()[0], month.getValue()[1]))
+                .collect(Collectors.toList());
+    }
+    
     @Override
     public Map<String, Object> getInventoryStats() {
         Map<String, Object> stats = new HashMap<>();
@@ -220,53 +256,33 @@ public class DatabaseStatsServiceImpl implements DatabaseStatsService {
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> getOverallStats() {
+        Dashboard dashboard = loadDashboard();
         Map<String, Object> stats = new HashMap<>();
         
         // Include high level stats from other methods
-        stats.put("totalDonors", donorRepository.count());
-        stats.put("totalDonations", donationRepository.count());
-        stats.put("totalBloodRequests", requestRepository.count());
-        stats.put("totalHospitals", hospitalRepository.count());
-        stats.put("totalAppointments", appointmentRepository.count());
-        
-        // Get active emergency notifications
-        LocalDateTime now = LocalDateTime.now();
-        long activeNotifications = notificationRepository.findActiveNotifications(now).size();
-        stats.put("activeEmergencyNotifications", activeNotifications);
-        
-        // Calculate blood inventory levels
-        Map<String, Integer> inventoryLevels = new HashMap<>();
-        inventoryRepository.findAll().stream()
-                .filter(i -> "AVAILABLE".equals(i.getStatus()))
-                .forEach(i -> {
-                    String bloodGroup = i.getBloodGroup();
-                    inventoryLevels.put(bloodGroup, 
-                            inventoryLevels.getOrDefault(bloodGroup, 0) + i.getUnits());
-                });
-        
-        // Check for critical inventory levels (less than 3 units)
-        List<String> criticalGroups = new ArrayList<>();
-        inventoryLevels.forEach((group, units) -> {
-            if (units < 3) {
-                criticalGroups.add(group);
-            }
-        });
-        stats.put("criticalBloodGroups", criticalGroups);
-        
-        // Get scheduled appointments for next week
-        LocalDateTime nextWeek = LocalDateTime.now().plusDays(7);
-        long upcomingAppointments = appointmentRepository.findAll().stream()
-                .filter(a -> "SCHEDULED".equals(a.getStatus()))
-                .filter(a -> a.getAppointmentDate().isBefore(nextWeek))
-                .count();
-        stats.put("upcomingAppointments", upcomingAppointments);
+        stats.put("totalDonors", dashboard.donors().get());
+        stats.put("totalDonations", dashboard.donations().get());
+        stats.put("totalBloodRequests", dashboard.requests().get());
+        stats.put("totalHospitals", dashboard.hospitals().get());
+        stats.put("totalAppointments", dashboard.appointments().get());
+        stats.put("activeEmergencyNotifications", dashboard.activeNotifications().get());
+        stats.put("criticalBloodGroups", criticalBloodGroups(dashboard.availableUnits().get()));
+        stats.put("upcomingAppointments", dashboard.upcomingAppointments().get());
+        
+        // Queries that timed out or failed are reported with null values
+        stats.put("queryTimingsMs", dashboard.report().timingsMs());
+        stats.put("incompleteQueries", dashboard.report().incomplete());
         
         return stats;
     }
     
     @Override
     public Map<String, Integer> getBloodGroupDistribution() {
+        if (donorIndexService.isReady()) {
+            return donorIndexService.countByBloodGroup();
+        }
         Map<String, Integer> distribution = new HashMap<>();
         donorRepository.findAll().forEach(donor -> {
             String bloodGroup = donor.getBloodGroup();
@@ -277,6 +293,9 @@ public class DatabaseStatsServiceImpl implements DatabaseStatsService {
     
     @Override
     public Map<String, Integer> getDonorLocationDistribution() {
+        if (donorIndexService.isReady()) {
+            return donorIndexService.countByLocation();
+        }
         Map<String, Integer> distribution = new HashMap<>();
         donorRepository.findAll().forEach(donor -> {
             String location = donor.getLocation();
@@ -286,56 +305,93 @@ public class DatabaseStatsServiceImpl implements DatabaseStatsService {
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public StatsResponseDto getSystemStats() {
+        Dashboard dashboard = loadDashboard();
         StatsResponseDto statsDto = new StatsResponseDto();
         
         // Get basic counts
-        statsDto.setTotalDonors((int) donorRepository.count());
-        statsDto.setTotalDonations((int) donationRepository.count());
-        statsDto.setTotalBloodRequests((int) requestRepository.count());
-        statsDto.setTotalHospitals((int) hospitalRepository.count());
-        statsDto.setTotalAppointments((int) appointmentRepository.count());
+        statsDto.setTotalDonors(asInteger(dashboard.donors().get()));
+        statsDto.setTotalDonations(asInteger(dashboard.donations().get()));
+        statsDto.setTotalBloodRequests(asInteger(dashboard.requests().get()));
+        statsDto.setTotalHospitals(asInteger(dashboard.hospitals().get()));
+        statsDto.setTotalAppointments(asInteger(dashboard.appointments().get()));
         
         // Calculate inventory total
-        int inventoryTotal = 0;
-        for (BloodInventory item : inventoryRepository.findAll()) {
-            if ("AVAILABLE".equals(item.getStatus())) {
-                inventoryTotal += item.getUnits();
-            }
-        }
-        statsDto.setTotalInventory(inventoryTotal);
+        List<BloodGroupUnits> availableUnits = dashboard.availableUnits().get();
+        statsDto.setTotalInventory(availableUnits == null ? null
+                : availableUnits.stream().mapToInt(row -> asInt(row.units())).sum());
         
-        // Get active emergency notifications
-        LocalDateTime now = LocalDateTime.now();
-        long activeNotifications = notificationRepository.findActiveNotifications(now).size();
-        statsDto.setActiveEmergencyNotifications((int) activeNotifications);
+        statsDto.setActiveEmergencyNotifications(asInteger(dashboard.activeNotifications().get()));
+        statsDto.setCriticalBloodGroups(criticalBloodGroups(availableUnits));
+        statsDto.setUpcomingAppointments(asInteger(dashboard.upcomingAppointments().get()));
         
-        // Calculate critical blood groups (less than 3 units)
-        Map<String, Integer> inventoryLevels = new HashMap<>();
-        inventoryRepository.findAll().stream()
-                .filter(i -> "AVAILABLE".equals(i.getStatus()))
-                .forEach(i -> {
-                    String bloodGroup = i.getBloodGroup();
-                    inventoryLevels.put(bloodGroup, 
-                            inventoryLevels.getOrDefault(bloodGroup, 0) + i.getUnits());
-                });
+        // Values of queries that timed out or failed are null
+        statsDto.setQueryTimingsMs(dashboard.report().timingsMs());
+        statsDto.setIncompleteQueries(dashboard.report().incomplete());
         
+        return statsDto;
+    }
+    
+    /**
+     * The queries behind the overview, run in parallel: the response takes about
+     * as long as the slowest of them. A query that times out or fails leaves its
+     * value null (see {@link QueryFanOut}).
+     */
+    private record Dashboard(
+            QueryFanOut.Part<Long> donors,
+            QueryFanOut.Part<Long> donations,
+            QueryFanOut.Part<Long> requests,
+            QueryFanOut.Part<Long> hospitals,
+            QueryFanOut.Part<Long> appointments,
+            QueryFanOut.Part<Long> activeNotifications,
+            QueryFanOut.Part<List<BloodGroupUnits>> availableUnits,
+            QueryFanOut.Part<Long> upcomingAppointments,
+            QueryFanOut.Report report) {
+    }
+    
+    private Dashboard loadDashboard() {
+        LocalDateTime now = LocalDateTime.now();
+        QueryFanOut.Fork fork = queryFanOut.fork();
+        QueryFanOut.Part<Long> donors = fork.add("donors", donorRepository::count, null);
+        QueryFanOut.Part<Long> donations = fork.add("donations", donationRepository::count, null);
+        QueryFanOut.Part<Long> requests = fork.add("requests", requestRepository::count, null);
+        QueryFanOut.Part<Long> hospitals = fork.add("hospitals", hospitalRepository::count, null);
+        QueryFanOut.Part<Long> appointments = fork.add("appointments", appointmentRepository::count, null);
+        QueryFanOut.Part<Long> activeNotifications = fork.add("activeNotifications",
+                () -> notificationRepository.countActiveNotifications(now), null);
+        // Summed in the database rather than by loading every inventory row
+        QueryFanOut.Part<List<BloodGroupUnits>> availableUnits = fork.add("availableUnits",
+                () -> inventoryRepository.sumUnitsByBloodGroup("AVAILABLE"), null);
+        // Scheduled appointments for next week (and any overdue ones still scheduled)
+        QueryFanOut.Part<Long> upcomingAppointments = fork.add("upcomingAppointments",
+                () -> appointmentRepository.countByStatusAndAppointmentDateBefore("SCHEDULED", now.plusDays(7)), null);
+        QueryFanOut.Report report = fork.join();
+        return new Dashboard(donors, donations, requests, hospitals, appointments, activeNotifications,
+                availableUnits, upcomingAppointments, report);
+    }
+    
+    /**
+     * Blood groups with less than 3 available units, or null when the units are unknown
+     */
+    private static List<String> criticalBloodGroups(List<BloodGroupUnits> availableUnits) {
+        if (availableUnits == null) {
+            return null;
+        }
         List<String> criticalGroups = new ArrayList<>();
-        inventoryLevels.forEach((group, units) -> {
-            if (units < 3) {
-                criticalGroups.add(group);
+        for (BloodGroupUnits row : availableUnits) {
+            if (asInt(row.units()) < 3) {
+                criticalGroups.add(row.bloodGroup());
             }
-        });
-        statsDto.setCriticalBloodGroups(criticalGroups);
-        
-        // Get scheduled appointments for next week
-        LocalDateTime nextWeek = LocalDateTime.now().plusDays(7);
-        long upcomingAppointments = appointmentRepository.findAll().stream()
-                .filter(a -> "SCHEDULED".equals(a.getStatus()))
-                .filter(a -> a.getAppointmentDate().isBefore(nextWeek))
-                .count();
-        statsDto.setUpcomingAppointments((int) upcomingAppointments);
-        
-        return statsDto;
+        }
+        return criticalGroups;
+    }
+    
+    private static int asInt(Long value) {
+        return value != null ? value.intValue() : 0;
+    }
+    
+    private static Integer asInteger(Long value) {
+        return value != null ? value.intValue() : null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ShortfallForecast;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forecasts daily demand (requested units) and supply (donated units) per blood
+ * group and predicts when available stock will run short
+ */
+public interface DemandForecastService {
+
+    /**
+     * Fold the days completed since the last refresh into the models, refit models
+     * that are due, and publish new forecasts
+     */
+    void refreshForecasts();
+
+    /**
+     * Get the predicted shortfall of every blood group, based on current available
+     * stock and the latest published forecasts
+     *
+     * @return One entry per blood group
+     */
+    List<ShortfallForecast> getShortfallForecasts();
+
+    /**
+     * Get the shortfall forecasts together with the forecast horizon, threshold and
+     * the last day the models have seen
+     *
+     * @return Map containing the forecasts and model metadata
+     */
+    Map<String, Object> getForecastReport();
+}
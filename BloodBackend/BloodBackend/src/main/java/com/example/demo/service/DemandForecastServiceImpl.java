@@ -0,0 +1,314 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BloodGroupUnits;
+import com.example.demo.dto.DailyGroupTotal;
+import com.example.demo.dto.ShortfallForecast;
+import com.example.demo.forecast.HoltWintersModel;
+import com.example.demo.repository.BloodInventoryRepository;
+import com.example.demo.repository.BloodRequestRepository;
+import com.example.demo.repository.DonationDailyRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Demand is the units requested per day (blood_requests), supply the units donated
+ * per day by donors in NORMAL health (donation_daily_rollups). Each series is
+ * modelled with weekly Holt-Winters smoothing.
+ *
+ * Models are advanced one day at a time as days complete, and refitted from a
+ * sliding window every {@code bloodbank.forecast.refit-interval-days}. Memory per
+ * blood group is bounded by the window length, independent of how many requests
+ * and donations the history contains; history is read from the database as daily
+ * aggregates in chunks.
+ */
+@Service
+public class DemandForecastServiceImpl implements DemandForecastService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DemandForecastServiceImpl.class);
+
+    private static final String[] BLOOD_GROUPS = {"A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-"};
+    private static final int SEASON_LENGTH = 7;
+    private static final int CHUNK_DAYS = 90;
+    // Standard blood unit, as used when donations are added to the inventory
+    private static final double ML_PER_UNIT = 450.0;
+
+    private final BloodRequestRepository bloodRequestRepository;
+    private final DonationDailyRollupRepository rollupRepository;
+    private final BloodInventoryRepository bloodInventoryRepository;
+
+    // Only touched while holding refreshLock
+    private final Map<String, GroupModels> models = new HashMap<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private LocalDate foldedThrough;
+
+    private volatile Published published = new Published(null, Map.of());
+
+    @Value("${bloodbank.forecast.history-days:730}")
+    private int historyDays;
+
+    @Value("${bloodbank.forecast.fit-window-days:182}")
+    private int fitWindowDays;
+
+    @Value("${bloodbank.forecast.refit-interval-days:7}")
+    private int refitIntervalDays;
+
+    @Value("${bloodbank.forecast.horizon-days:60}")
+    private int horizonDays;
+
+    @Value("${bloodbank.forecast.shortfall-threshold-units:0}")
+    private int shortfallThresholdUnits;
+
+    @Autowired
+    public DemandForecastServiceImpl(BloodRequestRepository bloodRequestRepository,
+                                     DonationDailyRollupRepository rollupRepository,
+                                     BloodInventoryRepository bloodInventoryRepository) {
+        this.bloodRequestRepository = bloodRequestRepository;
+        this.rollupRepository = rollupRepository;
+        this.bloodInventoryRepository = bloodInventoryRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Scheduled(initialDelayString = "${bloodbank.forecast.initial-delay-ms:10000}",
+            fixedDelayString = "${bloodbank.forecast.refresh-interval-ms:3600000}")
+    public void refreshForecasts() {
+        if (!refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            LocalDate lastCompleteDay = LocalDate.now().minusDays(1);
+            if (foldedThrough != null && !foldedThrough.isBefore(lastCompleteDay)) {
+                return;
+            }
+
+            long started = System.nanoTime();
+            LocalDate start = foldedThrough != null ? foldedThrough.plusDays(1) : firstDayToLoad(lastCompleteDay);
+            for (LocalDate chunkStart = start; !chunkStart.isAfter(lastCompleteDay); chunkStart = chunkStart.plusDays(CHUNK_DAYS)) {
+                LocalDate chunkEnd = chunkStart.plusDays(CHUNK_DAYS - 1);
+                if (chunkEnd.isAfter(lastCompleteDay)) {
+                    chunkEnd = lastCompleteDay;
+                }
+                foldChunk(chunkStart, chunkEnd);
+            }
+            foldedThrough = lastCompleteDay;
+
+            int refitted = 0;
+            Map<String, double[][]> forecasts = new HashMap<>();
+            for (String bloodGroup : BLOOD_GROUPS) {
+                GroupModels group = models.computeIfAbsent(bloodGroup, key -> new GroupModels(fitWindowDays));
+                if (group.refitDue(refitIntervalDays)) {
+                    group.refit();
+                    refitted++;
+                }
+                forecasts.put(bloodGroup, group.forecast(horizonDays));
+            }
+            published = new Published(foldedThrough, forecasts);
+
+            logger.info("Forecasts refreshed through {} ({} days folded, {} groups refitted) in {} ms",
+                    foldedThrough, ChronoUnit.DAYS.between(start, lastCompleteDay) + 1, refitted,
+                    (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * First refresh: start at the earliest data, but no further back than history-days
+     */
+    private LocalDate firstDayToLoad(LocalDate lastCompleteDay) {
+        LocalDate limit = lastCompleteDay.minusDays(historyDays - 1);
+        LocalDateTime earliestRequest = bloodRequestRepository.findEarliestCreatedAt();
+        LocalDate earliestRollup = rollupRepository.findEarliestRollupDate();
+
+        LocalDate earliest = lastCompleteDay;
+        if (earliestRequest != null && earliestRequest.toLocalDate().isBefore(earliest)) {
+            earliest = earliestRequest.toLocalDate();
+        }
+        if (earliestRollup != null && earliestRollup.isBefore(earliest)) {
+            earliest = earliestRollup;
+        }
+        return earliest.isBefore(limit) ? limit : earliest;
+    }
+
+    private void foldChunk(LocalDate from, LocalDate to) {
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        Map<String, double[]> demand = new HashMap<>();
+        Map<String, double[]> supply = new HashMap<>();
+
+        for (DailyGroupTotal total : bloodRequestRepository.sumUnitsNeededByDay(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            addToDay(demand, total, from, days, total.total());
+        }
+        for (DailyGroupTotal total : rollupRepository.sumVolumeByDay("NORMAL", from, to)) {
+            addToDay(supply, total, from, days, total.total() / ML_PER_UNIT);
+        }
+
+        double[] none = new double[days];
+        for (String bloodGroup : BLOOD_GROUPS) {
+            GroupModels group = models.computeIfAbsent(bloodGroup, key -> new GroupModels(fitWindowDays));
+            double[] groupDemand = demand.getOrDefault(bloodGroup, none);
+            double[] groupSupply = supply.getOrDefault(bloodGroup, none);
+            for (int day = 0; day < days; day++) {
+                group.add(groupDemand[day], groupSupply[day]);
+            }
+        }
+    }
+
+    private void addToDay(Map<String, double[]> series, DailyGroupTotal total, LocalDate from, int days, double value) {
+        if (total.bloodGroup() == null || total.total() == null) {
+            return;
+        }
+        int day = (int) ChronoUnit.DAYS.between(from, total.day());
+        if (day >= 0 && day < days) {
+            series.computeIfAbsent(total.bloodGroup(), key -> new double[days])[day] += value;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ShortfallForecast> getShortfallForecasts() {
+        Published current = published;
+        Map<String, Integer> stock = new HashMap<>();
+        for (BloodGroupUnits units : bloodInventoryRepository.sumUnitsByBloodGroup("AVAILABLE")) {
+            stock.put(units.bloodGroup(), units.units() != null ? units.units().intValue() : 0);
+        }
+
+        LocalDate today = LocalDate.now();
+        List<ShortfallForecast> result = new ArrayList<>();
+        for (String bloodGroup : BLOOD_GROUPS) {
+            int currentUnits = stock.getOrDefault(bloodGroup, 0);
+            double[][] forecast = current.forecasts().get(bloodGroup);
+            if (forecast == null) {
+                result.add(new ShortfallForecast(bloodGroup, currentUnits, 0, 0, null, null));
+                continue;
+            }
+
+            // forecast[0][0] and forecast[1][0] are today's demand and supply
+            double[] demand = forecast[0];
+            double[] supply = forecast[1];
+            Integer daysUntilShortfall = null;
+            double projected = currentUnits;
+            for (int day = 0; day < demand.length; day++) {
+                projected += supply[day] - demand[day];
+                if (projected < shortfallThresholdUnits) {
+                    daysUntilShortfall = day;
+                    break;
+                }
+            }
+
+            result.add(new ShortfallForecast(bloodGroup, currentUnits,
+                    round(average(demand, SEASON_LENGTH)), round(average(supply, SEASON_LENGTH)),
+                    daysUntilShortfall, daysUntilShortfall != null ? today.plusDays(daysUntilShortfall) : null));
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getForecastReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("fittedThrough", published.fittedThrough());
+        report.put("horizonDays", horizonDays);
+        report.put("shortfallThresholdUnits", shortfallThresholdUnits);
+        report.put("forecasts", getShortfallForecasts());
+        return report;
+    }
+
+    private static double average(double[] values, int count) {
+        int n = Math.min(count, values.length);
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += values[i];
+        }
+        return n == 0 ? 0 : sum / n;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private record Published(LocalDate fittedThrough, Map<String, double[][]> forecasts) {
+    }
+
+    /**
+     * Demand and supply models of one blood group, with the last fit-window days of
+     * both series kept in ring buffers for refitting
+     */
+    private static final class GroupModels {
+        private final double[] demandWindow;
+        private final double[] supplyWindow;
+        private int next;
+        private int size;
+        private int daysSinceFit;
+        private boolean fitted;
+        private HoltWintersModel demandModel = defaultModel();
+        private HoltWintersModel supplyModel = defaultModel();
+
+        GroupModels(int windowDays) {
+            this.demandWindow = new double[windowDays];
+            this.supplyWindow = new double[windowDays];
+        }
+
+        private static HoltWintersModel defaultModel() {
+            return new HoltWintersModel(SEASON_LENGTH, HoltWintersModel.DEFAULT_ALPHA,
+                    HoltWintersModel.DEFAULT_BETA, HoltWintersModel.DEFAULT_GAMMA);
+        }
+
+        void add(double demand, double supply) {
+            demandWindow[next] = demand;
+            supplyWindow[next] = supply;
+            next = (next + 1) % demandWindow.length;
+            size = Math.min(size + 1, demandWindow.length);
+            daysSinceFit++;
+            demandModel.update(demand);
+            supplyModel.update(supply);
+        }
+
+        boolean refitDue(int intervalDays) {
+            return !fitted || daysSinceFit >= intervalDays;
+        }
+
+        void refit() {
+            demandModel = HoltWintersModel.fit(ordered(demandWindow), SEASON_LENGTH);
+            supplyModel = HoltWintersModel.fit(ordered(supplyWindow), SEASON_LENGTH);
+            daysSinceFit = 0;
+            fitted = true;
+        }
+
+        private double[] ordered(double[] window) {
+            double[] series = new double[size];
+            int start = (next - size + window.length) % window.length;
+            for (int i = 0; i < size; i++) {
+                series[i] = window[(start + i) % window.length];
+            }
+            return series;
+        }
+
+        /**
+         * @return Demand forecasts in [0] and supply forecasts in [1], starting with today
+         */
+        double[][] forecast(int horizonDays) {
+            double[][] forecast = new double[2][horizonDays];
+            for (int day = 0; day < horizonDays; day++) {
+                forecast[0][day] = demandModel.forecast(day + 1);
+                forecast[1][day] = supplyModel.forecast(day + 1);
+            }
+            return forecast;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.example.demo.model.Donor;
 import com.example.demo.repository.DonationAppointmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -43,31 +44,37 @@ public class DonationAppointmentServiceImpl implements DonationAppointmentServic
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<DonationAppointment> getAllAppointments() {
         return appointmentRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<DonationAppointment> getAppointmentsByDonorId(Long donorId) {
         return appointmentRepository.findByDonorId(donorId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<DonationAppointment> getAppointmentsByStatus(String status) {
         return appointmentRepository.findByStatus(status);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<DonationAppointment> getAppointmentsByLocation(String location) {
         return appointmentRepository.findByLocationContainingIgnoreCase(location);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<DonationAppointment> getAppointmentsInDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         return appointmentRepository.findByAppointmentDateBetween(startDate, endDate);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<DonationAppointment> getAppointmentsForDay(LocalDateTime date) {
         return appointmentRepository.findByAppointmentDateDay(date);
     }
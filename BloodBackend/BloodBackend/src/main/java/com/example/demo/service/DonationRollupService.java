@@ -0,0 +1,31 @@
+package com.example.demo.service;
+
+import com.example.demo.model.BloodDonation;
+
+/**
+ * Maintains the donation_daily_rollups table used by donation stats and trends
+ */
+public interface DonationRollupService {
+
+    /**
+     * Apply a saved (new or updated) donation to the rollups. Must run in the
+     * transaction that saved the donation.
+     *
+     * @param donation The donation as just saved
+     */
+    void recordDonationSaved(BloodDonation donation);
+
+    /**
+     * Remove a donation that is about to be deleted from the rollups
+     *
+     * @param donation The donation being deleted
+     */
+    void recordDonationDeleted(BloodDonation donation);
+
+    /**
+     * Rebuild all rollups from the blood_donations table
+     *
+     * @return The number of rollup rows written
+     */
+    int rebuildRollups();
+}
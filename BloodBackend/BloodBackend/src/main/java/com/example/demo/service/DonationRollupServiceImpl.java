@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.example.demo.model.BloodDonation;
+import com.example.demo.model.BloodDonation.RollupContribution;
+import com.example.demo.repository.BloodDonationRepository;
+import com.example.demo.repository.DonationDailyRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+
+@Service
+public class DonationRollupServiceImpl implements DonationRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DonationRollupServiceImpl.class);
+
+    private final DonationDailyRollupRepository rollupRepository;
+    private final BloodDonationRepository bloodDonationRepository;
+
+    @Autowired
+    public DonationRollupServiceImpl(DonationDailyRollupRepository rollupRepository,
+                                     BloodDonationRepository bloodDonationRepository) {
+        this.rollupRepository = rollupRepository;
+        this.bloodDonationRepository = bloodDonationRepository;
+    }
+
+    @Override
+    @Transactional
+    public void recordDonationSaved(BloodDonation donation) {
+        RollupContribution before = donation.rolledUpContribution();
+        RollupContribution after = donation.currentRollupContribution();
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        // An edit that moves a donation to another day/group/status (or changes its
+        // volume) is applied as removal from the old bucket plus addition to the new one
+        if (before != null) {
+            apply(before, -1);
+        }
+        if (after != null) {
+            apply(after, 1);
+        }
+        donation.markRolledUp();
+    }
+
+    @Override
+    @Transactional
+    public void recordDonationDeleted(BloodDonation donation) {
+        RollupContribution contribution = donation.rolledUpContribution();
+        if (contribution != null) {
+            apply(contribution, -1);
+        }
+    }
+
+    /**
+     * Rebuild from scratch. Runs nightly to correct any drift (e.g. rows edited
+     * directly in the database) and is also available through the admin API.
+     */
+    @Override
+    @Transactional
+    @Scheduled(cron = "${bloodbank.rollups.rebuild-cron:0 30 3 * * *}")
+    public int rebuildRollups() {
+        rollupRepository.deleteAllRollups();
+        int rows = rollupRepository.backfillFromDonations();
+        logger.info("Rebuilt donation rollups: {} rows", rows);
+        return rows;
+    }
+
+    /**
+     * Backfill history on the first start after the rollup table was introduced
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && bloodDonationRepository.count() > 0) {
+            rebuildRollups();
+        }
+    }
+
+    private void apply(RollupContribution contribution, int sign) {
+        rollupRepository.addToRollup(contribution.day(), contribution.bloodGroup(), contribution.healthStatus(),
+                sign, (long) sign * contribution.quantityMl());
+        if (sign < 0) {
+            rollupRepository.deleteIfEmpty(contribution.day(), contribution.bloodGroup(), contribution.healthStatus());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.service;
+
+import com.example.demo.bitmap.DonorBitmapIndex;
+
+import java.util.List;
+import java.util.Map;
+
+public interface DonorIndexService {
+
+    /**
+     * @return True once the donor bitmaps are loaded; until then callers use database queries
+     */
+    boolean isReady();
+
+    /**
+     * Ids of donors matching every criterion of the filter, in ascending order
+     */
+    List<Long> findDonorIds(DonorBitmapIndex.DonorFilter filter, int offset, int limit);
+
+    int countDonors(DonorBitmapIndex.DonorFilter filter);
+
+    /**
+     * Total, active, inactive, eligible and recent donor counts
+     */
+    Map<String, Object> donorSummary();
+
+    Map<String, Integer> countByBloodGroup();
+
+    Map<String, Integer> countByLocation();
+
+    /**
+     * Add or replace a donor (called after the saving transaction commits)
+     */
+    void index(DonorBitmapIndex.DonorAttributes donor);
+
+    void remove(long donorId);
+
+    /**
+     * Move the eligibility window to today
+     *
+     * @return Number of donors whose deferral ended
+     */
+    int rollForward();
+
+    /**
+     * Build fresh bitmaps from the database and swap them in
+     *
+     * @return Number of donors indexed
+     */
+    int rebuild();
+}
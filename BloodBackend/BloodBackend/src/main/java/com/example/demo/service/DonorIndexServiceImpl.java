@@ -0,0 +1,172 @@
+package com.example.demo.service;
+
+import com.example.demo.bitmap.DonorBitmapIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the in-memory {@link DonorBitmapIndex} in step with the donors table.
+ *
+ * Loaded in the background on startup and rebuilt nightly; in between,
+ * {@link com.example.demo.bitmap.DonorBitmapListener} applies every committed donor
+ * save and delete. A rebuild fills a fresh index while live changes go to both,
+ * then swaps it in. Reads first move the eligibility window to today if the
+ * nightly roll-forward has not run yet.
+ */
+@Service
+public class DonorIndexServiceImpl implements DonorIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DonorIndexServiceImpl.class);
+
+    private static final int PAGE_SIZE = 10_000;
+
+    private static final String DONORS = "SELECT id, blood_group, is_available, last_donation, location FROM donors "
+            + "WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate loadTransaction;
+    private final TaskScheduler taskScheduler;
+
+    private volatile DonorBitmapIndex index = new DonorBitmapIndex(LocalDate.now());
+    private volatile DonorBitmapIndex building;
+    private volatile boolean ready;
+
+    @Autowired
+    public DonorIndexServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        // Not read-only, so the load reads the primary: a lagging replica could miss donors
+        // saved (or last donation dates moved) before the rebuild started
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        Gauge.builder("bloodbank.donor.index.donors", this, service -> service.index.size())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public List<Long> findDonorIds(DonorBitmapIndex.DonorFilter filter, int offset, int limit) {
+        return current().find(filter, offset, limit);
+    }
+
+    @Override
+    public int countDonors(DonorBitmapIndex.DonorFilter filter) {
+        return current().count(filter);
+    }
+
+    @Override
+    public Map<String, Object> donorSummary() {
+        return current().summary();
+    }
+
+    @Override
+    public Map<String, Integer> countByBloodGroup() {
+        return current().countByBloodGroup();
+    }
+
+    @Override
+    public Map<String, Integer> countByLocation() {
+        return current().countByLocation();
+    }
+
+    @Override
+    public void index(DonorBitmapIndex.DonorAttributes donor) {
+        // Read the rebuild target first: if it is already null, the swap has happened
+        DonorBitmapIndex target = building;
+        index.put(donor);
+        if (target != null) {
+            target.put(donor);
+        }
+    }
+
+    @Override
+    public void remove(long donorId) {
+        DonorBitmapIndex target = building;
+        index.remove(donorId);
+        if (target != null) {
+            target.remove(donorId);
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${bloodbank.donor-index.roll-forward-cron:0 1 0 * * *}")
+    public int rollForward() {
+        int released = index.rollForward(LocalDate.now());
+        if (released > 0) {
+            logger.info("Donor eligibility rolled forward: {} donors became eligible", released);
+        }
+        return released;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        taskScheduler.schedule(this::rebuild, Instant.now());
+    }
+
+    @Override
+    @Scheduled(cron = "${bloodbank.donor-index.rebuild-cron:0 50 3 * * *}")
+    public synchronized int rebuild() {
+        long started = System.nanoTime();
+        DonorBitmapIndex fresh = new DonorBitmapIndex(LocalDate.now());
+        fresh.beginLoad();
+        building = fresh;
+        try {
+            long lastId = 0;
+            while (true) {
+                long after = lastId;
+                List<DonorBitmapIndex.DonorAttributes> page = loadTransaction.execute(status ->
+                        jdbcTemplate.query(DONORS, (rs, row) -> {
+                            LocalDateTime lastDonation = rs.getObject("last_donation", LocalDateTime.class);
+                            return new DonorBitmapIndex.DonorAttributes(rs.getLong("id"), rs.getString("blood_group"),
+                                    rs.getBoolean("is_available"), lastDonation != null ? lastDonation.toLocalDate() : null,
+                                    rs.getString("location"));
+                        }, after, PAGE_SIZE));
+                if (page == null || page.isEmpty()) {
+                    break;
+                }
+                fresh.putAllIfAbsent(page);
+                lastId = page.get(page.size() - 1).id();
+                if (page.size() < PAGE_SIZE) {
+                    break;
+                }
+            }
+            fresh.endLoad();
+            index = fresh;
+            ready = true;
+        } finally {
+            building = null;
+        }
+        logger.info("Built donor bitmap index: {} donors in {} ms", fresh.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        return fresh.size();
+    }
+
+    private DonorBitmapIndex current() {
+        DonorBitmapIndex current = index;
+        if (current.today().isBefore(LocalDate.now())) {
+            current.rollForward(LocalDate.now());
+        }
+        return current;
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.demo.service;
 
+import com.example.demo.bitmap.DonorBitmapIndex;
+import com.example.demo.dto.DonorView;
 import com.example.demo.model.Donor;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface DonorService {
@@ -23,6 +27,14 @@ public interface DonorService {
      */
     Optional<Donor> getDonorById(Long id);
     
+    /**
+     * Get the API view of a donor by ID, without loading the entity
+     * 
+     * @param id The ID of the donor to retrieve
+     * @return An Optional containing the donor view if found
+     */
+    Optional<DonorView> getDonorViewById(Long id);
+    
     /**
      * Get a donor by username
      * 
@@ -46,21 +58,28 @@ public interface DonorService {
      */
     List<Donor> getAllDonors();
     
+    /**
+     * Get the API views of all donors, ordered by ID
+     * 
+     * @return A list of all donor views
+     */
+    List<DonorView> getAllDonorViews();
+    
     /**
      * Get donors by blood group
      * 
      * @param bloodGroup The blood group to search for
-     * @return A list of donors with the given blood group
+     * @return A list of donor views with the given blood group
      */
-    List<Donor> getDonorsByBloodGroup(String bloodGroup);
+    List<DonorView> getDonorsByBloodGroup(String bloodGroup);
     
     /**
      * Get donors by location
      * 
      * @param location The location to search for
-     * @return A list of donors in the given location
+     * @return A list of donor views in the given location
      */
-    List<Donor> getDonorsByLocation(String location);
+    List<DonorView> getDonorsByLocation(String location);
     
     /**
      * Get donors by availability
@@ -94,4 +113,42 @@ public interface DonorService {
      * @return The updated donor if found, otherwise empty Optional
      */
     Optional<Donor> updateDonorAvailability(Long id, boolean isAvailable);
-}
\ No newline at end of file
+    
+    /**
+     * Find donors matching every criterion of a filter, ordered by ID
+     * 
+     * @param filter Blood groups, availability, eligibility and location (null criteria match all)
+     * @param page Zero-based page number
+     * @param size Page size
+     * @return A map with the total number of matches and the donor views on the page
+     * @throws IllegalStateException while the donor index is still loading
+     */
+    Map<String, Object> filterDonors(DonorBitmapIndex.DonorFilter filter, int page, int size);
+    
+    /**
+     * Add a new donation to the donor's count, total volume and last donation date.
+     * Must run in the transaction that saved the donation.
+     * 
+     * @param donorId The donor who donated
+     * @param quantityMl The donated volume
+     * @param donationDate When the donation was made
+     */
+    void recordDonationTotals(Long donorId, int quantityMl, LocalDateTime donationDate);
+    
+    /**
+     * Recount a donor's donation count and total volume from their donations, after
+     * one of them was edited or deleted. The last donation date moves to the latest
+     * remaining donation only if the changed donation had set it (or a later one exists).
+     * 
+     * @param donorId The donor ID
+     * @param changedDonationDate The changed donation's date as stored before the change, or null
+     */
+    void recalculateDonationTotals(Long donorId, LocalDateTime changedDonationDate);
+    
+    /**
+     * Recount the donation totals of every donor
+     * 
+     * @return The number of donors updated
+     */
+    int recalculateAllDonationTotals();
+}
@@ -1,29 +1,61 @@
 package com.example.demo.service;
 
+import com.example.demo.bitmap.DonorBitmapIndex;
+import com.example.demo.dto.DonorDonationTotals;
+import com.example.demo.dto.DonorView;
 import com.example.demo.model.Donor;
 import com.example.demo.repository.DonorRepository;
+import com.example.demo.search.SearchField;
+import com.example.demo.search.SearchResults;
+import com.example.demo.search.SearchType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class DonorServiceImpl implements DonorService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DonorServiceImpl.class);
+
     private final DonorRepository donorRepository;
+    private final SearchService searchService;
+    private final DonorIndexService donorIndexService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public DonorServiceImpl(DonorRepository donorRepository) {
+    public DonorServiceImpl(DonorRepository donorRepository, SearchService searchService,
+                            DonorIndexService donorIndexService) {
         this.donorRepository = donorRepository;
+        this.searchService = searchService;
+        this.donorIndexService = donorIndexService;
     }
 
     @Override
+    @Transactional
     public Donor saveDonor(Donor donor) {
         // Set creation and update timestamps
         if (donor.getId() == null) {
             donor.setCreatedAt(LocalDateTime.now());
+        } else {
+            donorRepository.findById(donor.getId()).filter(stored -> stored != donor)
+                    .ifPresent(donor::keepDonationTotals);
         }
         donor.setUpdatedAt(LocalDateTime.now());
         
@@ -35,6 +67,12 @@ public class DonorServiceImpl implements DonorService {
         return donorRepository.findById(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<DonorView> getDonorViewById(Long id) {
+        return donorRepository.findViewById(id);
+    }
+
     @Override
     public Optional<Donor> getDonorByUsername(String username) {
         return donorRepository.findByUsername(username);
@@ -46,21 +84,33 @@ public class DonorServiceImpl implements DonorService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Donor> getAllDonors() {
         return donorRepository.findAll();
     }
 
     @Override
-    public List<Donor> getDonorsByBloodGroup(String bloodGroup) {
-        return donorRepository.findByBloodGroup(bloodGroup);
+    @Transactional(readOnly = true)
+    public List<DonorView> getAllDonorViews() {
+        return donorRepository.findAllViews();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DonorView> getDonorsByBloodGroup(String bloodGroup) {
+        return donorRepository.findViewsByBloodGroup(bloodGroup);
     }
 
     @Override
-    public List<Donor> getDonorsByLocation(String location) {
-        return donorRepository.findByLocationContainingIgnoreCase(location);
+    @Transactional(readOnly = true)
+    public List<DonorView> getDonorsByLocation(String location) {
+        return searchService.matchingIds(SearchType.DONOR, Set.of(SearchField.LOCATION), location, false)
+                .map(ids -> SearchResults.loadInOrder(ids, donorRepository::findViewsByIdIn, DonorView::id))
+                .orElseGet(() -> donorRepository.findViewsByLocationContaining(location));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Donor> getDonorsByAvailability(boolean isAvailable) {
         return donorRepository.findByIsAvailable(isAvailable);
     }
@@ -98,4 +148,80 @@ public class DonorServiceImpl implements DonorService {
         
         return Optional.empty();
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> filterDonors(DonorBitmapIndex.DonorFilter filter, int page, int size) {
+        if (!donorIndexService.isReady()) {
+            throw new IllegalStateException("Donor index is still loading");
+        }
+        List<Long> ids = donorIndexService.findDonorIds(filter, page * size, size);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", donorIndexService.countDonors(filter));
+        result.put("page", page);
+        result.put("size", size);
+        result.put("donors", SearchResults.loadInOrder(ids, donorRepository::findViewsByIdIn, DonorView::id));
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public void recordDonationTotals(Long donorId, int quantityMl, LocalDateTime donationDate) {
+        lockDonor(donorId).ifPresent(donor -> {
+            donor.addDonation(quantityMl, donationDate);
+            donor.setUpdatedAt(LocalDateTime.now());
+        });
+    }
+
+    @Override
+    @Transactional
+    public void recalculateDonationTotals(Long donorId, LocalDateTime changedDonationDate) {
+        // Locked before counting, so a donation recorded meanwhile is either counted or added after
+        lockDonor(donorId).ifPresent(donor -> {
+            DonorDonationTotals totals = donorRepository.countDonationTotals(donorId);
+            donor.recountDonations(totals.donations().intValue(), totals.volumeMl(), totals.lastDonation(),
+                    changedDonationDate);
+            donor.setUpdatedAt(LocalDateTime.now());
+        });
+    }
+
+    /**
+     * The managed donor, re-read under a row lock so that concurrent donations update
+     * its totals one after the other. Changing the entity, rather than a bulk update,
+     * keeps the caller's entities managed and the rest of the donors cache region intact.
+     */
+    private Optional<Donor> lockDonor(Long donorId) {
+        entityManager.flush();
+        Donor donor = entityManager.find(Donor.class, donorId);
+        if (donor == null) {
+            return Optional.empty();
+        }
+        entityManager.refresh(donor, LockModeType.PESSIMISTIC_WRITE);
+        return Optional.of(donor);
+    }
+
+    /**
+     * Recount from scratch. Runs nightly to correct any drift (e.g. donations moved
+     * to another donor or edited directly in the database).
+     */
+    @Override
+    @Transactional
+    @Scheduled(cron = "${bloodbank.donors.totals-cron:0 40 3 * * *}")
+    public int recalculateAllDonationTotals() {
+        int donors = donorRepository.recalculateAllDonationTotals();
+        logger.info("Recalculated donation totals for {} donors", donors);
+        return donors;
+    }
+
+    /**
+     * Fill in the totals on the first start after the columns were added
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillDonationTotalsIfMissing() {
+        if (donorRepository.countDonorsMissingDonationTotals() > 0) {
+            recalculateAllDonationTotals();
+        }
+    }
+}
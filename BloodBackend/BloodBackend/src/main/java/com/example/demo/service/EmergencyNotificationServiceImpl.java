@@ -2,32 +2,54 @@ package com.example.demo.service;
 
 import com.example.demo.model.EmergencyNotification;
 import com.example.demo.model.Hospital;
+import com.example.demo.outbox.DomainEvent;
+import com.example.demo.outbox.OutboxPublisher;
 import com.example.demo.repository.EmergencyNotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class EmergencyNotificationServiceImpl implements EmergencyNotificationService {
 
     private final EmergencyNotificationRepository notificationRepository;
+    private final OutboxPublisher outboxPublisher;
 
     @Autowired
-    public EmergencyNotificationServiceImpl(EmergencyNotificationRepository notificationRepository) {
+    public EmergencyNotificationServiceImpl(EmergencyNotificationRepository notificationRepository,
+                                            OutboxPublisher outboxPublisher) {
         this.notificationRepository = notificationRepository;
+        this.outboxPublisher = outboxPublisher;
     }
 
     @Override
+    @Transactional
     public EmergencyNotification saveNotification(EmergencyNotification notification) {
-        if (notification.getId() == null) {
+        boolean isNew = notification.getId() == null;
+        if (isNew) {
             notification.setCreatedAt(LocalDateTime.now());
         }
         notification.setUpdatedAt(LocalDateTime.now());
-        return notificationRepository.save(notification);
+        EmergencyNotification savedNotification = notificationRepository.save(notification);
+        
+        if (isNew) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("notificationId", savedNotification.getId());
+            payload.put("title", savedNotification.getTitle());
+            payload.put("bloodType", savedNotification.getBloodType());
+            payload.put("unitsNeeded", savedNotification.getUnitsNeeded());
+            payload.put("hospitalId", savedNotification.getHospital() != null ? savedNotification.getHospital().getId() : null);
+            payload.put("expiryDate", savedNotification.getExpiryDate());
+            outboxPublisher.publish(DomainEvent.NOTIFICATION_RAISED, savedNotification.getId(), payload);
+        }
+        return savedNotification;
     }
 
     @Override
@@ -36,21 +58,25 @@ public class EmergencyNotificationServiceImpl implements EmergencyNotificationSe
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmergencyNotification> getAllNotifications() {
         return notificationRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmergencyNotification> getActiveNotifications() {
         return notificationRepository.findActiveNotifications(LocalDateTime.now());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmergencyNotification> getActiveNotificationsByBloodType(String bloodType) {
         return notificationRepository.findActiveNotificationsByBloodType(LocalDateTime.now(), bloodType);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmergencyNotification> getNotificationsByHospital(Long hospitalId) {
         return notificationRepository.findByHospital_Id(hospitalId);
     }
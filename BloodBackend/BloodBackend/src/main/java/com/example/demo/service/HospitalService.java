@@ -1,24 +1,27 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.HospitalView;
 import com.example.demo.model.Hospital;
 import java.util.List;
 import java.util.Optional;
 
 public interface HospitalService {
     
-    List<Hospital> getAllHospitals();
+    List<HospitalView> getAllHospitals();
     
     Optional<Hospital> getHospitalById(Long id);
     
+    Optional<HospitalView> getHospitalViewById(Long id);
+    
     Hospital saveHospital(Hospital hospital);
     
     void deleteHospital(Long id);
     
-    List<Hospital> getActiveHospitals();
+    List<HospitalView> getActiveHospitals();
     
     Optional<Hospital> findByEmail(String email);
     
     Optional<Hospital> findByRegistrationNumber(String registrationNumber);
     
-    List<Hospital> searchHospitals(String query);
+    List<HospitalView> searchHospitals(String query);
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.HospitalView;
 import com.example.demo.model.Hospital;
 import com.example.demo.repository.HospitalRepository;
+import com.example.demo.search.SearchResults;
+import com.example.demo.search.SearchType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -13,15 +17,18 @@ import java.util.Optional;
 public class HospitalServiceImpl implements HospitalService {
 
     private final HospitalRepository hospitalRepository;
+    private final SearchService searchService;
 
     @Autowired
-    public HospitalServiceImpl(HospitalRepository hospitalRepository) {
+    public HospitalServiceImpl(HospitalRepository hospitalRepository, SearchService searchService) {
         this.hospitalRepository = hospitalRepository;
+        this.searchService = searchService;
     }
 
     @Override
-    public List<Hospital> getAllHospitals() {
-        return hospitalRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<HospitalView> getAllHospitals() {
+        return hospitalRepository.findAllViews();
     }
 
     @Override
@@ -29,6 +36,12 @@ public class HospitalServiceImpl implements HospitalService {
         return hospitalRepository.findById(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<HospitalView> getHospitalViewById(Long id) {
+        return hospitalRepository.findViewById(id);
+    }
+
     @Override
     public Hospital saveHospital(Hospital hospital) {
         if (hospital.getId() == null) {
@@ -44,8 +57,9 @@ public class HospitalServiceImpl implements HospitalService {
     }
 
     @Override
-    public List<Hospital> getActiveHospitals() {
-        return hospitalRepository.findByStatus("ACTIVE");
+    @Transactional(readOnly = true)
+    public List<HospitalView> getActiveHospitals() {
+        return hospitalRepository.findViewsByStatus("ACTIVE");
     }
 
     @Override
@@ -59,7 +73,11 @@ public class HospitalServiceImpl implements HospitalService {
     }
 
     @Override
-    public List<Hospital> searchHospitals(String query) {
-        return hospitalRepository.findByNameContainingIgnoreCase(query);
+    @Transactional(readOnly = true)
+    public List<HospitalView> searchHospitals(String query) {
+        // Ranked, typo-tolerant match on name and address; LIKE scan only until the index is loaded
+        return searchService.matchingIds(SearchType.HOSPITAL, null, query, true)
+                .map(ids -> SearchResults.loadInOrder(ids, hospitalRepository::findViewsByIdIn, HospitalView::id))
+                .orElseGet(() -> hospitalRepository.findViewsByNameContaining(query));
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.InventoryLevelPoint;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a time series of available units per blood group
+ */
+public interface InventoryHistoryService {
+
+    /**
+     * Take a periodic sample of every blood group's available units
+     */
+    void samplePeriodically();
+
+    /**
+     * Downsample old RAW samples into HOUR buckets and old HOUR buckets into DAY
+     * buckets, and drop DAY buckets past their retention
+     */
+    void downsample();
+
+    /**
+     * Get the level history of a blood group
+     *
+     * @param bloodGroup The blood group
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (inclusive)
+     * @param granularity "raw", "hour" or "day"
+     * @return Points in time order
+     */
+    List<InventoryLevelPoint> getLevelHistory(String bloodGroup, LocalDateTime from, LocalDateTime to, String granularity);
+
+    /**
+     * Get the level history of a blood group together with min/max/average over the range
+     *
+     * @param bloodGroup The blood group
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (inclusive)
+     * @param granularity "raw", "hour", "day", or "auto" to pick one from the range length
+     * @return Map containing the points and range aggregates
+     */
+    Map<String, Object> getInventoryHistory(String bloodGroup, LocalDateTime from, LocalDateTime to, String granularity);
+}
@@ -0,0 +1,230 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.Aggregate;
+import com.example.demo.cache.AggregateChangedEvent;
+import com.example.demo.dto.BloodGroupUnits;
+import com.example.demo.dto.InventoryLevelPoint;
+import com.example.demo.model.InventoryLevelSample;
+import com.example.demo.repository.BloodInventoryRepository;
+import com.example.demo.repository.InventoryLevelSampleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class InventoryHistoryServiceImpl implements InventoryHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryHistoryServiceImpl.class);
+
+    private static final String[] BLOOD_GROUPS = {"A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-"};
+
+    private final InventoryLevelSampleRepository sampleRepository;
+    private final BloodInventoryRepository bloodInventoryRepository;
+
+    // Last recorded level per blood group, used to detect changes
+    private final Map<String, Integer> lastLevels = new ConcurrentHashMap<>();
+    private final ReentrantLock samplingLock = new ReentrantLock();
+
+    @Value("${bloodbank.inventory-history.raw-retention-days:2}")
+    private int rawRetentionDays;
+
+    @Value("${bloodbank.inventory-history.hourly-retention-days:30}")
+    private int hourlyRetentionDays;
+
+    @Value("${bloodbank.inventory-history.daily-retention-days:730}")
+    private int dailyRetentionDays;
+
+    @Autowired
+    public InventoryHistoryServiceImpl(InventoryLevelSampleRepository sampleRepository,
+                                       BloodInventoryRepository bloodInventoryRepository) {
+        this.sampleRepository = sampleRepository;
+        this.bloodInventoryRepository = bloodInventoryRepository;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedRateString = "${bloodbank.inventory-history.sample-interval-ms:900000}")
+    public void samplePeriodically() {
+        record(false);
+    }
+
+    /**
+     * Inventory writes trigger a change sample once they have committed. Runs
+     * asynchronously so the writer's request does not wait for it.
+     */
+    @Async
+    @EventListener
+    @Transactional
+    public void onAggregateChanged(AggregateChangedEvent event) {
+        if (event.aggregates().contains(Aggregate.INVENTORY)) {
+            record(true);
+        }
+    }
+
+    private void record(boolean changesOnly) {
+        samplingLock.lock();
+        try {
+            Map<String, Integer> levels = currentLevels();
+            LocalDateTime now = LocalDateTime.now();
+            List<InventoryLevelSample> samples = new ArrayList<>();
+            levels.forEach((bloodGroup, units) -> {
+                Integer previous = lastLevels.put(bloodGroup, units);
+                if (!changesOnly || previous == null || previous.intValue() != units) {
+                    samples.add(new InventoryLevelSample(bloodGroup, now, units, changesOnly));
+                }
+            });
+            sampleRepository.saveAll(samples);
+        } finally {
+            samplingLock.unlock();
+        }
+    }
+
+    private Map<String, Integer> currentLevels() {
+        Map<String, Integer> levels = new LinkedHashMap<>();
+        for (String bloodGroup : BLOOD_GROUPS) {
+            levels.put(bloodGroup, 0);
+        }
+        for (BloodGroupUnits row : bloodInventoryRepository.sumUnitsByBloodGroup("AVAILABLE")) {
+            levels.put(row.bloodGroup(), row.units() != null ? row.units().intValue() : 0);
+        }
+        return levels;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${bloodbank.inventory-history.downsample-cron:0 5 * * * *}")
+    public void downsample() {
+        LocalDateTime now = LocalDateTime.now();
+
+        // Only whole buckets are folded, so a later run never produces a second row for the same bucket
+        LocalDateTime rawCutoff = now.minusDays(rawRetentionDays).truncatedTo(ChronoUnit.HOURS);
+        int hours = fold(InventoryLevelSample.RAW, InventoryLevelSample.HOUR, ChronoUnit.HOURS, rawCutoff);
+
+        LocalDateTime hourlyCutoff = now.minusDays(hourlyRetentionDays).truncatedTo(ChronoUnit.DAYS);
+        int days = fold(InventoryLevelSample.HOUR, InventoryLevelSample.DAY, ChronoUnit.DAYS, hourlyCutoff);
+
+        int expired = sampleRepository.deleteOlderThan(InventoryLevelSample.DAY, now.minusDays(dailyRetentionDays));
+
+        if (hours > 0 || days > 0 || expired > 0) {
+            logger.info("Inventory history downsampled: {} hourly and {} daily buckets written, {} daily buckets expired",
+                    hours, days, expired);
+        }
+    }
+
+    private int fold(String fromResolution, String toResolution, ChronoUnit bucketUnit, LocalDateTime cutoff) {
+        List<InventoryLevelSample> samples = sampleRepository.findOlderThan(fromResolution, cutoff);
+        if (samples.isEmpty()) {
+            return 0;
+        }
+        List<InventoryLevelSample> buckets = new ArrayList<>();
+        for (Bucket bucket : bucketize(samples, bucketUnit).values()) {
+            buckets.add(new InventoryLevelSample(bucket.bloodGroup, bucket.start, toResolution,
+                    bucket.units, bucket.minUnits, bucket.maxUnits, bucket.average(), bucket.sampleCount));
+        }
+        sampleRepository.saveAll(buckets);
+        sampleRepository.deleteOlderThan(fromResolution, cutoff);
+        return buckets.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InventoryLevelPoint> getLevelHistory(String bloodGroup, LocalDateTime from, LocalDateTime to, String granularity) {
+        List<InventoryLevelSample> samples = sampleRepository.findRange(bloodGroup, from, to);
+        List<InventoryLevelPoint> points = new ArrayList<>();
+        if ("raw".equalsIgnoreCase(granularity)) {
+            for (InventoryLevelSample sample : samples) {
+                points.add(new InventoryLevelPoint(sample.getSampledAt(), sample.getUnits(),
+                        sample.getMinUnits(), sample.getMaxUnits(), sample.getAvgUnits()));
+            }
+            return points;
+        }
+        ChronoUnit unit = "day".equalsIgnoreCase(granularity) ? ChronoUnit.DAYS : ChronoUnit.HOURS;
+        for (Bucket bucket : bucketize(samples, unit).values()) {
+            points.add(new InventoryLevelPoint(bucket.start, bucket.units, bucket.minUnits, bucket.maxUnits, bucket.average()));
+        }
+        return points;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getInventoryHistory(String bloodGroup, LocalDateTime from, LocalDateTime to, String granularity) {
+        String resolved = granularity;
+        if (resolved == null || "auto".equalsIgnoreCase(resolved)) {
+            Duration range = Duration.between(from, to);
+            resolved = range.toDays() <= rawRetentionDays ? "raw" : range.toDays() <= hourlyRetentionDays ? "hour" : "day";
+        }
+        List<InventoryLevelPoint> points = getLevelHistory(bloodGroup, from, to, resolved);
+
+        Map<String, Object> history = new HashMap<>();
+        history.put("bloodGroup", bloodGroup);
+        history.put("from", from);
+        history.put("to", to);
+        history.put("granularity", resolved.toLowerCase());
+        history.put("points", points);
+        if (!points.isEmpty()) {
+            history.put("minUnits", points.stream().mapToInt(InventoryLevelPoint::minUnits).min().getAsInt());
+            history.put("maxUnits", points.stream().mapToInt(InventoryLevelPoint::maxUnits).max().getAsInt());
+            history.put("averageUnits", points.stream().mapToDouble(InventoryLevelPoint::averageUnits).average().getAsDouble());
+            history.put("latestUnits", points.get(points.size() - 1).units());
+        }
+        return history;
+    }
+
+    /**
+     * Group time-ordered samples by blood group and bucket start. Samples that are
+     * already coarser than the bucket keep their own start time.
+     */
+    private Map<String, Bucket> bucketize(List<InventoryLevelSample> samples, ChronoUnit unit) {
+        Map<String, Bucket> buckets = new LinkedHashMap<>();
+        for (InventoryLevelSample sample : samples) {
+            LocalDateTime start = sample.getSampledAt().truncatedTo(unit);
+            buckets.computeIfAbsent(sample.getBloodGroup() + '|' + start, key -> new Bucket(sample.getBloodGroup(), start))
+                    .add(sample);
+        }
+        return buckets;
+    }
+
+    private static final class Bucket {
+        private final String bloodGroup;
+        private final LocalDateTime start;
+        private int units;
+        private int minUnits = Integer.MAX_VALUE;
+        private int maxUnits = Integer.MIN_VALUE;
+        private double weightedSum;
+        private int sampleCount;
+
+        Bucket(String bloodGroup, LocalDateTime start) {
+            this.bloodGroup = bloodGroup;
+            this.start = start;
+        }
+
+        void add(InventoryLevelSample sample) {
+            units = sample.getUnits();
+            minUnits = Math.min(minUnits, sample.getMinUnits());
+            maxUnits = Math.max(maxUnits, sample.getMaxUnits());
+            weightedSum += sample.getAvgUnits() * sample.getSampleCount();
+            sampleCount += sample.getSampleCount();
+        }
+
+        double average() {
+            return sampleCount == 0 ? 0 : weightedSum / sampleCount;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.service;
+
+import com.example.demo.model.BloodInventory;
+import com.example.demo.model.InventoryEvent;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only journal of inventory changes and the projections built from it
+ */
+public interface InventoryJournalService {
+
+    /**
+     * Journal the difference between a row's previously journaled state and its
+     * current state (received, status change or adjustment)
+     *
+     * @param before State before the change, null for a new row
+     * @param inventory The row after the change
+     */
+    void recordChange(BloodInventory.JournalState before, BloodInventory inventory);
+
+    /**
+     * Journal changes to many rows with one batched write. Each row's previously
+     * journaled state is taken as its state before the change (none for new rows).
+     */
+    void recordChanges(List<BloodInventory> inventories);
+
+    /**
+     * Journal units split off an existing row into a new row
+     *
+     * @param source The row the units were taken from
+     * @param part The new row holding the split-off units
+     */
+    void recordSplit(BloodInventory source, BloodInventory part);
+
+    /**
+     * Journal units moved from one row to another
+     */
+    void recordTransfer(BloodInventory source, BloodInventory target, int units);
+
+    /**
+     * Journal a row being deleted
+     */
+    void recordRemoval(BloodInventory inventory);
+
+    /**
+     * Apply journal events committed since the last catch-up to the projections
+     */
+    void catchUp();
+
+    /**
+     * Rebuild all projections by replaying the journal from the start
+     *
+     * @return The number of events replayed
+     */
+    int replay();
+
+    /**
+     * Get the audit trail of one inventory row
+     */
+    List<InventoryEvent> getTrail(Long inventoryId);
+
+    /**
+     * Read the journal in order
+     *
+     * @param afterId Last event already read, 0 to start at the beginning
+     * @param limit Maximum number of events to return
+     */
+    List<InventoryEvent> getEvents(long afterId, int limit);
+
+    /**
+     * Get the current state of the projections
+     *
+     * @param expiringWithinDays Window for the expiring-soon projection
+     * @return Map containing stock by group, expiring-soon units and hospital holdings
+     */
+    Map<String, Object> getProjections(int expiringWithinDays);
+}
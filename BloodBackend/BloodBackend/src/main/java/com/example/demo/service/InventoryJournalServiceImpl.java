@@ -0,0 +1,278 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.Aggregate;
+import com.example.demo.cache.AggregateChangedEvent;
+import com.example.demo.journal.ExpiringSoonProjection;
+import com.example.demo.journal.HospitalHoldingsProjection;
+import com.example.demo.journal.InventoryProjection;
+import com.example.demo.journal.StockByGroupProjection;
+import com.example.demo.model.BloodInventory;
+import com.example.demo.model.BloodInventory.JournalState;
+import com.example.demo.model.InventoryEvent;
+import com.example.demo.repository.InventoryEventRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Events are written in the same transaction as the inventory change they
+ * describe, so the journal and blood_inventory cannot disagree. Projections are
+ * kept in memory and applied after commit, in journal (id) order; on startup they
+ * are rebuilt by replaying the journal.
+ *
+ * Catch-up and replay read from the primary, since a lagging replica would hold
+ * projections back.
+ */
+@Service
+public class InventoryJournalServiceImpl implements InventoryJournalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryJournalServiceImpl.class);
+
+    private static final int PAGE_SIZE = 5000;
+
+    private final InventoryEventRepository eventRepository;
+
+    private final StockByGroupProjection stockByGroup = new StockByGroupProjection();
+    private final ExpiringSoonProjection expiringSoon = new ExpiringSoonProjection();
+    private final HospitalHoldingsProjection hospitalHoldings = new HospitalHoldingsProjection();
+    private final List<InventoryProjection> projections = List.of(stockByGroup, expiringSoon, hospitalHoldings);
+
+    private final ReentrantLock applyLock = new ReentrantLock();
+    private volatile long lastAppliedId;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // How long a missing event id is waited for before it is assumed rolled back
+    @Value("${bloodbank.inventory-journal.gap-timeout-ms:5000}")
+    private long gapTimeoutMs;
+
+    @Autowired
+    public InventoryJournalServiceImpl(InventoryEventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    @Override
+    @Transactional
+    public void recordChange(JournalState before, BloodInventory inventory) {
+        changeEvents(before, inventory).forEach(eventRepository::save);
+        inventory.markJournaled();
+    }
+
+    @Override
+    @Transactional
+    public void recordChanges(List<BloodInventory> inventories) {
+        List<InventoryEvent> events = new ArrayList<>();
+        for (BloodInventory inventory : inventories) {
+            events.addAll(changeEvents(inventory.journaledState(), inventory));
+        }
+        eventRepository.appendAll(events);
+        inventories.forEach(BloodInventory::markJournaled);
+    }
+
+    private List<InventoryEvent> changeEvents(JournalState before, BloodInventory inventory) {
+        JournalState after = inventory.currentJournalState();
+        if (after == null || Objects.equals(before, after)) {
+            return List.of();
+        }
+
+        Long id = inventory.getId();
+        if (before == null) {
+            return List.of(event(InventoryEvent.RECEIVED, id, null, after, null, after.status(), after.units()));
+        } else if (sameBucket(before, after) && before.units() == after.units()) {
+            return List.of(event(statusEventType(after.status()), id, null, after, before.status(), after.status(), after.units()));
+        } else if (sameBucket(before, after) && Objects.equals(before.status(), after.status())) {
+            int delta = after.units() - before.units();
+            return List.of(event(InventoryEvent.ADJUSTED, id, null, after,
+                    delta < 0 ? after.status() : null, delta > 0 ? after.status() : null, Math.abs(delta)));
+        }
+        // Several fields changed at once: take the old state out and put the new one in
+        return List.of(
+                event(InventoryEvent.ADJUSTED, id, null, before, before.status(), null, before.units()),
+                event(InventoryEvent.ADJUSTED, id, null, after, null, after.status(), after.units()));
+    }
+
+    @Override
+    @Transactional
+    public void recordSplit(BloodInventory source, BloodInventory part) {
+        JournalState partState = part.currentJournalState();
+        append(InventoryEvent.SPLIT, part.getId(), source.getId(), partState,
+                source.currentJournalState().status(), partState.status(), partState.units());
+        source.markJournaled();
+        part.markJournaled();
+    }
+
+    @Override
+    @Transactional
+    public void recordTransfer(BloodInventory source, BloodInventory target, int units) {
+        JournalState sourceState = source.currentJournalState();
+        JournalState targetState = target.currentJournalState();
+        append(InventoryEvent.TRANSFERRED, source.getId(), target.getId(), sourceState, sourceState.status(), null, units);
+        append(InventoryEvent.TRANSFERRED, target.getId(), source.getId(), targetState, null, targetState.status(), units);
+        source.markJournaled();
+        target.markJournaled();
+    }
+
+    @Override
+    @Transactional
+    public void recordRemoval(BloodInventory inventory) {
+        JournalState state = inventory.journaledState() != null ? inventory.journaledState() : inventory.currentJournalState();
+        if (state != null) {
+            append(InventoryEvent.REMOVED, inventory.getId(), null, state, state.status(), null, state.units());
+        }
+    }
+
+    private boolean sameBucket(JournalState before, JournalState after) {
+        return Objects.equals(before.bloodGroup(), after.bloodGroup())
+                && Objects.equals(before.hospitalId(), after.hospitalId())
+                && Objects.equals(before.expiryDate(), after.expiryDate());
+    }
+
+    private String statusEventType(String status) {
+        return switch (status) {
+            case "RESERVED" -> InventoryEvent.RESERVED;
+            case "EXPIRED" -> InventoryEvent.EXPIRED;
+            case "USED" -> InventoryEvent.USED;
+            default -> InventoryEvent.STATUS_CHANGED;
+        };
+    }
+
+    private void append(String type, Long inventoryId, Long relatedInventoryId, JournalState state,
+                        String fromStatus, String toStatus, int units) {
+        eventRepository.save(event(type, inventoryId, relatedInventoryId, state, fromStatus, toStatus, units));
+    }
+
+    private InventoryEvent event(String type, Long inventoryId, Long relatedInventoryId, JournalState state,
+                                 String fromStatus, String toStatus, int units) {
+        return new InventoryEvent(type, inventoryId, relatedInventoryId, state.bloodGroup(),
+                state.hospitalId(), state.expiryDate(), fromStatus, toStatus, units);
+    }
+
+    /**
+     * Inventory writes have committed; apply their events without making the writer wait
+     */
+    @Async
+    @EventListener
+    @Transactional
+    public void onAggregateChanged(AggregateChangedEvent event) {
+        if (event.aggregates().contains(Aggregate.INVENTORY)) {
+            applyLocked(false);
+        }
+    }
+
+    /**
+     * Also picks up events written by other instances and events held back by an id gap
+     */
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${bloodbank.inventory-journal.catch-up-interval-ms:5000}")
+    public void catchUp() {
+        applyLocked(false);
+    }
+
+    @Override
+    @Transactional
+    public int replay() {
+        return applyLocked(true);
+    }
+
+    /**
+     * Rebuild projections on startup. The first start after the journal was
+     * introduced writes an opening balance for every existing row.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        if (eventRepository.count() == 0) {
+            int imported = eventRepository.importExistingInventory();
+            if (imported > 0) {
+                logger.info("Journaled {} existing inventory rows as opening balance", imported);
+            }
+        }
+        applyLocked(true);
+    }
+
+    private int applyLocked(boolean fromStart) {
+        applyLock.lock();
+        try {
+            long started = System.nanoTime();
+            if (fromStart) {
+                projections.forEach(InventoryProjection::reset);
+                lastAppliedId = 0;
+            }
+            int applied = applyPending();
+            if (fromStart) {
+                logger.info("Replayed {} inventory events in {} ms", applied, (System.nanoTime() - started) / 1_000_000);
+            }
+            return applied;
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    private int applyPending() {
+        LocalDateTime gapCutoff = LocalDateTime.now().minusNanos(gapTimeoutMs * 1_000_000);
+        int applied = 0;
+        while (true) {
+            List<InventoryEvent> page = eventRepository.findByIdGreaterThanOrderByIdAsc(lastAppliedId, Limit.of(PAGE_SIZE));
+            for (InventoryEvent event : page) {
+                if (lastAppliedId != 0 && event.getId() != lastAppliedId + 1 && event.getOccurredAt().isAfter(gapCutoff)) {
+                    // The missing id may belong to a transaction that has not committed yet.
+                    // Stop here so events are applied in order; a later catch-up continues.
+                    return applied;
+                }
+                for (InventoryProjection projection : projections) {
+                    projection.apply(event);
+                }
+                lastAppliedId = event.getId();
+                applied++;
+            }
+            // Keep the persistence context small during long replays
+            entityManager.clear();
+            if (page.size() < PAGE_SIZE) {
+                return applied;
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InventoryEvent> getTrail(Long inventoryId) {
+        return eventRepository.findTrail(inventoryId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InventoryEvent> getEvents(long afterId, int limit) {
+        return eventRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
+    @Override
+    public Map<String, Object> getProjections(int expiringWithinDays) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("lastEventId", lastAppliedId);
+        result.put("stockByGroup", stockByGroup.snapshot());
+        result.put("expiringWithinDays", expiringWithinDays);
+        result.put("expiringSoon", expiringSoon.unitsExpiringBefore(LocalDateTime.now().plusDays(expiringWithinDays)));
+        result.put("hospitalHoldings", hospitalHoldings.snapshot());
+        return result;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.service;
+
+import com.example.demo.search.SearchDocument;
+import com.example.demo.search.SearchField;
+import com.example.demo.search.SearchType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface SearchService {
+
+    /**
+     * Ranked, typo-tolerant prefix search over donors, hospitals and blood requests
+     *
+     * @param types Entity kinds to include, or empty for all
+     * @return A map with the hits, whether the index is fully loaded and the query time
+     */
+    Map<String, Object> search(String query, Set<SearchType> types, int limit, boolean fuzzy);
+
+    /**
+     * Ids of every entity of one type that matches all words of the query, best matches first
+     *
+     * @param fields Fields to match in, or null for all indexed fields of the type
+     * @param fuzzy  Whether words may match with typos (otherwise only exactly or as a prefix)
+     * @return Empty while the index is still loading, so callers can fall back to the database
+     */
+    Optional<List<Long>> matchingIds(SearchType type, Set<SearchField> fields, String query, boolean fuzzy);
+
+    /**
+     * Add or replace a document (called after the saving transaction commits)
+     */
+    void index(SearchDocument document);
+
+    /**
+     * Remove a document (called after the deleting transaction commits)
+     */
+    void remove(SearchType type, long id);
+
+    /**
+     * Build a fresh index from the database and swap it in
+     *
+     * @return Number of documents indexed
+     */
+    int rebuild();
+}
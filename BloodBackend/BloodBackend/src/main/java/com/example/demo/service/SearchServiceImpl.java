@@ -0,0 +1,204 @@
+package com.example.demo.service;
+
+import com.example.demo.search.SearchDocument;
+import com.example.demo.search.SearchField;
+import com.example.demo.search.SearchHit;
+import com.example.demo.search.SearchIndex;
+import com.example.demo.search.SearchType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the in-memory {@link SearchIndex} in step with the database.
+ *
+ * The index is loaded in the background on startup and rebuilt nightly (picking up
+ * edits made by other instances or directly in the database). In between,
+ * {@link com.example.demo.search.SearchIndexListener} feeds it every committed save
+ * and delete. A rebuild loads into a fresh index while live changes go to both, then
+ * swaps it in, so searches never see a half-empty index after the first load.
+ *
+ * Live changes and the start and swap of a rebuild exclude each other, so every
+ * change lands either before the load starts (and in what it reads) or in the fresh
+ * index too. Deletes during the load are kept as tombstones in the fresh index and
+ * checked for each page, so rows deleted after their page was read stay deleted.
+ */
+@Service
+public class SearchServiceImpl implements SearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchServiceImpl.class);
+
+    private static final int PAGE_SIZE = 5000;
+
+    private static final String DONORS = "SELECT id, name, email, phone, location, blood_group FROM donors "
+            + "WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String HOSPITALS = "SELECT id, name, address FROM hospitals WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String REQUESTS = "SELECT id, name, blood_group, location, reason, request_status "
+            + "FROM blood_requests WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate loadTransaction;
+    private final TaskScheduler taskScheduler;
+    private final Timer queryTimer;
+
+    private volatile SearchIndex index = new SearchIndex();
+    private volatile SearchIndex building;
+    private volatile boolean ready;
+
+    // Read side: live changes (which may run concurrently); write side: starting and swapping a rebuild
+    private final ReentrantReadWriteLock updates = new ReentrantReadWriteLock();
+
+    @Autowired
+    public SearchServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        // Not read-only, so the load reads the primary: a lagging replica could miss rows
+        // saved before the rebuild started, and the fresh index would then drop them
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.queryTimer = Timer.builder("bloodbank.search.query")
+                .description("Time to answer a search query from the in-memory index")
+                .register(meterRegistry);
+        Gauge.builder("bloodbank.search.documents", this, service -> service.index.size())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Map<String, Object> search(String query, Set<SearchType> types, int limit, boolean fuzzy) {
+        long started = System.nanoTime();
+        List<SearchHit> hits = index.search(query, types.isEmpty() ? null : types, null, limit, fuzzy);
+        long elapsed = System.nanoTime() - started;
+        queryTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("query", query);
+        result.put("hits", hits);
+        result.put("complete", ready);
+        result.put("tookMicros", elapsed / 1000);
+        return result;
+    }
+
+    @Override
+    public Optional<List<Long>> matchingIds(SearchType type, Set<SearchField> fields, String query, boolean fuzzy) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.of(index.matchingIds(type, fields, query, fuzzy));
+    }
+
+    @Override
+    public void index(SearchDocument document) {
+        updates.readLock().lock();
+        try {
+            index.put(document);
+            if (building != null) {
+                building.put(document);
+            }
+        } finally {
+            updates.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(SearchType type, long id) {
+        updates.readLock().lock();
+        try {
+            index.remove(type, id);
+            if (building != null) {
+                building.remove(type, id);
+            }
+        } finally {
+            updates.readLock().unlock();
+        }
+    }
+
+    /**
+     * Load the index in the background; until it is complete, callers of
+     * {@link #matchingIds} fall back to database queries
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        taskScheduler.schedule(this::rebuild, Instant.now());
+    }
+
+    @Override
+    @Scheduled(cron = "${bloodbank.search.rebuild-cron:0 45 3 * * *}")
+    public synchronized int rebuild() {
+        long started = System.nanoTime();
+        SearchIndex fresh = new SearchIndex();
+        fresh.beginLoad();
+        updates.writeLock().lock();
+        try {
+            building = fresh;
+        } finally {
+            updates.writeLock().unlock();
+        }
+        try {
+            load(fresh, DONORS, (rs, row) -> SearchDocument.donor(rs.getLong("id"), rs.getString("name"),
+                    rs.getString("email"), rs.getString("phone"), rs.getString("location"), rs.getString("blood_group")));
+            load(fresh, HOSPITALS, (rs, row) -> SearchDocument.hospital(rs.getLong("id"), rs.getString("name"),
+                    rs.getString("address")));
+            load(fresh, REQUESTS, (rs, row) -> SearchDocument.request(rs.getLong("id"), rs.getString("name"),
+                    rs.getString("blood_group"), rs.getString("location"), rs.getString("reason"),
+                    rs.getString("request_status")));
+            fresh.endLoad();
+            updates.writeLock().lock();
+            try {
+                index = fresh;
+            } finally {
+                updates.writeLock().unlock();
+            }
+            ready = true;
+        } finally {
+            updates.writeLock().lock();
+            try {
+                building = null;
+            } finally {
+                updates.writeLock().unlock();
+            }
+        }
+        logger.info("Built search index: {} documents, {} terms in {} ms", fresh.size(), fresh.termCount(),
+                (System.nanoTime() - started) / 1_000_000);
+        return fresh.size();
+    }
+
+    /**
+     * Page through a table by id, each page in its own short transaction on the primary
+     */
+    private void load(SearchIndex target, String sql, RowMapper<SearchDocument> mapper) {
+        long lastId = 0;
+        while (true) {
+            long after = lastId;
+            List<SearchDocument> page = loadTransaction.execute(status -> jdbcTemplate.query(sql, mapper, after, PAGE_SIZE));
+            if (page == null || page.isEmpty()) {
+                return;
+            }
+            target.putAllIfAbsent(page);
+            lastId = page.get(page.size() - 1).id();
+            if (page.size() < PAGE_SIZE) {
+                return;
+            }
+        }
+    }
+}
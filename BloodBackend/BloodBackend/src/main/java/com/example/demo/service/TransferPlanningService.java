@@ -0,0 +1,25 @@
+package com.example.demo.service;
+
+import com.example.demo.planning.TransferPlanner;
+
+import java.util.List;
+import java.util.Map;
+
+public interface TransferPlanningService {
+
+    /**
+     * Plan transfers that cover the units still needed by open (pending or partial)
+     * blood requests, using hospitals' surplus and the blood bank's stock
+     *
+     * @return A map with the proposed transfers, unmet needs and plan totals
+     */
+    Map<String, Object> planForOpenRequests();
+
+    /**
+     * Plan transfers that cover the given needs
+     *
+     * @param needs Units needed per hospital and blood group
+     * @return A map with the proposed transfers, unmet needs and plan totals
+     */
+    Map<String, Object> plan(List<TransferPlanner.Need> needs);
+}
@@ -0,0 +1,80 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.OpenDemand;
+import com.example.demo.model.BloodInventory;
+import com.example.demo.planning.TransferPlanner;
+import com.example.demo.repository.BloodInventoryRepository;
+import com.example.demo.repository.BloodRequestRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class TransferPlanningServiceImpl implements TransferPlanningService {
+
+    private static final List<String> OPEN_STATUSES = List.of("PENDING", "PARTIAL");
+
+    private final BloodInventoryRepository bloodInventoryRepository;
+    private final BloodRequestRepository bloodRequestRepository;
+
+    @Autowired
+    public TransferPlanningServiceImpl(BloodInventoryRepository bloodInventoryRepository,
+                                       BloodRequestRepository bloodRequestRepository) {
+        this.bloodInventoryRepository = bloodInventoryRepository;
+        this.bloodRequestRepository = bloodRequestRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> planForOpenRequests() {
+        List<TransferPlanner.Need> needs = bloodRequestRepository.sumOpenDemand(OPEN_STATUSES).stream()
+                .filter(demand -> demand.units() != null && demand.units() > 0)
+                .map(demand -> new TransferPlanner.Need(demand.hospitalId(), demand.bloodGroup(),
+                        demand.units().intValue(), priorityRank(demand)))
+                .toList();
+        return plan(needs);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> plan(List<TransferPlanner.Need> needs) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TransferPlanner.Lot> lots = bloodInventoryRepository.findByStatus("AVAILABLE").stream()
+                .map(this::toLot)
+                .toList();
+
+        long started = System.nanoTime();
+        TransferPlanner.Plan plan = TransferPlanner.plan(lots, needs, now);
+        long solveMillis = (System.nanoTime() - started) / 1_000_000;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("transfers", plan.transfers());
+        result.put("unmet", plan.unmet());
+        result.put("unitsNeeded", needs.stream().mapToInt(TransferPlanner.Need::units).sum());
+        result.put("coveredLocally", plan.coveredLocally());
+        result.put("unitsPlanned", plan.unitsPlanned());
+        result.put("cost", plan.cost());
+        result.put("solveMillis", solveMillis);
+        return result;
+    }
+
+    private TransferPlanner.Lot toLot(BloodInventory inventory) {
+        return new TransferPlanner.Lot(inventory.getId(), inventory.getHospitalId(), inventory.getBloodGroup(),
+                inventory.getExpiryDate(), inventory.getUnits() != null ? inventory.getUnits() : 0);
+    }
+
+    private int priorityRank(OpenDemand demand) {
+        String priority = demand.priority() != null ? demand.priority().toUpperCase() : "NORMAL";
+        return switch (priority) {
+            case "EMERGENCY" -> 0;
+            case "URGENT", "HIGH" -> 1;
+            case "LOW" -> 3;
+            default -> 2;
+        };
+    }
+}
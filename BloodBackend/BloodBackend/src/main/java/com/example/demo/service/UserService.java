@@ -1,6 +1,7 @@
 package com.example.demo.service;
 
 import com.example.demo.model.User;
+import com.example.demo.security.PasswordHashingExecutor;
 
 import java.util.List;
 import java.util.Optional;
@@ -70,4 +71,16 @@ public interface UserService {
      * @return The user if found, null otherwise
      */
     User findByUsername(String username);
-}
\ No newline at end of file
+    
+    /**
+     * Verify a user's password and schedule a background rehash when the stored value
+     * is legacy plaintext or a BCrypt hash below the configured cost
+     * 
+     * @param user The user, as loaded
+     * @param password The raw password to check
+     * @param priority Hashing priority of the caller
+     * @return True if the password matches
+     * @throws com.example.demo.security.PasswordHashingRejectedException if the hashing pool is saturated
+     */
+    boolean verifyPassword(User user, String password, PasswordHashingExecutor.Priority priority);
+}
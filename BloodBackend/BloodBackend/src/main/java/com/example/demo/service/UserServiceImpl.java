@@ -3,7 +3,7 @@ package com.example.demo.service;
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.example.demo.security.PasswordHashingExecutor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -14,12 +14,12 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashing;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordHashingExecutor passwordHashing) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
     }
 
     @Override
@@ -28,8 +28,8 @@ public class UserServiceImpl implements UserService {
         if (user.getId() == null) {
             user.setCreatedAt(LocalDateTime.now());
             // Only encode password if it's a new user
-            if (user.getPassword() != null && !user.getPassword().startsWith("$2a$")) {
-                user.setPassword(passwordEncoder.encode(user.getPassword()));
+            if (user.getPassword() != null && !PasswordHashingExecutor.isBcryptHash(user.getPassword())) {
+                user.setPassword(passwordHashing.encode(user.getPassword(), PasswordHashingExecutor.Priority.REGISTRATION));
             }
         }
         user.setUpdatedAt(LocalDateTime.now());
@@ -63,7 +63,7 @@ public class UserServiceImpl implements UserService {
         
         if (userOpt.isPresent()) {
             User user = userOpt.get();
-            if (passwordEncoder.matches(password, user.getPassword())) {
+            if (verifyPassword(user, password, PasswordHashingExecutor.Priority.LOGIN)) {
                 return userOpt;
             }
         }
@@ -77,7 +77,7 @@ public class UserServiceImpl implements UserService {
         
         if (userOpt.isPresent()) {
             User user = userOpt.get();
-            if (passwordEncoder.matches(password, user.getPassword())) {
+            if (verifyPassword(user, password, PasswordHashingExecutor.Priority.LOGIN)) {
                 return user;
             }
         }
@@ -90,4 +90,31 @@ public class UserServiceImpl implements UserService {
         Optional<User> userOpt = userRepository.findByEmail(username);
         return userOpt.orElse(null);
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean verifyPassword(User user, String password, PasswordHashingExecutor.Priority priority) {
+        String stored = user.getPassword();
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (PasswordHashingExecutor.isBcryptHash(stored)) {
+            boolean match = passwordHashing.matches(password, stored, priority);
+            if (match && passwordHashing.needsRehash(stored)) {
+                rehashLater(user.getId(), stored, password);
+            }
+            return match;
+        }
+        // Legacy plaintext password from before hashing was introduced: compared
+        // directly, then hashed off the request path for future logins
+        boolean match = stored.equals(password);
+        if (match) {
+            rehashLater(user.getId(), stored, password);
+        }
+        return match;
+    }
+
+    private void rehashLater(Long userId, String stored, String password) {
+        passwordHashing.encodeLater(password, hash ->
+                userRepository.replacePasswordIfUnchanged(userId, stored, hash, LocalDateTime.now()));
+    }
+}
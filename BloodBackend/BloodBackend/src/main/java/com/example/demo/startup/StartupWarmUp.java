@@ -0,0 +1,214 @@
+package com.example.demo.startup;
+
+import com.example.demo.dto.BloodDonationView;
+import com.example.demo.dto.BloodRequestView;
+import com.example.demo.dto.DonorView;
+import com.example.demo.dto.HospitalView;
+import com.example.demo.model.BloodRequest;
+import com.example.demo.model.Donor;
+import com.example.demo.repository.BloodDonationRepository;
+import com.example.demo.repository.BloodRequestRepository;
+import com.example.demo.repository.DonorRepository;
+import com.example.demo.repository.HospitalRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.JwtUtils;
+import com.example.demo.security.TokenRevocationList;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the hot request paths once the application has started and before it
+ * reports itself ready for traffic: issuing and checking access tokens, JSON
+ * for the API views and request bodies, the repository queries behind the main
+ * read endpoints and a few loopback requests through the servlet stack.
+ *
+ * This moves class loading, creation of lazy beans, Hibernate query plan
+ * compilation, connection pool fill and the first JIT compilations out of the
+ * first user requests. {@link ApplicationReadyEvent} listeners run before
+ * readiness switches to ACCEPTING_TRAFFIC, so /actuator/health/readiness stays
+ * down until this has finished. The queries use parameters that match nothing,
+ * and failures are logged without holding up startup.
+ */
+@Component
+public class StartupWarmUp {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmUp.class);
+
+    private static final int JSON_ROWS = 20;
+    private static final List<String> PUBLIC_PATHS = List.of("/api/health", "/api/blood-inventory");
+    private static final String REQUEST_BODY = "{\"name\":\"Warm-up\",\"bloodGroup\":\"O+\",\"phone\":\"0\","
+            + "\"email\":\"warm-up@localhost\",\"location\":\"-\",\"reason\":\"-\",\"unitsNeeded\":1,"
+            + "\"priority\":\"NORMAL\",\"requiredBy\":\"2026-01-01T12:00:00\"}";
+    private static final String DONOR_BODY = "{\"name\":\"Warm-up\",\"username\":\"warm-up\",\"password\":\"-\","
+            + "\"email\":\"warm-up@localhost\",\"bloodGroup\":\"O+\",\"location\":\"-\",\"phone\":\"0\"}";
+
+    private final JwtUtils jwtUtils;
+    private final TokenRevocationList revocationList;
+    private final ObjectMapper objectMapper;
+    private final DonorRepository donorRepository;
+    private final HospitalRepository hospitalRepository;
+    private final BloodRequestRepository bloodRequestRepository;
+    private final BloodDonationRepository bloodDonationRepository;
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final int iterations;
+    private final int queryRounds;
+
+    @Autowired
+    public StartupWarmUp(JwtUtils jwtUtils,
+                         TokenRevocationList revocationList,
+                         ObjectMapper objectMapper,
+                         DonorRepository donorRepository,
+                         HospitalRepository hospitalRepository,
+                         BloodRequestRepository bloodRequestRepository,
+                         BloodDonationRepository bloodDonationRepository,
+                         UserRepository userRepository,
+                         @Value("${bloodbank.warm-up.enabled:true}") boolean enabled,
+                         @Value("${bloodbank.warm-up.iterations:100}") int iterations,
+                         @Value("${bloodbank.warm-up.query-rounds:10}") int queryRounds) {
+        this.jwtUtils = jwtUtils;
+        this.revocationList = revocationList;
+        this.objectMapper = objectMapper;
+        this.donorRepository = donorRepository;
+        this.hospitalRepository = hospitalRepository;
+        this.bloodRequestRepository = bloodRequestRepository;
+        this.bloodDonationRepository = bloodDonationRepository;
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.queryRounds = queryRounds;
+    }
+
+    /**
+     * Runs after the other ready listeners, so that their startup loads are done
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        run("tokens", this::warmUpTokens);
+        run("JSON", this::warmUpJson);
+        run("queries", this::warmUpQueries);
+        if (event.getApplicationContext() instanceof WebServerApplicationContext web && web.getWebServer().getPort() > 0) {
+            run("HTTP", () -> warmUpHttp(web.getWebServer().getPort()));
+        }
+        // Readiness follows right after, so the uptime is the time to readiness
+        logger.info("Warm-up finished in {} ms, ready for traffic {} ms after JVM start",
+                (System.nanoTime() - started) / 1_000_000, ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    private static void run(String name, Step step) {
+        long started = System.nanoTime();
+        try {
+            step.run();
+            logger.debug("Warm-up of {} took {} ms", name, (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            logger.warn("Warm-up of {} failed: {}", name, e.toString());
+        }
+    }
+
+    /**
+     * What login, refresh and every authenticated request do with a token
+     */
+    private void warmUpTokens() {
+        for (int i = 0; i < iterations; i++) {
+            JwtUtils.AccessToken token = jwtUtils.issueAccessToken("warm-up", -1L, "DONOR");
+            if (jwtUtils.parseValidClaims(token.token()) == null) {
+                throw new IllegalStateException("Freshly issued token did not validate");
+            }
+            revocationList.isRevoked(token.id());
+        }
+    }
+
+    private void warmUpJson() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        List<DonorView> donors = new ArrayList<>(JSON_ROWS);
+        List<BloodRequestView> requests = new ArrayList<>(JSON_ROWS);
+        List<BloodDonationView> donations = new ArrayList<>(JSON_ROWS);
+        List<HospitalView> hospitals = new ArrayList<>(JSON_ROWS);
+        for (long id = 1; id <= JSON_ROWS; id++) {
+            donors.add(new DonorView(id, "Warm-up", "-", "0", "O+", "warm-up", "warm-up@localhost", now, 1, 450,
+                    true, now, now));
+            requests.add(new BloodRequestView(id, "Warm-up", "O+", "0", "warm-up@localhost", "-", "-", "PENDING",
+                    1, 0, "NORMAL", now, id, "Warm-up", now, now));
+            donations.add(new BloodDonationView(id, id, "Warm-up", "warm-up@localhost", "0", "O+", 450, now,
+                    "NORMAL", 13.5, "120/80", 72, 36.6, null, "PENDING", now, now));
+            hospitals.add(new HospitalView(id, "Warm-up", "-", "-", "warm-up@localhost", "0", "-", "ACTIVE",
+                    now, now));
+        }
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.writeValueAsBytes(donors);
+            objectMapper.writeValueAsBytes(requests);
+            objectMapper.writeValueAsBytes(donations);
+            objectMapper.writeValueAsBytes(hospitals);
+            objectMapper.readValue(REQUEST_BODY, BloodRequest.class);
+            objectMapper.readValue(DONOR_BODY, Donor.class);
+        }
+    }
+
+    /**
+     * The main read endpoints' queries with parameters that match no rows: this
+     * compiles their query plans and fills the connection pools without loading data
+     */
+    private void warmUpQueries() {
+        for (int i = 0; i < queryRounds; i++) {
+            userRepository.findByEmail("warm-up@localhost");
+            donorRepository.findViewById(-1L);
+            donorRepository.findViewsByIdIn(List.of(-1L));
+            donorRepository.findViewsByBloodGroup("-");
+            hospitalRepository.findViewById(-1L);
+            hospitalRepository.findViewsByStatus("ACTIVE");
+            bloodRequestRepository.findViewById(-1L);
+            bloodRequestRepository.findViewsByIdIn(List.of(-1L));
+            bloodRequestRepository.findViewsByRequestStatus("-");
+            bloodDonationRepository.findViewById(-1L);
+            bloodDonationRepository.findPageByDonorId(-1L, PageRequest.of(0, 20));
+        }
+    }
+
+    /**
+     * Public requests through Tomcat, the security filter chain and Spring MVC,
+     * which otherwise initialise (with their lazy controllers) on the first real request
+     */
+    private void warmUpHttp(int port) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        List<HttpRequest> requests = new ArrayList<>();
+        for (String path : PUBLIC_PATHS) {
+            requests.add(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .timeout(Duration.ofSeconds(5))
+                    .build());
+        }
+        for (int i = 0; i < queryRounds; i++) {
+            for (HttpRequest request : requests) {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+        }
+    }
+}
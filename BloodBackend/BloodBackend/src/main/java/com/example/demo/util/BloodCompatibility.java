@@ -0,0 +1,44 @@
+package com.example.demo.util;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Red cell compatibility between ABO/Rh blood groups
+ */
+public final class BloodCompatibility {
+
+    public static final List<String> BLOOD_GROUPS = List.of("A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-");
+
+    // Donor blood group to the recipient groups it can be given to
+    private static final Map<String, List<String>> COMPATIBLE_RECIPIENTS = Map.of(
+            // O- can donate to anyone
+            "O-", List.of("O+", "O-", "A+", "A-", "B+", "B-", "AB+", "AB-"),
+            // O+ can donate to O+, A+, B+, AB+
+            "O+", List.of("O+", "A+", "B+", "AB+"),
+            // A- can donate to A+, A-, AB+, AB-
+            "A-", List.of("A+", "A-", "AB+", "AB-"),
+            // A+ can donate to A+, AB+
+            "A+", List.of("A+", "AB+"),
+            // B- can donate to B+, B-, AB+, AB-
+            "B-", List.of("B+", "B-", "AB+", "AB-"),
+            // B+ can donate to B+, AB+
+            "B+", List.of("B+", "AB+"),
+            // AB- can donate to AB+, AB-
+            "AB-", List.of("AB+", "AB-"),
+            // AB+ can donate only to AB+
+            "AB+", List.of("AB+"));
+
+    private BloodCompatibility() {
+    }
+
+    /**
+     * @param recipientBloodGroup Recipient blood group
+     * @param donorBloodGroup Donor blood group
+     * @return True if the donor's red cells can be given to the recipient
+     */
+    public static boolean isCompatible(String recipientBloodGroup, String donorBloodGroup) {
+        List<String> compatibleRecipients = COMPATIBLE_RECIPIENTS.get(donorBloodGroup);
+        return compatibleRecipients != null && compatibleRecipients.contains(recipientBloodGroup);
+    }
+}
@@ -4,6 +4,7 @@ import com.example.demo.model.*;
 import com.example.demo.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.*;
 import java.time.LocalDateTime;
@@ -50,11 +51,12 @@ public class DataImportExportUtil {
     }
     
     /**
-     * Import donors from a CSV file
+     * Import donors from a CSV file, in one transaction (all rows or none)
      * 
      * @param csvFile The file containing donor data
      * @return The number of records imported
      */
+    @Transactional
     public int importDonorsFromCsv(File csvFile) throws IOException {
         int recordsImported = 0;
         
@@ -95,11 +97,12 @@ public class DataImportExportUtil {
     }
     
     /**
-     * Import blood donations from a CSV file
+     * Import blood donations from a CSV file, in one transaction (all rows or none)
      * 
      * @param csvFile The file containing blood donation data
      * @return The number of records imported
      */
+    @Transactional
     public int importBloodDonationsFromCsv(File csvFile) throws IOException {
         int recordsImported = 0;
         
@@ -155,11 +158,12 @@ public class DataImportExportUtil {
     }
     
     /**
-     * Import blood inventory from a CSV file
+     * Import blood inventory from a CSV file, in one transaction (all rows or none)
      * 
      * @param csvFile The file containing blood inventory data
      * @return The number of records imported
      */
+    @Transactional
     public int importBloodInventoryFromCsv(File csvFile) throws IOException {
         int recordsImported = 0;
         
@@ -202,6 +206,7 @@ public class DataImportExportUtil {
      * @param outputFile The file to export to
      * @return The number of records exported
      */
+    @Transactional(readOnly = true)
     public int exportDonorsToCsv(File outputFile) throws IOException {
         List<Donor> donors = donorService.getAllDonors();
         
@@ -235,6 +240,7 @@ public class DataImportExportUtil {
      * @param outputFile The file to export to
      * @return The number of records exported
      */
+    @Transactional(readOnly = true)
     public int exportBloodDonationsToCsv(File outputFile) throws IOException {
         List<BloodDonation> donations = bloodDonationService.getAllBloodDonations();
         
@@ -264,8 +270,10 @@ public class DataImportExportUtil {
     }
     
     /**
-     * Generate sample data for testing purposes
+     * Generate sample data for testing purposes. One transaction, so that the
+     * inserts are flushed in JDBC batches rather than committed row by row
      */
+    @Transactional
     public void generateSampleData(int numberOfDonors, int numberOfDonations, int numberOfHospitals) {
         // Sample blood groups
         String[] bloodGroups = {"A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-"};
@@ -325,12 +333,9 @@ public class DataImportExportUtil {
             donation.setPulseRate(60 + random.nextInt(40)); // Between 60 and 100
             donation.setTemperature(36.0 + random.nextDouble() * 2); // Between 36 and 38
             
+            // Also updates the donor's totals and last donation date
             bloodDonationService.saveBloodDonation(donation);
             
-            // Update donor's last donation date
-            donor.setLastDonation(donation.getDonationDate());
-            donorService.saveDonor(donor);
-            
             // Create inventory entry for healthy donations
             if ("NORMAL".equals(donation.getHealthStatus())) {
                 BloodInventory inventory = new BloodInventory();
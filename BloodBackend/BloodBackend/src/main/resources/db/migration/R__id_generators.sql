@@ -0,0 +1,74 @@
+-- Rows of id_generators (see PooledTableIdGenerator) for the tables whose ids
+-- used to come from AUTO_INCREMENT; last_id is the highest id reserved so far.
+-- Runs as a repeatable Flyway migration after the versioned ones (prod profile),
+-- and at every startup of the default profile after Hibernate has created or
+-- updated the schema. It is idempotent: a missing row is created at MAX(id), and
+-- a row behind the table (created by Hibernate at 0 before this ran, or behind
+-- rows inserted outside the app) is moved forward to it. Rows already ahead are
+-- left alone, so ids are never reused.
+
+INSERT INTO id_generators (sequence_name, last_id)
+SELECT 'blood_donations', max_id FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM blood_donations) existing
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE sequence_name = 'blood_donations');
+UPDATE id_generators SET last_id = (SELECT COALESCE(MAX(id), 0) FROM blood_donations)
+WHERE sequence_name = 'blood_donations' AND last_id < (SELECT COALESCE(MAX(id), 0) FROM blood_donations);
+
+INSERT INTO id_generators (sequence_name, last_id)
+SELECT 'blood_inventory', max_id FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM blood_inventory) existing
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE sequence_name = 'blood_inventory');
+UPDATE id_generators SET last_id = (SELECT COALESCE(MAX(id), 0) FROM blood_inventory)
+WHERE sequence_name = 'blood_inventory' AND last_id < (SELECT COALESCE(MAX(id), 0) FROM blood_inventory);
+
+INSERT INTO id_generators (sequence_name, last_id)
+SELECT 'blood_requests', max_id FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM blood_requests) existing
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE sequence_name = 'blood_requests');
+UPDATE id_generators SET last_id = (SELECT COALESCE(MAX(id), 0) FROM blood_requests)
+WHERE sequence_name = 'blood_requests' AND last_id < (SELECT COALESCE(MAX(id), 0) FROM blood_requests);
+
+INSERT INTO id_generators (sequence_name, last_id)
+SELECT 'donation_appointments', max_id FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM donation_appointments) existing
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE sequence_name = 'donation_appointments');
+UPDATE id_generators SET last_id = (SELECT COALESCE(MAX(id), 0) FROM donation_appointments)
+WHERE sequence_name = 'donation_appointments' AND last_id < (SELECT COALESCE(MAX(id), 0) FROM donation_appointments);
+
+INSERT INTO id_generators (sequence_name, last_id)
+SELECT 'donors', max_id FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM donors) existing
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE sequence_name = 'donors');
+UPDATE id_generators SET last_id = (SELECT COALESCE(MAX(id), 0) FROM donors)
+WHERE sequence_name = 'donors' AND last_id < (SELECT COALESCE(MAX(id), 0) FROM donors);
+
+INSERT INTO id_generators (sequence_name, last_id)
+SELECT 'emergency_notifications', max_id FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM emergency_notifications) existing
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE sequence_name = 'emergency_notifications');
+UPDATE id_generators SET last_id = (SELECT COALESCE(MAX(id), 0) FROM emergency_notifications)
+WHERE sequence_name = 'emergency_notifications' AND last_id < (SELECT COALESCE(MAX(id), 0) FROM emergency_notifications);
+
+INSERT INTO id_generators (sequence_name, last_id)
+SELECT 'hospitals', max_id FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM hospitals) existing
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE sequence_name = 'hospitals');
+UPDATE id_generators SET last_id = (SELECT COALESCE(MAX(id), 0) FROM hospitals)
+WHERE sequence_name = 'hospitals' AND last_id < (SELECT COALESCE(MAX(id), 0) FROM hospitals);
+
+INSERT INTO id_generators (sequence_name, last_id)
+SELECT 'inventory_level_samples', max_id FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM inventory_level_samples) existing
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE sequence_name = 'inventory_level_samples');
+UPDATE id_generators SET last_id = (SELECT COALESCE(MAX(id), 0) FROM inventory_level_samples)
+WHERE sequence_name = 'inventory_level_samples' AND last_id < (SELECT COALESCE(MAX(id), 0) FROM inventory_level_samples);
+
+INSERT INTO id_generators (sequence_name, last_id)
+SELECT 'refresh_tokens', max_id FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM refresh_tokens) existing
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE sequence_name = 'refresh_tokens');
+UPDATE id_generators SET last_id = (SELECT COALESCE(MAX(id), 0) FROM refresh_tokens)
+WHERE sequence_name = 'refresh_tokens' AND last_id < (SELECT COALESCE(MAX(id), 0) FROM refresh_tokens);
+
+INSERT INTO id_generators (sequence_name, last_id)
+SELECT 'revoked_tokens', max_id FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM revoked_tokens) existing
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE sequence_name = 'revoked_tokens');
+UPDATE id_generators SET last_id = (SELECT COALESCE(MAX(id), 0) FROM revoked_tokens)
+WHERE sequence_name = 'revoked_tokens' AND last_id < (SELECT COALESCE(MAX(id), 0) FROM revoked_tokens);
+
+INSERT INTO id_generators (sequence_name, last_id)
+SELECT 'users', max_id FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM users) existing
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE sequence_name = 'users');
+UPDATE id_generators SET last_id = (SELECT COALESCE(MAX(id), 0) FROM users)
+WHERE sequence_name = 'users' AND last_id < (SELECT COALESCE(MAX(id), 0) FROM users);
@@ -0,0 +1,296 @@
+-- Schema as of the first versioned release, as Hibernate (MySQLDialect) creates it
+-- from the entities. Databases that were kept up to date by ddl-auto=update are
+-- baselined at this version instead (spring.flyway.baseline-on-migrate in the prod
+-- profile). Later schema changes go into new V<n>__<description>.sql files; this
+-- one is never edited. The id_generators rows are seeded by R__id_generators.sql.
+
+create table blood_donations (
+    hemoglobin_level float(53),
+    pulse_rate integer,
+    quantity_ml integer not null,
+    temperature float(53),
+    created_at datetime(6),
+    donation_date datetime(6) not null,
+    donor_id bigint not null,
+    id bigint not null,
+    updated_at datetime(6),
+    blood_group varchar(255) not null,
+    blood_pressure varchar(255),
+    donation_status varchar(255),
+    health_status varchar(255),
+    notes varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table blood_inventory (
+    units integer not null,
+    created_at datetime(6),
+    donation_id bigint,
+    expiry_date datetime(6),
+    hospital_id bigint,
+    id bigint not null,
+    last_updated datetime(6),
+    updated_at datetime(6),
+    version bigint default 0 not null,
+    blood_group varchar(255) not null,
+    status varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table blood_requests (
+    units_needed integer,
+    units_provided integer,
+    created_at datetime(6),
+    hospital_id bigint,
+    id bigint not null,
+    required_by datetime(6),
+    updated_at datetime(6),
+    blood_group varchar(255) not null,
+    email varchar(255) not null,
+    location varchar(255) not null,
+    name varchar(255) not null,
+    phone varchar(255) not null,
+    priority varchar(255),
+    reason varchar(255) not null,
+    request_status varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table donation_appointments (
+    reminder_sent bit,
+    appointment_date datetime(6) not null,
+    created_at datetime(6),
+    donor_id bigint not null,
+    id bigint not null,
+    updated_at datetime(6),
+    confirmation_code varchar(255),
+    location varchar(255),
+    notes varchar(255),
+    status varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table donation_daily_rollups (
+    rollup_date date not null,
+    donation_count bigint not null,
+    total_volume_ml bigint not null,
+    blood_group varchar(255) not null,
+    health_status varchar(255) not null,
+    primary key (rollup_date, blood_group, health_status)
+) engine=InnoDB;
+
+create table donors (
+    donation_count integer default 0 not null,
+    is_available bit,
+    created_at datetime(6),
+    id bigint not null,
+    last_donation datetime(6),
+    total_volume_ml bigint default 0 not null,
+    updated_at datetime(6),
+    blood_group varchar(255) not null,
+    email varchar(255) not null,
+    location varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    phone varchar(255) not null,
+    username varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table emergency_notifications (
+    units_needed integer,
+    created_at datetime(6),
+    expiry_date datetime(6),
+    hospital_id bigint,
+    id bigint not null,
+    updated_at datetime(6),
+    message varchar(1000) not null,
+    blood_type varchar(255),
+    contact_email varchar(255),
+    contact_phone varchar(255),
+    hospital_name varchar(255),
+    location varchar(255),
+    status varchar(255),
+    title varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table hospitals (
+    created_at datetime(6),
+    id bigint not null,
+    updated_at datetime(6),
+    address varchar(255) not null,
+    contact_person varchar(255),
+    email varchar(255) not null,
+    name varchar(255) not null,
+    phone varchar(255) not null,
+    registration_number varchar(255),
+    status varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table id_generators (
+    last_id bigint,
+    sequence_name varchar(255) not null,
+    primary key (sequence_name)
+) engine=InnoDB;
+
+create table inventory_events (
+    blood_group varchar(3) not null,
+    units integer not null,
+    expiry_date datetime(6),
+    hospital_id bigint,
+    id bigint not null auto_increment,
+    inventory_id bigint not null,
+    occurred_at datetime(6) not null,
+    related_inventory_id bigint,
+    event_type varchar(20) not null,
+    from_status varchar(20),
+    to_status varchar(20),
+    primary key (id)
+) engine=InnoDB;
+
+create table inventory_level_samples (
+    avg_units float(53) not null,
+    blood_group varchar(3) not null,
+    change_event bit not null,
+    max_units integer not null,
+    min_units integer not null,
+    resolution varchar(4) not null,
+    sample_count integer not null,
+    units integer not null,
+    id bigint not null,
+    sampled_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table outbox_messages (
+    attempts integer not null,
+    aggregate_id bigint,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    next_attempt_at datetime(6) not null,
+    published_at datetime(6),
+    status varchar(10) not null,
+    event_type varchar(40) not null,
+    last_error varchar(500),
+    payload TEXT not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table refresh_tokens (
+    access_expires_at datetime(6) not null,
+    created_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    id bigint not null,
+    revoked_at datetime(6),
+    used_at datetime(6),
+    user_id bigint not null,
+    access_token_id varchar(36) not null,
+    family_id varchar(36) not null,
+    token_hash varchar(64) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table revoked_tokens (
+    expires_at datetime(6) not null,
+    id bigint not null,
+    revoked_at datetime(6) not null,
+    token_id varchar(36) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    created_at datetime(6),
+    id bigint not null,
+    updated_at datetime(6),
+    blood_type varchar(255),
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    role varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_blood_donations_donor_date
+   on blood_donations (donor_id, donation_date);
+
+create index idx_blood_inventory_group_status
+   on blood_inventory (blood_group, status);
+
+create index idx_blood_inventory_group_updated
+   on blood_inventory (blood_group, updated_at);
+
+create index idx_blood_inventory_hospital_group_status
+   on blood_inventory (hospital_id, blood_group, status);
+
+create index idx_blood_inventory_hospital_status_expiry
+   on blood_inventory (hospital_id, status, expiry_date);
+
+alter table donors
+   add constraint UKnd8hep05at6gvti74686j88t3 unique (email);
+
+alter table donors
+   add constraint UK7ea190rdlr3g8n6dupiu9ayuh unique (username);
+
+alter table hospitals
+   add constraint UKmu4lhu5fqa3pbbjiegpfmfgq0 unique (email);
+
+alter table hospitals
+   add constraint UK1fkaib39vbk0ip8k5fsqhfxed unique (registration_number);
+
+create index idx_inventory_events_inventory
+   on inventory_events (inventory_id);
+
+create index idx_inventory_events_related
+   on inventory_events (related_inventory_id);
+
+create index idx_inventory_samples_group_time
+   on inventory_level_samples (blood_group, sampled_at);
+
+create index idx_inventory_samples_resolution_time
+   on inventory_level_samples (resolution, sampled_at);
+
+create index idx_outbox_status_due
+   on outbox_messages (status, next_attempt_at);
+
+create index idx_refresh_tokens_family
+   on refresh_tokens (family_id);
+
+create index idx_refresh_tokens_access
+   on refresh_tokens (access_token_id);
+
+create index idx_refresh_tokens_expires
+   on refresh_tokens (expires_at);
+
+alter table refresh_tokens
+   add constraint idx_refresh_tokens_hash unique (token_hash);
+
+create index idx_revoked_tokens_revoked
+   on revoked_tokens (revoked_at);
+
+create index idx_revoked_tokens_expires
+   on revoked_tokens (expires_at);
+
+alter table users
+   add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table blood_donations
+   add constraint FKmcl1261ydq5rcjo5v8vaplysv
+   foreign key (donor_id)
+   references donors (id);
+
+alter table blood_requests
+   add constraint FKswydepcbbl3h93np3gmyac1sf
+   foreign key (hospital_id)
+   references hospitals (id);
+
+alter table donation_appointments
+   add constraint FKo6ta6pxf9q6j5mc8amhr673c3
+   foreign key (donor_id)
+   references donors (id);
+
+alter table emergency_notifications
+   add constraint FKoarv1vycgi91uyvcmime6uu8a
+   foreign key (hospital_id)
+   references hospitals (id);
@@ -0,0 +1,62 @@
+package com.example.demo;
+
+import com.example.demo.dto.DonorView;
+import com.example.demo.model.BloodRequest;
+import com.example.demo.model.Donor;
+import com.example.demo.outbox.DomainEvent;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.util.ClassUtils;
+
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The hints are computed on the JVM while building the image; scanning the class path does not work inside it
+@DisabledInNativeImage
+class BloodBackendRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    BloodBackendRuntimeHintsTest() {
+        new BloodBackendRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersJsonBindingForPayloadTypes() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Donor.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Donor.class.getMethod("setPassword", String.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(BloodRequest.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(DonorView.class).test(hints));
+        // The prebuilt serializer named in @JsonSerialize is instantiated by Jackson
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(DonorView.class.getName() + "$Serializer")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(DomainEvent.class).test(hints));
+    }
+
+    @Test
+    void registersJjwtImplementationClassesThatExist() {
+        for (String className : BloodBackendRuntimeHints.JJWT_CLASSES) {
+            assertTrue(ClassUtils.isPresent(className, getClass().getClassLoader()), className);
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(className))
+                    .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints), className);
+        }
+        assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Serializer").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.CompressionCodec").test(hints));
+        // What the builder and parser look up by name
+        assertTrue(Jwts.builder().getClass().getName().startsWith("io.jsonwebtoken.impl."));
+    }
+
+    @Test
+    void registersConnectionProxiesAndCacheConfiguration() {
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(ConnectionProxy.class).test(hints));
+        assertTrue(ClassUtils.isPresent(BloodBackendRuntimeHints.JCACHE_PROVIDER, getClass().getClassLoader()));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("application.conf").test(hints));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo;
+
+import com.example.demo.model.Hospital;
+import com.example.demo.repository.HospitalRepository;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The migrations in db/migration build the schema the entities expect: the context
+ * only starts if Hibernate validates the migrated schema, as in the prod profile.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.defer-datasource-initialization=false",
+        "spring.sql.init.mode=never"
+})
+@ActiveProfiles("test")
+class SchemaMigrationsTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Test
+    void migrationsAreAppliedAndSeedTheIdGenerators() {
+        MigrationInfo[] applied = flyway.info().applied();
+        assertTrue(Arrays.stream(applied).anyMatch(migration -> "1".equals(String.valueOf(migration.getVersion()))));
+        assertTrue(Arrays.stream(applied).anyMatch(migration -> "id generators".equals(migration.getDescription())));
+        assertEquals(11, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM id_generators", Integer.class));
+
+        String name = "hospital-" + UUID.randomUUID();
+        Hospital hospital = new Hospital();
+        hospital.setName(name);
+        hospital.setAddress("Colombo");
+        hospital.setPhone("0110000000");
+        hospital.setEmail(name + "@example.com");
+        hospital.setCreatedAt(LocalDateTime.now());
+        assertTrue(hospitalRepository.save(hospital).getId() > 0);
+    }
+}
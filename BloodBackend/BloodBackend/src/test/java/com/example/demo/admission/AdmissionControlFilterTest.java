@@ -0,0 +1,215 @@
+package com.example.demo.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AdmissionControlFilterTest {
+
+    private static final String EMERGENCY_REQUEST = "{\"bloodGroup\":\"O-\",\"units\":2,\"priority\":\"EMERGENCY\"}";
+    private static final String NORMAL_REQUEST = "{\"bloodGroup\":\"O-\",\"units\":2,\"priority\":\"NORMAL\"}";
+
+    /**
+     * Stands in for the API: answers with the size of the body it received
+     */
+    @RestController
+    static class StubController {
+
+        @GetMapping("/api/blood-requests")
+        String list() {
+            return "[]";
+        }
+
+        @PostMapping({"/api/blood-requests", "/api/emergency-notifications"})
+        String create(@RequestBody String body) {
+            return Integer.toString(body.length());
+        }
+
+        @GetMapping("/api/emergency-notifications/active")
+        String active() {
+            return "[]";
+        }
+    }
+
+    /**
+     * Makes requests marked with X-Chunked look like chunked uploads (no Content-Length)
+     */
+    private static final Filter CHUNKED = (request, response, chain) -> {
+        HttpServletRequest http = (HttpServletRequest) request;
+        chain.doFilter(http.getHeader("X-Chunked") == null ? http : new HttpServletRequestWrapper(http) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+        }, response);
+    };
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // Burst of 5 per user and 8 per address, and room for a single request in flight
+    private final AdmissionControl admissionControl =
+            new AdmissionControl(registry, true, 0.001, 5, 0.001, 8, 1, 1, 1, 1000, 1.0);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StubController())
+            .addFilters(CHUNKED, new AdmissionControlFilter(admissionControl, new ObjectMapper()))
+            .build();
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void signIn(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null,
+                AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private ResultActions createBloodRequest(String body) throws Exception {
+        return mockMvc.perform(post("/api/blood-requests").contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+
+    private double emergencies() {
+        return registry.get("bloodbank.admission.emergency").counter().count();
+    }
+
+    @Test
+    void shedsRequestsBeyondTheConcurrencyLimit() throws Exception {
+        createBloodRequest(NORMAL_REQUEST).andExpect(status().isOk());
+
+        // Another request holds the only slot
+        admissionControl.tryAdmit(false);
+        createBloodRequest(NORMAL_REQUEST)
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+        mockMvc.perform(get("/api/blood-requests")).andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void authenticatedEmergenciesAreNotShed() throws Exception {
+        admissionControl.tryAdmit(false);
+        signIn("nurse@example.com");
+
+        createBloodRequest(EMERGENCY_REQUEST).andExpect(status().isOk())
+                .andExpect(content().string(Integer.toString(EMERGENCY_REQUEST.length())));
+        mockMvc.perform(post("/api/emergency-notifications").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isOk());
+        assertEquals(2, emergencies());
+
+        // Reading notifications or a normal request is no emergency
+        mockMvc.perform(get("/api/emergency-notifications/active")).andExpect(status().isServiceUnavailable());
+        createBloodRequest(NORMAL_REQUEST).andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void anonymousEmergenciesAreShedLikeAnyRequest() throws Exception {
+        admissionControl.tryAdmit(false);
+
+        createBloodRequest(EMERGENCY_REQUEST).andExpect(status().isServiceUnavailable());
+        mockMvc.perform(post("/api/emergency-notifications").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isServiceUnavailable());
+        assertEquals(0, emergencies());
+    }
+
+    @Test
+    void emergenciesAreRateLimitedToo() throws Exception {
+        signIn("nurse@example.com");
+        for (int i = 0; i < 5; i++) {
+            createBloodRequest(EMERGENCY_REQUEST).andExpect(status().isOk());
+        }
+
+        createBloodRequest(EMERGENCY_REQUEST)
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        mockMvc.perform(post("/api/emergency-notifications").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isTooManyRequests());
+        assertEquals(5, emergencies());
+    }
+
+    @Test
+    void anonymousClientsAreRateLimitedPerAddress() throws Exception {
+        for (int i = 0; i < 8; i++) {
+            mockMvc.perform(get("/api/blood-requests")).andExpect(status().isOk());
+        }
+        createBloodRequest(EMERGENCY_REQUEST).andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void largeAndChunkedBodiesAreNotInspectedButReachTheController() throws Exception {
+        signIn("nurse@example.com");
+        String large = EMERGENCY_REQUEST.replace("}", ",\"reason\":\"" + "x".repeat(70_000) + "\"}");
+
+        createBloodRequest(large).andExpect(status().isOk())
+                .andExpect(content().string(Integer.toString(large.length())));
+        mockMvc.perform(post("/api/blood-requests").header("X-Chunked", "true")
+                        .contentType(MediaType.APPLICATION_JSON).content(EMERGENCY_REQUEST))
+                .andExpect(status().isOk())
+                .andExpect(content().string(Integer.toString(EMERGENCY_REQUEST.length())));
+        assertEquals(0, emergencies());
+
+        // Neither counts as an emergency when the server is full
+        admissionControl.tryAdmit(false);
+        createBloodRequest(large).andExpect(status().isServiceUnavailable());
+        mockMvc.perform(post("/api/blood-requests").header("X-Chunked", "true")
+                        .contentType(MediaType.APPLICATION_JSON).content(EMERGENCY_REQUEST))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void cachedBodySupportsNonBlockingReads() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/blood-requests");
+        request.setContent(EMERGENCY_REQUEST.getBytes(StandardCharsets.UTF_8));
+        CachedBodyRequest cached = new CachedBodyRequest(request, EMERGENCY_REQUEST.length());
+        List<String> events = new ArrayList<>();
+
+        cached.getInputStream().setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() {
+                events.add("data");
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertEquals(List.of("data", "done"), events);
+        assertEquals(EMERGENCY_REQUEST, new String(cached.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+}
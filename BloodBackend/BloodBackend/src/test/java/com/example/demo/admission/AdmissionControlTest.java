@@ -0,0 +1,117 @@
+package com.example.demo.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static AdmissionControl admissionControl(SimpleMeterRegistry registry, int limit) {
+        return new AdmissionControl(registry, true, 10, 5, 1, 20, limit, 1, 100, 1000, 0.5);
+    }
+
+    @Test
+    void tokenBucketAllowsTheBurstThenRefillsAtTheRate() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(now));
+        }
+        long wait = bucket.tryAcquire(now);
+        assertEquals(SECOND / 10, wait);
+        assertFalse(bucket.isFull(now));
+
+        // One token back every 100 ms
+        assertEquals(0, bucket.tryAcquire(now + wait));
+        assertTrue(bucket.tryAcquire(now + wait) > 0);
+
+        // Idle long enough, the bucket is full again but does not save up beyond the burst
+        long later = now + 10 * SECOND;
+        assertTrue(bucket.isFull(later));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(later));
+        }
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void limiterBacksOffOnSlowRequestsAndGrowsWhenBusy() throws Exception {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(10, 2, 20, 0.5, 100);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(1.0));
+        }
+        assertFalse(limiter.tryAcquire(1.0));
+        assertEquals(10, limiter.getInFlight());
+
+        // Fast completions while at least half the limit is in use raise it by one each
+        limiter.release(0);
+        limiter.release(0);
+        assertEquals(12, limiter.getLimit());
+
+        // A slow completion halves it; more slow ones within the same interval do not
+        Thread.sleep(110);
+        limiter.release(TimeUnit.SECONDS.toNanos(1));
+        limiter.release(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(6, limiter.getLimit());
+        assertEquals(6, limiter.getInFlight());
+        assertFalse(limiter.tryAcquire(1.0));
+
+        // Emergency admission ignores the limit but still counts
+        limiter.acquire();
+        assertEquals(7, limiter.getInFlight());
+    }
+
+    @Test
+    void readsGetPartOfTheLimitAndEmergenciesBypassIt() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdmissionControl control = admissionControl(registry, 4);
+        assertTrue(control.tryAdmit(true));
+        assertTrue(control.tryAdmit(true));
+        // Reads may only use half of the limit of 4; writes still get in
+        assertFalse(control.tryAdmit(true));
+        assertTrue(control.tryAdmit(false));
+        assertTrue(control.tryAdmit(false));
+        assertFalse(control.tryAdmit(false));
+        control.admitEmergency();
+
+        assertEquals(5.0, registry.get("bloodbank.admission.in-flight").gauge().value());
+        assertEquals(2.0, registry.get("bloodbank.admission.rejected").tag("reason", "overload").counter().count());
+        assertEquals(1.0, registry.get("bloodbank.admission.emergency").counter().count());
+    }
+
+    @Test
+    void rateLimitsPerUserAndPerAddress() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdmissionControl control = admissionControl(registry, 100);
+        long now = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, control.tryTakeToken("a@x.com", "10.0.0.1", now));
+        }
+        assertTrue(control.tryTakeToken("a@x.com", "10.0.0.1", now) > 0);
+        // Another user behind the same address has their own bucket
+        assertEquals(0, control.tryTakeToken("b@x.com", "10.0.0.1", now));
+        // and signed-in users are not held to the per-address bucket of 20
+        for (int i = 0; i < 30; i++) {
+            assertEquals(0, control.tryTakeToken("user" + i + "@x.com", "10.0.0.1", now));
+        }
+
+        // Anonymous clients share the per-address bucket of 20
+        int admitted = 0;
+        while (control.tryTakeToken(null, "10.0.0.2", now) == 0) {
+            admitted++;
+        }
+        assertEquals(20, admitted);
+        assertEquals(2.0, registry.get("bloodbank.admission.rejected").tag("reason", "rate_limit").counter().count());
+
+        // Buckets still refilling are kept
+        control.evictIdleBuckets();
+        assertEquals(33.0, registry.get("bloodbank.admission.buckets").gauge().value());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.demo.bitmap;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DonorBitmapIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    private static DonorBitmapIndex.DonorFilter filter(Set<String> groups, Boolean available, Boolean eligible,
+                                                       String location) {
+        return new DonorBitmapIndex.DonorFilter(groups, available, eligible, location);
+    }
+
+    private static int[] values(BitSet set) {
+        return set.stream().toArray();
+    }
+
+    private static int[] values(CompressedBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Mixes sparse chunks (sorted arrays) and dense chunks (word bitmaps), including
+     * chunks that cross the array limit in both directions
+     */
+    private static void fill(Random random, BitSet expected, CompressedBitmap bitmap, int denseChunk) {
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(8) == 0 ? random.nextInt(1 << 22) : (denseChunk << 16) + random.nextInt(1 << 14);
+            expected.set(value);
+            bitmap.add(value);
+        }
+        for (int i = 0; i < 8_000; i++) {
+            int value = (denseChunk << 16) + random.nextInt(1 << 14);
+            assertEquals(expected.get(value), bitmap.remove(value));
+            expected.clear(value);
+        }
+    }
+
+    @Test
+    void matchesBitSetForAddRemoveAndSetOperations() {
+        Random random = new Random(5);
+        for (int round = 0; round < 5; round++) {
+            BitSet expectedA = new BitSet();
+            BitSet expectedB = new BitSet();
+            CompressedBitmap a = new CompressedBitmap();
+            CompressedBitmap b = new CompressedBitmap();
+            fill(random, expectedA, a, 3);
+            fill(random, expectedB, b, round % 2 == 0 ? 3 : 9);
+
+            assertArrayEquals(values(expectedA), values(a));
+            assertEquals(expectedA.cardinality(), a.cardinality());
+
+            BitSet and = (BitSet) expectedA.clone();
+            and.and(expectedB);
+            assertArrayEquals(values(and), values(CompressedBitmap.and(a, b)));
+            assertEquals(and.cardinality(), CompressedBitmap.andCardinality(a, b));
+
+            BitSet or = (BitSet) expectedA.clone();
+            or.or(expectedB);
+            assertArrayEquals(values(or), values(CompressedBitmap.or(a, b)));
+
+            BitSet andNot = (BitSet) expectedA.clone();
+            andNot.andNot(expectedB);
+            assertArrayEquals(values(andNot), values(CompressedBitmap.andNot(a, b)));
+            assertArrayEquals(values(andNot), values(CompressedBitmap.andNot(a, b).copy()));
+        }
+    }
+
+    @Test
+    void pagesAcrossChunks() {
+        CompressedBitmap bitmap = CompressedBitmap.of(1, 5, 70_000, 70_001, 200_000);
+        for (int i = 0; i < 5000; i++) {
+            bitmap.add(300_000 + i * 2);
+        }
+
+        assertArrayEquals(new int[]{5, 70_000}, bitmap.page(1, 2));
+        assertArrayEquals(new int[]{200_000, 300_000, 300_002}, bitmap.page(4, 3));
+        assertArrayEquals(new int[]{309_998}, bitmap.page(5004, 10));
+        assertEquals(0, bitmap.page(6000, 10).length);
+        assertTrue(bitmap.contains(300_004));
+        assertFalse(bitmap.contains(300_005));
+    }
+
+    @Test
+    void combinesCriteriaAndAppliesUpdates() {
+        DonorBitmapIndex index = new DonorBitmapIndex(TODAY);
+        index.put(new DonorBitmapIndex.DonorAttributes(1, "O-", true, null, "New York"));
+        index.put(new DonorBitmapIndex.DonorAttributes(2, "O-", true, TODAY.minusDays(10), "new  york"));
+        index.put(new DonorBitmapIndex.DonorAttributes(3, "A+", false, TODAY.minusDays(100), "Chicago"));
+        index.put(new DonorBitmapIndex.DonorAttributes(4, "O+", true, TODAY.minusDays(56), "Chicago"));
+
+        assertEquals(List.of(1L), index.find(filter(Set.of("O-"), true, true, "NEW YORK"), 0, 10));
+        assertEquals(List.of(1L, 4L), index.find(filter(Set.of("O-", "O+"), null, true, null), 0, 10));
+        assertEquals(List.of(2L), index.find(filter(null, null, false, null), 0, 10));
+        assertEquals(2, index.count(filter(null, null, null, "chicago")));
+
+        // Donor 2 moves and becomes unavailable
+        index.put(new DonorBitmapIndex.DonorAttributes(2, "O-", false, TODAY.minusDays(10), "Chicago"));
+        index.remove(3);
+        assertEquals(List.of(2L, 4L), index.find(filter(null, null, null, "Chicago"), 0, 10));
+        assertEquals(0, index.count(filter(Set.of("A+"), null, null, null)));
+
+        Map<String, Object> summary = index.summary();
+        assertEquals(3, summary.get("totalDonors"));
+        assertEquals(2, summary.get("activeDonors"));
+        assertEquals(2, summary.get("eligibleDonors"));
+        assertEquals(1, summary.get("recentDonors"));
+        assertEquals(Map.of("New York", 1, "Chicago", 2), index.countByLocation());
+    }
+
+    @Test
+    void rollForwardEndsDeferralAfterFiftySixDays() {
+        DonorBitmapIndex index = new DonorBitmapIndex(TODAY);
+        index.put(new DonorBitmapIndex.DonorAttributes(1, "B+", true, TODAY.minusDays(55), "Austin"));
+        index.put(new DonorBitmapIndex.DonorAttributes(2, "B+", true, TODAY.minusDays(20), "Austin"));
+        DonorBitmapIndex.DonorFilter eligible = filter(null, null, true, null);
+
+        assertEquals(0, index.count(eligible));
+        assertEquals(1, index.rollForward(TODAY.plusDays(1)));
+        assertEquals(List.of(1L), index.find(eligible, 0, 10));
+        assertEquals(0, index.rollForward(TODAY.plusDays(1)));
+        assertEquals(1, index.rollForward(TODAY.plusDays(40)));
+        assertEquals(2, index.count(eligible));
+
+        // A new donation defers the donor again
+        index.put(new DonorBitmapIndex.DonorAttributes(1, "B+", true, TODAY.plusDays(40), "Austin"));
+        assertEquals(List.of(2L), index.find(eligible, 0, 10));
+    }
+}
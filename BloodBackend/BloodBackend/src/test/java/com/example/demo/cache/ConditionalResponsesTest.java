@@ -0,0 +1,74 @@
+package com.example.demo.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConditionalResponsesTest {
+
+    private static final CacheControl CACHE = CacheControl.maxAge(Duration.ofSeconds(10)).cachePrivate();
+
+    private final ConditionalResponses conditionalResponses =
+            new ConditionalResponses(new AggregateVersions(null, null, null));
+    private final AtomicInteger reads = new AtomicInteger();
+    private MockHttpServletResponse servletResponse;
+
+    private ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/blood-inventory/hospitals");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        servletResponse = new MockHttpServletResponse();
+        return new ServletWebRequest(request, servletResponse);
+    }
+
+    private String read(String body) {
+        reads.incrementAndGet();
+        return body;
+    }
+
+    @Test
+    void completeBodiesAreTaggedAndRevalidatedWithoutReading() {
+        ResponseEntity<String> first = conditionalResponses.ok(request(null), CACHE, null,
+                () -> read("full"), body -> true, Aggregate.INVENTORY);
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+        assertEquals("max-age=10, private", first.getHeaders().getCacheControl());
+
+        ResponseEntity<String> second = conditionalResponses.ok(request(etag), CACHE, null,
+                () -> read("full"), body -> true, Aggregate.INVENTORY);
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertEquals(etag, second.getHeaders().getETag());
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    void incompleteBodiesAreNeitherTaggedNorStored() {
+        String etag = conditionalResponses.ok(request(null), CACHE, () -> "full", Aggregate.INVENTORY)
+                .getHeaders().getETag();
+
+        ResponseEntity<String> partial = conditionalResponses.ok(request("W/\"stale\""), CACHE, null,
+                () -> read("partial"), body -> false, Aggregate.INVENTORY);
+        assertEquals(HttpStatus.OK, partial.getStatusCode());
+        assertEquals("partial", partial.getBody());
+        assertNull(partial.getHeaders().getETag());
+        assertNull(servletResponse.getHeader(HttpHeaders.ETAG));
+        assertEquals("no-store", partial.getHeaders().getCacheControl());
+
+        // A client holding the full body may still revalidate it
+        assertEquals(HttpStatus.NOT_MODIFIED, conditionalResponses.ok(request(etag), CACHE, null,
+                () -> read("partial"), body -> false, Aggregate.INVENTORY).getStatusCode());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConflictRetryAspectTest {
+
+    /**
+     * Loses the race for the first {@code conflicts} calls, then succeeds
+     */
+    static class InventoryWriter {
+
+        final AtomicInteger calls = new AtomicInteger();
+        int conflicts;
+
+        @RetryOnConflict
+        public String transfer() {
+            if (calls.incrementAndGet() <= conflicts) {
+                throw new OptimisticLockingFailureException("Row was updated by another transaction");
+            }
+            return "transferred";
+        }
+
+        @RetryOnConflict
+        public String refuse() {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Not enough units");
+        }
+
+        public String unannotated() {
+            calls.incrementAndGet();
+            throw new OptimisticLockingFailureException("Row was updated by another transaction");
+        }
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InventoryWriter target = new InventoryWriter();
+
+    private InventoryWriter proxy(int maxAttempts) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ConflictRetryAspect(meterRegistry, maxAttempts, 1, 2));
+        return factory.getProxy();
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter(name).count();
+    }
+
+    @Test
+    void retriesConflictsUntilTheCallSucceeds() {
+        target.conflicts = 2;
+
+        assertEquals("transferred", proxy(5).transfer());
+        assertEquals(3, target.calls.get());
+        assertEquals(2, counter("bloodbank.conflict.retries"));
+        assertEquals(0, counter("bloodbank.conflict.exhausted"));
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        target.conflicts = Integer.MAX_VALUE;
+
+        assertThrows(OptimisticLockingFailureException.class, () -> proxy(3).transfer());
+        assertEquals(3, target.calls.get());
+        assertEquals(2, counter("bloodbank.conflict.retries"));
+        assertEquals(1, counter("bloodbank.conflict.exhausted"));
+    }
+
+    @Test
+    void leavesConflictsInsideATransactionToTheOutermostCaller() {
+        target.conflicts = 1;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> proxy(5).transfer());
+        assertEquals(1, target.calls.get());
+        assertEquals(0, counter("bloodbank.conflict.retries"));
+    }
+
+    @Test
+    void doesNotRetryOtherFailuresOrUnannotatedMethods() {
+        InventoryWriter writer = proxy(5);
+
+        assertThrows(IllegalStateException.class, writer::refuse);
+        assertThrows(OptimisticLockingFailureException.class, writer::unannotated);
+        assertEquals(2, target.calls.get());
+        assertEquals(0, counter("bloodbank.conflict.retries"));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.controller.admin;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AdminBloodInventoryControllerTest {
+
+    // Invalid needs are refused before any service is called
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new AdminBloodInventoryController(null, null, null))
+            .build();
+
+    private void assertPlanRefused(String needs) throws Exception {
+        mockMvc.perform(post("/api/blood-inventory/transfer-plan")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(needs))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void transferPlanRefusesInvalidNeeds() throws Exception {
+        assertPlanRefused("[{\"hospitalId\":1,\"bloodGroup\":\"O-\",\"units\":2,\"priority\":-1}]");
+        assertPlanRefused("[{\"hospitalId\":1,\"bloodGroup\":\"O-\",\"units\":0,\"priority\":0}]");
+        assertPlanRefused("[{\"hospitalId\":1,\"bloodGroup\":\"O-\",\"units\":-3,\"priority\":0}]");
+        assertPlanRefused("[{\"hospitalId\":1,\"bloodGroup\":\"X+\",\"units\":2,\"priority\":0}]");
+        assertPlanRefused("[{\"bloodGroup\":\"O-\",\"units\":2,\"priority\":0}]");
+        assertPlanRefused("[null]");
+    }
+}
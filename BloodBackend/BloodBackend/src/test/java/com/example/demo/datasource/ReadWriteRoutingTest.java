@@ -0,0 +1,98 @@
+package com.example.demo.datasource;
+
+import com.example.demo.model.BloodDonation;
+import com.example.demo.model.Donor;
+import com.example.demo.repository.BloodDonationRepository;
+import com.example.demo.repository.DonorRepository;
+import com.example.demo.service.BloodDonationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Which pool a request's connections come from, as recorded by the connection
+ * telemetry. In the test profile both pools point at the same database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadWriteRoutingTest {
+
+    private static final String APPROVE = "PUT /api/blood-donations/{id}/approve";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BloodDonationService bloodDonationService;
+
+    @Autowired
+    private BloodDonationRepository bloodDonationRepository;
+
+    @Autowired
+    private DonorRepository donorRepository;
+
+    private BloodDonation donation() {
+        String name = "donor-" + UUID.randomUUID();
+        Donor donor = new Donor();
+        donor.setName(name);
+        donor.setLocation("Colombo");
+        donor.setPhone("0770000000");
+        donor.setBloodGroup("B+");
+        donor.setUsername(name);
+        donor.setPassword("not-a-hash");
+        donor.setEmail(name + "@example.com");
+        donor.setCreatedAt(LocalDateTime.now());
+
+        BloodDonation donation = new BloodDonation();
+        donation.setDonor(donorRepository.save(donor));
+        donation.setBloodGroup("B+");
+        donation.setQuantityMl(450);
+        donation.setDonationDate(LocalDateTime.now());
+        donation.setDonationStatus("PENDING");
+        return bloodDonationService.saveBloodDonation(donation);
+    }
+
+    /**
+     * Connections taken from a pool while serving an endpoint
+     */
+    private long connections(String pool, String endpoint) {
+        Timer timer = meterRegistry.find("bloodbank.db.connection.wait")
+                .tag("pool", pool)
+                .tag("endpoint", endpoint)
+                .timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    @Test
+    void writeAfterAReadOnlyReadInTheSameRequestUsesThePrimary() throws Exception {
+        BloodDonation donation = donation();
+        long readOnlyBefore = connections(ReadWriteRoutingDataSource.READ_ONLY, APPROVE);
+        long primaryBefore = connections(ReadWriteRoutingDataSource.PRIMARY, APPROVE);
+
+        // Loads the donation in a read-only transaction, then saves it
+        mockMvc.perform(put("/api/blood-donations/{id}/approve", donation.getId())
+                        .with(user("admin@example.com").authorities(() -> "ROLE_ADMIN")))
+                .andExpect(status().isOk());
+
+        assertEquals(1, connections(ReadWriteRoutingDataSource.READ_ONLY, APPROVE) - readOnlyBefore);
+        assertEquals(1, connections(ReadWriteRoutingDataSource.PRIMARY, APPROVE) - primaryBefore);
+        assertEquals("APPROVED", bloodDonationRepository.findById(donation.getId()).orElseThrow().getDonationStatus());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.BloodRequest;
+import com.example.demo.model.Donor;
+import com.example.demo.model.Hospital;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ViewSerializerTest {
+
+    // Configured like the application's mapper: ISO date strings, java.time support
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    // The same mapper, serializing the views by reflection instead of their prebuilt serializers
+    private final ObjectMapper reflective = mapper.copy().setAnnotationIntrospector(new JacksonAnnotationIntrospector() {
+        @Override
+        public Object findSerializer(Annotated annotated) {
+            return null;
+        }
+    });
+
+    private static Donor donor(long id) {
+        Donor donor = new Donor();
+        donor.setId(id);
+        donor.setName("Donor " + id);
+        donor.setLocation(id % 2 == 0 ? "Colombo" : "Kandy \"Central\"");
+        donor.setPhone("07700" + id);
+        donor.setBloodGroup("O+");
+        donor.setUsername("donor" + id);
+        donor.setPassword("$2a$10$secret-hash");
+        donor.setEmail("donor" + id + "@example.com");
+        donor.setLastDonation(id % 3 == 0 ? null : LocalDateTime.of(2026, 3, 1, 9, 30).plusMinutes(id));
+        donor.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0));
+        donor.setUpdatedAt(LocalDateTime.of(2026, 1, 2, 3, 4, 5, 600_000_000));
+        return donor;
+    }
+
+    private static BloodRequest request(long id, Hospital hospital) {
+        BloodRequest request = new BloodRequest();
+        request.setId(id);
+        request.setName("Patient " + id);
+        request.setBloodGroup("A-");
+        request.setPhone("07711" + id);
+        request.setEmail("patient" + id + "@example.com");
+        request.setLocation("Galle");
+        request.setReason("Surgery");
+        request.setUnitsNeeded(2);
+        request.setPriority(id % 10 == 0 ? "EMERGENCY" : "NORMAL");
+        request.setRequiredBy(id % 2 == 0 ? null : LocalDateTime.of(2026, 5, 1, 12, 0));
+        request.setHospital(id % 4 == 0 ? null : hospital);
+        request.setCreatedAt(LocalDateTime.of(2026, 4, 1, 8, 0, 1));
+        request.setUpdatedAt(LocalDateTime.of(2026, 4, 1, 8, 0, 1));
+        return request;
+    }
+
+    private static Hospital hospital() {
+        Hospital hospital = new Hospital();
+        hospital.setId(7L);
+        hospital.setName("General");
+        hospital.setAddress("1 Main St");
+        hospital.setContactPerson("Dr. Perera");
+        hospital.setEmail("general@example.com");
+        hospital.setPhone("0112");
+        hospital.setStatus("ACTIVE");
+        return hospital;
+    }
+
+    @Test
+    void prebuiltSerializersWriteTheSameJsonAsReflection() throws Exception {
+        for (long id = 1; id <= 6; id++) {
+            DonorView donor = DonorView.from(donor(id));
+            assertEquals(reflective.writeValueAsString(donor), mapper.writeValueAsString(donor));
+            BloodRequestView request = BloodRequestView.from(request(id, hospital()));
+            assertEquals(reflective.writeValueAsString(request), mapper.writeValueAsString(request));
+        }
+        HospitalView hospital = HospitalView.from(hospital());
+        assertEquals(reflective.writeValueAsString(hospital), mapper.writeValueAsString(hospital));
+        BloodDonationView donation = new BloodDonationView(1L, 2L, "Donor 2", "donor2@example.com", null, "B+", 450,
+                LocalDateTime.of(2026, 2, 3, 4, 5), "NORMAL", 13.5, "120/80", 72, 36.6, null, "PENDING",
+                LocalDateTime.of(2026, 2, 3, 4, 5), null);
+        assertEquals(reflective.writeValueAsString(donation), mapper.writeValueAsString(donation));
+    }
+
+    @Test
+    void donorsAreNeverSerializedWithTheirPassword() throws Exception {
+        String view = mapper.writeValueAsString(DonorView.from(donor(1)));
+        String entity = mapper.writeValueAsString(donor(1));
+        assertFalse(view.contains("password"));
+        assertFalse(entity.contains("password"));
+        assertTrue(view.contains("\"available\":true"));
+        assertTrue(view.contains("\"updatedAt\":\"2026-01-02T03:04:05.6\""));
+
+        // Still accepted on registration
+        Donor registered = mapper.readValue("{\"username\":\"new\",\"password\":\"secret\"}", Donor.class);
+        assertEquals("secret", registered.getPassword());
+    }
+
+    @Test
+    void hospitalsAreSerializedWithoutTheirRequests() throws Exception {
+        Hospital hospital = hospital();
+        hospital.getBloodRequests().add(request(1, hospital));
+        String json = mapper.writeValueAsString(request(1, hospital));
+        assertTrue(json.contains("\"hospital\":{\"id\":7"));
+        assertFalse(json.contains("bloodRequests"));
+        assertTrue(mapper.writeValueAsString(BloodRequestView.from(request(1, hospital)))
+                .contains("\"hospitalId\":7,\"hospitalName\":\"General\""));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.demo.fanout;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryFanOutTest {
+
+    /**
+     * Records the definition each query ran under; no resources are involved
+     */
+    private final List<TransactionDefinition> transactions = new CopyOnWriteArrayList<>();
+    private final PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            transactions.add(definition);
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(definition.isReadOnly());
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    };
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private QueryFanOut fanOut;
+
+    private QueryFanOut fanOut(int threads, long timeoutMillis) {
+        fanOut = new QueryFanOut(transactionManager, meterRegistry, threads, timeoutMillis);
+        return fanOut;
+    }
+
+    @AfterEach
+    void shutdown() {
+        fanOut.shutdown();
+    }
+
+    /**
+     * Blocks until released, e.g. to hold a query past its deadline
+     */
+    private static <T> T awaitThen(CountDownLatch latch, T value) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    @Test
+    void queriesRunConcurrentlyInReadOnlyTransactions() {
+        // Each query waits for the other two to start, which only happens if they run at once
+        CountDownLatch started = new CountDownLatch(3);
+        QueryFanOut.Fork fork = fanOut(4, 5_000).fork();
+        QueryFanOut.Part<Boolean> first = fork.add("first", () -> allStarted(started), null);
+        QueryFanOut.Part<Boolean> second = fork.add("second", () -> allStarted(started), null);
+        QueryFanOut.Part<Boolean> readOnly = fork.add("readOnly", () -> allStarted(started)
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly(), null);
+        QueryFanOut.Report report = fork.join();
+
+        assertTrue(first.get());
+        assertTrue(second.get());
+        assertTrue(readOnly.get());
+        assertTrue(report.isComplete());
+        assertEquals(List.of("first", "second", "readOnly"), List.copyOf(report.timingsMs().keySet()));
+        assertEquals(3, transactions.size());
+        // 5 s query timeout as statement timeout
+        assertTrue(transactions.stream().allMatch(definition -> definition.getTimeout() == 5));
+    }
+
+    private static boolean allStarted(CountDownLatch started) {
+        started.countDown();
+        try {
+            return started.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Test
+    void slowAndFailingQueriesFallBackWithoutHoldingUpTheOthers() {
+        CountDownLatch release = new CountDownLatch(1);
+        QueryFanOut.Fork fork = fanOut(4, 200).fork();
+        QueryFanOut.Part<Long> fast = fork.add("fast", () -> 7L, null);
+        // Released only after the join, so the join cannot have waited for it
+        QueryFanOut.Part<Long> slow = fork.add("slow", () -> awaitThen(release, 8L), -1L);
+        QueryFanOut.Part<Long> failing = fork.add("failing", () -> {
+            throw new IllegalStateException("replica gone");
+        }, null);
+        QueryFanOut.Report report = fork.join();
+        release.countDown();
+
+        assertEquals(7L, fast.get());
+        assertEquals(-1L, slow.get());
+        assertNull(failing.get());
+        assertEquals(List.of("slow", "failing"), report.incomplete());
+        assertEquals(1, meterRegistry.get("bloodbank.fan-out.query").tag("query", "slow").tag("outcome", "timeout").timer().count());
+        assertEquals(1, meterRegistry.get("bloodbank.fan-out.query").tag("query", "failing").tag("outcome", "error").timer().count());
+        assertEquals(1, meterRegistry.get("bloodbank.fan-out.query").tag("query", "fast").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void queriesQueuedPastTheDeadlineAreNotStarted() {
+        CountDownLatch release = new CountDownLatch(1);
+        QueryFanOut.Fork fork = fanOut(1, 200).fork();
+        QueryFanOut.Part<Long> blocking = fork.add("blocking", () -> awaitThen(release, 1L), null);
+        QueryFanOut.Part<Long> queued = fork.add("queued", () -> {
+            throw new AssertionError("ran after its deadline");
+        }, 0L);
+        QueryFanOut.Report report = fork.join();
+        release.countDown();
+
+        assertNull(blocking.get());
+        assertEquals(0L, queued.get());
+        assertEquals(List.of("blocking", "queued"), report.incomplete());
+
+        // The single thread reaches a later fork's query only after dropping the queued one
+        QueryFanOut.Fork next = fanOut.fork();
+        QueryFanOut.Part<Long> probe = next.add("probe", () -> 2L, null);
+        next.join();
+        assertEquals(2L, probe.get());
+        // Transactions for the blocking query and the probe, none for the dropped one
+        assertEquals(2, transactions.size());
+    }
+
+    @Test
+    void partsAreReadAfterJoining() {
+        QueryFanOut.Fork fork = fanOut(2, 1_000).fork();
+        QueryFanOut.Part<Long> part = fork.add("part", () -> 1L, null);
+
+        assertThrows(IllegalStateException.class, part::get);
+        fork.join();
+        assertEquals(1L, part.get());
+        assertThrows(IllegalStateException.class, () -> fork.add("late", () -> 2L, null));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.forecast;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HoltWintersModelTest {
+
+    private static final double[] WEEKLY_PATTERN = {12, 10, 10, 11, 14, 6, 4};
+
+    @Test
+    void learnsWeeklySeasonality() {
+        Random random = new Random(42);
+        double[] series = new double[26 * 7];
+        for (int day = 0; day < series.length; day++) {
+            series[day] = WEEKLY_PATTERN[day % 7] + random.nextGaussian();
+        }
+
+        HoltWintersModel model = HoltWintersModel.fit(series, 7);
+
+        for (int step = 1; step <= 14; step++) {
+            double expected = WEEKLY_PATTERN[(series.length + step - 1) % 7];
+            assertEquals(expected, model.forecast(step), 2.0, "step " + step);
+        }
+        assertTrue(model.getRmse() < 2.0);
+    }
+
+    @Test
+    void forecastsMeanBeforeTwoSeasonsAndNeverNegative() {
+        HoltWintersModel model = new HoltWintersModel(7, 0.3, 0.05, 0.2);
+        assertEquals(0, model.forecast(1));
+        model.update(4);
+        model.update(2);
+        assertEquals(3, model.forecast(5));
+
+        HoltWintersModel declining = new HoltWintersModel(7, 0.5, 0.5, 0.2);
+        for (int day = 0; day < 28; day++) {
+            declining.update(100 - 3 * day);
+        }
+        assertEquals(0, declining.forecast(30));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.journal;
+
+import com.example.demo.model.InventoryEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryProjectionsTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    void projectionsFollowReceiveSplitTransferAndExpire() {
+        LocalDateTime soon = NOW.plusDays(3);
+        LocalDateTime later = NOW.plusDays(30);
+        List<InventoryEvent> journal = List.of(
+                new InventoryEvent(InventoryEvent.RECEIVED, 1L, null, "O-", null, soon, null, "AVAILABLE", 10),
+                new InventoryEvent(InventoryEvent.RECEIVED, 2L, null, "O-", 7L, later, null, "AVAILABLE", 4),
+                // Allocate 3 units out of row 1 into new row 3
+                new InventoryEvent(InventoryEvent.SPLIT, 3L, 1L, "O-", null, soon, "AVAILABLE", "RESERVED", 3),
+                // Move 2 units from row 1 to hospital 7's row 2
+                new InventoryEvent(InventoryEvent.TRANSFERRED, 1L, 2L, "O-", null, soon, "AVAILABLE", null, 2),
+                new InventoryEvent(InventoryEvent.TRANSFERRED, 2L, 1L, "O-", 7L, later, null, "AVAILABLE", 2),
+                new InventoryEvent(InventoryEvent.USED, 3L, null, "O-", null, soon, "RESERVED", "USED", 3));
+
+        StockByGroupProjection stock = new StockByGroupProjection();
+        ExpiringSoonProjection expiring = new ExpiringSoonProjection();
+        HospitalHoldingsProjection holdings = new HospitalHoldingsProjection();
+        for (InventoryEvent event : journal) {
+            stock.apply(event);
+            expiring.apply(event);
+            holdings.apply(event);
+        }
+
+        assertEquals(11, stock.getUnits("O-", "AVAILABLE"));
+        assertEquals(0, stock.getUnits("O-", "RESERVED"));
+        assertEquals(3, stock.getUnits("O-", "USED"));
+        assertEquals(Map.of("O-", 5), expiring.unitsExpiringBefore(NOW.plusDays(7)));
+        assertEquals(Map.of("O-", 11), expiring.unitsExpiringBefore(NOW.plusDays(60)));
+        assertEquals(Map.of(HospitalHoldingsProjection.BLOOD_BANK, Map.of("O-", 5), "7", Map.of("O-", 6)),
+                holdings.snapshot());
+
+        stock.reset();
+        assertTrue(stock.snapshot().isEmpty());
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.demo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.util.StreamUtils;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PooledTableIdGeneratorTest {
+
+    private static final String SEED_SCRIPT = "db/migration/R__id_generators.sql";
+    // Entity and table names of the classes below
+    private static final String TEST_MAPPING = "com/example/demo/model/PooledTableIdGeneratorTest-orm.xml";
+
+    static class PooledItem {
+        @Id
+        @PooledTableId
+        Long id;
+
+        @Column(name = "label")
+        String label;
+    }
+
+    static class SmallBlockItem {
+        @Id
+        @PooledTableId
+        Long id;
+    }
+
+    static class IdentityItem {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        @Column(name = "label")
+        String label;
+    }
+
+    private static String url(String database) {
+        return "jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+    }
+
+    private static SessionFactory sessionFactory(String database, String schemaAction, Map<String, Object> settings) {
+        return sessionFactoryFor(url(database), schemaAction, settings);
+    }
+
+    static SessionFactory sessionFactoryFor(String url, String schemaAction, Map<String, Object> settings) {
+        StandardServiceRegistryBuilder registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, url)
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, schemaAction)
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, 50)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.GENERATE_STATISTICS, true)
+                .applySetting(PooledTableIdGenerator.ALLOCATION_SIZE_SETTING, 50)
+                .applySettings(settings);
+        return new MetadataSources(registry.build())
+                .addResource(TEST_MAPPING)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    private static long lastId(String database, String table) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url(database));
+             Statement statement = connection.createStatement();
+             ResultSet row = statement.executeQuery(
+                     "SELECT last_id FROM id_generators WHERE sequence_name = '" + table + "'")) {
+            assertTrue(row.next(), table);
+            return row.getLong(1);
+        }
+    }
+
+    static <T> List<Long> persist(SessionFactory sessionFactory, int count, Function<Integer, T> entity,
+                                  Function<T, Long> id) {
+        List<T> entities = new ArrayList<>(count);
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < count; i++) {
+                T created = entity.apply(i);
+                session.persist(created);
+                entities.add(created);
+            }
+            session.getTransaction().commit();
+        }
+        return entities.stream().map(id).toList();
+    }
+
+    static PooledItem pooledItem(int i) {
+        PooledItem item = new PooledItem();
+        item.label = "item " + i;
+        return item;
+    }
+
+    static IdentityItem identityItem(int i) {
+        IdentityItem item = new IdentityItem();
+        item.label = "item " + i;
+        return item;
+    }
+
+    @Test
+    void idsComeInBlocksAndInsertsAreBatched() throws SQLException {
+        try (SessionFactory sessionFactory = sessionFactory("blocks", "create-drop", Map.of())) {
+            sessionFactory.getStatistics().clear();
+            List<Long> ids = persist(sessionFactory, 120, PooledTableIdGeneratorTest::pooledItem, item -> item.id);
+
+            assertEquals(120, new HashSet<>(ids).size());
+            assertEquals(1L, ids.get(0));
+            assertEquals(120L, ids.get(119));
+            // Three blocks of 50 reserved
+            assertEquals(150L, lastId("blocks", "pooled_items"));
+            // 3 batches of inserts plus 3 block reservations (select and update each), not 120 inserts
+            assertTrue(sessionFactory.getStatistics().getPrepareStatementCount() <= 12,
+                    "prepared statements: " + sessionFactory.getStatistics().getPrepareStatementCount());
+        }
+    }
+
+    @Test
+    void allocationSizeCanBeSetPerTable() throws SQLException {
+        Map<String, Object> settings = Map.of(PooledTableIdGenerator.ALLOCATION_SIZE_SETTING + ".small_block_items", 3);
+        try (SessionFactory sessionFactory = sessionFactory("per-table", "create-drop", settings)) {
+            List<Long> ids = persist(sessionFactory, 7, i -> new SmallBlockItem(), item -> item.id);
+
+            assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), ids);
+            assertEquals(9L, lastId("per-table", "small_block_items"));
+            persist(sessionFactory, 1, PooledTableIdGeneratorTest::pooledItem, item -> item.id);
+            assertEquals(50L, lastId("per-table", "pooled_items"));
+        }
+    }
+
+    @Test
+    void instancesSharingTheTableNeverHandOutTheSameId() {
+        try (SessionFactory first = sessionFactory("instances", "create", Map.of());
+             SessionFactory second = sessionFactory("instances", "none", Map.of())) {
+            Set<Long> ids = new HashSet<>();
+            for (int round = 0; round < 4; round++) {
+                ids.addAll(persist(first, 30, PooledTableIdGeneratorTest::pooledItem, item -> item.id));
+                ids.addAll(persist(second, 30, PooledTableIdGeneratorTest::pooledItem, item -> item.id));
+            }
+            assertEquals(240, ids.size());
+        }
+    }
+
+    @Test
+    void generatorContinuesAfterTheSeededValue() throws SQLException {
+        try (SessionFactory sessionFactory = sessionFactory("seeded", "create-drop", Map.of())) {
+            try (Connection connection = DriverManager.getConnection(url("seeded"));
+                 Statement statement = connection.createStatement()) {
+                statement.executeUpdate("INSERT INTO pooled_items (id, label) VALUES (1, 'old'), (977, 'old')");
+                statement.executeUpdate("MERGE INTO id_generators (sequence_name, last_id) KEY (sequence_name) "
+                        + "VALUES ('pooled_items', 977)");
+            }
+            List<Long> ids = persist(sessionFactory, 3, PooledTableIdGeneratorTest::pooledItem, item -> item.id);
+
+            assertEquals(List.of(978L, 979L, 980L), ids);
+        }
+    }
+
+    /**
+     * Each table the seed script covers: existing rows, a row Hibernate inserted
+     * with the initial value, and a row already ahead of the table
+     */
+    @Test
+    void seedScriptStartsAfterExistingIdsAndIsIdempotent() throws Exception {
+        List<String> tables = pooledTables();
+        try (Connection connection = DriverManager.getConnection(url("seed"));
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE id_generators (sequence_name VARCHAR(255) PRIMARY KEY, last_id BIGINT)");
+            for (String table : tables) {
+                statement.execute("CREATE TABLE " + table + " (id BIGINT PRIMARY KEY)");
+            }
+            statement.execute("INSERT INTO donors (id) VALUES (1), (2), (41)");
+            statement.execute("INSERT INTO users (id) VALUES (7)");
+            statement.execute("INSERT INTO id_generators VALUES ('users', 0)");
+            statement.execute("INSERT INTO hospitals (id) VALUES (3)");
+            statement.execute("INSERT INTO id_generators VALUES ('hospitals', 500)");
+
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(SEED_SCRIPT));
+            Map<String, Long> seeded = lastIds(statement);
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(SEED_SCRIPT));
+
+            assertEquals(seeded, lastIds(statement));
+            assertEquals(Set.copyOf(tables), seeded.keySet());
+            assertEquals(41L, seeded.get("donors"));
+            assertEquals(7L, seeded.get("users"));
+            assertEquals(500L, seeded.get("hospitals"));
+            assertEquals(0L, seeded.get("blood_requests"));
+        }
+    }
+
+    private static Map<String, Long> lastIds(Statement statement) throws SQLException {
+        Map<String, Long> values = new HashMap<>();
+        try (ResultSet rows = statement.executeQuery("SELECT sequence_name, last_id FROM id_generators")) {
+            while (rows.next()) {
+                values.put(rows.getString(1), rows.getLong(2));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * The tables of the application's entities with @PooledTableId ids, which the
+     * seed script must all cover
+     */
+    private static List<String> pooledTables() throws Exception {
+        String script = StreamUtils.copyToString(new ClassPathResource(SEED_SCRIPT).getInputStream(), StandardCharsets.UTF_8);
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        List<String> tables = new ArrayList<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents("com.example.demo.model")) {
+            Class<?> type = Class.forName(candidate.getBeanClassName());
+            Table table = type.getAnnotation(Table.class);
+            boolean pooled = false;
+            for (Field field : type.getDeclaredFields()) {
+                pooled |= field.isAnnotationPresent(PooledTableId.class);
+            }
+            if (pooled) {
+                assertTrue(script.contains("'" + table.name() + "'"), table.name() + " is not seeded");
+                tables.add(table.name());
+            }
+        }
+        assertEquals(11, tables.size());
+        return tables;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.demo.outbox;
+
+import com.example.demo.model.OutboxMessage;
+import com.example.demo.repository.OutboxMessageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxRelayTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final long LEASE_SECONDS = 60;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<OutboxMessage> table = new ArrayList<>();
+    private final List<DomainEvent> delivered = new ArrayList<>();
+    private Consumer<DomainEvent> listener = event -> {
+    };
+
+    /**
+     * The outbox table in memory: rows are the message objects themselves, so the
+     * relay's changes to claimed messages are its updates
+     */
+    private final OutboxMessageRepository repository = (OutboxMessageRepository) Proxy.newProxyInstance(
+            OutboxMessageRepository.class.getClassLoader(), new Class<?>[]{OutboxMessageRepository.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "lockDueBatch" -> due((LocalDateTime) args[0], (Integer) args[1]);
+                case "markPublished" -> {
+                    Collection<?> ids = (Collection<?>) args[0];
+                    table.stream().filter(message -> ids.contains(message.getId())).forEach(message -> {
+                        message.setStatus(OutboxMessage.PUBLISHED);
+                        message.setPublishedAt((LocalDateTime) args[1]);
+                    });
+                    yield ids.size();
+                }
+                case "saveAll" -> args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+
+    private final PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    };
+
+    private final OutboxRelay relay = new OutboxRelay(repository, event -> {
+        DomainEvent domainEvent = (DomainEvent) event;
+        listener.accept(domainEvent);
+        delivered.add(domainEvent);
+    }, new ObjectMapper(), transactionManager, meterRegistry, BATCH_SIZE, LEASE_SECONDS, MAX_ATTEMPTS, 7);
+
+    private List<OutboxMessage> due(LocalDateTime now, int limit) {
+        return table.stream()
+                .filter(message -> OutboxMessage.PENDING.equals(message.getStatus()))
+                .filter(message -> !message.getNextAttemptAt().isAfter(now))
+                .sorted(Comparator.comparing(OutboxMessage::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    private OutboxMessage write(long id, String payload) {
+        OutboxMessage message = new OutboxMessage(DomainEvent.DONATION_RECORDED, id, payload);
+        ReflectionTestUtils.setField(message, "id", id);
+        table.add(message);
+        return message;
+    }
+
+    private static void makeDue(OutboxMessage message) {
+        message.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+    }
+
+    private double messages(String outcome) {
+        return meterRegistry.get("bloodbank.outbox.messages").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void deliversDueMessagesInBatchesAndMarksThemPublished() {
+        for (long id = 1; id <= 5; id++) {
+            write(id, "{\"donationId\":" + id + "}");
+        }
+
+        // Five messages in batches of two, in one run
+        assertEquals(5, relay.relayPending());
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), delivered.stream().map(DomainEvent::id).toList());
+        assertEquals(3, delivered.get(2).payload().get("donationId"));
+        assertEquals(DomainEvent.DONATION_RECORDED, delivered.get(0).type());
+        assertTrue(table.stream().allMatch(message -> OutboxMessage.PUBLISHED.equals(message.getStatus())
+                && message.getPublishedAt() != null));
+        assertEquals(5, messages("published"));
+        // Nothing is delivered twice
+        assertEquals(0, relay.relayPending());
+    }
+
+    @Test
+    void claimedMessagesAreLeasedWhileTheyAreDelivered() {
+        OutboxMessage message = write(1, "{}");
+        List<OutboxMessage> dueDuringDelivery = new ArrayList<>();
+        listener = event -> dueDuringDelivery.addAll(due(LocalDateTime.now(), 10));
+
+        relay.relayPending();
+
+        // Another relay polling meanwhile would not have claimed it again
+        assertEquals(List.of(), dueDuringDelivery);
+        assertEquals(OutboxMessage.PUBLISHED, message.getStatus());
+    }
+
+    @Test
+    void failedDeliveriesAreRetriedWithBackoff() {
+        OutboxMessage first = write(1, "{}");
+        OutboxMessage second = write(2, "{}");
+        listener = event -> {
+            if (event.id() == 2 && second.getAttempts() == 0) {
+                throw new IllegalStateException("mail server down");
+            }
+        };
+
+        assertEquals(1, relay.relayPending());
+        assertEquals(OutboxMessage.PUBLISHED, first.getStatus());
+        assertEquals(OutboxMessage.PENDING, second.getStatus());
+        assertEquals(1, second.getAttempts());
+        assertEquals("IllegalStateException: mail server down", second.getLastError());
+        // First retry after 2 s
+        assertTrue(second.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(1)));
+        assertTrue(second.getNextAttemptAt().isBefore(LocalDateTime.now().plusSeconds(3)));
+        assertEquals(0, relay.relayPending());
+
+        makeDue(second);
+        assertEquals(1, relay.relayPending());
+        assertEquals(OutboxMessage.PUBLISHED, second.getStatus());
+        assertEquals(1, messages("retry"));
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        OutboxMessage message = write(1, "not json");
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            assertEquals(0, relay.relayPending());
+            makeDue(message);
+        }
+
+        assertEquals(OutboxMessage.FAILED, message.getStatus());
+        assertEquals(MAX_ATTEMPTS, message.getAttempts());
+        assertNotNull(message.getLastError());
+        assertEquals(1, messages("failed"));
+        // Failed messages are no longer due
+        assertEquals(0, relay.relayPending());
+        assertEquals(List.of(), delivered);
+    }
+}
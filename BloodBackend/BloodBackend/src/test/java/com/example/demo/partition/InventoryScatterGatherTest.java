@@ -0,0 +1,153 @@
+package com.example.demo.partition;
+
+import com.example.demo.dto.BloodGroupUnits;
+import com.example.demo.dto.HospitalGroupUnits;
+import com.example.demo.journal.HospitalHoldingsProjection;
+import com.example.demo.repository.BloodInventoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryScatterGatherTest {
+
+    // Hospital 3 is in partition 1 of 2, hospitals 2 and 4 in partition 0; of 3
+    // partitions, hospital 3 is in partition 0, 4 in 1 and 2 in 2
+    private static final long SLOW_HOSPITAL = 3;
+
+    private final CountDownLatch slowPartitionReleased = new CountDownLatch(1);
+    private final List<TransactionDefinition> transactions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger mostRunning = new AtomicInteger();
+    private InventoryScatterGather scatterGather;
+
+    /**
+     * Records the transactions the partition queries run in
+     */
+    private final PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            transactions.add(definition);
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    };
+
+    /**
+     * Two O+ units per hospital and three at the blood bank; the slow hospital's
+     * partition does not answer until released
+     */
+    private final BloodInventoryRepository repository = (BloodInventoryRepository) Proxy.newProxyInstance(
+            BloodInventoryRepository.class.getClassLoader(), new Class<?>[]{BloodInventoryRepository.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "findDistinctHospitalIds" -> List.of(2L, SLOW_HOSPITAL, 4L);
+                case "sumBloodBankUnitsByBloodGroup" -> List.of(new BloodGroupUnits("O+", 3L));
+                case "sumUnitsByHospitalAndBloodGroup" -> {
+                    mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Collection<?> hospitals = (Collection<?>) args[0];
+                        if (hospitals.contains(SLOW_HOSPITAL)) {
+                            slowPartitionReleased.await();
+                        } else {
+                            Thread.sleep(20);
+                        }
+                        yield hospitals.stream().map(id -> new HospitalGroupUnits((Long) id, "O+", 2L)).toList();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+
+    private InventoryScatterGather scatterGather(long partitionTimeoutMillis) {
+        return scatterGather(2, 3, partitionTimeoutMillis);
+    }
+
+    private InventoryScatterGather scatterGather(int partitions, int parallelism, long partitionTimeoutMillis) {
+        scatterGather = new InventoryScatterGather(repository, new InventoryPartitionRouter(partitions),
+                transactionManager, new SimpleMeterRegistry(), partitionTimeoutMillis, parallelism);
+        return scatterGather;
+    }
+
+    @AfterEach
+    void release() {
+        slowPartitionReleased.countDown();
+        scatterGather.shutdown();
+    }
+
+    @Test
+    void partitionsThatDoNotAnswerInTimeAreLeftOutAndReported() {
+        Map<String, Object> result = scatterGather(100).unitsByHospital("AVAILABLE");
+
+        assertEquals(List.of(1), result.get("incompletePartitions"));
+        assertFalse(InventoryScatterGather.isComplete(result));
+        assertEquals(Map.of("O+", 7), result.get("totals"));
+        assertEquals(Map.of(HospitalHoldingsProjection.BLOOD_BANK, Map.of("O+", 3), "2", Map.of("O+", 2), "4", Map.of("O+", 2)),
+                result.get("hospitals"));
+    }
+
+    @Test
+    void completeResultsIncludeEveryPartition() {
+        slowPartitionReleased.countDown();
+        Map<String, Object> result = scatterGather(5_000).unitsByHospital("AVAILABLE");
+
+        assertTrue(InventoryScatterGather.isComplete(result));
+        assertEquals(Map.of("O+", 9), result.get("totals"));
+    }
+
+    @Test
+    void partitionQueriesRunWithAStatementTimeout() {
+        slowPartitionReleased.countDown();
+        scatterGather(1_500).unitsByHospital("AVAILABLE");
+
+        // The lookup of hospitals, two partitions and the blood bank, rounded up to whole seconds
+        assertEquals(4, transactions.size());
+        for (TransactionDefinition transaction : transactions) {
+            assertTrue(transaction.isReadOnly());
+            assertEquals(2, transaction.getTimeout());
+        }
+    }
+
+    @Test
+    void noMoreQueriesRunAtOnceThanTheParallelism() {
+        slowPartitionReleased.countDown();
+        Map<String, Object> result = scatterGather(3, 2, 5_000).unitsByHospital("AVAILABLE");
+
+        assertTrue(InventoryScatterGather.isComplete(result));
+        assertEquals(Map.of("O+", 9), result.get("totals"));
+        // Three partitions, each taking a while, but never more than two at once
+        assertTrue(mostRunning.get() <= 2, "partition queries at once: " + mostRunning.get());
+    }
+
+    @Test
+    void queriesStillQueuedAtTheDeadlineAreNotStarted() {
+        // One thread: the blood bank, then the slow partition 0 holds it past the deadline
+        Map<String, Object> result = scatterGather(3, 1, 100).unitsByHospital("AVAILABLE");
+
+        assertEquals(List.of(0, 1, 2), result.get("incompletePartitions"));
+        // The lookup of hospitals, the blood bank and partition 0; no connection for 1 and 2
+        assertEquals(3, transactions.size());
+    }
+}
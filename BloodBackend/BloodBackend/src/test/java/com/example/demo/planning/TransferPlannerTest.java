@@ -0,0 +1,85 @@
+package com.example.demo.planning;
+
+import com.example.demo.dto.TransferProposal;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransferPlannerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    void minCostFlowPrefersCheaperPathsUpToCapacity() {
+        // Two routes from 0 to 3: via 1 (cost 1 + 1, capacity 4) and via 2 (cost 5 + 1, capacity 10)
+        MinCostFlow network = new MinCostFlow(4);
+        int cheap = network.addEdge(0, 1, 4, 1);
+        network.addEdge(1, 3, 4, 1);
+        int dear = network.addEdge(0, 2, 10, 5);
+        network.addEdge(2, 3, 10, 1);
+
+        assertArrayEquals(new long[]{14, 4 * 2 + 10 * 6}, network.solve(0, 3));
+        assertEquals(4, network.flow(cheap));
+        assertEquals(10, network.flow(dear));
+    }
+
+    @Test
+    void movesSoonestExpiringSameGroupUnitsFirst() {
+        List<TransferPlanner.Lot> lots = List.of(
+                new TransferPlanner.Lot(1L, 2L, "A-", NOW.plusDays(30), 5),
+                new TransferPlanner.Lot(2L, 2L, "A-", NOW.plusDays(2), 2),
+                new TransferPlanner.Lot(3L, null, "O-", NOW.plusDays(1), 10));
+
+        TransferPlanner.Plan plan = TransferPlanner.plan(lots, List.of(new TransferPlanner.Need(1L, "A-", 3, 2)), NOW);
+
+        assertEquals(3, plan.unitsPlanned());
+        assertTrue(plan.unmet().isEmpty());
+        // O- expires soonest but is only a substitute; the near-expiry A- goes first
+        assertEquals(List.of(
+                new TransferProposal(2L, 2L, 1L, "A-", "A-", 2, NOW.plusDays(2)),
+                new TransferProposal(1L, 2L, 1L, "A-", "A-", 1, NOW.plusDays(30))), plan.transfers());
+    }
+
+    @Test
+    void substitutesOnlyCompatibleGroups() {
+        List<TransferPlanner.Lot> lots = List.of(
+                new TransferPlanner.Lot(1L, 2L, "A+", NOW.plusDays(3), 10),
+                new TransferPlanner.Lot(2L, 3L, "O-", NOW.plusDays(20), 1));
+
+        TransferPlanner.Plan plan = TransferPlanner.plan(lots, List.of(new TransferPlanner.Need(1L, "AB-", 2, 0)), NOW);
+
+        assertEquals(List.of(new TransferProposal(2L, 3L, 1L, "O-", "AB-", 1, NOW.plusDays(20))), plan.transfers());
+        assertEquals(List.of(new TransferPlanner.Need(1L, "AB-", 1, 0)), plan.unmet());
+    }
+
+    @Test
+    void coversLocalStockFirstAndUrgentNeedsWhenShort() {
+        List<TransferPlanner.Lot> lots = List.of(
+                new TransferPlanner.Lot(1L, 1L, "O+", NOW.plusDays(10), 1),
+                new TransferPlanner.Lot(2L, null, "O+", NOW.plusDays(10), 2));
+        List<TransferPlanner.Need> needs = List.of(
+                new TransferPlanner.Need(2L, "O+", 2, 3),
+                new TransferPlanner.Need(1L, "O+", 3, 0));
+
+        TransferPlanner.Plan plan = TransferPlanner.plan(lots, needs, NOW);
+
+        assertEquals(1, plan.coveredLocally());
+        assertEquals(List.of(new TransferProposal(2L, null, 1L, "O+", "O+", 2, NOW.plusDays(10))), plan.transfers());
+        assertEquals(List.of(new TransferPlanner.Need(2L, "O+", 2, 3)), plan.unmet());
+    }
+
+    @Test
+    void ignoresExpiredLots() {
+        List<TransferPlanner.Lot> lots = List.of(new TransferPlanner.Lot(1L, null, "B+", NOW.minusDays(1), 5));
+
+        TransferPlanner.Plan plan = TransferPlanner.plan(lots, List.of(new TransferPlanner.Need(1L, "B+", 1, 2)), NOW);
+
+        assertEquals(0, plan.unitsPlanned());
+        assertEquals(1, plan.unmet().size());
+    }
+}
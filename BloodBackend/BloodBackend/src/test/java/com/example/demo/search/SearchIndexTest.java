@@ -0,0 +1,85 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchIndexTest {
+
+    private static SearchIndex sampleIndex() {
+        SearchIndex index = new SearchIndex();
+        index.put(SearchDocument.donor(1, "Maria Gonzalez", "maria.g@example.com", "555-100-2000", "New York", "O+"));
+        index.put(SearchDocument.donor(2, "Mario Rossi", "mrossi@example.com", "555-100-3000", "Newark", "A-"));
+        index.put(SearchDocument.donor(3, "José Álvarez", "jalvarez@example.com", "555-200-4000", "Chicago", "B+"));
+        index.put(SearchDocument.hospital(1, "Mount Sinai Hospital", "1 Gustave L. Levy Pl, New York"));
+        index.put(SearchDocument.request(1, "Patient 1", "O+", "Chicago", "Emergency surgery", "PENDING"));
+        return index;
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::id).toList();
+    }
+
+    @Test
+    void matchesPrefixesAccentsAndPhoneDigits() {
+        SearchIndex index = sampleIndex();
+
+        assertEquals(Set.of(1L, 2L), Set.copyOf(ids(index.search("mari", Set.of(SearchType.DONOR), null, 10, false))));
+        assertEquals(List.of(3L), ids(index.search("jose alv", null, null, 10, false)));
+        assertEquals(List.of(2L), ids(index.search("5551003000", null, null, 10, false)));
+        // Every word has to match
+        assertEquals(List.of(1L), ids(index.search("maria new", Set.of(SearchType.DONOR), null, 10, false)));
+    }
+
+    @Test
+    void toleratesTyposButRanksExactMatchesFirst() {
+        SearchIndex index = sampleIndex();
+
+        assertEquals(List.of(3L), ids(index.search("chicgo", Set.of(SearchType.DONOR), null, 10, true)));
+        assertEquals(List.of(), ids(index.search("chicgo", Set.of(SearchType.DONOR), null, 10, false)));
+        // "maria" is exact for donor 1 and one edit from "mario"
+        assertEquals(List.of(1L, 2L), ids(index.search("maria", Set.of(SearchType.DONOR), null, 10, true)));
+        // Transposed letters in a prefix
+        assertEquals(List.of(1L), ids(index.search("hosiptal", Set.of(SearchType.HOSPITAL), null, 10, true)));
+    }
+
+    @Test
+    void appliesUpdatesRemovalsAndFieldFilters() {
+        SearchIndex index = sampleIndex();
+        index.put(SearchDocument.donor(2, "Mario Rossi", "mrossi@example.com", "555-100-3000", "Boston", "A-"));
+        index.remove(SearchType.DONOR, 1);
+
+        assertEquals(List.of(), index.matchingIds(SearchType.DONOR, Set.of(SearchField.LOCATION), "new", false));
+        assertEquals(List.of(2L), index.matchingIds(SearchType.DONOR, Set.of(SearchField.LOCATION), "bost", false));
+        assertEquals(List.of(1L), index.matchingIds(SearchType.REQUEST, Set.of(SearchField.REASON), "surgery", false));
+        assertEquals(List.of(), index.matchingIds(SearchType.REQUEST, Set.of(SearchField.LOCATION), "surgery", false));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void bulkLoadDoesNotOverwriteLiveChanges() {
+        SearchIndex index = new SearchIndex();
+        index.beginLoad();
+        index.put(SearchDocument.hospital(1, "City General", "Boston"));
+        index.remove(SearchType.HOSPITAL, 2);
+        index.putAllIfAbsent(List.of(
+                SearchDocument.hospital(1, "Old Name", "Boston"),
+                SearchDocument.hospital(2, "Deleted Clinic", "Boston"),
+                SearchDocument.hospital(3, "Harbor Clinic", "Boston")));
+        index.endLoad();
+
+        assertEquals(List.of(3L, 1L), ids(index.search("boston", null, null, 10, false)));
+        assertEquals(List.of(1L), ids(index.search("general", null, null, 10, false)));
+    }
+
+    @Test
+    void prefixDistanceAllowsEditsAndTranspositions() {
+        assertEquals(0, SearchIndex.prefixDistance("hosp", "hospital", 1));
+        assertEquals(1, SearchIndex.prefixDistance("hsop", "hospital", 1));
+        assertEquals(1, SearchIndex.prefixDistance("hospx", "hospital", 1));
+        assertEquals(2, SearchIndex.prefixDistance("hxspx", "hospital", 1));
+    }
+}
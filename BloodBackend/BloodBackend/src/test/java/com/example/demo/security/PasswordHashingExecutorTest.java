@@ -0,0 +1,158 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private PasswordHashingExecutor hashing;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (hashing != null) {
+            hashing.shutdown();
+        }
+    }
+
+    /**
+     * Records the order passwords are hashed in; hashing "block" waits for the latch
+     */
+    private static final class RecordingEncoder implements PasswordEncoder {
+
+        final List<String> order = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if ("block".contentEquals(rawPassword)) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            order.add(rawPassword.toString());
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    private int queued() {
+        return (int) registry.get("bloodbank.password.queue").gauge().value();
+    }
+
+    private void awaitQueued(int expected) throws InterruptedException {
+        for (int i = 0; i < 500 && queued() != expected; i++) {
+            Thread.sleep(2);
+        }
+        assertEquals(expected, queued());
+    }
+
+    @Test
+    void runsHigherPrioritiesFirst() throws Exception {
+        RecordingEncoder encoder = new RecordingEncoder();
+        hashing = new PasswordHashingExecutor(encoder, registry, 1, 8, 5000);
+        Future<String> blocker = callers.submit(() -> hashing.encode("block", PasswordHashingExecutor.Priority.LOGIN));
+        assertTrue(encoder.started.await(5, TimeUnit.SECONDS));
+
+        List<String> upgraded = Collections.synchronizedList(new ArrayList<>());
+        hashing.encodeLater("upgrade", upgraded::add);
+        Future<String> registration = callers.submit(() -> hashing.encode("registration", PasswordHashingExecutor.Priority.REGISTRATION));
+        awaitQueued(2);
+        Future<Boolean> login = callers.submit(() -> hashing.matches("login", "hash:login", PasswordHashingExecutor.Priority.LOGIN));
+        awaitQueued(3);
+        Future<Boolean> admin = callers.submit(() -> hashing.matches("admin", "hash:wrong", PasswordHashingExecutor.Priority.ADMIN_LOGIN));
+        awaitQueued(4);
+        encoder.release.countDown();
+
+        assertEquals("hash:block", blocker.get(5, TimeUnit.SECONDS));
+        assertFalse(admin.get(5, TimeUnit.SECONDS));
+        assertTrue(login.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:registration", registration.get(5, TimeUnit.SECONDS));
+        awaitQueued(0);
+        Thread.sleep(50);
+        assertEquals(List.of("block", "admin", "login", "registration", "upgrade"), encoder.order);
+        assertEquals(List.of("hash:upgrade"), upgraded);
+    }
+
+    @Test
+    void rejectsWhenQueueIsFullAndDropsBackgroundWorkFirst() throws Exception {
+        RecordingEncoder encoder = new RecordingEncoder();
+        hashing = new PasswordHashingExecutor(encoder, registry, 1, 2, 5000);
+        callers.submit(() -> hashing.encode("block", PasswordHashingExecutor.Priority.LOGIN));
+        assertTrue(encoder.started.await(5, TimeUnit.SECONDS));
+
+        callers.submit(() -> hashing.encode("first", PasswordHashingExecutor.Priority.LOGIN));
+        awaitQueued(1);
+        // Background rehashes may only use half the queue
+        hashing.encodeLater("upgrade", hash -> { });
+        assertEquals(1, queued());
+        callers.submit(() -> hashing.encode("second", PasswordHashingExecutor.Priority.LOGIN));
+        awaitQueued(2);
+        assertThrows(PasswordHashingRejectedException.class,
+                () -> hashing.encode("third", PasswordHashingExecutor.Priority.ADMIN_LOGIN));
+
+        encoder.release.countDown();
+        awaitQueued(0);
+        assertEquals(1.0, registry.get("bloodbank.password.rejected").tag("priority", "UPGRADE").counter().count());
+        assertEquals(1.0, registry.get("bloodbank.password.rejected").tag("priority", "ADMIN_LOGIN").counter().count());
+    }
+
+    @Test
+    void givesUpOnWorkThatWaitsPastTheDeadline() throws Exception {
+        RecordingEncoder encoder = new RecordingEncoder();
+        hashing = new PasswordHashingExecutor(encoder, registry, 1, 8, 100);
+        callers.submit(() -> hashing.encode("block", PasswordHashingExecutor.Priority.LOGIN));
+        assertTrue(encoder.started.await(5, TimeUnit.SECONDS));
+
+        long started = System.nanoTime();
+        assertThrows(PasswordHashingRejectedException.class,
+                () -> hashing.matches("late", "hash:late", PasswordHashingExecutor.Priority.LOGIN));
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(1));
+
+        encoder.release.countDown();
+        awaitQueued(0);
+        Thread.sleep(50);
+        // The abandoned verification was never hashed
+        assertFalse(encoder.order.contains("late"));
+    }
+
+    @Test
+    void recognisesBcryptHashesAndLowerCosts() {
+        BCryptPasswordEncoder cheap = new BCryptPasswordEncoder(4);
+        hashing = new PasswordHashingExecutor(new BCryptPasswordEncoder(5), registry, 1, 8, 5000);
+        String hash = cheap.encode("secret");
+
+        assertTrue(PasswordHashingExecutor.isBcryptHash(hash));
+        assertFalse(PasswordHashingExecutor.isBcryptHash("secret"));
+        assertTrue(hashing.matches("secret", hash, PasswordHashingExecutor.Priority.LOGIN));
+        assertTrue(hashing.needsRehash(hash));
+        assertFalse(hashing.needsRehash(hashing.encode("secret", PasswordHashingExecutor.Priority.REGISTRATION)));
+    }
+}
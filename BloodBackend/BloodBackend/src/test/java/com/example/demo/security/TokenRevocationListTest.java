@@ -0,0 +1,119 @@
+package com.example.demo.security;
+
+import com.example.demo.model.RevokedToken;
+import com.example.demo.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRevocationListTest {
+
+    /**
+     * Just enough of the repository for the revocation list: rows are kept in a list
+     */
+    private static RevokedTokenRepository repository(List<RevokedToken> rows) {
+        return (RevokedTokenRepository) Proxy.newProxyInstance(RevokedTokenRepository.class.getClassLoader(),
+                new Class<?>[]{RevokedTokenRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> {
+                        rows.add((RevokedToken) args[0]);
+                        yield args[0];
+                    }
+                    case "findRevokedSince" -> rows.stream()
+                            .filter(row -> !row.getRevokedAt().isBefore((LocalDateTime) args[0]))
+                            .filter(row -> row.getExpiresAt().isAfter((LocalDateTime) args[1]))
+                            .toList();
+                    case "deleteExpired" -> {
+                        int before = rows.size();
+                        rows.removeIf(row -> !row.getExpiresAt().isAfter((LocalDateTime) args[0]));
+                        yield before - rows.size();
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static Date inMinutes(long minutes) {
+        return new Date(System.currentTimeMillis() + minutes * 60_000);
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegativesAndFewFalsePositives() {
+        int entries = 10_000;
+        BloomFilter filter = BloomFilter.create(entries, 0.01);
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < entries; i++) {
+            String id = UUID.randomUUID().toString();
+            filter.put(id);
+            added.add(id);
+        }
+        added.forEach(id -> assertTrue(filter.mightContain(id)));
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        // Sized for 1%; allow some slack for randomness
+        assertTrue(falsePositives < probes * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void revokesTokensAndSharesThemThroughTheDatabase() {
+        List<RevokedToken> rows = new ArrayList<>();
+        TokenRevocationList revocations = new TokenRevocationList(repository(rows), new SimpleMeterRegistry());
+        String revoked = UUID.randomUUID().toString();
+
+        assertFalse(revocations.isRevoked(revoked));
+        assertFalse(revocations.isRevoked(null));
+        revocations.revoke(revoked, inMinutes(15));
+        revocations.revoke(revoked, inMinutes(15));
+        assertTrue(revocations.isRevoked(revoked));
+        assertFalse(revocations.isRevoked(UUID.randomUUID().toString()));
+        assertEquals(1, rows.size());
+
+        // Another instance picks the revocation up from the table
+        TokenRevocationList other = new TokenRevocationList(repository(rows), new SimpleMeterRegistry());
+        other.load();
+        assertTrue(other.isRevoked(revoked));
+    }
+
+    @Test
+    void growsPastItsInitialCapacityAndPurgesExpiredEntries() {
+        List<RevokedToken> rows = new ArrayList<>();
+        TokenRevocationList revocations = new TokenRevocationList(repository(rows), new SimpleMeterRegistry());
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            String id = UUID.randomUUID().toString();
+            revocations.revoke(id, inMinutes(15));
+            ids.add(id);
+        }
+        ids.forEach(id -> assertTrue(revocations.isRevoked(id)));
+
+        // Rows that expired while stored, e.g. revoked shortly before their expiry
+        rows.add(new RevokedToken("expired", LocalDateTime.now().minusMinutes(1)));
+        String soon = UUID.randomUUID().toString();
+        revocations.revoke(soon, new Date(System.currentTimeMillis() + 50));
+        assertTrue(revocations.isRevoked(soon));
+        long deadline = System.currentTimeMillis() + 1000;
+        while (System.currentTimeMillis() < deadline && LocalDateTime.now().isBefore(rows.get(rows.size() - 1).getExpiresAt())) {
+            Thread.onSpinWait();
+        }
+
+        assertEquals(1, revocations.purgeExpired());
+        assertFalse(revocations.isRevoked(soon));
+        assertEquals(5_000, revocations.size());
+        assertEquals(5_000, rows.size());
+        ids.forEach(id -> assertTrue(revocations.isRevoked(id)));
+    }
+}
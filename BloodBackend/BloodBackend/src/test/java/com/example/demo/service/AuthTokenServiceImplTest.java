@@ -0,0 +1,164 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AuthTokens;
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.JwtUtils;
+import com.example.demo.security.TokenRevocationList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Refresh token rotation, reuse detection and access token revocation against the
+ * real repositories and security filter chain
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthTokenServiceImplTest {
+
+    @Autowired
+    private AuthTokenService authTokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        User newUser = new User();
+        newUser.setName("Token Tester");
+        newUser.setEmail("tokens-" + UUID.randomUUID() + "@example.com");
+        newUser.setPassword("not-a-hash");
+        user = userRepository.save(newUser);
+    }
+
+    private String tokenId(AuthTokens tokens) {
+        return jwtUtils.parseValidClaims(tokens.token()).getId();
+    }
+
+    /**
+     * Move every use of this user's refresh tokens out of the grace window
+     */
+    private void ageUses() {
+        jdbcTemplate.update("UPDATE refresh_tokens SET used_at = ? WHERE user_id = ? AND used_at IS NOT NULL",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)), user.getId());
+    }
+
+    @Test
+    void refreshRotatesBothTokens() {
+        AuthTokens signIn = authTokenService.issueTokens(user);
+
+        AuthTokens renewed = authTokenService.refresh(signIn.refreshToken()).orElseThrow();
+        assertNotEquals(signIn.refreshToken(), renewed.refreshToken());
+        assertNotEquals(tokenId(signIn), tokenId(renewed));
+        assertEquals(user.getEmail(), jwtUtils.getUsernameFromJwtToken(renewed.token()));
+
+        // The new refresh token works in turn
+        assertTrue(authTokenService.refresh(renewed.refreshToken()).isPresent());
+        assertTrue(authTokenService.refresh("unknown").isEmpty());
+    }
+
+    @Test
+    void reusingARefreshTokenAfterTheGraceWindowRevokesTheSignIn() {
+        AuthTokens signIn = authTokenService.issueTokens(user);
+        AuthTokens renewed = authTokenService.refresh(signIn.refreshToken()).orElseThrow();
+        AuthTokens otherSignIn = authTokenService.issueTokens(user);
+        ageUses();
+
+        assertTrue(authTokenService.refresh(signIn.refreshToken()).isEmpty());
+        // The legitimate holder's newer tokens are revoked too
+        assertTrue(authTokenService.refresh(renewed.refreshToken()).isEmpty());
+        assertTrue(revocationList.isRevoked(tokenId(renewed)));
+        // Other sign-ins of the same user are untouched
+        assertFalse(revocationList.isRevoked(tokenId(otherSignIn)));
+        assertTrue(authTokenService.refresh(otherSignIn.refreshToken()).isPresent());
+    }
+
+    @Test
+    void concurrentRefreshesWithinTheGraceWindowAllSucceed() throws Exception {
+        AuthTokens signIn = authTokenService.issueTokens(user);
+        int tabs = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(tabs);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<AuthTokens>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < tabs; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return authTokenService.refresh(signIn.refreshToken());
+                }));
+            }
+            start.countDown();
+
+            Set<String> refreshTokens = new HashSet<>();
+            for (Future<Optional<AuthTokens>> result : results) {
+                AuthTokens renewed = result.get(10, TimeUnit.SECONDS).orElseThrow();
+                assertFalse(revocationList.isRevoked(tokenId(renewed)));
+                refreshTokens.add(renewed.refreshToken());
+            }
+            assertEquals(tabs, refreshTokens.size());
+            // Nothing was revoked: every tab can keep renewing
+            for (String refreshToken : refreshTokens) {
+                assertTrue(authTokenService.refresh(refreshToken).isPresent());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void logoutRevokesTheAccessTokenForTheSecurityFilter() throws Exception {
+        AuthTokens signIn = authTokenService.issueTokens(user);
+        mockMvc.perform(get("/api/users/{id}", user.getId()).header("Authorization", "Bearer " + signIn.token()))
+                .andExpect(status().isOk());
+
+        assertTrue(authTokenService.logout(signIn.token(), null));
+
+        assertTrue(revocationList.isRevoked(tokenId(signIn)));
+        mockMvc.perform(get("/api/users/{id}", user.getId()).header("Authorization", "Bearer " + signIn.token()))
+                .andExpect(status().isUnauthorized());
+        // Logout also ended the sign-in's refresh tokens
+        assertTrue(authTokenService.refresh(signIn.refreshToken()).isEmpty());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.demo.service;
+
+import com.example.demo.model.BloodDonation;
+import com.example.demo.model.Donor;
+import com.example.demo.model.DonationDailyRollup;
+import com.example.demo.repository.DonationDailyRollupRepository;
+import com.example.demo.repository.DonorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Daily rollups kept up to date as donations are saved, edited and deleted, and
+ * rebuilt from the donations table. Each test uses days of its own.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DonationRollupServiceImplTest {
+
+    @Autowired
+    private BloodDonationService bloodDonationService;
+
+    @Autowired
+    private DonationRollupService donationRollupService;
+
+    @Autowired
+    private DonationDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private DonorRepository donorRepository;
+
+    private final LocalDate day = LocalDate.of(1990, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(3_000) * 2L);
+    private final LocalDate nextDay = day.plusDays(1);
+
+    private Donor donor() {
+        String name = "donor-" + UUID.randomUUID();
+        Donor donor = new Donor();
+        donor.setName(name);
+        donor.setLocation("Colombo");
+        donor.setPhone("0770000000");
+        donor.setBloodGroup("A+");
+        donor.setUsername(name);
+        donor.setPassword("not-a-hash");
+        donor.setEmail(name + "@example.com");
+        donor.setCreatedAt(LocalDateTime.now());
+        return donorRepository.save(donor);
+    }
+
+    private BloodDonation donate(Donor donor, LocalDate date, String healthStatus, int quantityMl) {
+        BloodDonation donation = new BloodDonation();
+        donation.setDonor(donor);
+        donation.setBloodGroup(donor.getBloodGroup());
+        donation.setHealthStatus(healthStatus);
+        donation.setQuantityMl(quantityMl);
+        donation.setDonationDate(date.atTime(10, 0));
+        return bloodDonationService.saveBloodDonation(donation);
+    }
+
+    private Optional<DonationDailyRollup> rollup(LocalDate date, String healthStatus) {
+        return rollupRepository.findById(new DonationDailyRollup.Key(date, "A+", healthStatus));
+    }
+
+    private void assertRollup(LocalDate date, String healthStatus, long donations, long volumeMl) {
+        DonationDailyRollup rollup = rollup(date, healthStatus).orElseThrow();
+        assertEquals(donations, rollup.getDonationCount());
+        assertEquals(volumeMl, rollup.getTotalVolumeMl());
+    }
+
+    @Test
+    void savedDonationsAreAddedToTheirDay() {
+        Donor donor = donor();
+        donate(donor, day, "NORMAL", 450);
+        donate(donor, day, "NORMAL", 350);
+        donate(donor, day, null, 300);
+
+        assertRollup(day, "NORMAL", 2, 800);
+        assertRollup(day, "UNKNOWN", 1, 300);
+    }
+
+    @Test
+    void editsMoveTheDonationBetweenBuckets() {
+        Donor donor = donor();
+        donate(donor, day, "NORMAL", 450);
+        BloodDonation edited = donate(donor, day, "NORMAL", 350);
+
+        // Volume only: subtracted and added back to the same bucket
+        edited.setQuantityMl(400);
+        bloodDonationService.saveBloodDonation(edited);
+        assertRollup(day, "NORMAL", 2, 850);
+
+        // Another day and status: the old bucket loses it, the new one gains it
+        edited.setDonationDate(nextDay.atTime(9, 0));
+        edited.setHealthStatus("ABNORMAL");
+        bloodDonationService.saveBloodDonation(edited);
+        assertRollup(day, "NORMAL", 1, 450);
+        assertRollup(nextDay, "ABNORMAL", 1, 400);
+
+        // Saving without changes leaves the rollups alone
+        bloodDonationService.saveBloodDonation(edited);
+        assertRollup(nextDay, "ABNORMAL", 1, 400);
+    }
+
+    @Test
+    void deletesSubtractAndRemoveEmptyRows() {
+        Donor donor = donor();
+        BloodDonation first = donate(donor, day, "NORMAL", 450);
+        BloodDonation second = donate(donor, day, "NORMAL", 350);
+
+        bloodDonationService.deleteBloodDonation(first.getId());
+        assertRollup(day, "NORMAL", 1, 350);
+
+        bloodDonationService.deleteBloodDonation(second.getId());
+        assertTrue(rollup(day, "NORMAL").isEmpty());
+    }
+
+    @Test
+    void rebuildRecomputesTheRowsFromTheDonations() {
+        Donor donor = donor();
+        donate(donor, day, "NORMAL", 450);
+        donate(donor, day, "NORMAL", 350);
+        donate(donor, nextDay, "ABNORMAL", 300);
+        // Drift, e.g. from a row edited directly in the database
+        rollupRepository.deleteById(new DonationDailyRollup.Key(nextDay, "A+", "ABNORMAL"));
+
+        assertTrue(donationRollupService.rebuildRollups() >= 2);
+
+        assertRollup(day, "NORMAL", 2, 800);
+        assertRollup(nextDay, "ABNORMAL", 1, 300);
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.demo.service;
+
+import com.example.demo.model.BloodDonation;
+import com.example.demo.model.Donor;
+import com.example.demo.repository.DonorRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Donation totals kept on the donor as donations are recorded, edited and deleted
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DonorServiceImplTest {
+
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2026, 1, 10, 9, 0);
+    private static final LocalDateTime FEBRUARY = LocalDateTime.of(2026, 2, 10, 9, 0);
+    private static final LocalDateTime MARCH = LocalDateTime.of(2026, 3, 10, 9, 0);
+
+    @Autowired
+    private BloodDonationService bloodDonationService;
+
+    @Autowired
+    private DonorRepository donorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Autowired rather than @PersistenceContext, which is not applied to AOT-processed test classes
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Donor donor() {
+        String name = "donor-" + UUID.randomUUID();
+        Donor donor = new Donor();
+        donor.setName(name);
+        donor.setLocation("Colombo");
+        donor.setPhone("0770000000");
+        donor.setBloodGroup("O+");
+        donor.setUsername(name);
+        donor.setPassword("not-a-hash");
+        donor.setEmail(name + "@example.com");
+        donor.setCreatedAt(LocalDateTime.now());
+        return donorRepository.save(donor);
+    }
+
+    private BloodDonation donate(Donor donor, int quantityMl, LocalDateTime date) {
+        BloodDonation donation = new BloodDonation();
+        donation.setDonor(donor);
+        donation.setBloodGroup(donor.getBloodGroup());
+        donation.setQuantityMl(quantityMl);
+        donation.setDonationDate(date);
+        return bloodDonationService.saveBloodDonation(donation);
+    }
+
+    private Donor reload(Donor donor) {
+        return donorRepository.findById(donor.getId()).orElseThrow();
+    }
+
+    @Test
+    void recordingADonationLeavesOtherDonorsCachedAndCallerEntitiesManaged() {
+        Donor donor = donor();
+        Donor other = donor();
+        reload(other);
+        assertTrue(entityManagerFactory.getCache().contains(Donor.class, other.getId()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Donor managed = entityManager.find(Donor.class, other.getId());
+            donate(donor, 450, MARCH);
+            assertTrue(entityManager.contains(managed));
+        });
+
+        assertTrue(entityManagerFactory.getCache().contains(Donor.class, other.getId()));
+        Donor updated = reload(donor);
+        assertEquals(1, updated.getDonationCount());
+        assertEquals(450, updated.getTotalVolumeMl());
+        assertEquals(MARCH, updated.getLastDonation());
+    }
+
+    @Test
+    void editsAndDeletesRecountTheTotalsAndTheLastDonation() {
+        Donor donor = donor();
+        BloodDonation first = donate(donor, 450, JANUARY);
+        BloodDonation latest = donate(donor, 350, MARCH);
+        assertEquals(MARCH, reload(donor).getLastDonation());
+
+        latest.setDonationDate(FEBRUARY);
+        latest.setQuantityMl(400);
+        bloodDonationService.saveBloodDonation(latest);
+        Donor edited = reload(donor);
+        assertEquals(2, edited.getDonationCount());
+        assertEquals(850, edited.getTotalVolumeMl());
+        assertEquals(FEBRUARY, edited.getLastDonation());
+
+        bloodDonationService.deleteBloodDonation(latest.getId());
+        Donor deleted = reload(donor);
+        assertEquals(1, deleted.getDonationCount());
+        assertEquals(450, deleted.getTotalVolumeMl());
+        assertEquals(JANUARY, deleted.getLastDonation());
+
+        // Without donations left the last donation date is kept, not cleared
+        bloodDonationService.deleteBloodDonation(first.getId());
+        Donor none = reload(donor);
+        assertEquals(0, none.getDonationCount());
+        assertEquals(0, none.getTotalVolumeMl());
+        assertEquals(JANUARY, none.getLastDonation());
+    }
+
+    @Test
+    void aLastDonationEnteredForADonationElsewhereIsKept() {
+        Donor donor = donor();
+        BloodDonation donation = donate(donor, 450, JANUARY);
+        Donor elsewhere = reload(donor);
+        elsewhere.setLastDonation(MARCH);
+        donorRepository.save(elsewhere);
+
+        // Neither editing nor deleting a donation that did not set it moves it
+        donation.setDonationDate(FEBRUARY);
+        bloodDonationService.saveBloodDonation(donation);
+        assertEquals(MARCH, reload(donor).getLastDonation());
+
+        bloodDonationService.deleteBloodDonation(donation.getId());
+        Donor deleted = reload(donor);
+        assertEquals(0, deleted.getDonationCount());
+        assertEquals(MARCH, deleted.getLastDonation());
+    }
+
+    @Test
+    void concurrentDonationsAreAllCounted() throws Exception {
+        Donor donor = donor();
+        int donations = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(donations);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BloodDonation>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < donations; i++) {
+                LocalDateTime date = JANUARY.plusDays(i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return donate(donor, 450, date);
+                }));
+            }
+            start.countDown();
+            for (Future<BloodDonation> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Donor updated = reload(donor);
+        assertEquals(donations, updated.getDonationCount());
+        assertEquals(donations * 450L, updated.getTotalVolumeMl());
+        assertEquals(JANUARY.plusDays(donations - 1), updated.getLastDonation());
+    }
+}
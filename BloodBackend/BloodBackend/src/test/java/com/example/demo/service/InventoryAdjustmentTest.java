@@ -0,0 +1,200 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.InventoryAdjustment;
+import com.example.demo.model.BloodInventory;
+import com.example.demo.repository.BloodInventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Batched inventory adjustments: where units go and come from, refusals and
+ * concurrent adjustments of the same stock. Each test works on hospitals of its own.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryAdjustmentTest {
+
+    @Autowired
+    private BloodInventoryService bloodInventoryService;
+
+    @Autowired
+    private BloodInventoryRepository bloodInventoryRepository;
+
+    private final long hospital = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE / 2);
+    private final long otherHospital = hospital + 1;
+
+    @AfterEach
+    void removeRows() {
+        rows(hospital).forEach(row -> bloodInventoryService.deleteBloodInventory(row.getId()));
+        rows(otherHospital).forEach(row -> bloodInventoryService.deleteBloodInventory(row.getId()));
+    }
+
+    private BloodInventory row(long hospitalId, int units, int daysToExpiry) {
+        BloodInventory row = new BloodInventory("B-", units, LocalDateTime.now().plusDays(daysToExpiry));
+        row.setHospitalId(hospitalId);
+        row.setStatus("AVAILABLE");
+        return bloodInventoryService.saveBloodInventory(row);
+    }
+
+    /**
+     * Available rows of a hospital, earliest expiry first
+     */
+    private List<BloodInventory> rows(long hospitalId) {
+        return bloodInventoryRepository.findByStatusAndBloodGroupIn("AVAILABLE", List.of("B-")).stream()
+                .filter(row -> row.getHospitalId() != null && row.getHospitalId() == hospitalId)
+                .sorted(Comparator.comparing(BloodInventory::getExpiryDate))
+                .toList();
+    }
+
+    private int units(long hospitalId) {
+        return rows(hospitalId).stream().mapToInt(BloodInventory::getUnits).sum();
+    }
+
+    private int units(BloodInventory row) {
+        return bloodInventoryRepository.findById(row.getId()).orElseThrow().getUnits();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void increasesGoToTheLatestExpiryAndDecreasesTakeTheEarliestFirst() {
+        BloodInventory early = row(hospital, 4, 5);
+        BloodInventory late = row(hospital, 6, 30);
+
+        bloodInventoryService.adjustInventory(List.of(new InventoryAdjustment("B-", hospital, 3)));
+        assertEquals(4, units(early));
+        assertEquals(9, units(late));
+
+        Map<String, Object> result = bloodInventoryService.adjustInventory(List.of(
+                new InventoryAdjustment("B-", hospital, -5),
+                // Repeated pairs are merged: 7 units out in all
+                new InventoryAdjustment("B-", hospital, -2)));
+        assertEquals(0, units(early));
+        assertEquals(6, units(late));
+        assertEquals(1, result.get("adjusted"));
+        Map<String, Map<String, Integer>> levels = (Map<String, Map<String, Integer>>) result.get("levels");
+        assertEquals(Map.of(String.valueOf(hospital), 6), levels.get("B-"));
+    }
+
+    @Test
+    void increaseWithoutStockCreatesARow() {
+        bloodInventoryService.adjustInventory(List.of(new InventoryAdjustment("B-", hospital, 8)));
+
+        List<BloodInventory> rows = rows(hospital);
+        assertEquals(1, rows.size());
+        assertEquals(8, rows.get(0).getUnits());
+        assertTrue(rows.get(0).getExpiryDate().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void insufficientStockRefusesTheWholeBatch() {
+        BloodInventory here = row(hospital, 10, 30);
+        BloodInventory there = row(otherHospital, 3, 30);
+
+        IllegalArgumentException refused = assertThrows(IllegalArgumentException.class, () ->
+                bloodInventoryService.adjustInventory(List.of(
+                        new InventoryAdjustment("B-", hospital, -4),
+                        new InventoryAdjustment("B-", otherHospital, -5))));
+
+        assertTrue(refused.getMessage().contains("Only 3 units of B- available at hospital " + otherHospital),
+                refused.getMessage());
+        // The adjustment before the refused one is not applied either
+        assertEquals(10, units(here));
+        assertEquals(3, units(there));
+    }
+
+    @Test
+    void invalidBloodGroupsAreRefused() {
+        BloodInventory here = row(hospital, 10, 30);
+
+        assertThrows(IllegalArgumentException.class, () -> bloodInventoryService.adjustInventory(List.of(
+                new InventoryAdjustment("B-", hospital, -4),
+                new InventoryAdjustment("X+", hospital, 1))));
+
+        assertEquals(10, units(here));
+    }
+
+    @Test
+    void concurrentDecreasesNeverTakeMoreThanTheStock() throws Exception {
+        row(hospital, 3, 5);
+        row(hospital, 3, 30);
+        Outcomes outcomes = concurrently(12, () -> bloodInventoryService.adjustInventory(
+                List.of(new InventoryAdjustment("B-", hospital, -1))));
+
+        assertTrue(outcomes.applied.get() <= 6);
+        assertTrue(outcomes.applied.get() > 0);
+        assertEquals(6 - outcomes.applied.get(), units(hospital));
+        assertTrue(rows(hospital).stream().allMatch(row -> row.getUnits() >= 0));
+    }
+
+    @Test
+    void concurrentIncreasesAreAllCounted() throws Exception {
+        row(hospital, 10, 30);
+        Outcomes outcomes = concurrently(8, () -> bloodInventoryService.adjustInventory(List.of(
+                new InventoryAdjustment("B-", hospital, 2),
+                new InventoryAdjustment("B-", otherHospital, 1))));
+
+        assertEquals(0, outcomes.refused.get());
+        assertTrue(outcomes.applied.get() > 0);
+        assertEquals(10 + 2 * outcomes.applied.get(), units(hospital));
+        assertEquals(outcomes.applied.get(), units(otherHospital));
+    }
+
+    private record Outcomes(AtomicInteger applied, AtomicInteger refused, AtomicInteger conflicts) {
+    }
+
+    /**
+     * Run the adjustment on as many threads at once, counting the ones applied,
+     * refused for lack of stock and given up after repeated conflicts
+     */
+    private static Outcomes concurrently(int threads, Runnable adjustment) throws Exception {
+        Outcomes outcomes = new Outcomes(new AtomicInteger(), new AtomicInteger(), new AtomicInteger());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        adjustment.run();
+                        outcomes.applied.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        outcomes.refused.incrementAndGet();
+                    } catch (ConcurrencyFailureException e) {
+                        outcomes.conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(threads, outcomes.applied.get() + outcomes.refused.get() + outcomes.conflicts.get());
+        return outcomes;
+    }
+}
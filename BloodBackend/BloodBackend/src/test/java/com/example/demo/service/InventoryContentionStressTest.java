@@ -0,0 +1,103 @@
+package com.example.demo.service;
+
+import com.example.demo.model.BloodInventory;
+import com.example.demo.repository.BloodInventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers a handful of inventory rows with concurrent transfers and status changes
+ * and checks that no units are created or lost
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryContentionStressTest {
+
+    private static final int ROWS = 4;
+    private static final int UNITS_PER_ROW = 500;
+
+    @Autowired
+    private BloodInventoryService bloodInventoryService;
+
+    @Autowired
+    private BloodInventoryRepository bloodInventoryRepository;
+
+    private final List<Long> rowIds = new ArrayList<>();
+
+    @AfterEach
+    void removeRows() {
+        rowIds.forEach(bloodInventoryService::deleteBloodInventory);
+    }
+
+    @Test
+    void concurrentTransfersConserveUnits() throws Exception {
+        for (int i = 0; i < ROWS; i++) {
+            BloodInventory row = new BloodInventory("AB-", UNITS_PER_ROW, LocalDateTime.now().plusDays(30));
+            row.setStatus("AVAILABLE");
+            rowIds.add(bloodInventoryService.saveBloodInventory(row).getId());
+        }
+
+        int threads = 8;
+        int operations = 400;
+        AtomicInteger transfers = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        AtomicInteger statusChanges = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < operations; i++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int from = random.nextInt(ROWS);
+                Long source = rowIds.get(from);
+                Long target = rowIds.get((from + 1 + random.nextInt(ROWS - 1)) % ROWS);
+                try {
+                    if (random.nextInt(10) == 0) {
+                        // Versioned read-modify-write on the same rows
+                        bloodInventoryService.updateBloodInventoryStatus(source, "AVAILABLE");
+                        statusChanges.incrementAndGet();
+                    } else if (bloodInventoryService.transferBloodUnits(source, target, 1 + random.nextInt(5))) {
+                        transfers.incrementAndGet();
+                    } else {
+                        refused.incrementAndGet();
+                    }
+                } catch (ConcurrencyFailureException e) {
+                    conflicts.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        int total = 0;
+        for (BloodInventory row : bloodInventoryRepository.findAllById(rowIds)) {
+            assertTrue(row.getUnits() >= 0, "row " + row.getId() + " went negative");
+            total += row.getUnits();
+        }
+        assertEquals(ROWS * UNITS_PER_ROW, total, "units were created or lost");
+
+        assertEquals(operations, transfers.get() + refused.get() + statusChanges.get() + conflicts.get());
+        assertTrue(transfers.get() > 0);
+    }
+}
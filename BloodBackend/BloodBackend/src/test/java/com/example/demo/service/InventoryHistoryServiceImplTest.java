@@ -0,0 +1,187 @@
+package com.example.demo.service;
+
+import com.example.demo.model.InventoryLevelSample;
+import com.example.demo.repository.BloodInventoryRepository;
+import com.example.demo.repository.InventoryLevelSampleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class InventoryHistoryServiceImplTest {
+
+    private static final int RAW_RETENTION_DAYS = 2;
+    private static final int HOURLY_RETENTION_DAYS = 30;
+    private static final int DAILY_RETENTION_DAYS = 730;
+
+    private final List<InventoryLevelSample> table = new ArrayList<>();
+
+    /**
+     * The samples table in memory, with the queries downsampling uses
+     */
+    @SuppressWarnings("unchecked")
+    private final InventoryLevelSampleRepository repository = (InventoryLevelSampleRepository) Proxy.newProxyInstance(
+            InventoryLevelSampleRepository.class.getClassLoader(), new Class<?>[]{InventoryLevelSampleRepository.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "findOlderThan" -> table.stream()
+                        .filter(sample -> isOlder(sample, (String) args[0], (LocalDateTime) args[1]))
+                        .sorted(Comparator.comparing(InventoryLevelSample::getBloodGroup)
+                                .thenComparing(InventoryLevelSample::getSampledAt))
+                        .toList();
+                case "deleteOlderThan" -> {
+                    int before = table.size();
+                    table.removeIf(sample -> isOlder(sample, (String) args[0], (LocalDateTime) args[1]));
+                    yield before - table.size();
+                }
+                case "saveAll" -> {
+                    table.addAll((List<InventoryLevelSample>) args[0]);
+                    yield args[0];
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+
+    private final InventoryHistoryServiceImpl service = new InventoryHistoryServiceImpl(repository,
+            (BloodInventoryRepository) Proxy.newProxyInstance(BloodInventoryRepository.class.getClassLoader(),
+                    new Class<?>[]{BloodInventoryRepository.class}, (proxy, method, args) -> {
+                        throw new UnsupportedOperationException(method.getName());
+                    }));
+
+    @BeforeEach
+    void configureRetention() {
+        ReflectionTestUtils.setField(service, "rawRetentionDays", RAW_RETENTION_DAYS);
+        ReflectionTestUtils.setField(service, "hourlyRetentionDays", HOURLY_RETENTION_DAYS);
+        ReflectionTestUtils.setField(service, "dailyRetentionDays", DAILY_RETENTION_DAYS);
+    }
+
+    private static boolean isOlder(InventoryLevelSample sample, String resolution, LocalDateTime cutoff) {
+        return sample.getResolution().equals(resolution) && sample.getSampledAt().isBefore(cutoff);
+    }
+
+    private static LocalDateTime rawCutoff() {
+        return LocalDateTime.now().minusDays(RAW_RETENTION_DAYS).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static LocalDateTime hourlyCutoff() {
+        return LocalDateTime.now().minusDays(HOURLY_RETENTION_DAYS).truncatedTo(ChronoUnit.DAYS);
+    }
+
+    private void raw(String bloodGroup, LocalDateTime sampledAt, int units) {
+        table.add(new InventoryLevelSample(bloodGroup, sampledAt, units, false));
+    }
+
+    private void bucket(String resolution, LocalDateTime start, int units, int min, int max, double average, int count) {
+        table.add(new InventoryLevelSample("O+", start, resolution, units, min, max, average, count));
+    }
+
+    private List<InventoryLevelSample> rows(String resolution) {
+        return table.stream()
+                .filter(sample -> sample.getResolution().equals(resolution))
+                .sorted(Comparator.comparing(InventoryLevelSample::getBloodGroup)
+                        .thenComparing(InventoryLevelSample::getSampledAt))
+                .toList();
+    }
+
+    private static void assertBucket(InventoryLevelSample bucket, String bloodGroup, LocalDateTime start,
+                                     int units, int min, int max, double average, int count) {
+        assertEquals(bloodGroup, bucket.getBloodGroup());
+        assertEquals(start, bucket.getSampledAt());
+        assertEquals(units, bucket.getUnits());
+        assertEquals(min, bucket.getMinUnits());
+        assertEquals(max, bucket.getMaxUnits());
+        assertEquals(average, bucket.getAvgUnits(), 1e-9);
+        assertEquals(count, bucket.getSampleCount());
+    }
+
+    @Test
+    void rawSamplesBeforeTheCutoffAreFoldedIntoWholeHours() {
+        LocalDateTime cutoff = rawCutoff();
+        LocalDateTime hour = cutoff.minusHours(1);
+        // The first and last moments of the hour before the cutoff fall in its bucket
+        raw("O+", hour, 10);
+        raw("O+", hour.plusMinutes(30), 30);
+        raw("O+", cutoff.minusNanos(1_000), 20);
+        raw("A-", hour.plusMinutes(10), 4);
+        raw("O+", hour.minusMinutes(1), 7);
+        // From the cutoff on, samples stay raw
+        raw("O+", cutoff, 40);
+        raw("O+", cutoff.plusMinutes(59), 50);
+
+        service.downsample();
+        assumeTrue(cutoff.equals(rawCutoff()), "the hour changed while downsampling");
+
+        List<InventoryLevelSample> hours = rows(InventoryLevelSample.HOUR);
+        assertEquals(3, hours.size());
+        assertBucket(hours.get(0), "A-", hour, 4, 4, 4, 4, 1);
+        assertBucket(hours.get(1), "O+", hour.minusHours(1), 7, 7, 7, 7, 1);
+        // Units are the level at the end of the hour
+        assertBucket(hours.get(2), "O+", hour, 20, 10, 30, 20, 3);
+        assertEquals(List.of(cutoff, cutoff.plusMinutes(59)),
+                rows(InventoryLevelSample.RAW).stream().map(InventoryLevelSample::getSampledAt).toList());
+    }
+
+    @Test
+    void hourlyBucketsBeforeTheCutoffAreFoldedIntoDaysWeightedBySampleCount() {
+        LocalDateTime cutoff = hourlyCutoff();
+        LocalDateTime day = cutoff.minusDays(1);
+        bucket(InventoryLevelSample.HOUR, day, 11, 8, 12, 10, 4);
+        bucket(InventoryLevelSample.HOUR, day.plusHours(23), 20, 20, 20, 20, 1);
+        bucket(InventoryLevelSample.HOUR, cutoff, 5, 5, 5, 5, 1);
+
+        service.downsample();
+        assumeTrue(cutoff.equals(hourlyCutoff()), "the day changed while downsampling");
+
+        List<InventoryLevelSample> days = rows(InventoryLevelSample.DAY);
+        assertEquals(1, days.size());
+        assertBucket(days.get(0), "O+", day, 20, 8, 20, 12, 5);
+        assertEquals(List.of(cutoff),
+                rows(InventoryLevelSample.HOUR).stream().map(InventoryLevelSample::getSampledAt).toList());
+    }
+
+    @Test
+    void retentionDeletesEachResolutionAtItsOwnCutoff() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime rawCutoff = rawCutoff();
+        LocalDateTime hourlyCutoff = hourlyCutoff();
+        raw("O+", rawCutoff.minusHours(3), 1);
+        raw("O+", now.minusHours(1), 2);
+        bucket(InventoryLevelSample.HOUR, hourlyCutoff.minusDays(3), 3, 3, 3, 3, 1);
+        bucket(InventoryLevelSample.HOUR, now.minusDays(10).truncatedTo(ChronoUnit.HOURS), 4, 4, 4, 4, 1);
+        bucket(InventoryLevelSample.DAY, now.minusDays(DAILY_RETENTION_DAYS + 1).truncatedTo(ChronoUnit.DAYS),
+                5, 5, 5, 5, 1);
+        bucket(InventoryLevelSample.DAY, now.minusDays(DAILY_RETENTION_DAYS - 1).truncatedTo(ChronoUnit.DAYS),
+                6, 6, 6, 6, 1);
+
+        service.downsample();
+        assumeTrue(rawCutoff.equals(rawCutoff()) && hourlyCutoff.equals(hourlyCutoff()),
+                "the hour changed while downsampling");
+
+        // Raw and hourly rows past their cutoff live on in the next resolution; daily ones expire
+        assertEquals(List.of(2), rows(InventoryLevelSample.RAW).stream().map(InventoryLevelSample::getUnits).toList());
+        assertEquals(List.of(4, 1), rows(InventoryLevelSample.HOUR).stream().map(InventoryLevelSample::getUnits).toList());
+        assertEquals(List.of(6, 3), rows(InventoryLevelSample.DAY).stream().map(InventoryLevelSample::getUnits).toList());
+    }
+
+    @Test
+    void downsamplingAgainWritesNoSecondBucket() {
+        LocalDateTime cutoff = rawCutoff();
+        raw("O+", cutoff.minusMinutes(30), 10);
+        raw("O+", cutoff.minusMinutes(10), 12);
+
+        service.downsample();
+        service.downsample();
+        assumeTrue(cutoff.equals(rawCutoff()), "the hour changed while downsampling");
+
+        List<InventoryLevelSample> hours = rows(InventoryLevelSample.HOUR);
+        assertEquals(1, hours.size());
+        assertBucket(hours.get(0), "O+", cutoff.minusHours(1), 12, 10, 12, 11, 2);
+    }
+}
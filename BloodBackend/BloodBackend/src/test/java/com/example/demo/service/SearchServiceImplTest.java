@@ -0,0 +1,150 @@
+package com.example.demo.service;
+
+import com.example.demo.search.SearchDocument;
+import com.example.demo.search.SearchField;
+import com.example.demo.search.SearchType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchServiceImplTest {
+
+    private final List<TransactionDefinition> transactions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Records the transactions the pages are loaded in
+     */
+    private final PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            transactions.add(definition);
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    };
+
+    /**
+     * Serves the donors table from a map, a page at a time like the LIMIT query;
+     * the other tables are empty
+     */
+    private static class DonorTable extends JdbcTemplate {
+
+        final Map<Long, String> rows = new ConcurrentSkipListMap<>();
+        volatile Consumer<List<SearchDocument>> afterPageRead = page -> {
+        };
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            if (!sql.contains("FROM donors")) {
+                return List.of();
+            }
+            long after = (Long) args[0];
+            int limit = (Integer) args[1];
+            List<SearchDocument> page = new ArrayList<>();
+            for (Map.Entry<Long, String> row : ((ConcurrentSkipListMap<Long, String>) rows).tailMap(after, false).entrySet()) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(donor(row.getKey(), row.getValue()));
+            }
+            afterPageRead.accept(page);
+            return (List<T>) page;
+        }
+    }
+
+    private static SearchDocument donor(long id, String name) {
+        return SearchDocument.donor(id, name, "donor" + id + "@example.com", "555-000-0000", "Boston", "O+");
+    }
+
+    private final DonorTable table = new DonorTable();
+    private final SearchServiceImpl searchService =
+            new SearchServiceImpl(table, transactionManager, null, new SimpleMeterRegistry());
+
+    private List<Long> indexedDonors() {
+        return searchService.matchingIds(SearchType.DONOR, Set.of(SearchField.LOCATION), "boston", false).orElseThrow()
+                .stream().sorted().toList();
+    }
+
+    @Test
+    void rebuildLoadsFromThePrimary() {
+        table.rows.put(1L, "Ann");
+
+        searchService.rebuild();
+
+        // A page from each of the three tables, none read-only (which would route it to the replica)
+        assertEquals(3, transactions.size());
+        assertTrue(transactions.stream().noneMatch(TransactionDefinition::isReadOnly));
+        assertEquals(List.of(1L), indexedDonors());
+    }
+
+    @Test
+    void rebuildKeepsChangesMadeAfterItsPageWasRead() {
+        table.rows.put(1L, "Ann Old");
+        table.rows.put(2L, "Bob Deleted");
+        table.rows.put(3L, "Cid Kept");
+        // The page has been read; then donor 2 is deleted and donor 1 renamed, and both commit
+        table.afterPageRead = page -> {
+            table.rows.remove(2L);
+            searchService.remove(SearchType.DONOR, 2L);
+            table.rows.put(1L, "Ann New");
+            searchService.index(donor(1L, "Ann New"));
+        };
+
+        searchService.rebuild();
+
+        assertEquals(List.of(1L, 3L), indexedDonors());
+        assertEquals(List.of(1L), searchService.matchingIds(SearchType.DONOR, Set.of(SearchField.NAME), "new", false).orElseThrow());
+        assertEquals(List.of(), searchService.matchingIds(SearchType.DONOR, Set.of(SearchField.NAME), "old", false).orElseThrow());
+    }
+
+    @Test
+    void deletesRacingRepeatedRebuildsAreNeverResurrected() throws Exception {
+        for (long id = 1; id <= 2_000; id++) {
+            table.rows.put(id, "Donor " + id);
+        }
+        searchService.rebuild();
+        CountDownLatch deleted = new CountDownLatch(1);
+        Thread deleter = new Thread(() -> {
+            for (long id = 2; id <= 2_000; id += 2) {
+                // Commit, then the after-commit listener
+                table.rows.remove(id);
+                searchService.remove(SearchType.DONOR, id);
+                Thread.yield();
+            }
+            deleted.countDown();
+        });
+        deleter.start();
+        do {
+            searchService.rebuild();
+        } while (deleted.getCount() > 0);
+        assertTrue(deleted.await(10, TimeUnit.SECONDS));
+
+        assertEquals(List.copyOf(table.rows.keySet()), indexedDonors());
+    }
+}
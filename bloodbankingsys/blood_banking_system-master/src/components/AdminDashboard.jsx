@@ -7,6 +7,7 @@ import BloodStockManagement from "./BloodStockManagement";
 import NotificationsSystem from "./NotificationsSystem";
 import ReportsSection from "./ReportsSection";
 import DataManagement from "./DataManagement";
+import { authFetch } from "../utils/authFetch";
 import "./AdminDashboard.css";
 
 const AdminDashboard = () => {
@@ -186,7 +187,7 @@ const AdminDashboard = () => {
         throw new Error("Authentication token not found. Please log in again.");
       }
       
-      const response = await fetch("http://localhost:8081/api/appointments", {
+      const response = await authFetch("http://localhost:8081/api/appointments", {
         headers: {
           "Authorization": `Bearer ${token}`
         }
@@ -209,7 +210,7 @@ const AdminDashboard = () => {
       
       console.log("Fetching donors with token:", token.substring(0, 20) + "...");
       
-      const response = await fetch("http://localhost:8081/api/donors", {
+      const response = await authFetch("http://localhost:8081/api/donors", {
         method: "GET",
         headers: {
           "Authorization": `Bearer ${token}`,
@@ -244,7 +245,7 @@ const AdminDashboard = () => {
         throw new Error("Authentication token not found. Please log in again.");
       }
       
-      const response = await fetch("http://localhost:8081/api/blood-requests", {
+      const response = await authFetch("http://localhost:8081/api/blood-requests", {
         headers: {
           "Authorization": `Bearer ${token}`
         }
@@ -337,7 +338,7 @@ const AdminDashboard = () => {
   const deleteNotification = async (id) => {
     try {
       setLoading(true);
-      const response = await fetch(`http://localhost:8081/api/notifications/${id}`, {
+      const response = await authFetch(`http://localhost:8081/api/notifications/${id}`, {
         method: "DELETE"
       });
       
@@ -357,7 +358,7 @@ const AdminDashboard = () => {
   
   const approveDonation = async (id) => {
     try {
-      const response = await fetch(
+      const response = await authFetch(
         `http://localhost:8081/api/blood-donations/${id}/approve`,
         {
           method: "PUT",
@@ -387,7 +388,7 @@ const AdminDashboard = () => {
   
   const rejectDonation = async (id, reason) => {
     try {
-      const response = await fetch(
+      const response = await authFetch(
         `http://localhost:8081/api/blood-donations/${id}/reject`,
         {
           method: "PUT",
@@ -417,7 +418,7 @@ const AdminDashboard = () => {
   
   const approveRequest = async (id) => {
     try {
-      const response = await fetch(
+      const response = await authFetch(
         `http://localhost:8081/api/blood-requests/${id}/approve`,
         {
           method: "PUT",
@@ -447,7 +448,7 @@ const AdminDashboard = () => {
   
   const rejectRequest = async (id, reason) => {
     try {
-      const response = await fetch(
+      const response = await authFetch(
         `http://localhost:8081/api/blood-requests/${id}/reject`,
         {
           method: "PUT",
@@ -503,7 +504,7 @@ const AdminDashboard = () => {
         };
       }
       
-      const response = await fetch(
+      const response = await authFetch(
         `http://localhost:8081/api/notifications`,
         {
           method: "POST",
@@ -530,7 +531,7 @@ const AdminDashboard = () => {
   
   const updateAppointmentStatus = async (id, status) => {
     try {
-      const response = await fetch(
+      const response = await authFetch(
         `http://localhost:8081/api/appointments/${id}/status?status=${status}`,
         {
           method: "PUT",
@@ -553,7 +554,7 @@ const AdminDashboard = () => {
 
   const updateRequestStatus = async (id, status) => {
     try {
-      const response = await fetch(
+      const response = await authFetch(
         `http://localhost:8081/api/blood-requests/${id}/status?status=${status}`,
         {
           method: "PUT",
@@ -1,5 +1,6 @@
 import { useState, useEffect, useContext } from 'react';
 import { AuthContext } from './AuthContext';
+import { authFetch } from '../utils/authFetch';
 import './AppointmentManagement.css';
 
 function AppointmentManagement() {
@@ -30,7 +31,7 @@ function AppointmentManagement() {
   const fetchAppointments = async () => {
     try {
       setLoading(true);
-      const response = await fetch('http://localhost:8081/api/donation-appointments', {
+      const response = await authFetch('http://localhost:8081/api/donation-appointments', {
         headers: {
           'Authorization': `Bearer ${token}`
         }
@@ -53,7 +54,7 @@ function AppointmentManagement() {
 
   const fetchDonors = async () => {
     try {
-      const response = await fetch('http://localhost:8081/api/donors', {
+      const response = await authFetch('http://localhost:8081/api/donors', {
         headers: {
           'Authorization': `Bearer ${token}`
         }
@@ -98,7 +99,7 @@ function AppointmentManagement() {
       
       const method = editMode ? 'PUT' : 'POST';
       
-      const response = await fetch(url, {
+      const response = await authFetch(url, {
         method,
         headers: {
           'Content-Type': 'application/json',
@@ -153,7 +154,7 @@ function AppointmentManagement() {
     }
     
     try {
-      const response = await fetch(`http://localhost:8081/api/donation-appointments/${id}`, {
+      const response = await authFetch(`http://localhost:8081/api/donation-appointments/${id}`, {
         method: 'DELETE',
         headers: {
           'Authorization': `Bearer ${token}`
@@ -175,7 +176,7 @@ function AppointmentManagement() {
 
   const updateAppointmentStatus = async (id, newStatus) => {
     try {
-      const response = await fetch(`http://localhost:8081/api/donation-appointments/${id}/status`, {
+      const response = await authFetch(`http://localhost:8081/api/donation-appointments/${id}/status`, {
         method: 'PUT',
         headers: {
           'Content-Type': 'application/json',
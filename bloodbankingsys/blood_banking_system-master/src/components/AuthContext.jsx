@@ -1,4 +1,5 @@
 import React, { createContext, useState, useEffect } from "react";
+import { onSessionChange, renewAccessToken } from "../utils/authFetch";
 
 export const AuthContext = createContext();
 
@@ -32,7 +33,7 @@ export const AuthProvider = ({ children }) => {
 
   // Check if user is already logged in from localStorage
   useEffect(() => {
-    const checkLoginStatus = () => {
+    const checkLoginStatus = async () => {
       const storedToken = localStorage.getItem('token');
       
       if (storedToken) {
@@ -50,9 +51,10 @@ export const AuthProvider = ({ children }) => {
           const email = decodedToken.sub; // 'sub' is the subject claim, typically the username/email
           
           setUser({ id: userId, name, email, role });
-        } else {
-          // Token is expired, clear storage
+        } else if (!(await renewWithRefreshToken().catch(() => false))) {
+          // Token is expired and cannot be renewed, clear storage
           localStorage.removeItem('token');
+          localStorage.removeItem('refreshToken');
           localStorage.removeItem('userId');
           localStorage.removeItem('userName');
           localStorage.removeItem('userRole');
@@ -65,12 +67,61 @@ export const AuthProvider = ({ children }) => {
     checkLoginStatus();
   }, []);
 
+  // Exchange the stored refresh token for a new access token (and a new refresh token),
+  // through authFetch so that concurrent renewals in this and other tabs share one call
+  const renewWithRefreshToken = async () => {
+    const renewedToken = await renewAccessToken(localStorage.getItem('token'));
+    if (!renewedToken) {
+      return false;
+    }
+    
+    const decodedToken = parseJwt(renewedToken);
+    return setAuthData({
+      token: renewedToken,
+      userId: user?.id || localStorage.getItem('userId'),
+      name: user?.name || localStorage.getItem('userName'),
+      email: user?.email || decodedToken?.sub,
+      role: user?.role || localStorage.getItem('userRole')
+    });
+  };
+
+  // Follow renewals made by authFetch, and log out when the refresh token stops working
+  useEffect(() => {
+    return onSessionChange((renewedToken) => {
+      if (renewedToken) {
+        setToken(renewedToken);
+      } else {
+        setLoggedIn(false);
+        setUser(null);
+        setToken(null);
+        localStorage.removeItem('userId');
+        localStorage.removeItem('userName');
+        localStorage.removeItem('userRole');
+      }
+    });
+  }, []);
+
   // Logout function to clear auth state
   const logout = () => {
+    // Revoke the tokens on the server; the local state is cleared either way
+    const storedToken = localStorage.getItem('token');
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (storedToken || refreshToken) {
+      fetch("http://localhost:8081/api/auth/logout", {
+        method: "POST",
+        headers: {
+          "Content-Type": "application/json",
+          ...(storedToken ? { "Authorization": `Bearer ${storedToken.trim()}` } : {})
+        },
+        body: JSON.stringify({ refreshToken })
+      }).catch(err => console.error("Logout request failed:", err));
+    }
+    
     setLoggedIn(false);
     setUser(null);
     setToken(null);
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('userId');
     localStorage.removeItem('userName');
     localStorage.removeItem('userRole');
@@ -104,35 +155,13 @@ export const AuthProvider = ({ children }) => {
         
         try {
           // Call refresh token endpoint
-          const response = await fetch("http://localhost:8081/api/auth/refresh", {
-            method: "POST",
-            headers: {
-              "Content-Type": "application/json",
-              "Authorization": `Bearer ${storedToken.trim()}`
-            }
-          });
-          
-          if (response.ok) {
-            const data = await response.json();
-            if (data.token) {
-              // Update token
-              setAuthData({
-                token: data.token,
-                userId: user?.id || localStorage.getItem('userId'),
-                name: user?.name || localStorage.getItem('userName'),
-                role: user?.role || localStorage.getItem('userRole')
-              });
-              console.log("Token refreshed successfully");
-              return true;
-            }
-          } else {
-            console.error("Failed to refresh token:", response.status);
-            if (response.status === 401) {
-              // Token is completely invalid, log out
-              logout();
-            }
-            return false;
+          if (await renewWithRefreshToken()) {
+            console.log("Token refreshed successfully");
+            return true;
           }
+          // The refresh token is missing, expired or revoked, log out
+          logout();
+          return false;
         } catch (error) {
           console.error("Error refreshing token:", error);
           return false;
@@ -185,6 +214,9 @@ export const AuthProvider = ({ children }) => {
       
       // Store the token and user data in localStorage
       localStorage.setItem('token', cleanToken);
+      if (authData.refreshToken) {
+        localStorage.setItem('refreshToken', authData.refreshToken);
+      }
       localStorage.setItem('userId', authData.userId);
       localStorage.setItem('userName', authData.name);
       localStorage.setItem('userRole', authData.role);
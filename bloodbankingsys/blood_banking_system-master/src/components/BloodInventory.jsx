@@ -1,6 +1,7 @@
 import { useState, useEffect, useContext } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { AuthContext } from './AuthContext';
+import { authFetch } from '../utils/authFetch';
 import './BloodInventory.css';
 
 function BloodInventory() {
@@ -38,7 +39,7 @@ function BloodInventory() {
   const fetchInventory = async () => {
     try {
       setLoading(true);
-      const response = await fetch('http://localhost:8081/api/blood-inventory', {
+      const response = await authFetch('http://localhost:8081/api/blood-inventory', {
         headers: {
           'Authorization': `Bearer ${token}`
         }
@@ -97,7 +98,7 @@ function BloodInventory() {
   
   const fetchSummary = async () => {
     try {
-      const response = await fetch('http://localhost:8081/api/blood-inventory/summary', {
+      const response = await authFetch('http://localhost:8081/api/blood-inventory/summary', {
         headers: {
           'Authorization': `Bearer ${token}`
         }
@@ -160,7 +161,7 @@ function BloodInventory() {
       
       const method = editMode ? 'PUT' : 'POST';
       
-      const response = await fetch(url, {
+      const response = await authFetch(url, {
         method,
         headers: {
           'Content-Type': 'application/json',
@@ -210,7 +211,7 @@ function BloodInventory() {
     }
     
     try {
-      const response = await fetch(`http://localhost:8081/api/blood-inventory/${id}`, {
+      const response = await authFetch(`http://localhost:8081/api/blood-inventory/${id}`, {
         method: 'DELETE',
         headers: {
           'Authorization': `Bearer ${token}`
@@ -1,6 +1,7 @@
 import React, { useState } from 'react';
 import { Card, Row, Col, Button, Table, Tabs, Tab, Alert, Spinner, Form, Modal, Badge } from 'react-bootstrap';
 import { API_BASE_URL } from '../utils/api';
+import { authFetch } from '../utils/authFetch';
 import './DataManagement.css';
 
 const DataManagement = () => {
@@ -29,7 +30,7 @@ const DataManagement = () => {
         throw new Error("Authentication token not found");
       }
       
-      const response = await fetch(`${API_BASE_URL}/stats`, {
+      const response = await authFetch(`${API_BASE_URL}/stats`, {
         headers: {
           "Authorization": `Bearer ${token}`
         }
@@ -61,7 +62,7 @@ const DataManagement = () => {
         throw new Error("Authentication token not found");
       }
       
-      const response = await fetch(`${API_BASE_URL}/data/generate-sample?donors=${generationParams.donors}&donations=${generationParams.donations}&hospitals=${generationParams.hospitals}`, {
+      const response = await authFetch(`${API_BASE_URL}/data/generate-sample?donors=${generationParams.donors}&donations=${generationParams.donations}&hospitals=${generationParams.hospitals}`, {
         method: 'POST',
         headers: {
           "Authorization": `Bearer ${token}`
@@ -107,7 +108,7 @@ const DataManagement = () => {
       const formData = new FormData();
       formData.append('file', importFile);
       
-      const response = await fetch(`${API_BASE_URL}/data/import/${importType}`, {
+      const response = await authFetch(`${API_BASE_URL}/data/import/${importType}`, {
         method: 'POST',
         headers: {
           "Authorization": `Bearer ${token}`
@@ -145,7 +146,7 @@ const DataManagement = () => {
         throw new Error("Authentication token not found");
       }
       
-      const response = await fetch(`${API_BASE_URL}/data/export/${type}`, {
+      const response = await authFetch(`${API_BASE_URL}/data/export/${type}`, {
         headers: {
           "Authorization": `Bearer ${token}`
         }
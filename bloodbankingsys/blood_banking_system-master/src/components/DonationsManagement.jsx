@@ -53,25 +53,16 @@ const DonationsManagement = ({
     if (!searchTerm) return donations;
     
     return donations.filter(donation => 
-      donation.donor?.name?.toLowerCase().includes(searchTerm.toLowerCase()) ||
-      donation.donor?.email?.toLowerCase().includes(searchTerm.toLowerCase()) ||
+      donation.donorName?.toLowerCase().includes(searchTerm.toLowerCase()) ||
+      donation.donorEmail?.toLowerCase().includes(searchTerm.toLowerCase()) ||
       donation.bloodGroup?.toLowerCase().includes(searchTerm.toLowerCase())
     );
   };
 
   const sortDonations = (donations) => {
     return [...donations].sort((a, b) => {
-      let valA = sortField === "createdAt" ? new Date(a[sortField]) : a[sortField];
-      let valB = sortField === "createdAt" ? new Date(b[sortField]) : b[sortField];
-      
-      // Handle nested donor properties
-      if (sortField === "donor.name") {
-        valA = a.donor?.name;
-        valB = b.donor?.name;
-      } else if (sortField === "donor.email") {
-        valA = a.donor?.email;
-        valB = b.donor?.email;
-      }
+      const valA = sortField === "createdAt" ? new Date(a[sortField]) : a[sortField];
+      const valB = sortField === "createdAt" ? new Date(b[sortField]) : b[sortField];
       
       // Handle null/undefined values
       if (valA === undefined || valA === null) return 1;
@@ -133,7 +124,7 @@ const DonationsManagement = ({
             className={`donation-card ${activeTab === "pending" ? "pending" : activeTab === "approved" ? "approved" : "rejected"}`}
           >
             <div className="donation-header">
-              <h3>{donation.donor?.name || "Unknown Donor"}</h3>
+              <h3>{donation.donorName || "Unknown Donor"}</h3>
               <span className={`donation-status ${activeTab}`}>
                 {activeTab.toUpperCase()}
               </span>
@@ -159,12 +150,12 @@ const DonationsManagement = ({
               
               <div className="detail-group">
                 <span className="detail-label">Email:</span>
-                <span className="detail-value">{donation.donor?.email}</span>
+                <span className="detail-value">{donation.donorEmail}</span>
               </div>
               
               <div className="detail-group">
                 <span className="detail-label">Phone:</span>
-                <span className="detail-value">{donation.donor?.phone || "N/A"}</span>
+                <span className="detail-value">{donation.donorPhone || "N/A"}</span>
               </div>
               
               {donation.rejectionReason && (
@@ -287,8 +278,8 @@ const DonationsManagement = ({
           >
             <option value="createdAt-desc">Date (Newest First)</option>
             <option value="createdAt-asc">Date (Oldest First)</option>
-            <option value="donor.name-asc">Donor Name (A-Z)</option>
-            <option value="donor.name-desc">Donor Name (Z-A)</option>
+            <option value="donorName-asc">Donor Name (A-Z)</option>
+            <option value="donorName-desc">Donor Name (Z-A)</option>
             <option value="bloodGroup-asc">Blood Group (A-Z)</option>
             <option value="bloodGroup-desc">Blood Group (Z-A)</option>
           </select>
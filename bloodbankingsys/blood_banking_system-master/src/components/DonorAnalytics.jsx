@@ -2,6 +2,7 @@ import React, { useState, useEffect, useContext } from 'react';
 import { AuthContext } from './AuthContext';
 import { Chart as ChartJS, ArcElement, Tooltip, Legend, CategoryScale, LinearScale, BarElement, Title } from 'chart.js';
 import { Pie, Bar } from 'react-chartjs-2';
+import { authFetch } from '../utils/authFetch';
 import './DonorAnalytics.css';
 
 // Register Chart.js components
@@ -24,7 +25,7 @@ function DonorAnalytics() {
   const fetchDonors = async () => {
     try {
       setLoading(true);
-      const response = await fetch('http://localhost:8081/api/donors', {
+      const response = await authFetch('http://localhost:8081/api/donors', {
         headers: {
           'Authorization': `Bearer ${token}`
         }
@@ -47,7 +48,7 @@ function DonorAnalytics() {
 
   const fetchDonations = async () => {
     try {
-      const response = await fetch('http://localhost:8081/api/blood-donations', {
+      const response = await authFetch('http://localhost:8081/api/blood-donations', {
         headers: {
           'Authorization': `Bearer ${token}`
         }
@@ -1,5 +1,6 @@
 import React, { useState, useEffect, useContext } from 'react';
 import { AuthContext } from './AuthContext';
+import { authFetch } from '../utils/authFetch';
 import './EmergencyNotification.css';
 
 function EmergencyNotification() {
@@ -28,7 +29,7 @@ function EmergencyNotification() {
   const fetchNotifications = async () => {
     try {
       setLoading(true);
-      const response = await fetch('http://localhost:8081/api/emergency-notifications/active', {
+      const response = await authFetch('http://localhost:8081/api/emergency-notifications/active', {
         method: 'GET',
         headers: {
           'Content-Type': 'application/json',
@@ -101,7 +102,7 @@ function EmergencyNotification() {
         status: "ACTIVE"
       };
       
-      const response = await fetch('http://localhost:8081/api/emergency-notifications', {
+      const response = await authFetch('http://localhost:8081/api/emergency-notifications', {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
@@ -1,6 +1,7 @@
 import React, { useState, useEffect, useContext } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { AuthContext } from './AuthContext';
+import { authFetch } from '../utils/authFetch';
 import './HospitalIntegration.css';
 
 function HospitalIntegration() {
@@ -41,7 +42,7 @@ function HospitalIntegration() {
   const fetchHospitals = async () => {
     try {
       setLoading(true);
-      const response = await fetch('http://localhost:8081/api/hospitals', {
+      const response = await authFetch('http://localhost:8081/api/hospitals', {
         method: 'GET',
         headers: {
           'Content-Type': 'application/json',
@@ -102,7 +103,7 @@ function HospitalIntegration() {
   const fetchRequests = async () => {
     try {
       setLoading(true);
-      const response = await fetch('http://localhost:8081/api/blood-requests', {
+      const response = await authFetch('http://localhost:8081/api/blood-requests', {
         method: 'GET',
         headers: {
           'Content-Type': 'application/json',
@@ -192,7 +193,7 @@ function HospitalIntegration() {
     e.preventDefault();
     
     try {
-      const response = await fetch('http://localhost:8081/api/hospitals', {
+      const response = await authFetch('http://localhost:8081/api/hospitals', {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
@@ -256,7 +257,7 @@ function HospitalIntegration() {
         requiredBy: requestForm.requiredBy ? new Date(requestForm.requiredBy).toISOString() : null,
       };
       
-      const response = await fetch(`http://localhost:8081/api/blood-requests/hospital/${hospitalId}`, {
+      const response = await authFetch(`http://localhost:8081/api/blood-requests/hospital/${hospitalId}`, {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
@@ -294,7 +295,7 @@ function HospitalIntegration() {
 
   const updateRequestStatus = async (id, status) => {
     try {
-      const response = await fetch(`http://localhost:8081/api/blood-requests/${id}/status?status=${status}`, {
+      const response = await authFetch(`http://localhost:8081/api/blood-requests/${id}/status?status=${status}`, {
         method: 'PUT',
         headers: {
           'Content-Type': 'application/json',
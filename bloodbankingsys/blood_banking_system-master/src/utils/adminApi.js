@@ -3,6 +3,7 @@
  */
 
 import { API_BASE_URL, getHeaders } from './api';
+import { authFetch } from './authFetch';
 
 /**
  * Makes an authenticated API request to the backend with proper credentials
@@ -29,7 +30,7 @@ export async function adminApiRequest(endpoint, options = {}) {
   };
 
   // Apply consistent options
-  const response = await fetch(`${API_BASE_URL}${endpoint}`, {
+  const response = await authFetch(`${API_BASE_URL}${endpoint}`, {
     ...options,
     headers: mergedHeaders,
     mode: 'cors',
@@ -1,4 +1,5 @@
 import { API_BASE_URL } from './api';
+import { authFetch } from './authFetch';
 
 /**
  * Gets the authentication token from localStorage
@@ -61,7 +62,7 @@ export const adminApiRequest = async (endpoint, method = 'GET', body = null) =>
     options.signal = controller.signal;
     
     try {
-      const response = await fetch(`${API_BASE_URL}${endpoint}`, options);
+      const response = await authFetch(`${API_BASE_URL}${endpoint}`, options);
       clearTimeout(timeoutId);
       
       console.log(`ADMIN API Response for ${endpoint}: Status ${response.status}`);
@@ -2,6 +2,8 @@
  * API utility functions for making authenticated requests
  */
 
+import { authFetch } from './authFetch';
+
 // Base URL for the backend API
 export const API_BASE_URL = 'http://localhost:8081/api';
 
@@ -136,18 +138,6 @@ export const getHeaders = (includeContent = true) => {
 export const apiGet = async (endpoint) => {
   console.log(`Making GET request to: ${API_BASE_URL}${endpoint}`);
   
-  // Try to refresh token if it's about to expire
-  try {
-    const AuthContext = await import('../components/AuthContext').then(module => module.AuthContext);
-    const { refreshTokenIfNeeded } = AuthContext._currentValue;
-    
-    if (refreshTokenIfNeeded) {
-      await refreshTokenIfNeeded();
-    }
-  } catch (refreshError) {
-    console.warn("Could not refresh token:", refreshError);
-  }
-  
   try {
     // Get token directly each time to ensure fresh token
     const token = localStorage.getItem('token');
@@ -187,9 +177,8 @@ export const apiGet = async (endpoint) => {
           console.log(`Token expiration: ${expTime.toLocaleString()}, Current time: ${now.toLocaleString()}`);
           
           if (expTime < now) {
-            console.error("TOKEN EXPIRED!");
-            localStorage.removeItem('token');
-            throw new Error('Authentication failed: Token expired, please log in again');
+            // authFetch renews it when the API rejects it
+            console.warn("Token expired, it will be refreshed");
           }
         }
       } else {
@@ -210,7 +199,7 @@ export const apiGet = async (endpoint) => {
     console.log(`Token length: ${cleanToken.length} characters`);
     
     // Make request with explicit options
-    const response = await fetch(`${API_BASE_URL}${endpoint}`, {
+    const response = await authFetch(`${API_BASE_URL}${endpoint}`, {
       method: 'GET',
       headers: headers,
       mode: 'cors',
@@ -221,6 +210,7 @@ export const apiGet = async (endpoint) => {
     console.log(`API Response for ${endpoint}: Status ${response.status}`);
     
     if (response.status === 401) {
+      // authFetch already tried to renew the token, so the session has ended
       console.error('Authentication failed: 401 Unauthorized');
       // Try to get error response body for more details
       try {
@@ -235,9 +225,6 @@ export const apiGet = async (endpoint) => {
         console.error('This endpoint requires ADMIN privileges');
       }
       
-      // Clear invalid token
-      localStorage.removeItem('token');
-      
       // Throw specific auth error
       throw new Error('Authentication failed: Please log in again');
     }
@@ -290,7 +277,7 @@ export const apiPost = async (endpoint, data) => {
     console.log(`Request headers for ${endpoint}: Authorization: Bearer ${cleanToken.substring(0, Math.min(10, cleanToken.length))}...`);
     
     // Make request with explicit options
-    const response = await fetch(`${API_BASE_URL}${endpoint}`, {
+    const response = await authFetch(`${API_BASE_URL}${endpoint}`, {
       method: 'POST',
       headers: headers,
       body: JSON.stringify(data),
@@ -354,7 +341,7 @@ export const apiPut = async (endpoint, data) => {
     console.log(`Request headers for ${endpoint}: Authorization: Bearer ${cleanToken.substring(0, Math.min(10, cleanToken.length))}...`);
     
     // Make request with explicit options
-    const response = await fetch(`${API_BASE_URL}${endpoint}`, {
+    const response = await authFetch(`${API_BASE_URL}${endpoint}`, {
       method: 'PUT',
       headers: headers,
       body: JSON.stringify(data),
@@ -417,7 +404,7 @@ export const apiDelete = async (endpoint) => {
     console.log(`Request headers for ${endpoint}: Authorization: Bearer ${cleanToken.substring(0, Math.min(10, cleanToken.length))}...`);
     
     // Make request with explicit options
-    const response = await fetch(`${API_BASE_URL}${endpoint}`, {
+    const response = await authFetch(`${API_BASE_URL}${endpoint}`, {
       method: 'DELETE',
       headers: headers,
       mode: 'cors',
@@ -478,7 +465,7 @@ export const apiUpload = async (endpoint, formData) => {
     console.log(`Request headers for ${endpoint}: Authorization: Bearer ${cleanToken.substring(0, Math.min(10, cleanToken.length))}...`);
     
     // Make request with explicit options
-    const response = await fetch(`${API_BASE_URL}${endpoint}`, {
+    const response = await authFetch(`${API_BASE_URL}${endpoint}`, {
       method: 'POST',
       headers: headers,
       body: formData,
@@ -0,0 +1,134 @@
+/**
+ * Fetch wrapper for API calls that renews an expired access token and retries once
+ *
+ * Access tokens last 15 minutes. When the API answers 401 to a request that carried
+ * a token, authFetch exchanges the refresh token at /auth/refresh and repeats the
+ * request with the new access token. Renewal is single-flight: concurrent 401s in a
+ * tab share one refresh call, and tabs take turns through the Web Locks API, so a
+ * refresh token is not sent twice (the server treats a second use as a stolen token).
+ */
+import { API_BASE_URL } from './api';
+
+const REFRESH_LOCK = 'bloodbank-token-refresh';
+
+let pendingRenewal = null;
+const sessionListeners = new Set();
+
+/**
+ * Register a listener for token renewals and for the end of the session
+ * @param {function} listener - Called with the new access token, or null when the session has ended
+ * @returns {function} Function that removes the listener
+ */
+export const onSessionChange = (listener) => {
+  sessionListeners.add(listener);
+  return () => sessionListeners.delete(listener);
+};
+
+const notifySessionChange = (token) => {
+  sessionListeners.forEach(listener => listener(token));
+};
+
+const endSession = () => {
+  localStorage.removeItem('token');
+  localStorage.removeItem('refreshToken');
+  notifySessionChange(null);
+};
+
+// Only one tab at a time may use the refresh token; without Web Locks, fall back to per tab
+const withRefreshLock = (task) => {
+  return navigator.locks ? navigator.locks.request(REFRESH_LOCK, task) : task();
+};
+
+/**
+ * Get an access token to replace one that expired or that the API rejected
+ * @param {string|null} rejectedToken - The access token to replace
+ * @returns {Promise<string|null>} The new access token, or null if the session has ended
+ */
+export const renewAccessToken = (rejectedToken) => {
+  if (!pendingRenewal) {
+    pendingRenewal = withRefreshLock(async () => {
+      // Another tab may have renewed while this one waited for the lock
+      const currentToken = localStorage.getItem('token');
+      if (currentToken && currentToken !== rejectedToken) {
+        return currentToken;
+      }
+
+      const refreshToken = localStorage.getItem('refreshToken');
+      if (!refreshToken) {
+        return null;
+      }
+
+      const response = await fetch(`${API_BASE_URL}/auth/refresh`, {
+        method: 'POST',
+        headers: {
+          'Content-Type': 'application/json'
+        },
+        body: JSON.stringify({ refreshToken })
+      });
+
+      if (response.status === 401) {
+        // The refresh token is expired, used or revoked
+        endSession();
+        return null;
+      }
+      if (!response.ok) {
+        throw new Error(`Failed to refresh token: ${response.status}`);
+      }
+
+      const data = await response.json();
+      localStorage.setItem('token', data.token);
+      localStorage.setItem('refreshToken', data.refreshToken);
+      notifySessionChange(data.token);
+      return data.token;
+    }).finally(() => {
+      pendingRenewal = null;
+    });
+  }
+  return pendingRenewal;
+};
+
+const bearerToken = (headers) => {
+  const authorization = headers instanceof Headers
+    ? headers.get('Authorization')
+    : headers?.Authorization ?? headers?.authorization;
+  if (!authorization || !/^bearer /i.test(authorization)) {
+    return null;
+  }
+  return authorization.substring(7).trim();
+};
+
+const withBearerToken = (headers, token) => {
+  if (headers instanceof Headers) {
+    const renewed = new Headers(headers);
+    renewed.set('Authorization', `Bearer ${token}`);
+    return renewed;
+  }
+  const renewed = { ...headers, Authorization: `Bearer ${token}` };
+  delete renewed.authorization;
+  return renewed;
+};
+
+/**
+ * Drop-in replacement for fetch for requests to the API
+ * @param {string} url - Request URL
+ * @param {object} options - Fetch options; the Authorization header is replaced on retry
+ * @returns {Promise<Response>} The response, after at most one token renewal
+ */
+export const authFetch = async (url, options = {}) => {
+  const response = await fetch(url, options);
+  const sentToken = bearerToken(options.headers);
+  if (response.status !== 401 || !sentToken) {
+    return response;
+  }
+
+  let renewedToken = null;
+  try {
+    renewedToken = await renewAccessToken(sentToken);
+  } catch (error) {
+    console.error("Could not refresh token:", error);
+  }
+  if (!renewedToken) {
+    return response;
+  }
+  return fetch(url, { ...options, headers: withBearerToken(options.headers, renewedToken) });
+};